@@ -0,0 +1,123 @@
+package com.example.chessfrontend;
+
+import com.example.chessfrontend.modulus.GameUser;
+import com.example.chessfrontend.servercommunication.GamePlayServant;
+import com.example.chessfrontend.servercommunication.PushChannel;
+
+/**
+ * The state of the session of a user: the user, its current game, and the servant and push channel the server
+ * reaches it through. A process can host many sessions, such as the players of a load test or bots,
+ * each with its own session, while the pages of the desktop client share the desktop session.
+ * <p>
+ * The fields are read by the threads of the servant and the push channel, so they are volatile.
+ */
+public class GameSession {
+
+    // the session of the user of the desktop client
+    private static final GameSession DESKTOP_SESSION = new GameSession();
+
+    private volatile GameUser gameUser;
+    private volatile int currentGameID;
+    private volatile boolean spectating;
+    private volatile GamePlayServant gamePlayServant;
+    private volatile PushChannel pushChannel;
+
+    /**
+     * Gets the session of the user of the desktop client, shared by its pages.
+     *
+     * @return The desktop session.
+     */
+    public static GameSession getDesktopSession() {
+        return DESKTOP_SESSION;
+    }
+
+    /**
+     * Retrieves the game user.
+     *
+     * @return the game user of the session
+     */
+    public GameUser getGameUser() {
+        return gameUser;
+    }
+
+    /**
+     * Sets the game user.
+     *
+     * @param gameUser the game user to be set
+     */
+    public void setGameUser(GameUser gameUser) {
+        this.gameUser = gameUser;
+    }
+
+    /**
+     * Retrieves the current game ID.
+     *
+     * @return the ID of the current game
+     */
+    public int getCurrentGameID() {
+        return currentGameID;
+    }
+
+    /**
+     * Sets the current game ID.
+     *
+     * @param currentGameID the ID of the current game
+     */
+    public void setCurrentGameID(int currentGameID) {
+        this.currentGameID = currentGameID;
+    }
+
+    /**
+     * Checks if the user watches the current game rather than plays it.
+     *
+     * @return true if the user is a spectator of the current game
+     */
+    public boolean isSpectating() {
+        return spectating;
+    }
+
+    /**
+     * Sets whether the user watches the current game rather than plays it.
+     *
+     * @param spectating true if the user is a spectator of the current game
+     */
+    public void setSpectating(boolean spectating) {
+        this.spectating = spectating;
+    }
+
+    /**
+     * Retrieves the GamePlayServant of the session.
+     *
+     * @return The GamePlayServant, or null if it was not set up yet
+     */
+    public GamePlayServant getGamePlayServant() {
+        return gamePlayServant;
+    }
+
+    /**
+     * Sets the GamePlayServant of the session.
+     *
+     * @param gamePlayServant The GamePlayServant to set
+     */
+    public void setGamePlayServant(GamePlayServant gamePlayServant) {
+        this.gamePlayServant = gamePlayServant;
+    }
+
+    /**
+     * Retrieves the push channel to the server.
+     *
+     * @return The push channel, or null if the session uses the RMI callbacks
+     */
+    public PushChannel getPushChannel() {
+        return pushChannel;
+    }
+
+    /**
+     * Sets the push channel to the server.
+     *
+     * @param pushChannel The push channel to set
+     */
+    public void setPushChannel(PushChannel pushChannel) {
+        this.pushChannel = pushChannel;
+    }
+}
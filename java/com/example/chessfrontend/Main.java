@@ -1,5 +1,6 @@
 package com.example.chessfrontend;
 
+import com.example.chessfrontend.servercommunication.RequestMetrics;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
@@ -12,11 +13,19 @@ public class Main extends Application {
     public void start(Stage stage) throws IOException {
         FXMLLoader fxmlLoader = new FXMLLoader(Main.class.getResource("LoginPage.fxml"));
         Scene scene = new Scene(fxmlLoader.load(), 600, 430);
+        MetricsOverlay.install(scene);
         stage.setTitle("Hello!");
         stage.setScene(scene);
         stage.show();
     }
 
+    @Override
+    public void stop() throws IOException {
+        // dump the request metrics on exit when a metrics file is set
+        if (System.getProperty(RequestMetrics.METRICS_FILE_PROPERTY) != null)
+            MetricsOverlay.dumpMetrics();
+    }
+
     public static void main(String[] args) {
         launch();
     }
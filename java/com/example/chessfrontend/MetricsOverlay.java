@@ -0,0 +1,125 @@
+package com.example.chessfrontend;
+
+import com.example.chessfrontend.servercommunication.RequestMetrics;
+import com.example.chessfrontend.servercommunication.ServerRequestHandler;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.TextArea;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.text.Font;
+import javafx.stage.Stage;
+import javafx.stage.StageStyle;
+import javafx.util.Duration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * A debug overlay that shows the metrics of the requests to the server, toggled with F12 on any page.
+ * The metrics refresh every second while the overlay is shown, and can be dumped to a local file,
+ * set by the system property "chess.metrics.file".
+ */
+public class MetricsOverlay {
+    public static final String DEFAULT_METRICS_FILE = "chess-metrics.txt";
+
+    private static final KeyCode TOGGLE_KEY = KeyCode.F12;
+    private static final String TITLE = "Request metrics";
+    private static final String DUMP_BUTTON_TEXT = "Dump to file";
+    private static final String MONOSPACED_FONT = "Monospaced";
+    private static final double FONT_SIZE = 11;
+    private static final double WIDTH = 1000;
+    private static final double HEIGHT = 320;
+    private static final Duration REFRESH_INTERVAL = Duration.seconds(1);
+
+    private static Stage stage;
+    private static TextArea metricsText;
+    private static Timeline refreshTimeline;
+
+    /**
+     * Lets the overlay be toggled on a scene.
+     *
+     * @param scene The scene of a page.
+     */
+    public static void install(Scene scene) {
+        scene.addEventFilter(KeyEvent.KEY_PRESSED, event -> {
+            if (event.getCode() == TOGGLE_KEY) {
+                toggle();
+                event.consume();
+            }
+        });
+    }
+
+    /**
+     * Shows the overlay if it is hidden, hides it otherwise.
+     */
+    public static void toggle() {
+        if (stage == null)
+            createStage();
+
+        if (stage.isShowing()) {
+            refreshTimeline.stop();
+            stage.hide();
+        } else {
+            refresh();
+            refreshTimeline.play();
+            stage.show();
+        }
+    }
+
+    /**
+     * Writes the metrics to the metrics file.
+     *
+     * @return The file the metrics were written to.
+     * @throws IOException If the file could not be written.
+     */
+    public static Path dumpMetrics() throws IOException {
+        Path file = Path.of(System.getProperty(RequestMetrics.METRICS_FILE_PROPERTY, DEFAULT_METRICS_FILE));
+        ServerRequestHandler.getRequestMetrics().dumpTo(file);
+        return file;
+    }
+
+    /**
+     * Creates the window of the overlay.
+     */
+    private static void createStage() {
+        metricsText = new TextArea();
+        metricsText.setEditable(false);
+        metricsText.setFont(Font.font(MONOSPACED_FONT, FONT_SIZE));
+
+        Button dumpButton = new Button(DUMP_BUTTON_TEXT);
+        dumpButton.setOnAction(event -> {
+            try {
+                dumpButton.setText(DUMP_BUTTON_TEXT + ": " + dumpMetrics().toAbsolutePath());
+            } catch (IOException e) {
+                dumpButton.setText(DUMP_BUTTON_TEXT + ": " + e.getMessage());
+            }
+        });
+
+        BorderPane root = new BorderPane(metricsText);
+        root.setBottom(dumpButton);
+        Scene scene = new Scene(root, WIDTH, HEIGHT);
+        install(scene);
+
+        stage = new Stage(StageStyle.UTILITY);
+        stage.setTitle(TITLE);
+        stage.setAlwaysOnTop(true);
+        stage.setScene(scene);
+        stage.setOnHidden(event -> refreshTimeline.stop());
+
+        refreshTimeline = new Timeline(new KeyFrame(REFRESH_INTERVAL, event -> refresh()));
+        refreshTimeline.setCycleCount(Animation.INDEFINITE);
+    }
+
+    /**
+     * Shows the current metrics.
+     */
+    private static void refresh() {
+        metricsText.setText(ServerRequestHandler.getRequestMetrics().toString()
+                + System.lineSeparator() + ServerRequestHandler.getResponseCache());
+    }
+}
@@ -148,6 +148,17 @@ public class PiecesImage {
         }
     }
 
+    /**
+     * Retrieves the image of a type of piece, as the types are numbered by PackedPosition.
+     *
+     * @param pieceType The type of the piece, PackedPosition.KING to PackedPosition.PAWN.
+     * @param color     The color of the piece (true for white, false for black).
+     * @return The image representing the piece.
+     */
+    public Image getImageOfPiece(int pieceType, boolean color) {
+        return color ? whitePiecesImages[pieceType] : blackPiecesImages[pieceType];
+    }
+
 
 }
 
@@ -3,6 +3,9 @@ package com.example.chessfrontend;
 import com.example.chessfrontend.modulus.GameRecord;
 import com.example.chessfrontend.modulus.GameUser;
 import com.example.chessfrontend.servercommunication.GamePlayServant;
+import com.example.chessfrontend.servercommunication.PushChannel;
+import com.example.chessfrontend.servercommunication.ServerResponseParser;
+import javafx.application.Platform;
 import javafx.event.Event;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
@@ -11,14 +14,12 @@ import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.stage.Stage;
 
-import java.util.LinkedList;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
-import static com.example.chessfrontend.modulus.GameUser.GAME_USER_RATING_USERNAME_JSON_REGEX;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Utility class for common functions used across the frontend of the chess application.
+ * The state of the user is kept in the GameSession of the utilities, the desktop session unless another is given.
  */
 public class Utilities {
 
@@ -41,14 +42,25 @@ public class Utilities {
     public static final String MISSING_INFORMATION = "Please fill all fields";
     public static final String INVALID_ELO = "Invalid elo, must be a whole number between "
             + MIN_RATING + " - " + MAX_RATING;
-    private static final String GAME_RECORD_REGEX
-            = "OnlineChessGame\\{gameID=(\\d+),\\s*whiteUserName='([^']+)',\\s*blackUserName='([^']+)'," +
-            "\\s*winnerName='([^']+)',\\s*whitePlayerRating=(\\d+),\\s*blackPlayerRating=(\\d+)}";
 
     // Current user's game information
-    private static GameUser gameUser;
-    private static int currentGameID;
-    private static GamePlayServant gamePlayServant;
+    private final GameSession session;
+
+    /**
+     * Constructs utilities of the desktop session.
+     */
+    public Utilities() {
+        this(GameSession.getDesktopSession());
+    }
+
+    /**
+     * Constructs utilities of a session.
+     *
+     * @param session the session of the user
+     */
+    public Utilities(GameSession session) {
+        this.session = session;
+    }
 
     /**
      * Navigates to the specified FXML page upon an action event.
@@ -63,6 +75,7 @@ public class Utilities {
             FXMLLoader loader = new FXMLLoader(getClass().getResource(pagePath));
             Parent root = loader.load();
             Scene scene = new Scene(root);
+            MetricsOverlay.install(scene);
             stage.setScene(scene);
             stage.show();
         } catch (Exception e) {
@@ -70,6 +83,19 @@ public class Utilities {
         }
     }
 
+    /**
+     * Runs an action with the result of a future on the JavaFX application thread, once the future completes.
+     * Used to update the UI with the responses of async server requests.
+     *
+     * @param future the future to wait for
+     * @param action the action to run with the result of the future
+     * @param <T>    the type of the result of the future
+     * @return a future completed once the action has run
+     */
+    public <T> CompletableFuture<Void> onFxThread(CompletableFuture<T> future, Consumer<T> action) {
+        return future.thenAcceptAsync(action, Platform::runLater);
+    }
+
     /**
      * Displays a popup alert with the specified message, and wait till player closes it.
      *
@@ -103,66 +129,23 @@ public class Utilities {
     }
 
     /**
-     * Parses a string representation of a list of GameUser objects into a list of GameUser objects.
+     * Parses a response of the server with a list of GameUser objects into an array of GameUser objects.
      *
-     * @param input The string representation of the list.
-     * @return A list of GameUser objects.
+     * @param input The response of the server.
+     * @return An array of GameUser objects.
      */
-    public LinkedList<GameUser> parseGameUserList(String input) {
-        LinkedList<GameUser> userList = new LinkedList<>();
-
-        // Define a regular expression pattern to match GameUser representations
-        Pattern pattern = Pattern.compile(GAME_USER_RATING_USERNAME_JSON_REGEX);
-
-        // Create a matcher for the input string
-        Matcher matcher = pattern.matcher(input);
-
-        // Iterate through the matches and extract userName and rating
-        while (matcher.find()) {
-            String userName = matcher.group(1);
-            int rating = Integer.parseInt(matcher.group(2));
-
-            // Creating a new GameUser object and adding it to the list
-            userList.add(new GameUser(userName, rating));
-        }
-
-        return userList;
+    public GameUser[] parseGameUsers(String input) {
+        return ServerResponseParser.parseGameUsers(input);
     }
 
     /**
-     * Parses a string representation of a list of game records objects into a list of GameRecord objects.
+     * Parses a response of the server with a list of game records into an array of GameRecord objects.
      *
-     * @param input The string representation of the list.
-     * @return A list of GameUser objects.
+     * @param input The response of the server.
+     * @return An array of GameRecord objects.
      */
-    public LinkedList<GameRecord> parseGameRecordList(String input) {
-        LinkedList<GameRecord> gameRecordList = new LinkedList<>();
-
-        // Define pattern to match each OnlineChessGame object
-        Pattern pattern = Pattern.compile(GAME_RECORD_REGEX);
-
-        // Match the pattern against the input string
-        Matcher matcher = pattern.matcher(input);
-
-        // Iterate through matches
-        while (matcher.find()) {
-            // Extract relevant information from the match
-            // Extract relevant information from the match
-            int gameID = Integer.parseInt(matcher.group(1));
-            String whiteUserName = matcher.group(2);
-            String blackUserName = matcher.group(3);
-            String winnerName = matcher.group(4);
-            int whitePlayerRating = Integer.parseInt(matcher.group(5));
-            int blackPlayerRating = Integer.parseInt(matcher.group(6));
-
-            // Create a new GameRecord object and add it to the list
-            GameRecord gameRecord = new GameRecord(whiteUserName, blackUserName,
-                    whitePlayerRating, blackPlayerRating, winnerName, gameID);
-
-            gameRecordList.add(gameRecord);
-        }
-
-        return gameRecordList;
+    public GameRecord[] parseGameRecords(String input) {
+        return ServerResponseParser.parseGameRecords(input);
     }
 
     /**
@@ -171,7 +154,7 @@ public class Utilities {
      * @param currentGameID the ID of the current game
      */
     public void setCurrentGameID(int currentGameID) {
-        Utilities.currentGameID = currentGameID;
+        session.setCurrentGameID(currentGameID);
     }
 
     /**
@@ -180,7 +163,25 @@ public class Utilities {
      * @return the ID of the current game
      */
     public int getCurrentGameID() {
-        return currentGameID;
+        return session.getCurrentGameID();
+    }
+
+    /**
+     * Checks if the user watches the current game rather than plays it.
+     *
+     * @return true if the user is a spectator of the current game
+     */
+    public boolean isSpectating() {
+        return session.isSpectating();
+    }
+
+    /**
+     * Sets whether the user watches the current game rather than plays it.
+     *
+     * @param spectating true if the user is a spectator of the current game
+     */
+    public void setSpectating(boolean spectating) {
+        session.setSpectating(spectating);
     }
 
     /**
@@ -189,7 +190,7 @@ public class Utilities {
      * @return the current game user
      */
     public GameUser getGameUser() {
-        return gameUser;
+        return session.getGameUser();
     }
 
     /**
@@ -198,7 +199,7 @@ public class Utilities {
      * @param gameUser the game user to be set
      */
     public void setGameUser(GameUser gameUser) {
-        Utilities.gameUser = gameUser;
+        session.setGameUser(gameUser);
     }
 
     /**
@@ -207,7 +208,7 @@ public class Utilities {
      * @return The GamePlayServant instance
      */
     public GamePlayServant getGamePlayServant() {
-        return gamePlayServant;
+        return session.getGamePlayServant();
     }
 
     /**
@@ -216,6 +217,33 @@ public class Utilities {
      * @param gamePlayServant The GamePlayServant instance to set
      */
     public void setGamePlayServant(GamePlayServant gamePlayServant) {
-        Utilities.gamePlayServant = gamePlayServant;
+        session.setGamePlayServant(gamePlayServant);
+    }
+
+    /**
+     * Retrieves the push channel to the server.
+     *
+     * @return The push channel, or null if the client uses the RMI callbacks
+     */
+    public PushChannel getPushChannel() {
+        return session.getPushChannel();
+    }
+
+    /**
+     * Sets the push channel to the server.
+     *
+     * @param pushChannel The push channel to set
+     */
+    public void setPushChannel(PushChannel pushChannel) {
+        session.setPushChannel(pushChannel);
+    }
+
+    /**
+     * Retrieves the session of the user.
+     *
+     * @return The session
+     */
+    public GameSession getSession() {
+        return session;
     }
 }
@@ -3,14 +3,19 @@ package com.example.chessfrontend.controllers;
 import com.example.chessfrontend.ServerResponse;
 import com.example.chessfrontend.Utilities;
 import com.example.chessfrontend.modulus.ChessBoard;
+import com.example.chessfrontend.modulus.ChessClockDisplay;
 import com.example.chessfrontend.modulus.GameUser;
+import com.example.chessfrontend.servercommunication.PushChannel;
 import com.example.chessfrontend.servercommunication.ServerRequestHandler;
+import javafx.animation.PauseTransition;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
+import javafx.scene.control.Button;
 import javafx.scene.layout.VBox;
 import javafx.scene.text.Text;
+import javafx.util.Duration;
 
-import java.util.LinkedList;
+import java.io.IOException;
 
 import static com.example.chessfrontend.servercommunication.ServerRequestHandler.HTTP_OK;
 
@@ -21,41 +26,115 @@ public class ChessGameController {
 
     private static final String YOU_LOST = "You lost the game";
     private static final String FAILED_TO_RESIGN = "Failed to resign, try again";
+    private static final String FAILED_TO_WATCH = "Failed to watch the game";
+    private static final String LEAVE_TEXT = "leave";
+    private static final String FAILED_TO_GET_PLAYERS = "Failed to get the players of the game, still trying."
+            + " You can move once your color is known";
+    // the players of the match are asked for again until the server answers, the alert shows after a few tries
+    private static final Duration PLAYERS_RETRY_DELAY = Duration.seconds(1);
+    private static final int PLAYERS_ATTEMPTS_BEFORE_ALERT = 3;
 
     private final ServerRequestHandler serverRequestHandler = new ServerRequestHandler();
     private final Utilities utilities = new Utilities();
+    private ChessBoard chessBoard;
 
     /**
      * Initializes the chess game interface.
      */
     public void initialize() {
         // Initialize and add the chess GUI to the VBox
-        ChessBoard chessBoard = new ChessBoard(serverRequestHandler, utilities, ChessGameVBox.getPrefWidth());
+        chessBoard = new ChessBoard(serverRequestHandler, utilities, ChessGameVBox.getPrefWidth());
         ChessGameVBox.getChildren().add(chessBoard);
 
+        // show the clocks of a timed game
+        if (chessBoard.getSnapshot().hasClock())
+            new ChessClockDisplay(chessBoard, WhiteClockText, BlackClockText).start();
+
         // set up the board for the servant
         utilities.getGamePlayServant().setBoard(chessBoard);
-        setUpPlayersNamesAndRating();
+        setUpPlayersNamesAndRating(1);
+
+        // a spectator asks for the game once the servant can hand its moves to the board
+        if (chessBoard.isSpectating())
+            startWatching();
+    }
+
+    /**
+     * Starts watching the current game through the push channel, which pushes where the game stands,
+     * then its moves as they are played.
+     */
+    private void startWatching() {
+        ResignButton.setText(LEAVE_TEXT);
+        PushChannel pushChannel = utilities.getPushChannel();
+        try {
+            pushChannel.spectate(utilities.getCurrentGameID());
+        } catch (IOException e) {
+            System.out.println("Failed to watch the game over the push channel: " + e);
+            utilities.noWaitPopupAlert(FAILED_TO_WATCH);
+        }
     }
 
     /**
-     * Sets up the names and ratings of the players.
+     * Stops watching the current game, so the server stops pushing its moves.
+     */
+    private void stopWatching() {
+        PushChannel pushChannel = utilities.getPushChannel();
+        try {
+            if (pushChannel != null && pushChannel.isOpen())
+                pushChannel.stopSpectating(utilities.getCurrentGameID());
+        } catch (IOException e) {
+            // the server stops pushing the moves when the channel is closed anyway
+        }
+    }
+
+    /**
+     * Sets up the names and ratings of the players, once the server responds with them.
+     * The player can't move before its color is known, so the request is sent again until it succeeds,
+     * as long as the game is shown.
+     *
+     * @param attempt The number of the attempt, starting from 1.
      */
-    private void setUpPlayersNamesAndRating() {
-        ServerResponse response = serverRequestHandler.getPlayerOfMatch(utilities.getCurrentGameID());
+    private void setUpPlayersNamesAndRating(int attempt) {
+        utilities.onFxThread(serverRequestHandler.getPlayerOfMatchAsync(utilities.getCurrentGameID()), response -> {
+            // the scene of the game is taken off the window once the user leaves the game
+            if (showPlayersNamesAndRating(response) || chessBoard.getScene() == null
+                    || chessBoard.getScene().getWindow() == null)
+                return;
+
+            if (attempt == PLAYERS_ATTEMPTS_BEFORE_ALERT && !chessBoard.isSpectating())
+                utilities.noWaitPopupAlert(FAILED_TO_GET_PLAYERS);
+            PauseTransition retryDelay = new PauseTransition(PLAYERS_RETRY_DELAY);
+            retryDelay.setOnFinished(event -> setUpPlayersNamesAndRating(attempt + 1));
+            retryDelay.play();
+        });
+    }
 
+    /**
+     * Shows the names and ratings of the players.
+     *
+     * @param response The response of the server with the players of the match.
+     * @return True if the players were shown, false if the request failed.
+     */
+    private boolean showPlayersNamesAndRating(ServerResponse response) {
         // if failed to get the player info
         if (response == null || response.getHttpStatus() != HTTP_OK)
-            return;
+            return false;
 
-        // parse the response from json into list of game  user
-        LinkedList<GameUser> gameUserLinkedList = utilities.parseGameUserList(response.getResponse());
+        // parse the response from json into array of game users, white first
+        GameUser[] players = utilities.parseGameUsers(response.getResponse());
+        if (players.length < 2)
+            return false;
 
         // show players info
-        WhiteUserNameText.setText(WhiteUserNameText.getText() + gameUserLinkedList.get(0).getUserName());
-        WhiteRatingText.setText(WhiteRatingText.getText() + gameUserLinkedList.get(0).getRating());
-        BlackUserNameText.setText(BlackUserNameText.getText() + gameUserLinkedList.get(1).getUserName());
-        BlackRatingText.setText(BlackRatingText.getText() + gameUserLinkedList.get(1).getRating());
+        WhiteUserNameText.setText(WhiteUserNameText.getText() + players[0].getUserName());
+        WhiteRatingText.setText(WhiteRatingText.getText() + players[0].getRating());
+        BlackUserNameText.setText(BlackUserNameText.getText() + players[1].getUserName());
+        BlackRatingText.setText(BlackRatingText.getText() + players[1].getRating());
+
+        // the board needs to know whose flag is whose, a spectator plays neither color
+        if (!chessBoard.isSpectating())
+            chessBoard.setPlayerColor(players[0].getUserName().equals(utilities.getGameUser().getUserName()));
+        return true;
     }
 
     @FXML
@@ -64,6 +143,9 @@ public class ChessGameController {
     @FXML
     private Text BlackUserNameText;
 
+    @FXML
+    private Text BlackClockText;
+
     @FXML
     private VBox ChessGameVBox;
 
@@ -73,20 +155,34 @@ public class ChessGameController {
     @FXML
     private Text WhiteUserNameText;
 
+    @FXML
+    private Text WhiteClockText;
+
+    @FXML
+    private Button ResignButton;
+
     /**
      * Handles the action when the resignation button is clicked.
+     * A spectator leaves the game instead.
      *
      * @param event The action event triggered by clicking the resignation button.
      */
     @FXML
     void ResignClicked(ActionEvent event) {
-        ServerResponse response = serverRequestHandler.reignTheGame(utilities.getGameUser(),
-                utilities.getCurrentGameID());
-        if (response != null && response.getHttpStatus() == HTTP_OK) {
-            utilities.waitPopupAlert(YOU_LOST);
+        if (chessBoard.isSpectating()) {
+            stopWatching();
             utilities.goToPage(Utilities.GAME_LOBBY_PATH, event);
-        } else {
-            utilities.waitPopupAlert(FAILED_TO_RESIGN);
+            return;
         }
+
+        utilities.onFxThread(serverRequestHandler.reignTheGameAsync(utilities.getGameUser(),
+                utilities.getCurrentGameID()), response -> {
+            if (response != null && response.getHttpStatus() == HTTP_OK) {
+                utilities.waitPopupAlert(YOU_LOST);
+                utilities.goToPage(Utilities.GAME_LOBBY_PATH, event);
+            } else {
+                utilities.waitPopupAlert(FAILED_TO_RESIGN);
+            }
+        });
     }
 }
@@ -1,6 +1,5 @@
 package com.example.chessfrontend.controllers;
 
-import com.example.chessfrontend.ServerResponse;
 import com.example.chessfrontend.Utilities;
 import com.example.chessfrontend.modulus.GameUser;
 import com.example.chessfrontend.servercommunication.ServerRequestHandler;
@@ -52,25 +51,26 @@ public class CreateNewAccountController {
                 PasswordText.getText(),
                 Integer.parseInt(RatingText.getText()));
 
-        // Send create new account request to the server and get the response
-        ServerResponse response = serverRequestHandler.createNewAccount(gameUser);
-
-        // Handle null response (unexpected error)
-        if (response == null) {
-            utilities.waitPopupAlert(UNEXPECTED_ERROR);
-            return;
-        }
+        // Send create new account request to the server, and handle the response once it arrives
+        utilities.onFxThread(serverRequestHandler.createNewAccountAsync(gameUser), response -> {
+            // Handle null response (unexpected error)
+            if (response == null) {
+                utilities.waitPopupAlert(UNEXPECTED_ERROR);
+                return;
+            }
 
-        // If the server response indicates an error, display an alert with the error message
-        if (response.getHttpStatus() != HTTP_OK)
-            utilities.waitPopupAlert(response.getResponse());
-        else {
-            // If account creation is successful, display success message, set user token, and redirect to game lobby
-            utilities.waitPopupAlert(SUCCESSFULLY_CREATED_ACCOUNT);
-            gameUser.setToken(response.getResponse());
-            utilities.setGameUser(gameUser);
-            utilities.goToPage(GAME_LOBBY_PATH, event);
-        }
+            // If the server response indicates an error, display an alert with the error message
+            if (response.getHttpStatus() != HTTP_OK)
+                utilities.waitPopupAlert(response.getResponse());
+            else {
+                // If account creation is successful, display success message, set user token,
+                // and redirect to game lobby
+                utilities.waitPopupAlert(SUCCESSFULLY_CREATED_ACCOUNT);
+                gameUser.setToken(response.getResponse());
+                utilities.setGameUser(gameUser);
+                utilities.goToPage(GAME_LOBBY_PATH, event);
+            }
+        });
     }
 
     /**
@@ -5,8 +5,10 @@ import com.example.chessfrontend.Utilities;
 import com.example.chessfrontend.modulus.GameRecord;
 import com.example.chessfrontend.modulus.GameUser;
 import com.example.chessfrontend.servercommunication.GamePlayServant;
-import com.example.chessfrontend.servercommunication.GamePlayService;
+import com.example.chessfrontend.servercommunication.JsonWriter;
+import com.example.chessfrontend.servercommunication.PushChannel;
 import com.example.chessfrontend.servercommunication.ServerRequestHandler;
+import com.example.chessfrontend.servercommunication.SessionRegistry;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -19,10 +21,10 @@ import javafx.scene.text.Font;
 import javafx.scene.text.Text;
 
 import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.rmi.RemoteException;
-import java.rmi.registry.LocateRegistry;
-import java.rmi.registry.Registry;
-import java.util.LinkedList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static com.example.chessfrontend.Utilities.*;
 import static com.example.chessfrontend.servercommunication.ServerRequestHandler.HTTP_OK;
@@ -39,6 +41,9 @@ public class GameLobbyController {
     @FXML
     private Button JoinInviteButton;
 
+    @FXML
+    private Button WatchGameButton;
+
     @FXML
     private VBox ViewVbox;
 
@@ -68,6 +73,8 @@ public class GameLobbyController {
     private static final String FAILED_TO_LOAD_USER_INFO_TEXT = "Failed to load user info";
     private static final String SEARCH_FOR_GAME_TEXT = "Searching for game please wait...";
     private static final String COULD_NOT_JOIN_TEXT = "Could not join this game code ID";
+    private static final String COULD_NOT_WATCH_TEXT = "Enter the game ID of the game to watch";
+    private static final String WATCHING_NEEDS_PUSH_TEXT = "Watching games needs a connection to the push server";
     private static final String CHALLENGE_LINK_INVITATION_TEXT = "The challenge game ID invitation is: ";
     private static final String NEW_INVITE_CHALLENGE_TEXT = "New invite";
     private static final String CANCEL_INVITE_CHALLENGE_TEXT = "Cancel challenge";
@@ -78,50 +85,119 @@ public class GameLobbyController {
     private static final double BIG_FONT_FOR_VIEW = 40;
     private static final double SMALL_FONT_FOR_VIEW = 24;
 
+    // Timing of the lobby bootstrap
+    private static final String BOOTSTRAP_TIMING_FORMAT = "Lobby %s ready after %.1f ms%n";
+    private static final String USER_INFO_PART = "user info";
+    private static final String LEADERBOARD_PART = "leaderboard";
+    private static final String REGISTRY_PART = "registry";
+    private static final String PUSH_CHANNEL_PART = "push channel";
+    private static final String BOOTSTRAP_PART = "bootstrap";
+    private static final double NANOS_IN_MILLISECOND = 1_000_000.0;
+
     Utilities utilities = new Utilities();
     ServerRequestHandler serverRequestHandler = new ServerRequestHandler();
     private boolean waitingToAcceptChallenge = false;
     private boolean isLeaderBoardView = true;
+    // Incremented whenever the view is cleared, so a late response of an older view is dropped
+    private int viewGeneration = 0;
 
 
     /**
      * Initializes the application.
      * This method sets up necessary components such as registry, user information, and leaderboard.
+     * All of them are set up concurrently, and each part is shown as soon as it is ready.
      * If any exception occurs during initialization, it displays an alert popup.
      */
     public void initialize() {
-        try {
-            // Set up user information
-            setUpUserInfo();
+        long bootstrapStartTime = System.nanoTime();
+
+        // Back in the lobby, the user no longer watches a game
+        utilities.setSpectating(false);
+
+        // Send the requests for the user information and the leaderboard together
+        CompletableFuture<Void> userInfo = setUpUserInfo()
+                .thenRun(() -> logBootstrapTiming(USER_INFO_PART, bootstrapStartTime));
+        CompletableFuture<Void> leaderBoard = setUpLeaderBoard()
+                .thenRun(() -> logBootstrapTiming(LEADERBOARD_PART, bootstrapStartTime));
+
+        // Check if the registry is live; if not, set it up while the requests are in flight.
+        // When the backend has a push server, connect to it instead of waiting for RMI callbacks
+        CompletableFuture<Void> registry = CompletableFuture.completedFuture(null);
+        InetSocketAddress pushAddress = PushChannel.getConfiguredAddress();
+        // The invite needs the servant to be told of the accepted challenge, so it waits for the servant
+        if (utilities.getGamePlayServant() == null) {
+            NewInviteButton.setDisable(true);
+            registry = CompletableFuture.runAsync(() -> {
+                try {
+                    if (pushAddress != null)
+                        setUpPushChannel(pushAddress);
+                    else
+                        setUpRegistry();
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            }).thenRun(() -> logBootstrapTiming(pushAddress != null ? PUSH_CHANNEL_PART : REGISTRY_PART,
+                    bootstrapStartTime));
+        }
 
-            // Set up the leaderboard
-            setUpLeaderBoard();
+        // Display an alert popup with the exception message, if setting up the registry failed
+        utilities.onFxThread(registry.handle((result, e) -> e), e -> {
+            if (e != null)
+                utilities.waitPopupAlert(e.getCause().toString());
+            else
+                NewInviteButton.setDisable(false);
+        });
 
-            // Check if the registry is live; if not, set it up
-            if (utilities.getGamePlayServant() == null)
-                setUpRegistry();
-        } catch (Exception e) {
-            // Display an alert popup with the exception message
-            utilities.waitPopupAlert(e.toString());
-        }
+        CompletableFuture.allOf(userInfo, leaderBoard, registry)
+                .whenComplete((result, e) -> logBootstrapTiming(BOOTSTRAP_PART, bootstrapStartTime));
     }
 
     /**
-     * Sets up and displays the match history for a given user.
+     * Logs the time it took a part of the lobby to be ready, since the lobby started loading.
+     *
+     * @param part               The name of the part of the lobby.
+     * @param bootstrapStartTime The time the lobby started loading, in nanoseconds.
+     */
+    private void logBootstrapTiming(String part, long bootstrapStartTime) {
+        System.out.printf(BOOTSTRAP_TIMING_FORMAT, part,
+                (System.nanoTime() - bootstrapStartTime) / NANOS_IN_MILLISECOND);
+    }
+
+    /**
+     * Sets up and displays the match history for a given user, once the server responds with it.
      *
      * @param user The user for whom the match history is to be displayed.
-     * @throws IOException If an I/O exception occurs while retrieving the match history.
      */
-    private void setUpMatchHistory(GameUser user) throws IOException {
+    private void setUpMatchHistory(GameUser user) {
+        int generation = viewGeneration;
+
         // Get the match history for the specified user from the server
-        ServerResponse response = serverRequestHandler.getMatchHistory(user);
+        utilities.onFxThread(serverRequestHandler.getMatchHistoryAsync(user), response -> {
+            // Drop the response if the view was switched while it was in flight
+            if (generation != viewGeneration)
+                return;
+            try {
+                showMatchHistory(user, response);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        });
+    }
 
+    /**
+     * Displays the match history of a given user.
+     *
+     * @param user     The user for whom the match history is displayed.
+     * @param response The response of the server with the match history.
+     * @throws IOException If an I/O exception occurs while loading the game records.
+     */
+    private void showMatchHistory(GameUser user, ServerResponse response) throws IOException {
         // Check if the response is null or if the HTTP status is not OK
         if (response == null || response.getHttpStatus() != HTTP_OK)
             return;
 
         // Parse the list of game records from the response
-        LinkedList<GameRecord> gameHistoryList = utilities.parseGameRecordList(response.getResponse());
+        GameRecord[] gameHistoryList = utilities.parseGameRecords(response.getResponse());
 
         // Create a VBox to hold the player records
         VBox playerRecordsVBox = new VBox();
@@ -162,26 +238,45 @@ public class GameLobbyController {
     /**
      * Sets up and displays the leaderboard by retrieving the top 100 players from the server.
      *
-     * @throws IOException If an I/O exception occurs while retrieving the leaderboard data.
+     * @return A future completed once the leaderboard is displayed.
      */
-    private void setUpLeaderBoard() throws IOException {
+    private CompletableFuture<Void> setUpLeaderBoard() {
+        int generation = viewGeneration;
+
         // Retrieve the top 100 players from the server
-        ServerResponse response = serverRequestHandler.getTop100Players();
+        return utilities.onFxThread(serverRequestHandler.getTop100PlayersAsync(), response -> {
+            // Drop the response if the view was switched while it was in flight
+            if (generation != viewGeneration)
+                return;
+            try {
+                showLeaderBoard(response);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        });
+    }
 
+    /**
+     * Displays the leaderboard.
+     *
+     * @param response The response of the server with the top 100 players.
+     * @throws IOException If an I/O exception occurs while loading the player records.
+     */
+    private void showLeaderBoard(ServerResponse response) throws IOException {
         // Check if the response is null or if the HTTP status is not OK
         if (response == null || response.getHttpStatus() != HTTP_OK)
             return;
 
         // Parse the list of top players from the response
-        LinkedList<GameUser> leaderBoardList = utilities.parseGameUserList(response.getResponse());
+        GameUser[] leaderBoardList = utilities.parseGameUsers(response.getResponse());
 
         // Create a VBox to hold the player records
         VBox playerRecordsVBox = new VBox();
         playerRecordsVBox.setSpacing(3); // Adjust the spacing between elements if needed
 
         // Iterate over each player in the leaderboard list
-        for (int i = 0; i < leaderBoardList.size(); i++) {
-            GameUser currentUser = leaderBoardList.get(i);
+        for (int i = 0; i < leaderBoardList.length; i++) {
+            GameUser currentUser = leaderBoardList[i];
 
             // Load the FXML file for the player record
             FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource(PLAYER_RECORD_PATH));
@@ -214,42 +309,64 @@ public class GameLobbyController {
     /**
      * Sets up and displays the user information by retrieving it from the server.
      * If the retrieval fails, it displays a popup alert.
+     *
+     * @return A future completed once the user information is displayed.
      */
-    private void setUpUserInfo() {
+    private CompletableFuture<Void> setUpUserInfo() {
         // Find the player information for the current user from the server
-        ServerResponse response = serverRequestHandler.findPlayer(nameToJson(utilities.getGameUser().getUserName()));
-
-        // Check if the response is null or if the HTTP status is not OK (200)
-        if (response == null || response.getHttpStatus() != 200)
-            utilities.waitPopupAlert(FAILED_TO_LOAD_USER_INFO_TEXT);
-        else {
-            // If user information is successfully retrieved, update the UI with the user's details
-            GameUser userFromDB = new GameUser(response.getResponse());
-            utilities.getGameUser().setRating(userFromDB.getRating());
-            WelcomeText.setText(WELCOME_TEXT + utilities.getGameUser().getUserName());
-            CurrentRatingText.setText(CURRENT_RATING_TEXT + utilities.getGameUser().getRating());
-        }
+        String userName = utilities.getGameUser().getUserName();
+        return utilities.onFxThread(serverRequestHandler.findPlayerAsync(nameToJson(userName)),
+                response -> {
+                    // Check if the response is null or if the HTTP status is not OK (200)
+                    if (response == null || response.getHttpStatus() != 200)
+                        utilities.waitPopupAlert(FAILED_TO_LOAD_USER_INFO_TEXT);
+                    else {
+                        // If user information is successfully retrieved, update the UI with the user's details
+                        GameUser userFromDB = new GameUser(response.getResponse());
+                        utilities.getGameUser().setRating(userFromDB.getRating());
+                        WelcomeText.setText(WELCOME_TEXT + utilities.getGameUser().getUserName());
+                        CurrentRatingText.setText(CURRENT_RATING_TEXT + utilities.getGameUser().getRating());
+                    }
+                });
     }
 
     /**
-     * Sets up the registry for the game play service.
+     * Sets up the game play service of the session in the registry of the process.
      *
      * @throws RemoteException If a remote exception occurs while creating or rebinding the registry.
      */
     public void setUpRegistry() throws RemoteException {
-        // Create a new registry on the specified port
-        Registry registry = LocateRegistry.createRegistry(GamePlayService.PORT);
+        // Get the registry of the process, created on the specified port the first time,
+        // on the default sockets the server looks it up with
+        SessionRegistry registry = SessionRegistry.getShared();
 
-        // Create a new instance of the GamePlayServant
-        GamePlayServant gamePlayServant = new GamePlayServant();
+        // Create a new instance of the GamePlayServant, exported on the configured RMI sockets, if any
+        GamePlayServant gamePlayServant = new GamePlayServant(utilities.getSession());
 
         // Rebind the servant to the registry using the user's token as the key
-        registry.rebind(utilities.getGameUser().getToken(), gamePlayServant);
+        registry.bind(utilities.getGameUser().getToken(), gamePlayServant);
 
         // Update the utilities with the new GamePlayServant and set the registry status to live
         utilities.setGamePlayServant(gamePlayServant);
     }
 
+    /**
+     * Sets up the push channel to the server, that delivers the game events to the game play servant.
+     *
+     * @param address The address of the push server.
+     * @throws IOException If connecting to the push server failed.
+     */
+    public void setUpPushChannel(InetSocketAddress address) throws IOException {
+        // Create a new instance of the GamePlayServant, that handles the pushed events
+        GamePlayServant gamePlayServant = new GamePlayServant(utilities.getSession());
+
+        // Connect to the push server, saying hello with the user's token
+        utilities.setPushChannel(PushChannel.connect(address, utilities.getGameUser().getToken(), gamePlayServant));
+
+        // Update the utilities with the new GamePlayServant
+        utilities.setGamePlayServant(gamePlayServant);
+    }
+
     /**
      * Handles the click event of the "View" button.
      * Depending on the current view (leaderboard or match history), switches between them.
@@ -257,31 +374,27 @@ public class GameLobbyController {
      */
     @FXML
     void ViewButtonClicked() {
-        try {
-            // Clear the current view
-            ViewVbox.getChildren().clear();
-
-            // Switch between leaderboard and match history views
-            if (isLeaderBoardView) {
-                // If currently viewing leaderboard, switch to match history
-                setUpMatchHistory(utilities.getGameUser());
-                ViewButton.setText(LEADERBOARD_TEXT);
-                ViewText.setText(MATCH_HISTORY_TEXT);
-            } else {
-                // If currently viewing match history, switch to leaderboard
-                setUpLeaderBoard();
-                ViewButton.setText(MATCH_HISTORY_TEXT);
-                ViewText.setText(LEADERBOARD_TEXT);
-            }
+        // Clear the current view
+        clearView();
+
+        // Switch between leaderboard and match history views
+        if (isLeaderBoardView) {
+            // If currently viewing leaderboard, switch to match history
+            setUpMatchHistory(utilities.getGameUser());
+            ViewButton.setText(LEADERBOARD_TEXT);
+            ViewText.setText(MATCH_HISTORY_TEXT);
+        } else {
+            // If currently viewing match history, switch to leaderboard
+            setUpLeaderBoard();
+            ViewButton.setText(MATCH_HISTORY_TEXT);
+            ViewText.setText(LEADERBOARD_TEXT);
+        }
 
-            // Toggle the view flag
-            isLeaderBoardView = !isLeaderBoardView;
+        // Toggle the view flag
+        isLeaderBoardView = !isLeaderBoardView;
 
-            // Set the font for the view text
-            ViewText.setFont(Font.font(FONT_FOR_VIEW_TEXT, BIG_FONT_FOR_VIEW));
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        // Set the font for the view text
+        ViewText.setFont(Font.font(FONT_FOR_VIEW_TEXT, BIG_FONT_FOR_VIEW));
     }
 
     /**
@@ -296,43 +409,76 @@ public class GameLobbyController {
         // Display a non-blocking alert indicating that the game search is in progress
         utilities.noWaitPopupAlert(SEARCH_FOR_GAME_TEXT);
 
-        // Send a request to the server to find a match against a random opponent
-        ServerResponse response = serverRequestHandler.findMatchVsRandom(utilities.getGameUser());
-
-        // Check if the response is valid and if the match search was successful
-        if (response == null || response.getHttpStatus() != HTTP_OK)
-            utilities.waitPopupAlert(FAILED_TO_FIND_A_MATCH_TEXT); // Display an alert for failure to find a match
-        else {
-            // If a match is found, set the current game ID and navigate to the chess game page
-            utilities.setCurrentGameID(Integer.parseInt(response.getResponse()));
-            utilities.goToPage(CHESS_GAME_PATH, event);
+        // Don't let the user start another search while this one is in progress
+        disableButtons(true);
+
+        // Over the push channel the match is pushed once it is found, and the servant goes to the game page.
+        // If the channel drops before, the match is sought by a request instead
+        PushChannel pushChannel = utilities.getPushChannel();
+        GamePlayServant gamePlayServant = utilities.getGamePlayServant();
+        if (pushChannel != null && pushChannel.isOpen() && gamePlayServant != null) {
+            gamePlayServant.setEvent(event);
+            gamePlayServant.setSeekFallback(() -> findMatchVsRandomByRequest(event));
+            try {
+                pushChannel.seekMatch();
+                return;
+            } catch (IOException e) {
+                System.out.println("Failed to seek a match over the push channel: " + e);
+                // the channel may have dropped meanwhile, and already fallen back to the request
+                if (!gamePlayServant.clearSeekFallback())
+                    return;
+            }
         }
+
+        findMatchVsRandomByRequest(event);
+    }
+
+    /**
+     * Sends a request to the server to find a match against a random opponent,
+     * and proceeds to the chess game page if one is found.
+     *
+     * @param event The action event triggered by clicking the "Find Match vs Random" button.
+     */
+    private void findMatchVsRandomByRequest(ActionEvent event) {
+        // Send a request to the server to find a match against a random opponent
+        utilities.onFxThread(serverRequestHandler.findMatchVsRandomAsync(utilities.getGameUser()), response -> {
+            disableButtons(false);
+
+            // Check if the response is valid and if the match search was successful
+            if (response == null || response.getHttpStatus() != HTTP_OK)
+                utilities.waitPopupAlert(FAILED_TO_FIND_A_MATCH_TEXT); // Display an alert for failure to find a match
+            else {
+                // If a match is found, set the current game ID and navigate to the chess game page
+                utilities.setCurrentGameID(Integer.parseInt(response.getResponse()));
+                utilities.goToPage(CHESS_GAME_PATH, event);
+            }
+        });
     }
 
     /**
      * Handles the click event of the "Search Player" button.
      * Retrieves information about a player based on the entered username.
      * If successful, displays the player's match history.
-     *
-     * @throws IOException If an I/O exception occurs while retrieving player information.
      */
     @FXML
-    void SearchPlayerClicked() throws IOException {
+    void SearchPlayerClicked() {
         // Send a request to the server to find the player based on the entered username
-        ServerResponse response = serverRequestHandler.findPlayer(nameToJson(SearchPlayerNameText.getText()));
-
-        // Check if the response is valid and if the player is found
-        if (response == null || response.getHttpStatus() != HTTP_OK)
-            utilities.waitPopupAlert(COULD_NOT_FIND_PLAYER_TEXT); // Display an alert if player not found
-        else {
-            // If player is found, clear the view, display player information, and show match history
-            ViewVbox.getChildren().clear();
-            GameUser playerFound = new GameUser(response.getResponse());
-            ViewText.setText(playerFound.getUserName() + " " + CURRENT_RATING_TEXT + playerFound.getRating());
-            ViewText.setFont(Font.font(FONT_FOR_VIEW_TEXT, SMALL_FONT_FOR_VIEW));
-
-            setUpMatchHistory(playerFound); // Display the match history of the found player
-        }
+        utilities.onFxThread(serverRequestHandler.findPlayerAsync(nameToJson(SearchPlayerNameText.getText())),
+                response -> {
+                    // Check if the response is valid and if the player is found
+                    if (response == null || response.getHttpStatus() != HTTP_OK)
+                        utilities.waitPopupAlert(COULD_NOT_FIND_PLAYER_TEXT); // Display an alert if player not found
+                    else {
+                        // If player is found, clear the view, display player information, and show match history
+                        clearView();
+                        GameUser playerFound = new GameUser(response.getResponse());
+                        ViewText.setText(playerFound.getUserName() + " " + CURRENT_RATING_TEXT
+                                + playerFound.getRating());
+                        ViewText.setFont(Font.font(FONT_FOR_VIEW_TEXT, SMALL_FONT_FOR_VIEW));
+
+                        setUpMatchHistory(playerFound); // Display the match history of the found player
+                    }
+                });
     }
 
     /**
@@ -346,18 +492,49 @@ public class GameLobbyController {
     void JoinInviteClicked(ActionEvent event) {
         String gameCodeID = GameCodeID.getText();
         // Send a request to the server to join the game invitation using the provided game code ID
-        ServerResponse response = serverRequestHandler.joinGameInvention(gameCodeID, utilities.getGameUser());
-
-        // Check if the response is valid and if the join operation is successful
-        if (response != null && response.getHttpStatus() == HTTP_OK) {
-            // If join is successful, set the current game ID and navigate to the chess game page
-            utilities.setCurrentGameID(Integer.parseInt(response.getResponse()));
-            System.out.println(utilities.getCurrentGameID());
-            utilities.goToPage(CHESS_GAME_PATH, event);
-        } else {
-            // If join fails, display a non-blocking alert indicating failure to join
-            utilities.noWaitPopupAlert(COULD_NOT_JOIN_TEXT);
+        utilities.onFxThread(serverRequestHandler.joinGameInventionAsync(gameCodeID, utilities.getGameUser()),
+                response -> {
+                    // Check if the response is valid and if the join operation is successful
+                    if (response != null && response.getHttpStatus() == HTTP_OK) {
+                        // If join is successful, set the current game ID and navigate to the chess game page
+                        utilities.setCurrentGameID(Integer.parseInt(response.getResponse()));
+                        System.out.println(utilities.getCurrentGameID());
+                        utilities.goToPage(CHESS_GAME_PATH, event);
+                    } else {
+                        // If join fails, display a non-blocking alert indicating failure to join
+                        utilities.noWaitPopupAlert(COULD_NOT_JOIN_TEXT);
+                    }
+                });
+    }
+
+    /**
+     * Handles the click event of the "Watch game" button.
+     * Watches the game of the entered game ID. The server pushes where the game stands and then its moves
+     * through the push channel, the same frames to all the spectators of the game.
+     *
+     * @param event The action event triggered by clicking the button.
+     */
+    @FXML
+    void WatchGameClicked(ActionEvent event) {
+        // The moves of watched games are only fanned out over the push channel, not called back over RMI
+        PushChannel pushChannel = utilities.getPushChannel();
+        if (pushChannel == null || !pushChannel.isOpen()) {
+            utilities.noWaitPopupAlert(WATCHING_NEEDS_PUSH_TEXT);
+            return;
         }
+
+        int gameID;
+        try {
+            gameID = Integer.parseInt(GameCodeID.getText().trim());
+        } catch (NumberFormatException e) {
+            utilities.noWaitPopupAlert(COULD_NOT_WATCH_TEXT);
+            return;
+        }
+
+        // The chess game page starts watching the game once its board is set up
+        utilities.setCurrentGameID(gameID);
+        utilities.setSpectating(true);
+        utilities.goToPage(CHESS_GAME_PATH, event);
     }
 
     /**
@@ -369,33 +546,47 @@ public class GameLobbyController {
      */
     @FXML
     void NewInviteClicked(ActionEvent event) {
-        ServerResponse response;
+        // The servant is set up asynchronously, the button is enabled once it is ready
+        if (utilities.getGamePlayServant() == null)
+            return;
+
         if (waitingToAcceptChallenge) {
             // If currently waiting to accept challenge, cancel the game invitation
-            response = serverRequestHandler.cancelGameInvention(utilities.getGameUser());
+            serverRequestHandler.cancelGameInventionAsync(utilities.getGameUser());
             NewInviteButton.setText(NEW_INVITE_CHALLENGE_TEXT); // Change button text to "New Invite"
         } else {
             // If not waiting to accept challenge, create a new game invitation
-            response = serverRequestHandler.createGameInvention(utilities.getGameUser());
             NewInviteButton.setText(CANCEL_INVITE_CHALLENGE_TEXT); // Change button text to "Cancel Invite"
             utilities.getGamePlayServant().setEvent(event);
+            utilities.onFxThread(serverRequestHandler.createGameInventionAsync(utilities.getGameUser()), response -> {
+                // Check if the response is valid and if the operation is successful
+                // Display invitation link
+                if (response != null && response.getHttpStatus() == HTTP_OK)
+                    utilities.waitPopupAlert(CHALLENGE_LINK_INVITATION_TEXT + response.getResponse());
+            });
         }
 
-        // Check if the response is valid and if the operation is successful
-        if (response != null && response.getHttpStatus() == HTTP_OK && !waitingToAcceptChallenge)
-            utilities.waitPopupAlert(CHALLENGE_LINK_INVITATION_TEXT + response.getResponse()); // Display invitation link
         disableButtons(!waitingToAcceptChallenge); // Disable join and vs random buttons based on the current state
         waitingToAcceptChallenge = !waitingToAcceptChallenge; // Toggle waiting state
     }
 
     /**
-     * Disables or enables the "Join Invite" and "Vs Random" buttons based on the given action.
+     * Clears the current view, so the responses of the loads of the cleared view are dropped.
+     */
+    private void clearView() {
+        ViewVbox.getChildren().clear();
+        viewGeneration++;
+    }
+
+    /**
+     * Disables or enables the "Join Invite", "Vs Random" and "Watch game" buttons based on the given action.
      *
      * @param action If true, buttons will be disabled; otherwise, enabled.
      */
     private void disableButtons(boolean action) {
         JoinInviteButton.setDisable(action);
         VsRandomButton.setDisable(action);
+        WatchGameButton.setDisable(action);
     }
 
     /**
@@ -405,7 +596,7 @@ public class GameLobbyController {
      * @return The username in JSON string format.
      */
     private String nameToJson(String userName) {
-        return "{ \"userName\":\"" + userName + "\" }";
+        return JsonWriter.acquire().beginObject().field("userName", userName).endObject().toString();
     }
 
 
@@ -1,6 +1,5 @@
 package com.example.chessfrontend.controllers;
 
-import com.example.chessfrontend.ServerResponse;
 import com.example.chessfrontend.Utilities;
 import com.example.chessfrontend.modulus.GameUser;
 import com.example.chessfrontend.servercommunication.ServerRequestHandler;
@@ -48,25 +47,25 @@ public class LoginPageController {
         // Create a GameUser object with username and password from input fields
         GameUser gameUser = new GameUser(UserNameText.getText(), PasswordText.getText());
 
-        // Send login request to the server and get the response
-        ServerResponse response = serverRequestHandler.logIntoAccount(gameUser);
+        // Send login request to the server, and handle the response once it arrives
+        utilities.onFxThread(serverRequestHandler.logIntoAccountAsync(gameUser), response -> {
+            // Handle null response (unexpected error)
+            if (response == null) {
+                utilities.waitPopupAlert(UNEXPECTED_ERROR);
+                return;
+            }
 
-        // Handle null response (unexpected error)
-        if (response == null) {
-            utilities.waitPopupAlert(UNEXPECTED_ERROR);
-            return;
-        }
-
-        // If the server response indicates an error, display an alert with the error message
-        if (response.getHttpStatus() != HTTP_OK)
-            utilities.waitPopupAlert(response.getResponse());
-        else {
-            // If login is successful, display success message, set user token, and redirect to game lobby
-            utilities.waitPopupAlert(SUCCESSFULLY_LODGED_IN);
-            gameUser.setToken(response.getResponse());
-            utilities.setGameUser(gameUser);
-            utilities.goToPage(GAME_LOBBY_PATH, event);
-        }
+            // If the server response indicates an error, display an alert with the error message
+            if (response.getHttpStatus() != HTTP_OK)
+                utilities.waitPopupAlert(response.getResponse());
+            else {
+                // If login is successful, display success message, set user token, and redirect to game lobby
+                utilities.waitPopupAlert(SUCCESSFULLY_LODGED_IN);
+                gameUser.setToken(response.getResponse());
+                utilities.setGameUser(gameUser);
+                utilities.goToPage(GAME_LOBBY_PATH, event);
+            }
+        });
     }
 
 }
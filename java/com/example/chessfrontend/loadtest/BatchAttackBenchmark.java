@@ -0,0 +1,188 @@
+package com.example.chessfrontend.loadtest;
+
+import com.example.chessfrontend.modulus.gamelogic.pieces.logic.BatchAttackGenerator;
+import com.example.chessfrontend.modulus.gamelogic.pieces.logic.BatchAttackGenerators;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A benchmark of the throughput of a batch attack generator across batch sizes. Each batch computes the pawn
+ * pushes, the pawn attacks, the knight attacks and the king attacks of random positions.
+ * The generator is chosen by the first argument, "scalar" or "vector", so the two are compared by running the
+ * benchmark once for each. A single run measures a single generator, the same as the application selects one
+ * for its runtime, since a JIT profile that has seen both of them makes the calls to either one slower.
+ * The vector generator needs "--add-modules jdk.incubator.vector", without it the scalar one is measured,
+ * and its results are checked against the scalar ones after it is measured.
+ * Each batch size is warmed up before it is measured, and the best of a few rounds is reported,
+ * so the times are of the compiled code.
+ */
+public class BatchAttackBenchmark {
+    private static final int[] BATCH_SIZES = {8, 16, 32, 64, 128, 256, 512, 1024, 2048, 4096};
+    private static final int WARMUP_POSITIONS = 4_000_000;
+    private static final int MEASURED_POSITIONS = 16_000_000;
+    private static final int ROUNDS = 3;
+    private static final long SEED = 42;
+    private static final double NANOS_IN_SECOND = 1_000_000_000.0;
+    private static final double POSITIONS_IN_MILLION = 1_000_000.0;
+
+    private final BatchAttackGenerator generator;
+
+    // Consumes the results of the benchmarked code, so the JIT can't remove it
+    private long sink;
+
+    /**
+     * Constructs a benchmark.
+     *
+     * @param implementation The implementation of the generator, "scalar" or "vector".
+     */
+    public BatchAttackBenchmark(String implementation) {
+        generator = BatchAttackGenerators.create(implementation);
+    }
+
+    /**
+     * The bitboards of a batch of random positions and the arrays of their results.
+     */
+    private static class Batch {
+        private final long[] pawns;
+        private final long[] allPieces;
+        private final long[] knights;
+        private final long[] kings;
+        private final long[] result;
+
+        /**
+         * Constructs a batch of random positions.
+         *
+         * @param size   The number of positions in the batch.
+         * @param random The source of the random bitboards.
+         */
+        private Batch(int size, Random random) {
+            pawns = new long[size];
+            allPieces = new long[size];
+            knights = new long[size];
+            kings = new long[size];
+            result = new long[size];
+            for (int i = 0; i < size; i++) {
+                pawns[i] = random.nextLong() & random.nextLong();
+                knights[i] = random.nextLong() & random.nextLong() & random.nextLong();
+                kings[i] = 1L << random.nextInt(Long.SIZE);
+                allPieces[i] = pawns[i] | knights[i] | kings[i] | (random.nextLong() & random.nextLong());
+            }
+        }
+    }
+
+    /**
+     * Computes all the attack sets of a batch.
+     *
+     * @param batch The batch.
+     * @return A value derived from the results, for the sink.
+     */
+    private long computeAll(Batch batch) {
+        int count = batch.result.length;
+        long value = 0;
+        generator.pawnPushes(batch.pawns, batch.allPieces, true, batch.result, count);
+        value += batch.result[count - 1];
+        generator.pawnAttacks(batch.pawns, false, batch.result, count);
+        value += batch.result[count - 1];
+        generator.knightAttacks(batch.knights, batch.result, count);
+        value += batch.result[count - 1];
+        generator.kingAttacks(batch.kings, batch.result, count);
+        return value + batch.result[count - 1];
+    }
+
+    /**
+     * Measures the throughput of the generator on a batch.
+     *
+     * @param batch The batch.
+     * @return The best throughput of the rounds, in millions of positions per second.
+     */
+    private double measure(Batch batch) {
+        int size = batch.result.length;
+        for (int i = 0; i < WARMUP_POSITIONS / size; i++)
+            sink += computeAll(batch);
+
+        int iterations = MEASURED_POSITIONS / size;
+        double bestThroughput = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long startTime = System.nanoTime();
+            for (int i = 0; i < iterations; i++)
+                sink += computeAll(batch);
+            double seconds = (System.nanoTime() - startTime) / NANOS_IN_SECOND;
+            bestThroughput = Math.max(bestThroughput, (double) iterations * size / seconds / POSITIONS_IN_MILLION);
+        }
+        return bestThroughput;
+    }
+
+    /**
+     * Checks that the generator computes the same attack sets of a batch as the scalar generator.
+     *
+     * @param scalar The scalar generator.
+     * @param batch  The batch.
+     * @return True if the results are the same, false otherwise.
+     */
+    private boolean resultsMatch(BatchAttackGenerator scalar, Batch batch) {
+        int count = batch.result.length;
+        long[] expected = new long[count];
+        long[] actual = new long[count];
+        for (boolean color : new boolean[]{true, false}) {
+            scalar.pawnPushes(batch.pawns, batch.allPieces, color, expected, count);
+            generator.pawnPushes(batch.pawns, batch.allPieces, color, actual, count);
+            if (!Arrays.equals(expected, actual))
+                return false;
+            scalar.pawnAttacks(batch.pawns, color, expected, count);
+            generator.pawnAttacks(batch.pawns, color, actual, count);
+            if (!Arrays.equals(expected, actual))
+                return false;
+        }
+        scalar.knightAttacks(batch.knights, expected, count);
+        generator.knightAttacks(batch.knights, actual, count);
+        if (!Arrays.equals(expected, actual))
+            return false;
+        scalar.kingAttacks(batch.kings, expected, count);
+        generator.kingAttacks(batch.kings, actual, count);
+        return Arrays.equals(expected, actual);
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @return The report of the benchmark.
+     */
+    public String run() {
+        Random random = new Random(SEED);
+        Batch[] batches = new Batch[BATCH_SIZES.length];
+        double[] throughputs = new double[BATCH_SIZES.length];
+        for (int i = 0; i < BATCH_SIZES.length; i++) {
+            batches[i] = new Batch(BATCH_SIZES[i], random);
+            throughputs[i] = measure(batches[i]);
+        }
+
+        // Checked once everything is measured, so the scalar generator isn't in the profile of the measured calls
+        BatchAttackGenerator scalar = BatchAttackGenerators.create(BatchAttackGenerators.SCALAR);
+        boolean checked = !generator.getName().equals(scalar.getName());
+
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("generator: %s%n", generator.getName()));
+        String fallbackReason = BatchAttackGenerators.getFallbackReason();
+        if (fallbackReason != null)
+            report.append(String.format("fell back to scalar: %s%n", fallbackReason));
+        report.append(String.format("%8s %12s %12s %8s%n", "batch", "Mpos/s", "ns/pos", "match"));
+        for (int i = 0; i < BATCH_SIZES.length; i++)
+            report.append(String.format("%8d %12.1f %12.2f %8s%n", BATCH_SIZES[i], throughputs[i],
+                    NANOS_IN_SECOND / POSITIONS_IN_MILLION / throughputs[i],
+                    checked ? resultsMatch(scalar, batches[i]) : "-"));
+        return report.toString();
+    }
+
+    /**
+     * Runs the benchmark and prints the results.
+     *
+     * @param args The implementation of the generator, "scalar" or "vector", vector by default.
+     */
+    public static void main(String[] args) {
+        BatchAttackBenchmark benchmark = new BatchAttackBenchmark(args.length > 0 ? args[0]
+                : BatchAttackGenerators.VECTOR);
+        System.out.print(benchmark.run());
+        System.out.println("(sink " + (benchmark.sink & 1) + ")");
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.chessfrontend.loadtest;
+
+import com.example.chessfrontend.modulus.ChessGame;
+import com.example.chessfrontend.modulus.ChessMove;
+import com.example.chessfrontend.modulus.GameHistory;
+import com.example.chessfrontend.modulus.gamelogic.PackedPosition;
+import com.example.chessfrontend.modulus.gamelogic.perft.PerftCalculator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.example.chessfrontend.modulus.ChessBoard.DEFAULT_PROMOTION;
+
+/**
+ * A benchmark of the checkpoint interval of GameHistory: the time to seek to a ply against the memory
+ * the checkpoints take. A game of random legal moves is recorded with each interval, and every ply of it is
+ * sought in turn. The largest interval is longer than the game, so it takes no checkpoint but the starting
+ * position, and every seek replays the game from the first move.
+ * Each interval is warmed up before it is measured, so the times are of the compiled code.
+ */
+public class GameHistoryBenchmark {
+    private static final int[] CHECKPOINT_INTERVALS = {1, 2, 4, 8, 16, 32, 64, Integer.MAX_VALUE};
+    private static final int GAME_PLIES = 160;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 50;
+    private static final long SEED = 42;
+    private static final double NANOS_IN_MICROSECOND = 1_000.0;
+
+    private final PerftCalculator moveGenerator = new PerftCalculator();
+
+    // Consumes the results of the benchmarked code, so the JIT can't remove it
+    private long sink;
+
+    /**
+     * Plays a game of random legal moves, until a number of plies were played or the game ended.
+     *
+     * @param random The source of the random moves.
+     * @return The moves of the game, in the order they were played.
+     */
+    private List<ChessMove> playRandomGame(Random random) {
+        ChessGame game = new ChessGame();
+        List<ChessMove> playedMoves = new ArrayList<>();
+        while (playedMoves.size() < GAME_PLIES) {
+            List<ChessMove> legalMoves = new ArrayList<>();
+            for (ChessMove move : moveGenerator.generateLegalMoves(game))
+                if (move.getTypeOfPieceToPromoteTo() == DEFAULT_PROMOTION)
+                    legalMoves.add(move);
+            if (legalMoves.isEmpty())
+                break;
+
+            ChessMove move = legalMoves.get(random.nextInt(legalMoves.size()));
+            int status = game.executeMove(move.getCurrentPieceSquare(), move.getTargetSquare(),
+                    move.getTypeOfPieceToPromoteTo());
+            playedMoves.add(move);
+            if (status == ChessGame.CHECKMATE || status == ChessGame.DRAW)
+                break;
+        }
+        return playedMoves;
+    }
+
+    /**
+     * Records a game in a history.
+     *
+     * @param moves              The moves of the game.
+     * @param checkpointInterval The number of plies between two checkpoints.
+     * @return The history of the game.
+     */
+    private static GameHistory record(List<ChessMove> moves, int checkpointInterval) {
+        ChessGame game = new ChessGame();
+        GameHistory history = new GameHistory(game, checkpointInterval);
+        for (ChessMove move : moves) {
+            game.executeMove(move.getCurrentPieceSquare(), move.getTargetSquare(), move.getTypeOfPieceToPromoteTo());
+            history.addMove(move, game);
+        }
+        return history;
+    }
+
+    /**
+     * Seeks to every ply of the history, the same game being reset each time.
+     *
+     * @param history The history.
+     * @param game    The game to reset.
+     * @return A value derived from the sought positions, for the sink.
+     */
+    private static long seekEveryPly(GameHistory history, ChessGame game) {
+        long value = 0;
+        for (int ply = 0; ply <= history.size(); ply++) {
+            history.seek(ply, game);
+            value += game.getPlayedPlies();
+        }
+        return value;
+    }
+
+    /**
+     * Measures the average time to seek to a ply of the history.
+     *
+     * @param history The history.
+     * @return The average time of a seek in microseconds.
+     */
+    private double measure(GameHistory history) {
+        ChessGame game = new ChessGame();
+        for (int i = 0; i < WARMUP_ROUNDS; i++)
+            sink += seekEveryPly(history, game);
+
+        long startTime = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++)
+            sink += seekEveryPly(history, game);
+        return (System.nanoTime() - startTime) / NANOS_IN_MICROSECOND / MEASURED_ROUNDS / (history.size() + 1);
+    }
+
+    /**
+     * Checks that seeking to the last ply gives the position the game ended in.
+     *
+     * @param history The history.
+     * @param moves   The moves of the game.
+     * @return True if the positions are the same, false otherwise.
+     */
+    private static boolean seeksToEnd(GameHistory history, List<ChessMove> moves) {
+        ChessGame game = new ChessGame();
+        for (ChessMove move : moves)
+            game.executeMove(move.getCurrentPieceSquare(), move.getTargetSquare(), move.getTypeOfPieceToPromoteTo());
+        return new PackedPosition(game).equals(new PackedPosition(history.seek(history.size())));
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @return The report of the benchmark.
+     */
+    public String run() {
+        List<ChessMove> moves = playRandomGame(new Random(SEED));
+
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("game of %d plies, %d bytes of packed moves%n", moves.size(),
+                moves.size() * Short.BYTES));
+        report.append(String.format("%10s %12s %14s %12s %8s%n", "interval", "checkpoints", "checkpoint B",
+                "seek us", "match"));
+        for (int checkpointInterval : CHECKPOINT_INTERVALS) {
+            GameHistory history = record(moves, checkpointInterval);
+            long memoryBytes = history.getCheckpointMemoryBytes();
+            report.append(String.format("%10s %12d %14d %12.2f %8s%n",
+                    checkpointInterval == Integer.MAX_VALUE ? "none" : String.valueOf(checkpointInterval),
+                    memoryBytes / (PackedPosition.SIZE * Long.BYTES), memoryBytes, measure(history),
+                    seeksToEnd(history, moves)));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Runs the benchmark and prints the results.
+     *
+     * @param args Not used.
+     */
+    public static void main(String[] args) {
+        GameHistoryBenchmark benchmark = new GameHistoryBenchmark();
+        System.out.print(benchmark.run());
+        System.out.println("(sink " + (benchmark.sink & 1) + ")");
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.chessfrontend.loadtest;
+
+import com.example.chessfrontend.modulus.GameUser;
+import com.example.chessfrontend.servercommunication.JsonWriter;
+import com.example.chessfrontend.servercommunication.ServerRequestHandler;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static com.example.chessfrontend.modulus.ChessBoard.DEFAULT_PROMOTION;
+
+/**
+ * A benchmark of the JSON payloads of the requests: the bytes allocated and the time to write a payload with
+ * the pooled JsonWriter, against the string concatenation and the HashMap the client used before it,
+ * which are kept here as they were, followed by the UTF-8 encoding the request did of the resulting String.
+ * The allocated bytes are read from the allocation counter of the current thread.
+ * The payloads of the writer are checked to be the same as the ones ServerRequestHandler and GameUser send.
+ * Each payload is warmed up before it is measured, so the numbers are of the compiled code.
+ */
+public class JsonWriterBenchmark {
+    private static final int WARMUP_ITERATIONS = 200_000;
+    private static final int MEASURED_ITERATIONS = 1_000_000;
+    private static final byte E2 = 11;
+    private static final byte E4 = 27;
+    private static final int RATING = 1_500;
+
+    private final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final ServerRequestHandler serverRequestHandler = new ServerRequestHandler();
+    private final GameUser gameUser = new GameUser("benchmark-player", RATING);
+
+    // Consumes the results of the benchmarked code, so the JIT can't remove it
+    private long sink;
+
+    /**
+     * Constructs a benchmark.
+     */
+    public JsonWriterBenchmark() {
+        gameUser.setToken(UUID.randomUUID().toString());
+    }
+
+    /**
+     * Writes the submitted move by string concatenation, the same as the client did before the writer.
+     *
+     * @return The UTF-8 bytes of the payload.
+     */
+    private byte[] concatenateMove() {
+        return ("{" +
+                "\"gameUser\": {" +
+                "\"userName\": \"" + gameUser.getUserName() + "\"," +
+                "\"token\": \"" + gameUser.getToken() + "\"" +
+                "}," +
+                "\"chessMove\": {" +
+                "\"currentPieceSquare\": " + E2 + "," +
+                "\"targetSquare\": " + E4 + "," +
+                "\"typeOfPieceToPromoteTo\": \"" + DEFAULT_PROMOTION + "\"" +
+                "}" +
+                "}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes the submitted move with the writer, the same as ServerRequestHandler does.
+     *
+     * @return The UTF-8 bytes of the payload.
+     */
+    private byte[] writeMove() {
+        return JsonWriter.acquire()
+                .beginObject()
+                .name("gameUser").beginObject()
+                .field("userName", gameUser.getUserName())
+                .field("token", gameUser.getToken())
+                .endObject()
+                .name("chessMove").beginObject()
+                .field("currentPieceSquare", E2)
+                .field("targetSquare", E4)
+                .field("typeOfPieceToPromoteTo", DEFAULT_PROMOTION)
+                .endObject()
+                .endObject()
+                .toByteArray();
+    }
+
+    /**
+     * Writes the game user through a HashMap of its attributes, the same as the client did before the writer.
+     *
+     * @return The UTF-8 bytes of the payload.
+     */
+    private byte[] concatenateUser() {
+        Map<String, String> attributes = new HashMap<>();
+        if (gameUser.getUserName() != null)
+            attributes.put("userName", gameUser.getUserName());
+        if (gameUser.getToken() != null)
+            attributes.put("token", gameUser.getToken());
+        if (gameUser.getRating() != 0)
+            attributes.put("rating", String.valueOf(gameUser.getRating()));
+
+        StringBuilder stringBuilder = new StringBuilder();
+        stringBuilder.append("{");
+        int count = 0;
+        for (Map.Entry<String, String> entry : attributes.entrySet()) {
+            stringBuilder.append("\"").append(entry.getKey()).append("\": \"").append(entry.getValue()).append("\"");
+            if (++count < attributes.size())
+                stringBuilder.append(", ");
+        }
+        stringBuilder.append("}");
+        return stringBuilder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes the game user with the writer, the same as ServerRequestHandler does.
+     *
+     * @return The UTF-8 bytes of the payload.
+     */
+    private byte[] writeUser() {
+        JsonWriter writer = JsonWriter.acquire();
+        gameUser.writeJson(writer);
+        return writer.toByteArray();
+    }
+
+    /**
+     * Measures the bytes allocated and the time to write a payload.
+     *
+     * @param payload The writer of the payload.
+     * @return The average bytes allocated and the average time in nanoseconds of a payload.
+     */
+    private double[] measure(Supplier<byte[]> payload) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++)
+            sink += payload.get().length;
+
+        long startBytes = threadMXBean.getCurrentThreadAllocatedBytes();
+        long startTime = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++)
+            sink += payload.get().length;
+        long elapsedNanos = System.nanoTime() - startTime;
+        long allocatedBytes = threadMXBean.getCurrentThreadAllocatedBytes() - startBytes;
+        return new double[]{(double) allocatedBytes / MEASURED_ITERATIONS, (double) elapsedNanos / MEASURED_ITERATIONS};
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @return The report of the benchmark.
+     */
+    public String run() {
+        byte[] sentMove = serverRequestHandler.parseIntoJson(gameUser, E2, E4).getBytes(StandardCharsets.UTF_8);
+        byte[] sentUser = gameUser.convertIntoJson().getBytes(StandardCharsets.UTF_8);
+
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%-26s %8s %14s %10s %8s%n", "payload", "bytes", "allocated B", "ns", "match"));
+        appendRow(report, "submit-move concatenated", concatenateMove(), measure(this::concatenateMove), "-");
+        appendRow(report, "submit-move JsonWriter", writeMove(), measure(this::writeMove),
+                String.valueOf(Arrays.equals(writeMove(), sentMove)));
+        appendRow(report, "game user HashMap", concatenateUser(), measure(this::concatenateUser), "-");
+        appendRow(report, "game user JsonWriter", writeUser(), measure(this::writeUser),
+                String.valueOf(Arrays.equals(writeUser(), sentUser)));
+        return report.toString();
+    }
+
+    /**
+     * Appends the row of a payload to the report.
+     *
+     * @param report      The report.
+     * @param name        The name of the payload.
+     * @param payload     The payload.
+     * @param measurement The average bytes allocated and the average time in nanoseconds of a payload.
+     * @param match       Whether the payload is the one the client sends, or "-" if it is not checked.
+     */
+    private static void appendRow(StringBuilder report, String name, byte[] payload, double[] measurement,
+                                  String match) {
+        report.append(String.format("%-26s %8d %14.1f %10.1f %8s%n", name, payload.length, measurement[0],
+                measurement[1], match));
+    }
+
+    /**
+     * Runs the benchmark and prints the results.
+     *
+     * @param args Not used.
+     */
+    public static void main(String[] args) {
+        JsonWriterBenchmark benchmark = new JsonWriterBenchmark();
+        System.out.print(benchmark.run());
+        System.out.println("(sink " + (benchmark.sink & 1) + ")");
+    }
+}
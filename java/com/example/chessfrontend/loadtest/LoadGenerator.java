@@ -0,0 +1,129 @@
+package com.example.chessfrontend.loadtest;
+
+import com.example.chessfrontend.servercommunication.ServerRequestHandler;
+import com.example.chessfrontend.servercommunication.SessionRegistry;
+import com.example.chessfrontend.testserver.MockGameServer;
+
+import java.io.IOException;
+import java.rmi.RemoteException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A headless load generator, that runs many simulated players against the server at once,
+ * to find out how much load the server can take.
+ * Each player runs on its own thread, a virtual thread when the runtime has them,
+ * and otherwise a platform thread with a small stack, so thousands of players fit in one process.
+ * <p>
+ * Runs against the server set by -Dchess.server.url, or against an embedded MockGameServer if it is not set.
+ * Arguments, all optional: players, games per player, moves per game after which a player resigns,
+ * and the latency injected by the embedded server in milliseconds.
+ */
+public class LoadGenerator {
+    private static final int DEFAULT_PLAYERS = 100;
+    private static final int DEFAULT_GAMES_PER_PLAYER = 1;
+    private static final int DEFAULT_MAX_MOVES_PER_GAME = 40;
+    private static final long DEFAULT_LATENCY_MILLISECOND = 0;
+    private static final String USER_NAME_PREFIX = "load-player-";
+    private static final String PLAYER_THREAD_NAME = "load-player-";
+    private static final String VIRTUAL_THREAD_EXECUTOR_METHOD = "newVirtualThreadPerTaskExecutor";
+    private static final long PLAYER_THREAD_STACK_SIZE = 256 * 1024;
+    private static final long MAX_TEST_DURATION_MINUTES = 60;
+
+    private final int players;
+    private final int gamesPerPlayer;
+    private final int maxMovesPerGame;
+    private final LoadStats stats = new LoadStats();
+
+    /**
+     * Constructs a load generator.
+     *
+     * @param players         The number of simulated players.
+     * @param gamesPerPlayer  The number of games each player plays.
+     * @param maxMovesPerGame The number of moves after which a player resigns, if the game did not end.
+     */
+    public LoadGenerator(int players, int gamesPerPlayer, int maxMovesPerGame) {
+        this.players = players;
+        this.gamesPerPlayer = gamesPerPlayer;
+        this.maxMovesPerGame = maxMovesPerGame;
+    }
+
+    /**
+     * Runs all the simulated players until they finished their games.
+     *
+     * @return The results of the load test.
+     * @throws RemoteException      If the RMI registry of the players could not be created.
+     * @throws InterruptedException If the thread was interrupted while waiting for the players.
+     */
+    public LoadStats run() throws RemoteException, InterruptedException {
+        // the players bind themselves in the registry the client binds its GamePlayServant in,
+        // so the server pushes moves to the players the same as to the client
+        SessionRegistry registry = SessionRegistry.getShared();
+        ExecutorService executor = newPlayerExecutor();
+        try {
+            for (int i = 0; i < players; i++)
+                executor.execute(new SimulatedPlayer(USER_NAME_PREFIX + i, registry, stats, gamesPerPlayer,
+                        maxMovesPerGame));
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(MAX_TEST_DURATION_MINUTES, TimeUnit.MINUTES);
+        }
+        return stats;
+    }
+
+    /**
+     * Creates the executor that runs the players, a thread per player.
+     * Virtual threads are used when the runtime has them, found by reflection since the client targets Java 17.
+     *
+     * @return The executor.
+     */
+    private static ExecutorService newPlayerExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod(VIRTUAL_THREAD_EXECUTOR_METHOD).invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger threadCount = new AtomicInteger();
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(null, runnable, PLAYER_THREAD_NAME + threadCount.incrementAndGet(),
+                        PLAYER_THREAD_STACK_SIZE);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Runs a load test and prints its results.
+     *
+     * @param args The number of players, games per player, moves per game and injected latency, all optional.
+     * @throws IOException          If the embedded server could not be started.
+     * @throws InterruptedException If the thread was interrupted while waiting for the players.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int players = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PLAYERS;
+        int gamesPerPlayer = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_GAMES_PER_PLAYER;
+        int maxMovesPerGame = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_MAX_MOVES_PER_GAME;
+        long latency = args.length > 3 ? Long.parseLong(args[3]) : DEFAULT_LATENCY_MILLISECOND;
+
+        MockGameServer mockServer = null;
+        if (System.getProperty(ServerRequestHandler.SERVER_URL_PROPERTY) == null) {
+            mockServer = new MockGameServer(0);
+            mockServer.setLatency(latency, 0);
+            mockServer.start();
+            ServerRequestHandler.setServerUrl(mockServer.getUrl());
+        }
+        System.out.println("Running " + players + " players against " + ServerRequestHandler.getServerUrl());
+
+        try {
+            long startTime = System.nanoTime();
+            LoadStats stats = new LoadGenerator(players, gamesPerPlayer, maxMovesPerGame).run();
+            System.out.print(stats.report(players, System.nanoTime() - startTime));
+            System.out.print(ServerRequestHandler.getRequestMetrics());
+        } finally {
+            if (mockServer != null)
+                mockServer.stop();
+        }
+        System.exit(0);
+    }
+}
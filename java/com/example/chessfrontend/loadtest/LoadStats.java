@@ -0,0 +1,97 @@
+package com.example.chessfrontend.loadtest;
+
+import com.example.chessfrontend.servercommunication.LatencyHistogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The results of a load test, shared by all the simulated players.
+ * Counts the games and moves played, keeps a histogram of the round trip of the submitted moves,
+ * and counts the errors by the step of the game they happened in.
+ */
+public class LoadStats {
+    // Steps of the game errors are counted by
+    public static final String LOGIN_STEP = "login";
+    public static final String MATCHMAKING_STEP = "matchmaking";
+    public static final String SUBMIT_MOVE_STEP = "submit-move";
+    public static final String OPPONENT_MOVE_STEP = "opponent-move";
+    public static final String RESIGN_STEP = "resign";
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private final LatencyHistogram moveRoundTrip = new LatencyHistogram();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder games = new LongAdder();
+    private final LongAdder moves = new LongAdder();
+    private final Map<String, LongAdder> errorsByStep = new ConcurrentHashMap<>();
+
+    /**
+     * Records a request sent to the server.
+     */
+    public void recordRequest() {
+        requests.increment();
+    }
+
+    /**
+     * Records a move the server approved.
+     *
+     * @param roundTripNanos The time from submitting the move until the server approved it, in nanoseconds.
+     */
+    public void recordMove(long roundTripNanos) {
+        moves.increment();
+        moveRoundTrip.record(roundTripNanos);
+    }
+
+    /**
+     * Records a game that was played to its end.
+     */
+    public void recordGame() {
+        games.increment();
+    }
+
+    /**
+     * Records an error.
+     *
+     * @param step The step of the game the error happened in.
+     */
+    public void recordError(String step) {
+        errorsByStep.computeIfAbsent(step, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Gets the number of errors in all the steps.
+     *
+     * @return The number of errors.
+     */
+    public long getErrors() {
+        long errors = 0;
+        for (LongAdder stepErrors : errorsByStep.values())
+            errors += stepErrors.sum();
+        return errors;
+    }
+
+    /**
+     * Returns a report of the results.
+     *
+     * @param players        The number of simulated players.
+     * @param elapsedNanos   The duration of the test in nanoseconds.
+     * @return The report.
+     */
+    public String report(int players, long elapsedNanos) {
+        double seconds = elapsedNanos / NANOS_PER_SECOND;
+        long requestCount = requests.sum();
+        Map<String, Long> errors = new TreeMap<>();
+        errorsByStep.forEach((step, count) -> errors.put(step, count.sum()));
+
+        return String.format("players=%d duration=%.1fs games=%d moves=%d throughput=%.1f moves/s%n"
+                        + "move round trip: p50=%.1fms p99=%.1fms max=%.1fms mean=%.1fms%n"
+                        + "requests=%d errors=%d error rate=%.2f%% %s%n",
+                players, seconds, games.sum(), moves.sum(), moves.sum() / seconds,
+                moveRoundTrip.getPercentileMillis(50), moveRoundTrip.getPercentileMillis(99),
+                moveRoundTrip.getMaxMillis(), moveRoundTrip.getMeanMillis(),
+                requestCount, getErrors(), requestCount == 0 ? 0 : 100.0 * getErrors() / requestCount, errors);
+    }
+}
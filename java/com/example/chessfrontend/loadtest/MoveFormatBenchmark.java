@@ -0,0 +1,165 @@
+package com.example.chessfrontend.loadtest;
+
+import com.example.chessfrontend.modulus.ChessGame;
+import com.example.chessfrontend.modulus.ChessMove;
+import com.example.chessfrontend.modulus.GameUser;
+import com.example.chessfrontend.servercommunication.MoveMessage;
+import com.example.chessfrontend.servercommunication.PushFrame;
+import com.example.chessfrontend.servercommunication.ServerRequestHandler;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * A benchmark of the formats of the move traffic: the bytes per move and the time to encode and decode a move,
+ * of the JSON payload of a submitted move, of a ChessMove serialized by Java serialization as RMI sends it
+ * to the opponent, and of the binary MoveMessage and its push frame.
+ * Each format is warmed up before it is measured, so the times are of the compiled code.
+ */
+public class MoveFormatBenchmark {
+    private static final int WARMUP_ITERATIONS = 200_000;
+    private static final int MEASURED_ITERATIONS = 1_000_000;
+    private static final int GAME_ID = 123_456;
+    private static final int SEQUENCE = 42;
+    private static final int CLOCK_MILLISECOND = 180_000;
+    private static final byte E2 = 11;
+    private static final byte E4 = 27;
+
+    private final ServerRequestHandler serverRequestHandler = new ServerRequestHandler();
+    private final GameUser gameUser = new GameUser("benchmark-player", "password");
+    private final ChessMove move = new ChessMove(E2, E4, ChessGame.PROMOTE_TO_QUEEN);
+    private final MoveMessage moveMessage = new MoveMessage(GAME_ID, SEQUENCE, move.toPackedMove(),
+            CLOCK_MILLISECOND);
+    private final ByteBuffer messageBuffer = ByteBuffer.allocate(MoveMessage.ENCODED_BYTES);
+
+    // Consumes the results of the benchmarked code, so the JIT can't remove it
+    private long sink;
+
+    /**
+     * Constructs a benchmark.
+     */
+    public MoveFormatBenchmark() {
+        gameUser.setToken(UUID.randomUUID().toString());
+    }
+
+    /**
+     * Measures the average time of an operation.
+     *
+     * @param operation The operation.
+     * @return The average time of the operation in nanoseconds.
+     * @throws IOException If the operation failed.
+     */
+    private double measure(MoveOperation operation) throws IOException {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++)
+            sink += operation.run();
+
+        long startTime = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++)
+            sink += operation.run();
+        return (double) (System.nanoTime() - startTime) / MEASURED_ITERATIONS;
+    }
+
+    /**
+     * Encodes the submitted move as JSON, the same as the client sends it.
+     *
+     * @return The JSON payload.
+     */
+    private byte[] encodeJson() {
+        return serverRequestHandler.parseIntoJson(gameUser, E2, E4).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Serializes the move with Java serialization, the same as RMI sends it as the argument of a call.
+     *
+     * @return The serialized move.
+     * @throws IOException If the move could not be serialized.
+     */
+    private byte[] encodeSerialized() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream outputStream = new ObjectOutputStream(bytes)) {
+            outputStream.writeObject(move);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Deserializes a move serialized with Java serialization.
+     *
+     * @param serialized The serialized move.
+     * @return The move.
+     * @throws IOException If the move could not be deserialized.
+     */
+    private static ChessMove decodeSerialized(byte[] serialized) throws IOException {
+        try (ObjectInputStream inputStream = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+            return (ChessMove) inputStream.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @return The report of the benchmark.
+     * @throws IOException If a move could not be encoded or decoded.
+     */
+    public String run() throws IOException {
+        byte[] json = encodeJson();
+        byte[] serialized = encodeSerialized();
+        byte[] submitPayload = moveMessage.toSubmitPayload(gameUser.getToken());
+        int pushFrameBytes = PushFrame.opponentMove(moveMessage).encode().remaining();
+        ByteBuffer encodedMessage = ByteBuffer.allocate(MoveMessage.ENCODED_BYTES);
+        moveMessage.writeTo(encodedMessage);
+
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%-32s %8s %12s %12s%n", "format", "bytes", "encode ns", "decode ns"));
+        report.append(String.format("%-32s %8d %12.1f %12s%n", "submit-move JSON", json.length,
+                measure(() -> encodeJson().length), "-"));
+        report.append(String.format("%-32s %8d %12.1f %12s%n", "submit-move binary + token", submitPayload.length,
+                measure(() -> moveMessage.toSubmitPayload(gameUser.getToken()).length), "-"));
+        report.append(String.format("%-32s %8d %12.1f %12.1f%n", "opponent move Java serialization",
+                serialized.length, measure(() -> encodeSerialized().length),
+                measure(() -> decodeSerialized(serialized).toPackedMove())));
+        report.append(String.format("%-32s %8d %12.1f %12.1f%n", "MoveMessage", MoveMessage.ENCODED_BYTES,
+                measure(() -> {
+                    messageBuffer.clear();
+                    moveMessage.writeTo(messageBuffer);
+                    return messageBuffer.position();
+                }),
+                measure(() -> MoveMessage.readFrom(encodedMessage.clear()).getPackedMove())));
+        report.append(String.format("%-32s %8d %12s %12s%n", "opponent move push frame", pushFrameBytes, "-", "-"));
+        return report.toString();
+    }
+
+    /**
+     * Runs the benchmark and prints the results.
+     *
+     * @param args Not used.
+     * @throws IOException If a move could not be encoded or decoded.
+     */
+    public static void main(String[] args) throws IOException {
+        MoveFormatBenchmark benchmark = new MoveFormatBenchmark();
+        System.out.print(benchmark.run());
+        System.out.println("(sink " + (benchmark.sink & 1) + ")");
+    }
+
+    /**
+     * A format under benchmark, encoding or decoding a single move.
+     */
+    @FunctionalInterface
+    private interface MoveOperation {
+        /**
+         * Encodes or decodes a move.
+         *
+         * @return A value derived from the result, for the sink.
+         * @throws IOException If the move could not be encoded or decoded.
+         */
+        long run() throws IOException;
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.chessfrontend.loadtest;
+
+import com.example.chessfrontend.modulus.GameRecord;
+import com.example.chessfrontend.modulus.GameUser;
+import com.example.chessfrontend.servercommunication.ServerResponseParser;
+
+import java.util.LinkedList;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A benchmark of the parsing of the responses of the server: the streaming ServerResponseParser against the
+ * regular expressions the client used before it, which are kept here as they were, compiling their pattern
+ * on every call and collecting the objects into a LinkedList.
+ * The leaderboard and the match history are parsed at several sizes, in the toString format of the server
+ * entities that the server sends, and the results of the two parsers are checked to be the same.
+ * Each parser is warmed up before it is measured, so the times are of the compiled code.
+ */
+public class ResponseParserBenchmark {
+    private static final int[] RESPONSE_SIZES = {10, 100, 1_000, 10_000, 100_000};
+    // The number of objects parsed for each measurement, whatever the size of the response
+    private static final int WARMUP_OBJECTS = 2_000_000;
+    private static final int MEASURED_OBJECTS = 4_000_000;
+    private static final int BASE_RATING = 1_200;
+    private static final int RATING_SPREAD = 800;
+    private static final double NANOS_IN_MILLISECOND = 1_000_000.0;
+
+    // The regular expressions of the client before the streaming parser
+    private static final String GAME_USER_REGEX = "GameUser\\{userName='(.*?)', rating=(\\d+)}";
+    private static final String GAME_RECORD_REGEX
+            = "OnlineChessGame\\{gameID=(\\d+),\\s*whiteUserName='([^']+)',\\s*blackUserName='([^']+)'," +
+            "\\s*winnerName='([^']+)',\\s*whitePlayerRating=(\\d+),\\s*blackPlayerRating=(\\d+)}";
+
+    // Consumes the results of the benchmarked code, so the JIT can't remove it
+    private long sink;
+
+    /**
+     * Builds a leaderboard response in the toString format of the server.
+     *
+     * @param size The number of users in the response.
+     * @return The response.
+     */
+    private static String buildUsersResponse(int size) {
+        StringBuilder response = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0)
+                response.append(", ");
+            response.append("GameUser{userName='player").append(i).append("', rating=")
+                    .append(BASE_RATING + i % RATING_SPREAD).append('}');
+        }
+        return response.append(']').toString();
+    }
+
+    /**
+     * Builds a match history response in the toString format of the server.
+     *
+     * @param size The number of game records in the response.
+     * @return The response.
+     */
+    private static String buildRecordsResponse(int size) {
+        StringBuilder response = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0)
+                response.append(", ");
+            response.append("OnlineChessGame{gameID=").append(i)
+                    .append(", whiteUserName='white").append(i)
+                    .append("', blackUserName='black").append(i)
+                    .append("', winnerName='").append(i % 2 == 0 ? "white" : "black").append(i)
+                    .append("', whitePlayerRating=").append(BASE_RATING + i % RATING_SPREAD)
+                    .append(", blackPlayerRating=").append(BASE_RATING + (i * 7) % RATING_SPREAD).append('}');
+        }
+        return response.append(']').toString();
+    }
+
+    /**
+     * Parses the game users of a response with the regular expression the client used before.
+     *
+     * @param input The response.
+     * @return The game users.
+     */
+    private static LinkedList<GameUser> parseGameUsersWithRegex(String input) {
+        LinkedList<GameUser> userList = new LinkedList<>();
+        Matcher matcher = Pattern.compile(GAME_USER_REGEX).matcher(input);
+        while (matcher.find())
+            userList.add(new GameUser(matcher.group(1), Integer.parseInt(matcher.group(2))));
+        return userList;
+    }
+
+    /**
+     * Parses the game records of a response with the regular expression the client used before.
+     *
+     * @param input The response.
+     * @return The game records.
+     */
+    private static LinkedList<GameRecord> parseGameRecordsWithRegex(String input) {
+        LinkedList<GameRecord> gameRecordList = new LinkedList<>();
+        Matcher matcher = Pattern.compile(GAME_RECORD_REGEX).matcher(input);
+        while (matcher.find())
+            gameRecordList.add(new GameRecord(matcher.group(2), matcher.group(3),
+                    Integer.parseInt(matcher.group(5)), Integer.parseInt(matcher.group(6)),
+                    matcher.group(4), Integer.parseInt(matcher.group(1))));
+        return gameRecordList;
+    }
+
+    /**
+     * Measures the average time to parse a response.
+     *
+     * @param input  The response.
+     * @param size   The number of objects in the response.
+     * @param parser The parser, returning a value derived from the parsed objects.
+     * @return The average time of a parse in milliseconds.
+     */
+    private double measure(String input, int size, Function<String, Integer> parser) {
+        for (int i = 0; i < Math.max(1, WARMUP_OBJECTS / size); i++)
+            sink += parser.apply(input);
+
+        int iterations = Math.max(1, MEASURED_OBJECTS / size);
+        long startTime = System.nanoTime();
+        for (int i = 0; i < iterations; i++)
+            sink += parser.apply(input);
+        return (System.nanoTime() - startTime) / NANOS_IN_MILLISECOND / iterations;
+    }
+
+    /**
+     * Checks that both parsers parse the same game users.
+     *
+     * @param input The leaderboard response.
+     * @return True if the game users are the same, false otherwise.
+     */
+    private static boolean usersMatch(String input) {
+        GameUser[] streamed = ServerResponseParser.parseGameUsers(input);
+        LinkedList<GameUser> matched = parseGameUsersWithRegex(input);
+        if (streamed.length != matched.size())
+            return false;
+        int i = 0;
+        for (GameUser user : matched) {
+            if (!user.getUserName().equals(streamed[i].getUserName()) || user.getRating() != streamed[i].getRating())
+                return false;
+            i++;
+        }
+        return true;
+    }
+
+    /**
+     * Checks that both parsers parse the same game records.
+     *
+     * @param input The match history response.
+     * @return True if the game records are the same, false otherwise.
+     */
+    private static boolean recordsMatch(String input) {
+        GameRecord[] streamed = ServerResponseParser.parseGameRecords(input);
+        LinkedList<GameRecord> matched = parseGameRecordsWithRegex(input);
+        if (streamed.length != matched.size())
+            return false;
+        int i = 0;
+        for (GameRecord record : matched) {
+            GameRecord other = streamed[i++];
+            if (record.getGameID() != other.getGameID()
+                    || !record.getWhitePlayerName().equals(other.getWhitePlayerName())
+                    || !record.getBlackPlayerName().equals(other.getBlackPlayerName())
+                    || !record.getWinnerUserName().equals(other.getWinnerUserName())
+                    || record.getWhitePlayerRating() != other.getWhitePlayerRating()
+                    || record.getBlackPlayerRating() != other.getBlackPlayerRating())
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @return The report of the benchmark.
+     */
+    public String run() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%-10s %8s %12s %12s %12s %9s %8s%n", "response", "objects", "chars",
+                "regex ms", "stream ms", "speedup", "match"));
+        for (int size : RESPONSE_SIZES) {
+            String users = buildUsersResponse(size);
+            double regexMillis = measure(users, size, input -> parseGameUsersWithRegex(input).size());
+            double streamMillis = measure(users, size, input -> ServerResponseParser.parseGameUsers(input).length);
+            report.append(String.format("%-10s %8d %12d %12.4f %12.4f %8.2fx %8s%n", "users", size, users.length(),
+                    regexMillis, streamMillis, regexMillis / streamMillis, usersMatch(users)));
+        }
+        for (int size : RESPONSE_SIZES) {
+            String records = buildRecordsResponse(size);
+            double regexMillis = measure(records, size, input -> parseGameRecordsWithRegex(input).size());
+            double streamMillis = measure(records, size,
+                    input -> ServerResponseParser.parseGameRecords(input).length);
+            report.append(String.format("%-10s %8d %12d %12.4f %12.4f %8.2fx %8s%n", "records", size,
+                    records.length(), regexMillis, streamMillis, regexMillis / streamMillis, recordsMatch(records)));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Runs the benchmark and prints the results.
+     *
+     * @param args Not used.
+     */
+    public static void main(String[] args) {
+        ResponseParserBenchmark benchmark = new ResponseParserBenchmark();
+        System.out.print(benchmark.run());
+        System.out.println("(sink " + (benchmark.sink & 1) + ")");
+    }
+}
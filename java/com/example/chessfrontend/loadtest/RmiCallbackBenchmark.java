@@ -0,0 +1,140 @@
+package com.example.chessfrontend.loadtest;
+
+import com.example.chessfrontend.modulus.ChessGame;
+import com.example.chessfrontend.modulus.ChessMove;
+import com.example.chessfrontend.servercommunication.GamePlayService;
+import com.example.chessfrontend.servercommunication.RmiSocketFactory;
+
+import java.io.IOException;
+import java.rmi.MarshalledObject;
+import java.rmi.RemoteException;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.Arrays;
+
+/**
+ * A benchmark of the latency of the RMI callbacks the server makes to push the moves of the opponent,
+ * on the default sockets and on the sockets of RmiSocketFactory.
+ * For each kind of sockets, a GamePlayService is exported, and its stub is passed through serialization
+ * the same as the server gets it from the registry, then called move after move over the loopback interface.
+ * Each kind of sockets is warmed up before it is measured, so the times are of the compiled code
+ * over an open connection.
+ */
+public class RmiCallbackBenchmark {
+    private static final int WARMUP_CALLS = 5_000;
+    private static final int MEASURED_CALLS = 20_000;
+    private static final int GAME_ID = 123_456;
+    private static final double NANOSECONDS_PER_MICROSECOND = 1_000.0;
+    private static final double MEDIAN = 0.5;
+    private static final double P99 = 0.99;
+    private static final byte E2 = 11;
+    private static final byte E4 = 27;
+
+    private final ChessMove move = new ChessMove(E2, E4, ChessGame.PROMOTE_TO_QUEEN);
+
+    /**
+     * Measures the latency of the callbacks on a kind of sockets.
+     *
+     * @param name          The name of the kind of sockets, for the report.
+     * @param socketFactory The socket factory, or null for the default sockets.
+     * @return The line of the report.
+     * @throws IOException If the service could not be exported or called.
+     */
+    private String measure(String name, RmiSocketFactory socketFactory) throws IOException {
+        CallbackCounter service = new CallbackCounter();
+        GamePlayService exported = (GamePlayService) UnicastRemoteObject.exportObject(service, 0,
+                socketFactory, socketFactory);
+        try {
+            GamePlayService stub = copyOfStub(exported);
+            for (int i = 0; i < WARMUP_CALLS; i++)
+                stub.sendSequencedMove(GAME_ID, i, move);
+
+            long[] latencies = new long[MEASURED_CALLS];
+            for (int i = 0; i < MEASURED_CALLS; i++) {
+                long startTime = System.nanoTime();
+                stub.sendSequencedMove(GAME_ID, i, move);
+                latencies[i] = System.nanoTime() - startTime;
+            }
+
+            Arrays.sort(latencies);
+            return String.format("%-36s %10.1f %10.1f %10.1f %10d%n", name,
+                    Arrays.stream(latencies).average().orElse(0) / NANOSECONDS_PER_MICROSECOND,
+                    latencies[(int) (MEDIAN * (MEASURED_CALLS - 1))] / NANOSECONDS_PER_MICROSECOND,
+                    latencies[(int) (P99 * (MEASURED_CALLS - 1))] / NANOSECONDS_PER_MICROSECOND,
+                    service.calls);
+        } finally {
+            UnicastRemoteObject.unexportObject(service, true);
+        }
+    }
+
+    /**
+     * Copies a stub through serialization, the same as the server gets it from the registry,
+     * so its client socket factory is a copy too.
+     *
+     * @param stub The stub.
+     * @return The copy of the stub.
+     * @throws IOException If the stub could not be copied.
+     */
+    private static GamePlayService copyOfStub(GamePlayService stub) throws IOException {
+        try {
+            return new MarshalledObject<>(stub).get();
+        } catch (ClassNotFoundException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @return The report of the benchmark.
+     * @throws IOException If a service could not be exported or called.
+     */
+    public String run() throws IOException {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%-36s %10s %10s %10s %10s%n", "sockets", "avg us", "p50 us", "p99 us",
+                "calls"));
+        report.append(measure("default", null));
+        report.append(measure("TCP_NODELAY", new RmiSocketFactory(true, 0, false)));
+        report.append(measure("TCP_NODELAY + buffers", new RmiSocketFactory(true,
+                RmiSocketFactory.DEFAULT_BUFFER_BYTES, false)));
+        report.append(measure("TCP_NODELAY + buffers + compression", new RmiSocketFactory(true,
+                RmiSocketFactory.DEFAULT_BUFFER_BYTES, true)));
+        return report.toString();
+    }
+
+    /**
+     * Runs the benchmark and prints the results.
+     *
+     * @param args Not used.
+     * @throws IOException If a service could not be exported or called.
+     */
+    public static void main(String[] args) throws IOException {
+        System.out.print(new RmiCallbackBenchmark().run());
+    }
+
+    /**
+     * A GamePlayService that counts the calls it receives.
+     */
+    private static class CallbackCounter implements GamePlayService {
+        private volatile int calls;
+
+        @Override
+        public void sendMove(ChessMove move) throws RemoteException {
+            calls++;
+        }
+
+        @Override
+        public void sendSequencedMove(int gameID, int sequence, ChessMove move) throws RemoteException {
+            calls++;
+        }
+
+        @Override
+        public void enemyResigned() throws RemoteException {
+            calls++;
+        }
+
+        @Override
+        public void challengeAccept(int gameID) throws RemoteException {
+            calls++;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.example.chessfrontend.loadtest;
+
+import com.example.chessfrontend.ServerResponse;
+import com.example.chessfrontend.modulus.ChessGame;
+import com.example.chessfrontend.modulus.ChessMove;
+import com.example.chessfrontend.modulus.GameUser;
+import com.example.chessfrontend.modulus.gamelogic.perft.PerftCalculator;
+import com.example.chessfrontend.servercommunication.GamePlayService;
+import com.example.chessfrontend.servercommunication.RmiSocketFactory;
+import com.example.chessfrontend.servercommunication.ServerRequestHandler;
+import com.example.chessfrontend.servercommunication.ServerResponseParser;
+import com.example.chessfrontend.servercommunication.SessionRegistry;
+
+import java.rmi.RemoteException;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.chessfrontend.modulus.ChessBoard.DEFAULT_PROMOTION;
+import static com.example.chessfrontend.servercommunication.ServerRequestHandler.HTTP_OK;
+
+/**
+ * A headless player of a load test, that plays through the same requests and callbacks as the client,
+ * without JavaFX.
+ * The player logs in, binds itself as the GamePlayService of its token so the server can push the moves
+ * of its opponents, and then finds matches and plays random legal moves, resigning after a number of moves.
+ */
+public class SimulatedPlayer implements GamePlayService, Runnable {
+    private static final long OPPONENT_MOVE_TIMEOUT_MILLISECOND = 30 * 1000;
+    private static final String PASSWORD = "load-test";
+    // the same sockets as the client, null for the default sockets
+    private static final RmiSocketFactory SOCKET_FACTORY = RmiSocketFactory.getConfigured();
+
+    // Put in the inbox of the player when its opponent resigns
+    private static final ChessMove OPPONENT_RESIGNED = new ChessMove();
+
+    private final ServerRequestHandler serverRequestHandler = new ServerRequestHandler();
+    private final PerftCalculator moveGenerator = new PerftCalculator();
+    private final BlockingQueue<ChessMove> opponentMoves = new LinkedBlockingQueue<>();
+    private final String userName;
+    private final SessionRegistry registry;
+    private final LoadStats stats;
+    private final int games;
+    private final int maxMovesPerGame;
+    private GameUser gameUser;
+
+    /**
+     * Constructs a simulated player.
+     *
+     * @param userName        The user name of the player.
+     * @param registry        The registry of the process the player binds itself in.
+     * @param stats           The results of the load test.
+     * @param games           The number of games the player plays.
+     * @param maxMovesPerGame The number of moves after which the player resigns, if the game did not end.
+     */
+    public SimulatedPlayer(String userName, SessionRegistry registry, LoadStats stats, int games,
+                           int maxMovesPerGame) {
+        this.userName = userName;
+        this.registry = registry;
+        this.stats = stats;
+        this.games = games;
+        this.maxMovesPerGame = maxMovesPerGame;
+    }
+
+    /**
+     * Logs in, and plays the games of the player.
+     */
+    @Override
+    public void run() {
+        try {
+            if (!logIn())
+                return;
+
+            UnicastRemoteObject.exportObject(this, 0, SOCKET_FACTORY, SOCKET_FACTORY);
+            registry.bind(gameUser.getToken(), this);
+        } catch (RemoteException e) {
+            stats.recordError(LoadStats.LOGIN_STEP);
+            return;
+        }
+
+        try {
+            for (int i = 0; i < games; i++)
+                playGame();
+        } finally {
+            registry.unbind(gameUser.getToken());
+            try {
+                UnicastRemoteObject.unexportObject(this, true);
+            } catch (RemoteException e) {
+                // the player is done anyway
+            }
+        }
+    }
+
+    /**
+     * Creates the account of the player, if it does not exist yet, and logs in.
+     *
+     * @return True if the player logged in.
+     */
+    private boolean logIn() {
+        stats.recordRequest();
+        serverRequestHandler.createNewAccount(new GameUser(userName, userName + "@load.test", PASSWORD,
+                ThreadLocalRandom.current().nextInt(1000, 2000)));
+
+        gameUser = new GameUser(userName, PASSWORD);
+        stats.recordRequest();
+        ServerResponse response = serverRequestHandler.logIntoAccount(gameUser);
+        if (response == null || response.getHttpStatus() != HTTP_OK) {
+            stats.recordError(LoadStats.LOGIN_STEP);
+            return false;
+        }
+        gameUser.setToken(response.getResponse());
+        return true;
+    }
+
+    /**
+     * Finds a match and plays it until it ends, or until the player resigns.
+     */
+    private void playGame() {
+        opponentMoves.clear();
+        stats.recordRequest();
+        ServerResponse response = serverRequestHandler.findMatchVsRandom(gameUser);
+        if (response == null || response.getHttpStatus() != HTTP_OK) {
+            stats.recordError(LoadStats.MATCHMAKING_STEP);
+            return;
+        }
+        int gameID = Integer.parseInt(response.getResponse().trim());
+
+        stats.recordRequest();
+        response = serverRequestHandler.getPlayerOfMatch(gameID);
+        if (response == null || response.getHttpStatus() != HTTP_OK) {
+            stats.recordError(LoadStats.MATCHMAKING_STEP);
+            return;
+        }
+        GameUser[] players = ServerResponseParser.parseGameUsers(response.getResponse());
+        boolean playingWhite = players.length > 0 && userName.equals(players[0].getUserName());
+
+        ChessGame game = new ChessGame();
+        int movesPlayed = 0;
+        while (true) {
+            if (game.getPlayerToPlay() != playingWhite) {
+                // wait for the move of the opponent, pushed by the server
+                ChessMove opponentMove = waitForOpponentMove();
+                if (opponentMove == null || opponentMove == OPPONENT_RESIGNED)
+                    break;
+                int status = game.executeMove(opponentMove.getCurrentPieceSquare(), opponentMove.getTargetSquare(),
+                        opponentMove.getTypeOfPieceToPromoteTo());
+                if (status == ChessGame.CHECKMATE || status == ChessGame.DRAW)
+                    break;
+                continue;
+            }
+
+            if (movesPlayed >= maxMovesPerGame) {
+                stats.recordRequest();
+                response = serverRequestHandler.reignTheGame(gameUser, gameID);
+                if (response == null || response.getHttpStatus() != HTTP_OK)
+                    stats.recordError(LoadStats.RESIGN_STEP);
+                break;
+            }
+
+            ChessMove move = pickRandomMove(game);
+            if (move == null)
+                break;
+
+            long startTime = System.nanoTime();
+            stats.recordRequest();
+            response = serverRequestHandler.submitMove(gameUser, move.getCurrentPieceSquare(), move.getTargetSquare(),
+                    gameID);
+            if (response == null || response.getHttpStatus() != HTTP_OK) {
+                stats.recordError(LoadStats.SUBMIT_MOVE_STEP);
+                break;
+            }
+            stats.recordMove(System.nanoTime() - startTime);
+            movesPlayed++;
+
+            int status = game.executeMove(move.getCurrentPieceSquare(), move.getTargetSquare(),
+                    move.getTypeOfPieceToPromoteTo());
+            if (status == ChessGame.CHECKMATE || status == ChessGame.DRAW)
+                break;
+        }
+        stats.recordGame();
+    }
+
+    /**
+     * Picks a random legal move. Promotions are always to a queen, the same as the client submits them.
+     *
+     * @param game The game.
+     * @return The move, or null if there are no legal moves.
+     */
+    private ChessMove pickRandomMove(ChessGame game) {
+        List<ChessMove> moves = new ArrayList<>();
+        for (ChessMove move : moveGenerator.generateLegalMoves(game))
+            if (move.getTypeOfPieceToPromoteTo() == DEFAULT_PROMOTION)
+                moves.add(move);
+        return moves.isEmpty() ? null : moves.get(ThreadLocalRandom.current().nextInt(moves.size()));
+    }
+
+    /**
+     * Waits for the server to push the move of the opponent.
+     *
+     * @return The move of the opponent, OPPONENT_RESIGNED if the opponent resigned,
+     * or null if the move did not arrive in time.
+     */
+    private ChessMove waitForOpponentMove() {
+        try {
+            ChessMove move = opponentMoves.poll(OPPONENT_MOVE_TIMEOUT_MILLISECOND, TimeUnit.MILLISECONDS);
+            if (move == null)
+                stats.recordError(LoadStats.OPPONENT_MOVE_STEP);
+            return move;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Receives a move of the opponent from the server.
+     *
+     * @param move The move of the opponent.
+     */
+    @Override
+    public void sendMove(ChessMove move) {
+        opponentMoves.add(move);
+    }
+
+    /**
+     * Receives a move of the opponent with its sequence number from the server.
+     * The player waits for each move before it plays, so the moves arrive in order.
+     *
+     * @param gameID   The ID of the game.
+     * @param sequence The sequence number of the move in the game.
+     * @param move     The move of the opponent.
+     */
+    @Override
+    public void sendSequencedMove(int gameID, int sequence, ChessMove move) {
+        opponentMoves.add(move);
+    }
+
+    /**
+     * Receives the resignation of the opponent from the server.
+     */
+    @Override
+    public void enemyResigned() {
+        opponentMoves.add(OPPONENT_RESIGNED);
+    }
+
+    /**
+     * Receives the acceptance of an invitation, simulated players only play random matches.
+     *
+     * @param gameID The ID of the game.
+     */
+    @Override
+    public void challengeAccept(int gameID) {
+    }
+}
@@ -0,0 +1,326 @@
+package com.example.chessfrontend.loadtest;
+
+import com.example.chessfrontend.ServerResponse;
+import com.example.chessfrontend.modulus.ChessGame;
+import com.example.chessfrontend.modulus.ChessMove;
+import com.example.chessfrontend.modulus.GameUser;
+import com.example.chessfrontend.modulus.PackedMove;
+import com.example.chessfrontend.modulus.gamelogic.PackedPosition;
+import com.example.chessfrontend.modulus.gamelogic.perft.PerftCalculator;
+import com.example.chessfrontend.servercommunication.LatencyHistogram;
+import com.example.chessfrontend.servercommunication.MoveMessage;
+import com.example.chessfrontend.servercommunication.PositionMessage;
+import com.example.chessfrontend.servercommunication.PushChannel;
+import com.example.chessfrontend.servercommunication.PushEventListener;
+import com.example.chessfrontend.servercommunication.ServerRequestHandler;
+import com.example.chessfrontend.servercommunication.ServerResponseParser;
+import com.example.chessfrontend.testserver.MockGameServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static com.example.chessfrontend.modulus.ChessBoard.DEFAULT_PROMOTION;
+import static com.example.chessfrontend.servercommunication.ServerRequestHandler.HTTP_OK;
+
+/**
+ * A benchmark of the fan-out of the moves of a game to its spectators, over the push channels of an embedded
+ * MockGameServer. Two players play random moves while spectators watch, half of them from the first move,
+ * and half joining in the middle of the game, from the keyframe of the game and the moves after it.
+ * <p>
+ * Reports the time from submitting a move to each spectator receiving it, the bytes a late spectator received
+ * to catch up compared to replaying the whole game, and checks that every spectator ends on the position
+ * of the players.
+ * Arguments, all optional: spectators, and moves after which the player to play resigns.
+ */
+public class SpectatorFanOutBenchmark {
+    private static final int DEFAULT_SPECTATORS = 200;
+    private static final int DEFAULT_MOVES = 80;
+    private static final String PASSWORD = "spectator-test";
+    private static final int RATING = 1200;
+    private static final long WAIT_SECONDS = 30;
+    // the length and the type of a frame of the push channel
+    private static final int FRAME_HEADER_BYTES = Integer.BYTES + 1;
+    private static final double MEDIAN = 50;
+    private static final double P99 = 99;
+
+    private final PerftCalculator moveGenerator = new PerftCalculator();
+    private final ServerRequestHandler serverRequestHandler = new ServerRequestHandler();
+    private final LatencyHistogram fanOutLatency = new LatencyHistogram();
+    private final int spectatorCount;
+    private final int moves;
+    private final MockGameServer server;
+    private AtomicLongArray submitTimes;
+
+    /**
+     * Constructs a benchmark against an embedded server.
+     *
+     * @param spectatorCount The number of spectators.
+     * @param moves          The number of moves after which the player to play resigns, if the game did not end.
+     * @param server         The started server.
+     */
+    public SpectatorFanOutBenchmark(int spectatorCount, int moves, MockGameServer server) {
+        this.spectatorCount = spectatorCount;
+        this.moves = moves;
+        this.server = server;
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @return The report of the benchmark.
+     * @throws IOException          If a spectator could not connect to the push server.
+     * @throws InterruptedException If the thread was interrupted while waiting for the spectators.
+     */
+    public String run() throws IOException, InterruptedException {
+        GameUser white = logIn("spectated-white");
+        GameUser black = logIn("spectated-black");
+        CompletableFuture<ServerResponse> whiteMatch = serverRequestHandler.findMatchVsRandomAsync(white);
+        ServerResponse response = serverRequestHandler.findMatchVsRandomAsync(black).join();
+        whiteMatch.join();
+        if (response == null || response.getHttpStatus() != HTTP_OK)
+            return "Failed to start the game\n";
+        int gameID = Integer.parseInt(response.getResponse().trim());
+
+        // the server picks who plays white
+        GameUser[] players = ServerResponseParser.parseGameUsers(
+                serverRequestHandler.getPlayerOfMatch(gameID).getResponse());
+        if (players.length > 0 && players[0].getUserName().equals(black.getUserName())) {
+            GameUser player = white;
+            white = black;
+            black = player;
+        }
+
+        submitTimes = new AtomicLongArray(moves + 1);
+        List<Spectator> spectators = new ArrayList<>();
+        ChessGame game = new ChessGame();
+        try {
+            spectators.addAll(watch(gameID, 0, spectatorCount / 2, false));
+            boolean over = play(game, white, black, gameID, moves / 2);
+            spectators.addAll(watch(gameID, spectatorCount / 2, spectatorCount - spectatorCount / 2, true));
+            if (!over && !play(game, white, black, gameID, moves))
+                serverRequestHandler.reignTheGame(game.getPlayerToPlay() ? white : black, gameID);
+
+            for (Spectator spectator : spectators)
+                spectator.gameOver.await(WAIT_SECONDS, TimeUnit.SECONDS);
+            return report(spectators, game);
+        } finally {
+            for (Spectator spectator : spectators)
+                spectator.channel.close();
+        }
+    }
+
+    /**
+     * Creates an account on the server, and logs it in.
+     *
+     * @param userName The user name.
+     * @return The user, with its token.
+     */
+    private GameUser logIn(String userName) {
+        GameUser user = new GameUser(userName, PASSWORD);
+        user.setToken(server.addAccount(userName, PASSWORD, RATING));
+        return user;
+    }
+
+    /**
+     * Connects spectators to the push server, and waits until each got the position of the game.
+     *
+     * @param gameID     The ID of the game.
+     * @param firstIndex The index of the first spectator, for its user name.
+     * @param count      The number of spectators.
+     * @param late       True if the spectators join the game after it started.
+     * @return The spectators.
+     * @throws IOException          If a spectator could not connect.
+     * @throws InterruptedException If the thread was interrupted while waiting for the positions.
+     */
+    private List<Spectator> watch(int gameID, int firstIndex, int count, boolean late)
+            throws IOException, InterruptedException {
+        InetSocketAddress address = PushChannel.getConfiguredAddress();
+        List<Spectator> spectators = new ArrayList<>();
+        for (int i = firstIndex; i < firstIndex + count; i++) {
+            Spectator spectator = new Spectator(late);
+            String token = server.addAccount("spectator-" + i, PASSWORD, RATING);
+            spectator.channel = PushChannel.connect(address, token, spectator);
+            spectator.channel.spectate(gameID);
+            spectators.add(spectator);
+        }
+        for (Spectator spectator : spectators)
+            spectator.joined.await(WAIT_SECONDS, TimeUnit.SECONDS);
+        return spectators;
+    }
+
+    /**
+     * Plays random moves for both players, until a number of moves were played or the game ended.
+     *
+     * @param game   The game of the players.
+     * @param white  The player who plays white.
+     * @param black  The player who plays black.
+     * @param gameID The ID of the game.
+     * @param until  The number of moves played when to stop.
+     * @return True if the game ended.
+     */
+    private boolean play(ChessGame game, GameUser white, GameUser black, int gameID, int until) {
+        while (game.getPlayedPlies() < until) {
+            List<ChessMove> legalMoves = new ArrayList<>();
+            for (ChessMove move : moveGenerator.generateLegalMoves(game))
+                if (move.getTypeOfPieceToPromoteTo() == DEFAULT_PROMOTION)
+                    legalMoves.add(move);
+            if (legalMoves.isEmpty())
+                return true;
+            ChessMove move = legalMoves.get(ThreadLocalRandom.current().nextInt(legalMoves.size()));
+
+            submitTimes.set(game.getPlayedPlies() + 1, System.nanoTime());
+            ServerResponse response = serverRequestHandler.submitMove(game.getPlayerToPlay() ? white : black,
+                    move.getCurrentPieceSquare(), move.getTargetSquare(), gameID);
+            if (response == null || response.getHttpStatus() != HTTP_OK)
+                return true;
+
+            int status = game.executeMove(move.getCurrentPieceSquare(), move.getTargetSquare(),
+                    move.getTypeOfPieceToPromoteTo());
+            if (status == ChessGame.CHECKMATE || status == ChessGame.DRAW)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Reports the results of the benchmark.
+     *
+     * @param spectators The spectators.
+     * @param game       The game of the players.
+     * @return The report.
+     */
+    private String report(List<Spectator> spectators, ChessGame game) {
+        PackedPosition finalPosition = new PackedPosition(game);
+        int inSync = 0;
+        int outOfOrder = 0;
+        long lateJoinBytes = 0;
+        long lateReplayBytes = 0;
+        int lateSpectators = 0;
+        for (Spectator spectator : spectators) {
+            if (spectator.game != null && finalPosition.equals(new PackedPosition(spectator.game)))
+                inSync++;
+            outOfOrder += spectator.outOfOrder;
+            if (spectator.late) {
+                lateSpectators++;
+                lateJoinBytes += spectator.joinBytes;
+                lateReplayBytes += (long) spectator.joinPlies * (FRAME_HEADER_BYTES + MoveMessage.ENCODED_BYTES);
+            }
+        }
+
+        return String.format("Spectators: %d (%d joined late), moves: %d%n", spectators.size(), lateSpectators,
+                game.getPlayedPlies())
+                + String.format("Moves delivered: %d, out of order: %d, spectators on the final position: %d%n",
+                fanOutLatency.getCount(), outOfOrder, inSync)
+                + String.format("Fan-out latency: mean %.2f ms, p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                fanOutLatency.getMeanMillis(), fanOutLatency.getPercentileMillis(MEDIAN),
+                fanOutLatency.getPercentileMillis(P99), fanOutLatency.getMaxMillis())
+                + String.format("Late join: %.0f bytes per spectator, %.0f bytes to replay the moves%n",
+                lateSpectators == 0 ? 0.0 : (double) lateJoinBytes / lateSpectators,
+                lateSpectators == 0 ? 0.0 : (double) lateReplayBytes / lateSpectators);
+    }
+
+    /**
+     * Runs the benchmark against an embedded server and prints its results.
+     *
+     * @param args The number of spectators and moves, both optional.
+     * @throws IOException          If the server could not be started, or a spectator could not connect.
+     * @throws InterruptedException If the thread was interrupted while waiting for the spectators.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int spectators = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_SPECTATORS;
+        int moves = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_MOVES;
+
+        MockGameServer server = new MockGameServer(0);
+        server.start();
+        ServerRequestHandler.setServerUrl(server.getUrl());
+        System.setProperty(PushChannel.PUSH_ADDRESS_PROPERTY, server.getPushAddress());
+        try {
+            System.out.print(new SpectatorFanOutBenchmark(spectators, moves, server).run());
+        } finally {
+            server.stop();
+        }
+        System.exit(0);
+    }
+
+    /**
+     * A spectator, that follows the game on its own ChessGame, on the reader thread of its push channel.
+     */
+    private class Spectator implements PushEventListener {
+        private final CountDownLatch joined = new CountDownLatch(1);
+        private final CountDownLatch gameOver = new CountDownLatch(1);
+        private final boolean late;
+        private PushChannel channel;
+        private ChessGame game;
+        private int joinBytes;
+        private int joinPlies;
+        private int outOfOrder;
+
+        /**
+         * Constructs a spectator.
+         *
+         * @param late True if the spectator joins the game after it started.
+         */
+        private Spectator(boolean late) {
+            this.late = late;
+        }
+
+        @Override
+        public void onGamePosition(PositionMessage positionMessage) {
+            game = new ChessGame(positionMessage.getPosition());
+            for (short packedMove : positionMessage.getMovesAfter())
+                play(packedMove);
+            joinBytes = FRAME_HEADER_BYTES + positionMessage.getEncodedBytes();
+            joinPlies = game.getPlayedPlies();
+            joined.countDown();
+        }
+
+        @Override
+        public void onGameMove(MoveMessage moveMessage) {
+            if (game == null || moveMessage.getSequence() != game.getPlayedPlies() + 1) {
+                outOfOrder++;
+                return;
+            }
+            fanOutLatency.record(System.nanoTime() - submitTimes.get(moveMessage.getSequence()));
+            play(moveMessage.getPackedMove());
+        }
+
+        @Override
+        public void onGameOver(int gameID) {
+            joined.countDown();
+            gameOver.countDown();
+        }
+
+        @Override
+        public void onMatchFound(int gameID) {
+        }
+
+        @Override
+        public void onOpponentMove(MoveMessage moveMessage) {
+        }
+
+        @Override
+        public void onEnemyResigned(int gameID) {
+        }
+
+        @Override
+        public void onChallengeAccepted(int gameID) {
+        }
+
+        /**
+         * Plays a move on the game of the spectator.
+         *
+         * @param packedMove The move, as a packed move.
+         */
+        private void play(short packedMove) {
+            game.executeMove(PackedMove.getCurrentSquare(packedMove), PackedMove.getTargetSquare(packedMove),
+                    PackedMove.getTypeOfPieceToPromoteTo(packedMove));
+        }
+    }
+}
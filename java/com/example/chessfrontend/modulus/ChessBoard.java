@@ -3,8 +3,10 @@ package com.example.chessfrontend.modulus;
 import com.example.chessfrontend.PiecesImage;
 import com.example.chessfrontend.ServerResponse;
 import com.example.chessfrontend.Utilities;
-import com.example.chessfrontend.modulus.gamelogic.pieces.Piece;
+import com.example.chessfrontend.servercommunication.MoveMessage;
 import com.example.chessfrontend.servercommunication.ServerRequestHandler;
+import javafx.application.Platform;
+import javafx.event.ActionEvent;
 import javafx.event.Event;
 import javafx.event.EventHandler;
 import javafx.scene.image.Image;
@@ -13,6 +15,10 @@ import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.StackPane;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
 import static com.example.chessfrontend.servercommunication.ServerRequestHandler.HTTP_OK;
 
 public class ChessBoard extends GridPane {
@@ -27,11 +33,30 @@ public class ChessBoard extends GridPane {
     public static final char DEFAULT_PROMOTION = 'q';
     private static final String YOU_WON = "Yoy won the game! checkmate!";
     private static final String GAME_IS_DRAW = "It's a tie! the game ended in a draw";
+    private static final String YOU_LOST_ON_TIME = "You ran out of time, you lost the game";
+    private static final long NO_PENDING_MOVE = -1;
 
     private StackPane selectedSquare = null;
+    private boolean waitingForServer = false;
+
+    private final MoveLatencyTracker moveLatencyTracker = new MoveLatencyTracker();
+    // the time the move of the player was played, and its number, until the board draws it
+    private long pendingMoveStartTime = NO_PENDING_MOVE;
+    private int pendingMovePlies;
+
+    // the game is owned by its actor, the board draws the snapshots the actor publishes
+    private final GameActor gameActor;
+    private final AtomicReference<GameSnapshot> snapshotToDraw = new AtomicReference<>();
+    private GameSnapshot snapshot;
+
+    // the color of the player, once the players of the match are known
+    private boolean playerColorKnown;
+    private boolean playerColor;
+    private boolean flagFallHandled;
+    // a spectator watches the moves of both players, and can't play
+    private final boolean spectating;
 
     // constant for handling the game
-    private final ChessGame game;
     private final StackPane[][] boardStackPane = new StackPane[8][8];
     private final ServerRequestHandler serverRequestHandler;
     private final Utilities utilities;
@@ -50,7 +75,11 @@ public class ChessBoard extends GridPane {
         SQUARE_SIZE = VboxSize / 8;
         this.serverRequestHandler = serverRequestHandler;
         this.utilities = utilities;
-        game = new ChessGame();
+        this.spectating = utilities.isSpectating();
+        // the clocks of a watched game are not known when the spectator joins it
+        gameActor = new GameActor(utilities.getCurrentGameID(), serverRequestHandler, this::snapshotPublished,
+                spectating ? null : ChessClock.getConfigured());
+        snapshot = gameActor.getSnapshot();
 
         // get images for the pieces
         piecesImage = new PiecesImage((int) SQUARE_SIZE);
@@ -107,6 +136,8 @@ public class ChessBoard extends GridPane {
          */
         @Override
         public void handle(MouseEvent event) {
+            if (spectating)
+                return;
             StackPane clickedSquare = (StackPane) event.getSource();
 
             if (selectedSquare == null) {
@@ -144,35 +175,86 @@ public class ChessBoard extends GridPane {
 
     /**
      * Attempts to play a move on the chess board.
+     * The move is validated against the drawn snapshot, played by the game actor right away,
+     * then submitted to the server asynchronously. If the server rejects the move, it is rolled back.
+     * Moves are ignored while a previous move is waiting for the server, and unless it is the turn of the player,
+     * so the player never plays the moves of the opponent, whose real moves would then be dropped as duplicates.
+     * A move tried on the turn of the opponent fetches the moves the server played, in case one was lost.
      *
      * @param initialSquareNumber The square number of the initial position of the piece to move.
      * @param finalSquareNumber   The square number of the final position to move the piece to.
      * @param event               The event that triggered the move.
      */
     public void tryToPlayMove(int initialSquareNumber, int finalSquareNumber, Event event) {
-        // check that the piece exist
-        if (game.getPiece((byte) initialSquareNumber) == null)
-            return;
-
-        ServerResponse response = serverRequestHandler.submitMove(utilities.getGameUser(), initialSquareNumber,
-                finalSquareNumber,
-                utilities.getCurrentGameID());
+        long moveStartTime = System.nanoTime();
 
-        if (response == null) {
-            utilities.waitPopupAlert(Utilities.UNEXPECTED_ERROR);
+        // check that it is the turn of the player, that the piece exist, and that the move is legal
+        if (waitingForServer || !playerColorKnown)
+            return;
+        if (snapshot.getPlayerToPlay() != playerColor) {
+            // the move of the opponent the player waits for may have been lost
+            gameActor.catchUpMissedMoves();
             return;
         }
+        if (!snapshot.isLegalMove(initialSquareNumber, finalSquareNumber))
+            return;
 
-        // if server approved the move play it, and update the board
-        if (response.getHttpStatus() != HTTP_OK) {
-            utilities.waitPopupAlert(response.getResponse());
-        } else {
-            int gameResult = game.executeMove((byte) initialSquareNumber, (byte) finalSquareNumber, DEFAULT_PROMOTION);
+        waitingForServer = true;
+        pendingMoveStartTime = moveStartTime;
+        pendingMovePlies = snapshot.getPlayedPlies() + 1;
+
+        // in a timed game, report the time left when the player moved, not when the server got the move
+        int clockMillisecond = snapshot.hasClock() ? (int) TimeUnit.NANOSECONDS.toMillis(
+                snapshot.getRemainingNanos(snapshot.getPlayerToPlay(), moveStartTime)) : MoveMessage.NO_CLOCK;
+
+        // play the move optimistically, and submit it once the actor played it
+        GameUser gameUser = utilities.getGameUser();
+        int gameID = utilities.getCurrentGameID();
+        CompletableFuture<Integer> gameResult = gameActor.playLocalMove((byte) initialSquareNumber,
+                (byte) finalSquareNumber, DEFAULT_PROMOTION, moveStartTime);
+        CompletableFuture<ServerResponse> response = gameResult.thenCompose(result ->
+                result == ChessGame.MOVE_NOT_EXECUTED ? CompletableFuture.completedFuture(null)
+                        : serverRequestHandler.submitMoveAsync(gameUser, initialSquareNumber, finalSquareNumber,
+                        gameID, clockMillisecond));
+
+        utilities.onFxThread(response, serverResponse -> {
+            waitingForServer = false;
+            // the result is known, the response was only requested after it
+            int result = gameResult.getNow(ChessGame.MOVE_NOT_EXECUTED);
+            if (result == ChessGame.MOVE_NOT_EXECUTED)
+                pendingMoveStartTime = NO_PENDING_MOVE;
+            else
+                handleSubmitMoveResponse(serverResponse, result, moveStartTime, event);
+        });
+    }
+
+    /**
+     * Handles the response of the server to a move that was played optimistically.
+     * If the server approved the move, handles the result of the game,
+     * otherwise rolls back the move and updates the board.
+     *
+     * @param response      The response of the server to the move.
+     * @param gameResult    The result of the game after the move.
+     * @param moveStartTime The time the move was played, in nanoseconds.
+     * @param event         The event that triggered the move.
+     */
+    private void handleSubmitMoveResponse(ServerResponse response, int gameResult, long moveStartTime,
+                                          Event event) {
+        boolean approved = response != null && response.getHttpStatus() == HTTP_OK;
+        long roundTrip = System.nanoTime() - moveStartTime;
+        moveLatencyTracker.recordServerRoundTrip(roundTrip, !approved);
+        if (response != null)
+            gameActor.recordRoundTrip(roundTrip);
+
+        if (approved) {
             handleGameResult(gameResult, event);
-            updateBoard();
+            return;
         }
-    }
 
+        // the server did not approve the move, roll it back
+        gameActor.rollbackLocalMove();
+        utilities.waitPopupAlert(response == null ? Utilities.UNEXPECTED_ERROR : response.getResponse());
+    }
 
     /**
      * Handles the result of the chess game.
@@ -193,7 +275,59 @@ public class ChessBoard extends GridPane {
     }
 
     /**
-     * Updates the chessboard with the current state of the game.
+     * Handles the flag fall of the player of the board, by resigning the game on the server,
+     * so the opponent is notified as by a resignation, and going back to the lobby.
+     * The actor only ends the game on the flag of the player, if the opponent runs out of time,
+     * its client resigns the game the same way.
+     *
+     * @param color The color of the player who ran out of time.
+     */
+    private void handleFlagFall(boolean color) {
+        if (!playerColorKnown || color != playerColor)
+            return;
+
+        utilities.onFxThread(serverRequestHandler.reignTheGameAsync(utilities.getGameUser(),
+                utilities.getCurrentGameID()), response -> {
+            utilities.waitPopupAlert(YOU_LOST_ON_TIME);
+            utilities.goToPage(Utilities.GAME_LOBBY_PATH, new ActionEvent(this, null));
+        });
+    }
+
+    /**
+     * Receives a snapshot published by the game actor, on the thread of the actor,
+     * and draws it on the JavaFX Application Thread.
+     * Snapshots published while one is waiting to be drawn replace it, so the board draws only the latest.
+     *
+     * @param published The published snapshot.
+     */
+    private void snapshotPublished(GameSnapshot published) {
+        if (snapshotToDraw.getAndSet(published) == null)
+            Platform.runLater(this::drawLatestSnapshot);
+    }
+
+    /**
+     * Draws the latest published snapshot, and records the perceived latency of the move of the player
+     * once it is on the board.
+     */
+    private void drawLatestSnapshot() {
+        snapshot = snapshotToDraw.getAndSet(null);
+        updateBoard();
+
+        if (snapshot.getGameStatus() == ChessGame.FLAG_FALL && !flagFallHandled) {
+            flagFallHandled = true;
+            handleFlagFall(snapshot.getPlayerToPlay());
+        }
+
+        if (pendingMoveStartTime != NO_PENDING_MOVE && !snapshot.isLastMoveByOpponent()
+                && snapshot.getPlayedPlies() == pendingMovePlies) {
+            moveLatencyTracker.recordPerceivedLatency(System.nanoTime() - pendingMoveStartTime);
+            pendingMoveStartTime = NO_PENDING_MOVE;
+        }
+    }
+
+    /**
+     * Updates the chessboard with the latest drawn snapshot of the game,
+     * marking the squares of the last move of the opponent.
      */
     public void updateBoard() {
         this.getChildren().clear(); // Clear previous content
@@ -210,20 +344,26 @@ public class ChessBoard extends GridPane {
 
                 // clear the image if it was
                 square.getChildren().clear();
-                Piece piece = game.getPiece((byte) squareNumber);
+                int pieceType = snapshot.getPieceType(squareNumber);
 
                 // if there is a piece at that square , get the piece image and add it to that square
-                if (piece != null) {
+                if (pieceType != GameSnapshot.NO_PIECE) {
                     ImageView imageView = new ImageView();
                     imageView.setFitWidth(SQUARE_SIZE);
                     imageView.setFitHeight(SQUARE_SIZE);
-                    Image pieceImage = piecesImage.getImageOfPiece(piece);
+                    Image pieceImage = piecesImage.getImageOfPiece(pieceType, snapshot.getPieceColor(squareNumber));
                     imageView.setImage(pieceImage);
                     square.getChildren().add(imageView);
                 }
                 this.add(square, col, row);
             }
         }
+
+        short lastMove = snapshot.getLastMove();
+        if (lastMove != GameSnapshot.NO_MOVE && snapshot.isLastMoveByOpponent()) {
+            setSquareYellow(PackedMove.getTargetSquare(lastMove));
+            setSquareYellow(PackedMove.getCurrentSquare(lastMove));
+        }
     }
 
     /**
@@ -240,11 +380,49 @@ public class ChessBoard extends GridPane {
     }
 
     /**
-     * Retrieves the current state of the chess game.
+     * Retrieves the tracker of the latency of the moves played on the board.
+     *
+     * @return The move latency tracker.
+     */
+    public MoveLatencyTracker getMoveLatencyTracker() {
+        return moveLatencyTracker;
+    }
+
+    /**
+     * Retrieves the latest snapshot of the game drawn on the board.
+     *
+     * @return The snapshot.
+     */
+    public GameSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Sets the color the player of the board plays, once the players of the match are known.
+     *
+     * @param playerColor The color of the player (true for white, false for black).
+     */
+    public void setPlayerColor(boolean playerColor) {
+        this.playerColor = playerColor;
+        this.playerColorKnown = true;
+        gameActor.setPlayerColor(playerColor);
+    }
+
+    /**
+     * Checks if the user watches the game of the board rather than plays it.
+     *
+     * @return True if the user is a spectator.
+     */
+    public boolean isSpectating() {
+        return spectating;
+    }
+
+    /**
+     * Retrieves the actor that owns the game of the board.
      *
-     * @return The chess game object.
+     * @return The game actor.
      */
-    public ChessGame getGame() {
-        return game;
+    public GameActor getGameActor() {
+        return gameActor;
     }
 }
\ No newline at end of file
@@ -0,0 +1,253 @@
+package com.example.chessfrontend.modulus;
+
+/**
+ * The clock of a timed game, measured with System.nanoTime so it is not affected by changes of the wall clock.
+ * Only the clock of the player to play runs. When a player moves, its clock stops and the bonus of the time control
+ * is applied: with INCREMENT the bonus is added to the clock of the player after the move,
+ * with DELAY the clock of the player starts running only after the bonus has passed.
+ * <p>
+ * The clock also estimates the network lag from the round trips of the submitted moves, smoothed the same as
+ * TCP smooths its round trip time, so the moves of the opponent can be timed at when the opponent played them
+ * rather than when they arrived.
+ * <p>
+ * The clock is not thread-safe. It is owned by the GameActor of the game, and copied into its snapshots.
+ */
+public class ChessClock {
+    // The modes of the bonus of the time control
+    public static final int INCREMENT = 0;
+    public static final int DELAY = 1;
+
+    public static final String TIME_CONTROL_PROPERTY = "chess.time.control";
+    public static final long NO_REPORTED_TIME = -1;
+
+    private static final char INCREMENT_SEPARATOR = '+';
+    private static final char DELAY_SEPARATOR = 'd';
+    private static final long NANOS_IN_SECOND = 1_000_000_000L;
+    private static final long NANOS_IN_MINUTE = 60 * NANOS_IN_SECOND;
+    // the weight of a new round trip in the smoothed round trip, 1/8 as in RFC 6298
+    private static final int ROUND_TRIP_SMOOTHING_SHIFT = 3;
+    // the lag is bounded, so a slow round trip can't give a player more than this
+    private static final long MAX_LAG_NANOS = NANOS_IN_SECOND;
+
+    private final int mode;
+    private final long bonusNanos;
+    private long whiteRemainingNanos;
+    private long blackRemainingNanos;
+    private boolean running;
+    private boolean runningColor;
+    private long turnStartNanos;
+    private long smoothedRoundTripNanos;
+
+    /**
+     * Constructs a stopped clock.
+     *
+     * @param initialNanos The initial time of each player, in nanoseconds.
+     * @param bonusNanos   The bonus of each move, in nanoseconds.
+     * @param mode         The mode of the bonus, INCREMENT or DELAY.
+     */
+    public ChessClock(long initialNanos, long bonusNanos, int mode) {
+        this.mode = mode;
+        this.bonusNanos = bonusNanos;
+        this.whiteRemainingNanos = initialNanos;
+        this.blackRemainingNanos = initialNanos;
+    }
+
+    /**
+     * Constructs a copy of a clock.
+     *
+     * @param other The clock to copy.
+     */
+    public ChessClock(ChessClock other) {
+        this.mode = other.mode;
+        this.bonusNanos = other.bonusNanos;
+        this.smoothedRoundTripNanos = other.smoothedRoundTripNanos;
+        copyFrom(other);
+    }
+
+    /**
+     * Parses a time control, as minutes and a bonus in seconds: "5+3" for 5 minutes with an increment of 3 seconds,
+     * or "5d3" for 5 minutes with a delay of 3 seconds.
+     *
+     * @param timeControl The time control.
+     * @return The stopped clock of the time control, or null if the time control is not valid.
+     */
+    public static ChessClock parse(String timeControl) {
+        int separator = timeControl.indexOf(INCREMENT_SEPARATOR);
+        int mode = INCREMENT;
+        if (separator == -1) {
+            separator = timeControl.indexOf(DELAY_SEPARATOR);
+            mode = DELAY;
+        }
+
+        try {
+            double minutes = Double.parseDouble(separator == -1 ? timeControl : timeControl.substring(0, separator));
+            double bonusSeconds = separator == -1 ? 0 : Double.parseDouble(timeControl.substring(separator + 1));
+            if (minutes <= 0 || bonusSeconds < 0)
+                return null;
+            return new ChessClock((long) (minutes * NANOS_IN_MINUTE), (long) (bonusSeconds * NANOS_IN_SECOND), mode);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Gets the clock of the time control set by -Dchess.time.control.
+     * The server does not send the time control of a game, so it is set on each client, and should match the one
+     * of the backend. Each client only ends the game on the flag of its own player, by resigning on the server,
+     * so clients with different time controls never end the same game differently.
+     *
+     * @return The stopped clock, or null if the property is not set or not valid, for an untimed game.
+     */
+    public static ChessClock getConfigured() {
+        String timeControl = System.getProperty(TIME_CONTROL_PROPERTY);
+        if (timeControl == null)
+            return null;
+
+        ChessClock clock = parse(timeControl);
+        if (clock == null)
+            System.out.println("Invalid time control: " + timeControl);
+        return clock;
+    }
+
+    /**
+     * Copies the times of another clock of the same time control, such as to roll back a move.
+     * The estimated lag is kept.
+     *
+     * @param other The clock to copy.
+     */
+    public void copyFrom(ChessClock other) {
+        whiteRemainingNanos = other.whiteRemainingNanos;
+        blackRemainingNanos = other.blackRemainingNanos;
+        running = other.running;
+        runningColor = other.runningColor;
+        turnStartNanos = other.turnStartNanos;
+    }
+
+    /**
+     * Starts the clock of a player.
+     *
+     * @param color The color of the player (true for white, false for black).
+     * @param now   The current time, from System.nanoTime.
+     */
+    public void start(boolean color, long now) {
+        running = true;
+        runningColor = color;
+        turnStartNanos = now;
+    }
+
+    /**
+     * Stops the clock, such as when the game is over.
+     *
+     * @param now The current time, from System.nanoTime.
+     */
+    public void stop(long now) {
+        if (!running)
+            return;
+        setRemainingNanos(runningColor, getRemainingNanos(runningColor, now));
+        running = false;
+    }
+
+    /**
+     * Stops the clock of the player to play, who moved, applies the bonus, and starts the clock of the other player.
+     *
+     * @param now The time of the move, from System.nanoTime.
+     */
+    public void switchTurn(long now) {
+        switchTurn(now, NO_REPORTED_TIME);
+    }
+
+    /**
+     * Stops the clock of the player to play, who moved, applies the bonus, and starts the clock of the other player.
+     *
+     * @param now                    The time of the move, from System.nanoTime.
+     * @param reportedRemainingNanos The remaining time of the player at the move as reported by the server,
+     *                               before the bonus, or NO_REPORTED_TIME to measure it locally.
+     */
+    public void switchTurn(long now, long reportedRemainingNanos) {
+        if (!running)
+            return;
+        // a move timed back by the lag can't have been played before the turn started
+        now = Math.max(now, turnStartNanos);
+
+        long remainingNanos = reportedRemainingNanos == NO_REPORTED_TIME
+                ? getRemainingNanos(runningColor, now) : reportedRemainingNanos;
+        if (mode == INCREMENT && remainingNanos > 0)
+            remainingNanos += bonusNanos;
+        setRemainingNanos(runningColor, remainingNanos);
+
+        runningColor = !runningColor;
+        turnStartNanos = now;
+    }
+
+    /**
+     * Gets the remaining time of a player.
+     *
+     * @param color The color of the player (true for white, false for black).
+     * @param now   The current time, from System.nanoTime.
+     * @return The remaining time in nanoseconds, 0 if the player ran out of time.
+     */
+    public long getRemainingNanos(boolean color, long now) {
+        long remainingNanos = color ? whiteRemainingNanos : blackRemainingNanos;
+        if (!running || color != runningColor)
+            return remainingNanos;
+
+        long elapsedNanos = now - turnStartNanos;
+        if (mode == DELAY)
+            elapsedNanos = Math.max(0, elapsedNanos - bonusNanos);
+        return Math.max(0, remainingNanos - elapsedNanos);
+    }
+
+    /**
+     * Checks if the player whose clock runs ran out of time.
+     *
+     * @param now The current time, from System.nanoTime.
+     * @return True if the flag of the player fell.
+     */
+    public boolean isFlagFallen(long now) {
+        return running && getRemainingNanos(runningColor, now) == 0;
+    }
+
+    /**
+     * Checks if the clock of a player runs.
+     *
+     * @param color The color of the player (true for white, false for black).
+     * @return True if the clock of the player runs.
+     */
+    public boolean isRunning(boolean color) {
+        return running && runningColor == color;
+    }
+
+    /**
+     * Records the round trip of a move submitted to the server, to estimate the network lag.
+     *
+     * @param roundTripNanos The round trip in nanoseconds.
+     */
+    public void recordRoundTrip(long roundTripNanos) {
+        if (smoothedRoundTripNanos == 0)
+            smoothedRoundTripNanos = roundTripNanos;
+        else
+            smoothedRoundTripNanos += (roundTripNanos - smoothedRoundTripNanos) >> ROUND_TRIP_SMOOTHING_SHIFT;
+    }
+
+    /**
+     * Gets the estimated one-way network lag, half of the smoothed round trip.
+     *
+     * @return The estimated lag in nanoseconds, 0 until a round trip was recorded.
+     */
+    public long getEstimatedLagNanos() {
+        return Math.min(MAX_LAG_NANOS, smoothedRoundTripNanos / 2);
+    }
+
+    /**
+     * Sets the remaining time of a player.
+     *
+     * @param color          The color of the player (true for white, false for black).
+     * @param remainingNanos The remaining time in nanoseconds.
+     */
+    private void setRemainingNanos(boolean color, long remainingNanos) {
+        if (color)
+            whiteRemainingNanos = remainingNanos;
+        else
+            blackRemainingNanos = remainingNanos;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.chessfrontend.modulus;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.Scene;
+import javafx.scene.text.Text;
+
+/**
+ * Shows the clocks of a timed game on every frame, from the latest snapshot drawn on the board.
+ * A frame only computes the remaining times, the texts are replaced only when the shown time changes,
+ * once a second, or once a tenth of a second when a player is short of time, so frames don't allocate.
+ * <p>
+ * The display is the first to see a flag fall, and asks the actor of the game to end the game.
+ * It stops by itself once the page of the board is no longer shown.
+ */
+public class ChessClockDisplay extends AnimationTimer {
+    private static final long NANOS_IN_TENTH = 100_000_000L;
+    private static final long TENTHS_IN_SECOND = 10;
+    private static final long SECONDS_IN_MINUTE = 60;
+    // below this time, tenths of a second are shown
+    private static final long SHOW_TENTHS_BELOW = 20 * TENTHS_IN_SECOND;
+    private static final long NOTHING_SHOWN = -1;
+
+    private final ChessBoard board;
+    private final Text whiteClockText;
+    private final Text blackClockText;
+    private final StringBuilder clockText = new StringBuilder();
+    private long whiteShown = NOTHING_SHOWN;
+    private long blackShown = NOTHING_SHOWN;
+    private boolean boardShown;
+    private GameSnapshot flagReportedSnapshot;
+
+    /**
+     * Constructs the display of the clocks of the game of a board.
+     *
+     * @param board          The board.
+     * @param whiteClockText The text showing the clock of white.
+     * @param blackClockText The text showing the clock of black.
+     */
+    public ChessClockDisplay(ChessBoard board, Text whiteClockText, Text blackClockText) {
+        this.board = board;
+        this.whiteClockText = whiteClockText;
+        this.blackClockText = blackClockText;
+    }
+
+    /**
+     * Updates the clocks, and reports the flag fall of the player to play.
+     *
+     * @param now The time of the frame, not used, the clocks are read at System.nanoTime.
+     */
+    @Override
+    public void handle(long now) {
+        Scene scene = board.getScene();
+        if (scene == null || scene.getWindow() == null) {
+            if (boardShown)
+                stop();
+            return;
+        }
+        boardShown = true;
+
+        GameSnapshot snapshot = board.getSnapshot();
+        if (!snapshot.hasClock())
+            return;
+
+        long time = System.nanoTime();
+        whiteShown = show(whiteClockText, snapshot.getRemainingNanos(true, time), whiteShown);
+        blackShown = show(blackClockText, snapshot.getRemainingNanos(false, time), blackShown);
+
+        // report once per snapshot, a move of the opponent may have been played since the fall was seen
+        if (snapshot != flagReportedSnapshot && snapshot.isFlagFallen(time)) {
+            flagReportedSnapshot = snapshot;
+            board.getGameActor().checkFlagFall();
+        }
+    }
+
+    /**
+     * Shows a remaining time, if it changed since it was last shown.
+     *
+     * @param text           The text showing the clock.
+     * @param remainingNanos The remaining time in nanoseconds.
+     * @param shown          The time shown, in the unit it was shown in, or NOTHING_SHOWN.
+     * @return The time shown now, in the unit it is shown in.
+     */
+    private long show(Text text, long remainingNanos, long shown) {
+        long tenths = remainingNanos / NANOS_IN_TENTH;
+        // tenths below the limit, whole seconds above it, which never collide
+        long toShow = tenths < SHOW_TENTHS_BELOW ? tenths : tenths / TENTHS_IN_SECOND * TENTHS_IN_SECOND;
+        if (toShow == shown)
+            return shown;
+
+        clockText.setLength(0);
+        long seconds = tenths / TENTHS_IN_SECOND;
+        if (tenths < SHOW_TENTHS_BELOW) {
+            clockText.append(seconds).append('.').append(tenths % TENTHS_IN_SECOND);
+        } else {
+            long secondsOfMinute = seconds % SECONDS_IN_MINUTE;
+            clockText.append(seconds / SECONDS_IN_MINUTE).append(':');
+            if (secondsOfMinute < 10)
+                clockText.append('0');
+            clockText.append(secondsOfMinute);
+        }
+        text.setText(clockText.toString());
+        return toShow;
+    }
+}
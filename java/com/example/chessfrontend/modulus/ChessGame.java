@@ -4,6 +4,7 @@ import com.example.chessfrontend.modulus.gamelogic.FenTranslator;
 import com.example.chessfrontend.modulus.gamelogic.GameLogicUtilities;
 import com.example.chessfrontend.modulus.gamelogic.GameStatusHandler;
 import com.example.chessfrontend.modulus.gamelogic.LegalMoveHandler;
+import com.example.chessfrontend.modulus.gamelogic.PackedPosition;
 import com.example.chessfrontend.modulus.gamelogic.pieces.King;
 import com.example.chessfrontend.modulus.gamelogic.pieces.Pawn;
 import com.example.chessfrontend.modulus.gamelogic.pieces.Piece;
@@ -19,6 +20,8 @@ public class ChessGame {
     private long playerTurnPiecesBitBoard;
     private long allPiecesBitBoard;
     private Piece currentPlayerKing;
+    private int halfMoveClock;
+    private int fullMoveNumber;
 
     private SpecialMovesHandler specialMovesHandler;
     private final LegalMoveHandler legalMoveHandler = new LegalMoveHandler();
@@ -31,6 +34,8 @@ public class ChessGame {
     public static final int CHECK = 1;
     public static final int DRAW = 2;
     public static final int CHECKMATE = 3;
+    // the player to play ran out of time, set by the clock of the game rather than by a move
+    public static final int FLAG_FALL = 4;
     public static final char PROMOTE_TO_QUEEN = 'q';
     public static final char PROMOTE_TO_ROOK = 'r';
     public static final char PROMOTE_TO_KNIGHT = 'n';
@@ -43,6 +48,24 @@ public class ChessGame {
         reset("");
     }
 
+    /**
+     * Initializes a new instance of the ChessGame class with the state specified by the FEN string.
+     *
+     * @param fen The FEN (Forsyth-Edwards Notation) string representing the desired state of the chess game.
+     */
+    public ChessGame(String fen) {
+        reset(fen);
+    }
+
+    /**
+     * Initializes a new instance of the ChessGame class with the state of the packed position.
+     *
+     * @param position The packed position representing the desired state of the chess game.
+     */
+    public ChessGame(PackedPosition position) {
+        reset(position);
+    }
+
     /**
      * Resets the game to the default startup or the state specified by the FEN string.
      *
@@ -50,8 +73,35 @@ public class ChessGame {
      *            If empty or null, the game will be reset to the default setup.
      */
     public void reset(String fen) {
-        pieceBoard = new Piece[GameLogicUtilities.BOARD_SIZE];
         translator.translateFen(this, fen);
+        setUpBoard();
+    }
+
+    /**
+     * Resets the game to the state of the packed position.
+     * Unlike reset from a FEN string, no text has to be parsed, which makes it a cheap way to restore a snapshot.
+     *
+     * @param position The packed position representing the desired state of the chess game.
+     */
+    public void reset(PackedPosition position) {
+        position.unpack(this);
+        setUpBoard();
+    }
+
+    /**
+     * Copies the current state of the game into the packed position.
+     *
+     * @param position The packed position to copy the state of the game into.
+     */
+    public void copyTo(PackedPosition position) {
+        position.pack(this);
+    }
+
+    /**
+     * Builds the board from the list of pieces, and updates all other game attributes.
+     */
+    private void setUpBoard() {
+        pieceBoard = new Piece[GameLogicUtilities.BOARD_SIZE];
 
         // Insert pieces from the list into the board
         for (Piece piece : pieceList) {
@@ -103,6 +153,8 @@ public class ChessGame {
                 getLegalMovesAsBitBoard(pieceToMove)))
             return MOVE_NOT_EXECUTED;
 
+        updateMoveClocks(pieceToMove, targetSquare);
+
         if (specialMovesHandler.isSpecialMove(targetSquare, pieceToMove))
             specialMovesHandler.executeSpecialMove(currentSquare, targetSquare, pieceList, pieceBoard,
                     typeOfPieceToPromoteTo);
@@ -137,6 +189,23 @@ public class ChessGame {
         return movementBitBoard;
     }
 
+    /**
+     * Updates the half move clock and the full move number before a move is executed.
+     * The half move clock is reset by a pawn move or a capture, the full move number grows after black's move.
+     *
+     * @param pieceToMove  The piece that is about to move.
+     * @param targetSquare The square the piece is about to move to.
+     */
+    private void updateMoveClocks(Piece pieceToMove, byte targetSquare) {
+        if (pieceToMove instanceof Pawn || pieceBoard[targetSquare] != null)
+            halfMoveClock = 0;
+        else
+            halfMoveClock++;
+
+        if (colorOfPlayersTurn == GameLogicUtilities.BLACK)
+            fullMoveNumber++;
+    }
+
     /**
      * Updates various attributes of the chess game based on the current state, including the current player's king,
      * the bitboards representing all pieces and the current player's pieces, and the legal move handler.
@@ -211,6 +280,25 @@ public class ChessGame {
         this.specialMovesHandler = specialMovesHandler;
     }
 
+    /**
+     * Retrieves the handler for special moves in the chess game.
+     *
+     * @return The handler for special moves in the chess game.
+     */
+    public SpecialMovesHandler getSpecialMovesHandler() {
+        return specialMovesHandler;
+    }
+
+    /**
+     * Retrieves the FEN (Forsyth-Edwards Notation) string representing the current state of the game.
+     * Passing it to reset creates an independent copy of the current position.
+     *
+     * @return The FEN string representing the current state of the game.
+     */
+    public String getFen() {
+        return translator.translateGameToFen(this);
+    }
+
     /**
      * Retrieves the list of chess pieces currently on the board.
      *
@@ -240,6 +328,52 @@ public class ChessGame {
         return colorOfPlayersTurn;
     }
 
+    /**
+     * Retrieves the number of half moves since the last capture or pawn move.
+     *
+     * @return The half move clock.
+     */
+    public int getHalfMoveClock() {
+        return halfMoveClock;
+    }
+
+    /**
+     * Sets the number of half moves since the last capture or pawn move.
+     *
+     * @param halfMoveClock The half move clock.
+     */
+    public void setHalfMoveClock(int halfMoveClock) {
+        this.halfMoveClock = halfMoveClock;
+    }
+
+    /**
+     * Retrieves the number of the full move, starting at 1 and incremented after black's move.
+     *
+     * @return The full move number.
+     */
+    public int getFullMoveNumber() {
+        return fullMoveNumber;
+    }
+
+    /**
+     * Sets the number of the full move.
+     *
+     * @param fullMoveNumber The full move number.
+     */
+    public void setFullMoveNumber(int fullMoveNumber) {
+        this.fullMoveNumber = fullMoveNumber;
+    }
+
+    /**
+     * Retrieves the number of half moves played since the start of the game,
+     * for games that started from the initial position, such as online games.
+     *
+     * @return The number of half moves played.
+     */
+    public int getPlayedPlies() {
+        return (fullMoveNumber - 1) * 2 + (colorOfPlayersTurn == GameLogicUtilities.WHITE ? 0 : 1);
+    }
+
     /**
      * Retrieves the piece located at the specified square on the board.
      *
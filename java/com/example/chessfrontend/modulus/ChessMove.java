@@ -4,8 +4,15 @@ import java.io.*;
 
 /**
  * Represents a move of a piece on the chessboard.
+ * The serialized form is the one the RMI callbacks of the server use: the squares as bytes and the type of piece
+ * to promote to as a char. The serialVersionUID is the one computed for the class before it changed,
+ * so the server deserializes the moves of this client as before.
+ * The compact 16-bit form (see PackedMove) is only used by the binary move messages and the push channel.
  */
 public class ChessMove implements Serializable {
+    @Serial
+    private static final long serialVersionUID = -5819321782594573061L;
+
     private byte currentPieceSquare;
     private byte targetSquare;
     private char typeOfPieceToPromoteTo;
@@ -23,6 +30,21 @@ public class ChessMove implements Serializable {
         this.typeOfPieceToPromoteTo = typeOfPieceToPromoteTo;
     }
 
+    /**
+     * Constructs a PieceMove object from a packed move.
+     *
+     * @param packedMove The 16-bit packed move.
+     */
+    public ChessMove(short packedMove) {
+        setFromPackedMove(packedMove);
+    }
+
+    /**
+     * Constructs an empty PieceMove object.
+     */
+    public ChessMove() {
+    }
+
     /**
      * Generates the string representation of the move.
      *
@@ -72,6 +94,40 @@ public class ChessMove implements Serializable {
         return typeOfPieceToPromoteTo;
     }
 
+    /**
+     * Returns the move as a 16-bit packed move.
+     *
+     * @return The packed move.
+     */
+    public short toPackedMove() {
+        return PackedMove.encode(this);
+    }
+
+    /**
+     * Compares the move with another object.
+     *
+     * @param obj The object to compare with.
+     * @return True if the object is a move with the same squares and type of piece to promote to.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof ChessMove other))
+            return false;
+
+        return currentPieceSquare == other.currentPieceSquare && targetSquare == other.targetSquare
+                && typeOfPieceToPromoteTo == other.typeOfPieceToPromoteTo;
+    }
+
+    /**
+     * Returns the hash code of the move.
+     *
+     * @return The hash code of the move.
+     */
+    @Override
+    public int hashCode() {
+        return toPackedMove();
+    }
+
     /**
      * Custom serialization using ObjectOutputStream.
      *
@@ -99,4 +155,14 @@ public class ChessMove implements Serializable {
         typeOfPieceToPromoteTo = in.readChar();
     }
 
+    /**
+     * Sets the fields of the move from a packed move.
+     *
+     * @param packedMove The 16-bit packed move.
+     */
+    private void setFromPackedMove(short packedMove) {
+        currentPieceSquare = PackedMove.getCurrentSquare(packedMove);
+        targetSquare = PackedMove.getTargetSquare(packedMove);
+        typeOfPieceToPromoteTo = PackedMove.getTypeOfPieceToPromoteTo(packedMove);
+    }
 }
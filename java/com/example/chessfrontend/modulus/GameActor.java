@@ -0,0 +1,460 @@
+package com.example.chessfrontend.modulus;
+
+import com.example.chessfrontend.ServerResponse;
+import com.example.chessfrontend.modulus.gamelogic.pieces.Piece;
+import com.example.chessfrontend.servercommunication.MoveMessage;
+import com.example.chessfrontend.servercommunication.MoveSequencer;
+import com.example.chessfrontend.servercommunication.PositionMessage;
+import com.example.chessfrontend.servercommunication.ServerRequestHandler;
+import com.example.chessfrontend.servercommunication.ServerResponseParser;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static com.example.chessfrontend.servercommunication.ServerRequestHandler.HTTP_OK;
+
+/**
+ * The single owner of a game. The moves of the player, coming from the JavaFX Application Thread,
+ * and the moves of the opponent, coming from RMI and push channel threads, are messages put in a lock-free inbox,
+ * and are applied to the game one at a time, in the order they arrived, on a thread of a shared executor.
+ * No other thread touches the game. Sending a message never blocks the sender.
+ * <p>
+ * After the messages in the inbox are applied, the actor publishes an immutable GameSnapshot of the game
+ * to its listener, once per batch, so a burst of moves is drawn once.
+ * The moves of the opponent are played in the order of their sequence number, see MoveSequencer.
+ * <p>
+ * In a timed game the actor also owns the ChessClock. A move of the player switches the clock at the time
+ * the player played it, and a move of the opponent at the time it arrived less the estimated network lag,
+ * or at the remaining time of the opponent reported by the server.
+ * <p>
+ * The actor of a watched game plays the moves of both players as moves of the opponent,
+ * starting from the position the server sent when the spectator joined.
+ * <p>
+ * The actor records the moves played in a GameHistory, and a rejected move of the player is rolled back
+ * by seeking the history to the ply before it.
+ */
+public class GameActor {
+    private static final String ACTOR_THREAD_NAME = "game-actor-";
+    private static final AtomicInteger ACTOR_THREAD_COUNT = new AtomicInteger();
+
+    // the actors of all the games share the threads, an actor runs on a single thread at a time
+    private static final Executor ACTOR_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, ACTOR_THREAD_NAME + ACTOR_THREAD_COUNT.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final int gameID;
+
+    // many senders, a single consumer: the running actor
+    private final Queue<Message> inbox = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    // only used by the running actor
+    private final ChessGame game = new ChessGame();
+    private GameHistory history = new GameHistory(game);
+    // the plies played before the position the history starts from, not 0 in a watched game
+    private int historyStartPlies;
+    private int pendingMovePlies;
+    private final ChessClock clock;
+    private final ChessClock clockBeforePendingMove;
+    private final MoveSequencer moveSequencer = new MoveSequencer();
+    private short lastMove = GameSnapshot.NO_MOVE;
+    private boolean lastMoveByOpponent;
+    private int gameStatus = ChessGame.NORMAL;
+    private boolean changed;
+    // the color of the player, the actor only plays local moves of this color
+    private boolean playerColorKnown;
+    private boolean playerColor;
+
+    private final ServerRequestHandler serverRequestHandler;
+    private final Consumer<GameSnapshot> snapshotListener;
+    private volatile GameSnapshot snapshot;
+
+    /**
+     * Constructs the actor of a game, starting from the initial position,
+     * and fetches the moves the server played before the actor started.
+     *
+     * @param gameID               The ID of the game, used to sequence the moves of the opponent.
+     * @param serverRequestHandler The server request handler, used to fetch missing moves of the opponent.
+     * @param snapshotListener     The listener of the snapshots, called on the thread of the actor.
+     * @param clock                The stopped clock of the game, started by the actor, or null if it is not timed.
+     */
+    public GameActor(int gameID, ServerRequestHandler serverRequestHandler, Consumer<GameSnapshot> snapshotListener,
+                     ChessClock clock) {
+        this.gameID = gameID;
+        this.serverRequestHandler = serverRequestHandler;
+        this.snapshotListener = snapshotListener;
+        this.clock = clock;
+        moveSequencer.reset(gameID);
+        if (clock != null)
+            clock.start(game.getPlayerToPlay(), System.nanoTime());
+        clockBeforePendingMove = clock == null ? null : new ChessClock(clock);
+        snapshot = new GameSnapshot(game, lastMove, lastMoveByOpponent, gameStatus, clock);
+        // a move pushed before the actor existed may have been lost
+        send("catch up", this::catchUp);
+    }
+
+    /**
+     * Gets the ID of the game of the actor.
+     *
+     * @return The ID of the game.
+     */
+    public int getGameID() {
+        return gameID;
+    }
+
+    /**
+     * Plays a move of the player, keeping the position before it in case the server rejects it.
+     *
+     * @param currentSquare The current square of the piece.
+     * @param targetSquare  The target square of the piece.
+     * @param promotion     The type of piece to promote to.
+     * @param playedNanos   The time the player played the move, from System.nanoTime.
+     * @return A future completed with the status of the game after the move,
+     * or ChessGame.MOVE_NOT_EXECUTED if the move is not legal in the current position.
+     */
+    public CompletableFuture<Integer> playLocalMove(byte currentSquare, byte targetSquare, char promotion,
+                                                    long playedNanos) {
+        CompletableFuture<Integer> result = new CompletableFuture<>();
+        send("local move", () -> result.complete(applyLocalMove(currentSquare, targetSquare, promotion,
+                playedNanos)));
+        return result;
+    }
+
+    /**
+     * Fetches the moves the server played since the last move of the game, such as when the player tries to move
+     * while it is the turn of the opponent, in case a move of the opponent was lost.
+     */
+    public void catchUpMissedMoves() {
+        send("catch up", this::catchUp);
+    }
+
+    /**
+     * Sets the color the player plays, once the players of the match are known.
+     * Until then, no move of the player is played.
+     *
+     * @param color The color of the player (true for white, false for black).
+     */
+    public void setPlayerColor(boolean color) {
+        send("player color", () -> {
+            playerColor = color;
+            playerColorKnown = true;
+        });
+    }
+
+    /**
+     * Rolls back the last move of the player, after the server rejected it or its response was lost,
+     * by seeking the history of the game to the ply before it.
+     * If moves of the opponent were played after it meanwhile, the server did take the move, since the opponent
+     * answered it, so the game is kept and only the moves the server played since are fetched.
+     * A move the server took whose response was lost is rolled back, and played again when the next move
+     * of the opponent shows the gap, the same as a missed move of the opponent.
+     */
+    public void rollbackLocalMove() {
+        send("rollback", () -> {
+            if (game.getPlayedPlies() != pendingMovePlies) {
+                catchUp();
+                return;
+            }
+
+            history.truncate(pendingMovePlies - 1 - historyStartPlies);
+            history.seek(history.size(), game);
+            if (clock != null)
+                clock.copyFrom(clockBeforePendingMove);
+            lastMove = GameSnapshot.NO_MOVE;
+            gameStatus = ChessGame.NORMAL;
+            changed = true;
+        });
+    }
+
+    /**
+     * Plays a move of the opponent in the order of its sequence number.
+     * Moves without a sequence number are played as they arrive.
+     *
+     * @param moveMessage The move of the opponent.
+     */
+    public void receiveMove(MoveMessage moveMessage) {
+        // timed at arrival, not at when the actor gets to it
+        long receivedNanos = System.nanoTime();
+        send("opponent move", () -> {
+            if (moveMessage.getSequence() == MoveMessage.NO_SEQUENCE) {
+                applyOpponentMove(moveMessage.getPackedMove(), receivedNanos, moveMessage.getClockMillisecond());
+                return;
+            }
+
+            int status = moveSequencer.offer(moveMessage, game.getPlayedPlies() + 1);
+            if (status == MoveSequencer.READY) {
+                applyOpponentMove(moveMessage.getPackedMove(), receivedNanos, moveMessage.getClockMillisecond());
+                applyMovesAheadOfGap(receivedNanos);
+            } else if (status == MoveSequencer.GAP) {
+                catchUp();
+            }
+        });
+    }
+
+    /**
+     * Starts the game over from the position of a game in progress, and plays the moves after it,
+     * such as when the user starts watching the game.
+     * Moves that arrived ahead of the position are played after it.
+     *
+     * @param positionMessage The position of the game and the moves after it.
+     */
+    public void receivePosition(PositionMessage positionMessage) {
+        long receivedNanos = System.nanoTime();
+        send("position", () -> {
+            if (positionMessage.getGameID() != moveSequencer.getGameID())
+                return;
+
+            game.reset(positionMessage.getPosition());
+            history = new GameHistory(game);
+            historyStartPlies = game.getPlayedPlies();
+            lastMove = GameSnapshot.NO_MOVE;
+            gameStatus = ChessGame.NORMAL;
+            changed = true;
+            for (short packedMove : positionMessage.getMovesAfter())
+                applyOpponentMove(packedMove, receivedNanos, MoveMessage.NO_CLOCK);
+            applyMovesAheadOfGap(receivedNanos);
+        });
+    }
+
+    /**
+     * Records the round trip of a move of the player submitted to the server, to estimate the network lag.
+     *
+     * @param roundTripNanos The round trip in nanoseconds.
+     */
+    public void recordRoundTrip(long roundTripNanos) {
+        send("round trip", () -> {
+            if (clock != null)
+                clock.recordRoundTrip(roundTripNanos);
+        });
+    }
+
+    /**
+     * Ends the game if the player ran out of time on its turn, setting the status of the game to
+     * ChessGame.FLAG_FALL, so the board resigns the game on the server.
+     * Called by the display of the clock, which sees the flag fall first.
+     * The flag of the opponent never ends the game here: the server doesn't know this clock,
+     * so the game is only over once the client of the opponent resigns on its own clock.
+     */
+    public void checkFlagFall() {
+        send("flag fall", () -> {
+            long now = System.nanoTime();
+            if (clock == null || !playerColorKnown || !clock.isRunning(playerColor) || !clock.isFlagFallen(now))
+                return;
+            clock.stop(now);
+            gameStatus = ChessGame.FLAG_FALL;
+            changed = true;
+        });
+    }
+
+    /**
+     * Gets the last published snapshot of the game.
+     *
+     * @return The snapshot.
+     */
+    public GameSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Puts a message in the inbox, and schedules the actor if it is not already scheduled.
+     *
+     * @param type   The type of the message, for the log if it fails.
+     * @param action The action of the message, run on the thread of the actor.
+     */
+    private void send(String type, Runnable action) {
+        inbox.offer(new Message(type, action));
+        if (scheduled.compareAndSet(false, true))
+            ACTOR_EXECUTOR.execute(this::drainInbox);
+    }
+
+    /**
+     * Applies the messages in the inbox, and publishes a snapshot if the game changed.
+     */
+    private void drainInbox() {
+        Message message;
+        while ((message = inbox.poll()) != null) {
+            try {
+                message.action.run();
+            } catch (RuntimeException e) {
+                System.out.println("Game actor of game " + gameID + " failed to apply the " + message.type
+                        + " message: " + e);
+                e.printStackTrace();
+            }
+        }
+
+        if (changed) {
+            changed = false;
+            snapshot = new GameSnapshot(game, lastMove, lastMoveByOpponent, gameStatus, clock);
+            snapshotListener.accept(snapshot);
+        }
+
+        scheduled.set(false);
+        // a message sent after the inbox was found empty, but before the actor was unscheduled
+        if (!inbox.isEmpty() && scheduled.compareAndSet(false, true))
+            ACTOR_EXECUTOR.execute(this::drainInbox);
+    }
+
+    /**
+     * Plays a move of the player if it is legal.
+     *
+     * @param currentSquare The current square of the piece.
+     * @param targetSquare  The target square of the piece.
+     * @param promotion     The type of piece to promote to.
+     * @param playedNanos   The time the player played the move, from System.nanoTime.
+     * @return The status of the game after the move, or ChessGame.MOVE_NOT_EXECUTED if the move is not legal,
+     * or it is not the turn of the player.
+     */
+    private int applyLocalMove(byte currentSquare, byte targetSquare, char promotion, long playedNanos) {
+        // the player chose the move on a snapshot, a move of the opponent may have been played since
+        Piece piece = game.getPiece(currentSquare);
+        if (playerColorKnown && game.getPlayerToPlay() != playerColor) {
+            catchUp();
+            return ChessGame.MOVE_NOT_EXECUTED;
+        }
+        if (!playerColorKnown || gameStatus == ChessGame.FLAG_FALL || piece == null
+                || (game.getLegalMovesAsBitBoard(piece) & (1L << targetSquare)) == 0)
+            return ChessGame.MOVE_NOT_EXECUTED;
+
+        if (clock != null) {
+            clockBeforePendingMove.copyFrom(clock);
+            clock.switchTurn(playedNanos);
+        }
+        gameStatus = game.executeMove(currentSquare, targetSquare, promotion);
+        pendingMovePlies = game.getPlayedPlies();
+        lastMove = PackedMove.encode(currentSquare, targetSquare, promotion);
+        recordMove(lastMove);
+        lastMoveByOpponent = false;
+        changed = true;
+        return gameStatus;
+    }
+
+    /**
+     * Plays a move of the opponent, and switches the clock at the time the opponent played it.
+     *
+     * @param packedMove       The move, as a packed move.
+     * @param receivedNanos    The time the move arrived, from System.nanoTime.
+     * @param clockMillisecond The remaining time of the opponent reported by the server, or MoveMessage.NO_CLOCK.
+     */
+    private void applyOpponentMove(short packedMove, long receivedNanos, int clockMillisecond) {
+        if (clock != null)
+            clock.switchTurn(receivedNanos - clock.getEstimatedLagNanos(), clockMillisecond == MoveMessage.NO_CLOCK
+                    ? ChessClock.NO_REPORTED_TIME : TimeUnit.MILLISECONDS.toNanos(clockMillisecond));
+        gameStatus = game.executeMove(PackedMove.getCurrentSquare(packedMove),
+                PackedMove.getTargetSquare(packedMove),
+                PackedMove.getTypeOfPieceToPromoteTo(packedMove));
+        recordMove(packedMove);
+        lastMove = packedMove;
+        lastMoveByOpponent = true;
+        changed = true;
+    }
+
+    /**
+     * Plays a move of the player fetched from the server, such as a move the server took whose response was lost,
+     * so it was rolled back. The move isn't validated again, the server took it, and the clock is switched
+     * at the time the moves were fetched, since the time the player played it was lost with the rollback.
+     *
+     * @param packedMove    The move, as a packed move.
+     * @param receivedNanos The time the move was fetched, from System.nanoTime.
+     */
+    private void applyFetchedLocalMove(short packedMove, long receivedNanos) {
+        if (clock != null)
+            clock.switchTurn(receivedNanos);
+        gameStatus = game.executeMove(PackedMove.getCurrentSquare(packedMove),
+                PackedMove.getTargetSquare(packedMove),
+                PackedMove.getTypeOfPieceToPromoteTo(packedMove));
+        recordMove(packedMove);
+        lastMove = packedMove;
+        lastMoveByOpponent = false;
+        changed = true;
+    }
+
+    /**
+     * Records a move in the history of the game, if it was played.
+     *
+     * @param packedMove The move, as a packed move.
+     */
+    private void recordMove(short packedMove) {
+        if (game.getPlayedPlies() - historyStartPlies > history.size())
+            history.addMove(packedMove, game);
+    }
+
+    /**
+     * Plays the moves that waited for the moves before them, as long as they follow the game.
+     *
+     * @param receivedNanos The time the last of the moves arrived, from System.nanoTime.
+     */
+    private void applyMovesAheadOfGap(long receivedNanos) {
+        MoveMessage nextMove;
+        while ((nextMove = moveSequencer.pollNext(game.getPlayedPlies() + 1)) != null)
+            applyOpponentMove(nextMove.getPackedMove(), receivedNanos, nextMove.getClockMillisecond());
+    }
+
+    /**
+     * Fetches the moves that are missing before the moves that arrived ahead of them.
+     * The response is handed back to the actor as a message, so the fetch doesn't block it.
+     */
+    private void catchUp() {
+        if (!moveSequencer.startCatchUp())
+            return;
+
+        int afterSequence = game.getPlayedPlies();
+        serverRequestHandler.getMovesSinceAsync(moveSequencer.getGameID(), afterSequence)
+                .thenAccept(response -> {
+                    long receivedNanos = System.nanoTime();
+                    send("caught up moves", () -> finishCatchUp(afterSequence, response, receivedNanos));
+                });
+    }
+
+    /**
+     * Plays the fetched missing moves and the moves that waited for them, as a single batch.
+     * The fetched moves of the player, such as a rolled back move the server took, are played as moves
+     * of the player, not of the opponent.
+     *
+     * @param afterSequence The sequence number of the last move played when the moves were fetched.
+     * @param response      The response of the server with the missing moves, or null if the request failed.
+     * @param receivedNanos The time the response arrived, from System.nanoTime.
+     */
+    private void finishCatchUp(int afterSequence, ServerResponse response, long receivedNanos) {
+        moveSequencer.finishCatchUp();
+        if (response != null && response.getHttpStatus() == HTTP_OK) {
+            short[] packedMoves = ServerResponseParser.parsePackedMoves(response.getResponse());
+            // skip the moves that arrived while the request was in flight
+            for (int i = Math.max(0, game.getPlayedPlies() - afterSequence); i < packedMoves.length; i++) {
+                // the moves of both players are fetched, the player to play is the one who played the move
+                if (playerColorKnown && game.getPlayerToPlay() == playerColor)
+                    applyFetchedLocalMove(packedMoves[i], receivedNanos);
+                else
+                    applyOpponentMove(packedMoves[i], receivedNanos, MoveMessage.NO_CLOCK);
+            }
+        }
+        applyMovesAheadOfGap(receivedNanos);
+    }
+
+    /**
+     * A message in the inbox of the actor.
+     */
+    private static class Message {
+        private final String type;
+        private final Runnable action;
+
+        /**
+         * Constructs a message.
+         *
+         * @param type   The type of the message, for the log if it fails.
+         * @param action The action of the message, run on the thread of the actor.
+         */
+        private Message(String type, Runnable action) {
+            this.type = type;
+            this.action = action;
+        }
+    }
+}
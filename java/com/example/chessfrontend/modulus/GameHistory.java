@@ -0,0 +1,215 @@
+package com.example.chessfrontend.modulus;
+
+import com.example.chessfrontend.modulus.gamelogic.PackedPosition;
+
+import java.util.Arrays;
+
+/**
+ * Stores the moves of a game as 16-bit packed moves, together with packed position checkpoints,
+ * taken every N plies.
+ * Seeking to a ply restores the closest checkpoint at or before it, and replays at most N - 1 moves,
+ * instead of resetting the game and replaying every move from the first one.
+ * A small interval makes seeking faster and takes more memory (13 longs per checkpoint),
+ * a large interval does the opposite.
+ */
+public class GameHistory {
+
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 16;
+
+    private static final int INITIAL_CHECKPOINT_CAPACITY = 8;
+    private static final int INITIAL_MOVE_CAPACITY = 64;
+
+    private final int checkpointInterval;
+    private short[] moves = new short[INITIAL_MOVE_CAPACITY];
+    private int numberOfMoves = 0;
+    private long[] checkpoints = new long[INITIAL_CHECKPOINT_CAPACITY * PackedPosition.SIZE];
+    private int numberOfCheckpoints = 0;
+
+    // Reused to copy checkpoints in and out of the checkpoint array
+    private final PackedPosition packedPosition = new PackedPosition();
+
+    /**
+     * Constructs a game history that takes a checkpoint every DEFAULT_CHECKPOINT_INTERVAL plies.
+     *
+     * @param startGame The game at the starting position, before any move was played.
+     */
+    public GameHistory(ChessGame startGame) {
+        this(startGame, DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    /**
+     * Constructs a game history.
+     *
+     * @param startGame          The game at the starting position, before any move was played.
+     * @param checkpointInterval The number of plies between two checkpoints.
+     */
+    public GameHistory(ChessGame startGame, int checkpointInterval) {
+        if (checkpointInterval < 1)
+            throw new IllegalArgumentException("Invalid checkpoint interval: " + checkpointInterval);
+
+        this.checkpointInterval = checkpointInterval;
+        addCheckpoint(startGame);
+    }
+
+    /**
+     * Records a move that was played on the game.
+     * Takes a checkpoint of the game if the move completes a checkpoint interval.
+     *
+     * @param move          The move that was played.
+     * @param gameAfterMove The game after the move was played.
+     */
+    public void addMove(ChessMove move, ChessGame gameAfterMove) {
+        addMove(move.toPackedMove(), gameAfterMove);
+    }
+
+    /**
+     * Records a move that was played on the game, given as a packed move.
+     * Takes a checkpoint of the game if the move completes a checkpoint interval.
+     *
+     * @param packedMove    The move that was played, as a packed move.
+     * @param gameAfterMove The game after the move was played.
+     */
+    public void addMove(short packedMove, ChessGame gameAfterMove) {
+        if (numberOfMoves == moves.length)
+            moves = Arrays.copyOf(moves, moves.length * 2);
+
+        moves[numberOfMoves++] = packedMove;
+        if (numberOfMoves % checkpointInterval == 0)
+            addCheckpoint(gameAfterMove);
+    }
+
+    /**
+     * Creates a new game at the position after the given number of plies.
+     *
+     * @param ply The number of plies to play from the starting position, 0 to size().
+     * @return A new game at the requested ply.
+     */
+    public ChessGame seek(int ply) {
+        ChessGame game = new ChessGame(checkpointAt(ply));
+        replayFromCheckpoint(game, ply);
+        return game;
+    }
+
+    /**
+     * Resets an existing game to the position after the given number of plies.
+     *
+     * @param ply  The number of plies to play from the starting position, 0 to size().
+     * @param game The game to reset.
+     */
+    public void seek(int ply, ChessGame game) {
+        game.reset(checkpointAt(ply));
+        replayFromCheckpoint(game, ply);
+    }
+
+    /**
+     * Removes all the moves after the given ply, and the checkpoints taken after it.
+     * Used when a move is taken back.
+     *
+     * @param ply The number of plies to keep.
+     */
+    public void truncate(int ply) {
+        checkPly(ply);
+        numberOfMoves = ply;
+        numberOfCheckpoints = ply / checkpointInterval + 1;
+    }
+
+    /**
+     * Gets the number of plies recorded in the history.
+     *
+     * @return The number of plies.
+     */
+    public int size() {
+        return numberOfMoves;
+    }
+
+    /**
+     * Gets the move played at the given ply.
+     *
+     * @param ply The index of the ply, 0 for the first move.
+     * @return The move played at the ply.
+     */
+    public ChessMove getMove(int ply) {
+        if (ply < 0 || ply >= numberOfMoves)
+            throw new IndexOutOfBoundsException("Ply " + ply + " is out of the history range 0-" + numberOfMoves);
+
+        return new ChessMove(moves[ply]);
+    }
+
+    /**
+     * Gets a copy of the recorded moves as 16-bit packed moves, for storage or sending.
+     *
+     * @return The packed moves, in the order they were played.
+     */
+    public short[] getPackedMoves() {
+        return Arrays.copyOf(moves, numberOfMoves);
+    }
+
+    /**
+     * Gets the number of plies between two checkpoints.
+     *
+     * @return The checkpoint interval.
+     */
+    public int getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    /**
+     * Gets the number of bytes used by the checkpoints, to compare intervals.
+     *
+     * @return The number of bytes used by the checkpoints.
+     */
+    public long getCheckpointMemoryBytes() {
+        return (long) numberOfCheckpoints * PackedPosition.SIZE * Long.BYTES;
+    }
+
+    /**
+     * Loads the closest checkpoint at or before the ply.
+     *
+     * @param ply The number of plies to play from the starting position.
+     * @return The packed position of the checkpoint.
+     */
+    private PackedPosition checkpointAt(int ply) {
+        checkPly(ply);
+        packedPosition.copyFrom(checkpoints, (ply / checkpointInterval) * PackedPosition.SIZE);
+        return packedPosition;
+    }
+
+    /**
+     * Replays the moves from the checkpoint the game was reset to, up to the ply.
+     *
+     * @param game The game at the checkpoint before the ply.
+     * @param ply  The number of plies to play from the starting position.
+     */
+    private void replayFromCheckpoint(ChessGame game, int ply) {
+        for (int i = ply - ply % checkpointInterval; i < ply; i++) {
+            short move = moves[i];
+            game.executeMove(PackedMove.getCurrentSquare(move), PackedMove.getTargetSquare(move),
+                    PackedMove.getTypeOfPieceToPromoteTo(move));
+        }
+    }
+
+    /**
+     * Adds a checkpoint of the game at the end of the checkpoint array, growing it if it's full.
+     *
+     * @param game The game to take a checkpoint of.
+     */
+    private void addCheckpoint(ChessGame game) {
+        int offset = numberOfCheckpoints * PackedPosition.SIZE;
+        if (offset + PackedPosition.SIZE > checkpoints.length)
+            checkpoints = Arrays.copyOf(checkpoints, checkpoints.length * 2);
+
+        packedPosition.pack(game);
+        packedPosition.copyTo(checkpoints, offset);
+        numberOfCheckpoints++;
+    }
+
+    /**
+     * Checks that the ply is in the range of the history.
+     *
+     * @param ply The ply to check.
+     */
+    private void checkPly(int ply) {
+        if (ply < 0 || ply > numberOfMoves)
+            throw new IndexOutOfBoundsException("Ply " + ply + " is out of the history range 0-" + numberOfMoves);
+    }
+}
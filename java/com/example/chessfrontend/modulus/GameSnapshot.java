@@ -0,0 +1,169 @@
+package com.example.chessfrontend.modulus;
+
+import com.example.chessfrontend.modulus.gamelogic.PackedPosition;
+import com.example.chessfrontend.modulus.gamelogic.pieces.Piece;
+
+/**
+ * An immutable picture of a game, published by the GameActor that owns the game after it changes,
+ * so the UI can draw the board and check the moves of the player without touching the game itself.
+ * Holds the position, the legal moves of the pieces of the player to play, the last move,
+ * and a copy of the clock, whose remaining times are computed at the time they are read.
+ */
+public class GameSnapshot {
+    public static final int NO_PIECE = -1;
+    public static final short NO_MOVE = -1;
+
+    private static final int SQUARES = 64;
+
+    private final PackedPosition position = new PackedPosition();
+    private final long[] legalMoves = new long[SQUARES];
+    private final int playedPlies;
+    private final short lastMove;
+    private final boolean lastMoveByOpponent;
+    private final int gameStatus;
+    private final ChessClock clock;
+
+    /**
+     * Constructs a snapshot of the current state of a game.
+     *
+     * @param game               The game, only read while the snapshot is constructed.
+     * @param lastMove           The last move played, as a packed move, or NO_MOVE.
+     * @param lastMoveByOpponent True if the last move was played by the opponent.
+     * @param gameStatus         The status of the game after the last move, such as ChessGame.CHECKMATE.
+     * @param clock              The clock of the game, copied, or null if the game is not timed.
+     */
+    public GameSnapshot(ChessGame game, short lastMove, boolean lastMoveByOpponent, int gameStatus,
+                        ChessClock clock) {
+        position.pack(game);
+        // no move is legal once the player to play ran out of time
+        if (gameStatus != ChessGame.FLAG_FALL)
+            for (Piece piece : game.getPieceList())
+                if (piece.getColor() == game.getPlayerToPlay())
+                    legalMoves[piece.getSquare()] = game.getLegalMovesAsBitBoard(piece);
+        this.playedPlies = game.getPlayedPlies();
+        this.lastMove = lastMove;
+        this.lastMoveByOpponent = lastMoveByOpponent;
+        this.gameStatus = gameStatus;
+        this.clock = clock == null ? null : new ChessClock(clock);
+    }
+
+    /**
+     * Gets the type of the piece on a square.
+     *
+     * @param square The square.
+     * @return The type of the piece, PackedPosition.KING to PackedPosition.PAWN, or NO_PIECE if the square is empty.
+     */
+    public int getPieceType(int square) {
+        long squareBit = 1L << square;
+        for (int pieceType = PackedPosition.KING; pieceType <= PackedPosition.PAWN; pieceType++)
+            if (((position.getBitBoard(pieceType, true) | position.getBitBoard(pieceType, false)) & squareBit) != 0)
+                return pieceType;
+        return NO_PIECE;
+    }
+
+    /**
+     * Gets the color of the piece on a square.
+     *
+     * @param square The square, that holds a piece.
+     * @return The color of the piece (true for white, false for black).
+     */
+    public boolean getPieceColor(int square) {
+        return (position.getColorBitBoard(true) & (1L << square)) != 0;
+    }
+
+    /**
+     * Checks if a move is legal for the player to play.
+     *
+     * @param currentSquare The current square of the piece.
+     * @param targetSquare  The target square of the piece.
+     * @return True if the move is legal.
+     */
+    public boolean isLegalMove(int currentSquare, int targetSquare) {
+        return (legalMoves[currentSquare] & (1L << targetSquare)) != 0;
+    }
+
+    /**
+     * Determines whether it is white's turn to play.
+     *
+     * @return True if it is white's turn to play, false if it is black's turn.
+     */
+    public boolean getPlayerToPlay() {
+        return position.getPlayerToPlay();
+    }
+
+    /**
+     * Gets the number of half moves played since the start of the game.
+     *
+     * @return The number of half moves played.
+     */
+    public int getPlayedPlies() {
+        return playedPlies;
+    }
+
+    /**
+     * Gets the last move played.
+     *
+     * @return The last move as a packed move, or NO_MOVE if no move was played.
+     */
+    public short getLastMove() {
+        return lastMove;
+    }
+
+    /**
+     * Checks if the last move was played by the opponent.
+     *
+     * @return True if the last move was played by the opponent.
+     */
+    public boolean isLastMoveByOpponent() {
+        return lastMoveByOpponent;
+    }
+
+    /**
+     * Gets the status of the game after the last move.
+     *
+     * @return The status, such as ChessGame.NORMAL or ChessGame.CHECKMATE.
+     */
+    public int getGameStatus() {
+        return gameStatus;
+    }
+
+    /**
+     * Checks if the game is timed.
+     *
+     * @return True if the game has a clock.
+     */
+    public boolean hasClock() {
+        return clock != null;
+    }
+
+    /**
+     * Gets the remaining time of a player in a timed game.
+     *
+     * @param color The color of the player (true for white, false for black).
+     * @param now   The current time, from System.nanoTime.
+     * @return The remaining time in nanoseconds, 0 if the player ran out of time.
+     */
+    public long getRemainingNanos(boolean color, long now) {
+        return clock.getRemainingNanos(color, now);
+    }
+
+    /**
+     * Checks if the clock of a player runs in a timed game.
+     *
+     * @param color The color of the player (true for white, false for black).
+     * @return True if the clock of the player runs.
+     */
+    public boolean isClockRunning(boolean color) {
+        return clock.isRunning(color);
+    }
+
+    /**
+     * Checks if the player to play ran out of time in a timed game.
+     *
+     * @param now The current time, from System.nanoTime.
+     * @return True if the flag of the player to play fell.
+     */
+    public boolean isFlagFallen(long now) {
+        return clock.isFlagFallen(now);
+    }
+}
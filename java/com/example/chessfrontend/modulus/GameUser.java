@@ -1,17 +1,13 @@
 package com.example.chessfrontend.modulus;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import com.example.chessfrontend.servercommunication.JsonWriter;
+import com.example.chessfrontend.servercommunication.ServerResponseParser;
 
 /**
  * Entity class representing a game user.
  */
 public class GameUser {
 
-    public static final String GAME_USER_RATING_USERNAME_JSON_REGEX = "GameUser\\{userName='(.*?)', rating=(\\d+)}";
-
     private final String userName;
     private String email;
     private String password;
@@ -122,60 +118,40 @@ public class GameUser {
      * @return the JSON representation of the GameUser object
      */
     public String convertIntoJson() {
-        Map<String, String> attributes = new HashMap<>();
-        if (userName != null) {
-            attributes.put("userName", userName);
-        }
-        if (email != null) {
-            attributes.put("email", email);
-        }
-        if (password != null) {
-            attributes.put("password", password);
-        }
-        if (rating != 0) {
-            attributes.put("rating", String.valueOf(rating));
-        }
-        if (token != null) {
-            attributes.put("token", token);
-        }
-
-        StringBuilder stringBuilder = new StringBuilder();
-        stringBuilder.append("{");
-
-        int count = 0;
-        for (Map.Entry<String, String> entry : attributes.entrySet()) {
-            stringBuilder.append("\"").append(entry.getKey()).append("\": \"").append(entry.getValue()).append("\"");
-            if (++count < attributes.size()) {
-                stringBuilder.append(", ");
-            }
-        }
+        JsonWriter writer = JsonWriter.acquire();
+        writeJson(writer);
+        return writer.toString();
+    }
 
-        stringBuilder.append("}");
-        return stringBuilder.toString();
+    /**
+     * Writes the GameUser object as a JSON object, with only the attributes that are set.
+     *
+     * @param writer the writer to write the JSON object to
+     */
+    public void writeJson(JsonWriter writer) {
+        writer.beginObject();
+        if (userName != null)
+            writer.field("userName", userName);
+        if (email != null)
+            writer.field("email", email);
+        if (password != null)
+            writer.field("password", password);
+        if (rating != 0)
+            writer.field("rating", rating);
+        if (token != null)
+            writer.field("token", token);
+        writer.endObject();
     }
 
     /**
-     * Parses a string representation of a GameUser object into a GameUser object.
+     * Parses a response of the server with a GameUser object into a GameUser object.
      *
-     * @param input The string representation of the GameUser.
+     * @param input The response of the server.
+     * @throws IllegalArgumentException If there is no GameUser in the response.
      */
     public GameUser(String input) {
-        // Define a regular expression pattern to match the GameUser representation
-        Pattern pattern = Pattern.compile(GAME_USER_RATING_USERNAME_JSON_REGEX);
-
-        // Create a matcher for the input string
-        Matcher matcher = pattern.matcher(input);
-
-        // Check if there is a match
-        if (matcher.find()) {
-            String userName = matcher.group(1);
-            int rating = Integer.parseInt(matcher.group(2));
-
-            this.userName = userName;
-            this.rating = rating;
-        } else {
-            // Handle the case where there is no match
-            throw new IllegalArgumentException("Invalid input string: " + input);
-        }
+        GameUser parsedUser = ServerResponseParser.parseGameUser(input);
+        this.userName = parsedUser.userName;
+        this.rating = parsedUser.rating;
     }
 }
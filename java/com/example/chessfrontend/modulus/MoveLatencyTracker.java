@@ -0,0 +1,121 @@
+package com.example.chessfrontend.modulus;
+
+/**
+ * Tracks the latency of the moves played on the board.
+ * The perceived latency is the time from the move being played until it is shown on the board,
+ * the server round trip is the time from the move being played until the server responds to it.
+ * With moves executed optimistically the perceived latency stays local, while the round trip includes the network.
+ */
+public class MoveLatencyTracker {
+    private static final double NANOS_IN_MILLISECOND = 1_000_000.0;
+
+    private int movesPlayed;
+    private long totalPerceivedNanos;
+    private long maxPerceivedNanos;
+
+    private int serverResponses;
+    private long totalServerRoundTripNanos;
+    private long maxServerRoundTripNanos;
+    private int rolledBackMoves;
+
+    /**
+     * Records the perceived latency of a move, the time until it was shown on the board.
+     *
+     * @param nanos The perceived latency in nanoseconds.
+     */
+    public void recordPerceivedLatency(long nanos) {
+        movesPlayed++;
+        totalPerceivedNanos += nanos;
+        maxPerceivedNanos = Math.max(maxPerceivedNanos, nanos);
+    }
+
+    /**
+     * Records the round trip of a move to the server, the time until the server responded to it.
+     *
+     * @param nanos      The round trip in nanoseconds.
+     * @param rolledBack True if the move was rolled back because the server did not approve it.
+     */
+    public void recordServerRoundTrip(long nanos, boolean rolledBack) {
+        serverResponses++;
+        totalServerRoundTripNanos += nanos;
+        maxServerRoundTripNanos = Math.max(maxServerRoundTripNanos, nanos);
+        if (rolledBack)
+            rolledBackMoves++;
+    }
+
+    /**
+     * Gets the number of moves played on the board.
+     *
+     * @return The number of moves played.
+     */
+    public int getMovesPlayed() {
+        return movesPlayed;
+    }
+
+    /**
+     * Gets the number of moves the server responded to.
+     *
+     * @return The number of server responses.
+     */
+    public int getServerResponses() {
+        return serverResponses;
+    }
+
+    /**
+     * Gets the number of moves that were rolled back because the server did not approve them.
+     *
+     * @return The number of rolled back moves.
+     */
+    public int getRolledBackMoves() {
+        return rolledBackMoves;
+    }
+
+    /**
+     * Gets the average perceived latency of a move.
+     *
+     * @return The average perceived latency in milliseconds, 0 if no move was played.
+     */
+    public double getAveragePerceivedLatencyMillis() {
+        return movesPlayed == 0 ? 0 : totalPerceivedNanos / NANOS_IN_MILLISECOND / movesPlayed;
+    }
+
+    /**
+     * Gets the maximum perceived latency of a move.
+     *
+     * @return The maximum perceived latency in milliseconds.
+     */
+    public double getMaxPerceivedLatencyMillis() {
+        return maxPerceivedNanos / NANOS_IN_MILLISECOND;
+    }
+
+    /**
+     * Gets the average round trip of a move to the server.
+     *
+     * @return The average round trip in milliseconds, 0 if the server did not respond to any move.
+     */
+    public double getAverageServerRoundTripMillis() {
+        return serverResponses == 0 ? 0 : totalServerRoundTripNanos / NANOS_IN_MILLISECOND / serverResponses;
+    }
+
+    /**
+     * Gets the maximum round trip of a move to the server.
+     *
+     * @return The maximum round trip in milliseconds.
+     */
+    public double getMaxServerRoundTripMillis() {
+        return maxServerRoundTripNanos / NANOS_IN_MILLISECOND;
+    }
+
+    /**
+     * Returns a string representation of the latency of the moves.
+     *
+     * @return The string representation of the latency of the moves.
+     */
+    @Override
+    public String toString() {
+        return String.format("moves=%d perceived avg=%.2fms max=%.2fms, server=%d rtt avg=%.2fms max=%.2fms, "
+                        + "rolled back=%d", movesPlayed, getAveragePerceivedLatencyMillis(),
+                getMaxPerceivedLatencyMillis(), serverResponses, getAverageServerRoundTripMillis(),
+                getMaxServerRoundTripMillis(), rolledBackMoves);
+    }
+}
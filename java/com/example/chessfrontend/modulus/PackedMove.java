@@ -0,0 +1,91 @@
+package com.example.chessfrontend.modulus;
+
+/**
+ * Canonical 16-bit encoding of a chess move.
+ * Layout of the bits, from the lowest:
+ * 0-5: current square of the piece (0 to 63).
+ * 6-11: target square of the piece (0 to 63).
+ * 12-13: type of piece to promote to, 0 queen, 1 rook, 2 bishop, 3 knight.
+ * 14-15: reserved, always 0.
+ * Lists of moves can be stored as short arrays, 2 bytes per move.
+ */
+public class PackedMove {
+
+    // Bit layout of a packed move
+    private static final int SQUARE_MASK = 0x3F;
+    private static final int TARGET_SQUARE_SHIFT = 6;
+    private static final int PROMOTION_SHIFT = 12;
+    private static final int PROMOTION_MASK = 0x3;
+
+    // Types of pieces to promote to, by their index in the encoding
+    private static final char[] PROMOTION_TYPES = {ChessGame.PROMOTE_TO_QUEEN, ChessGame.PROMOTE_TO_ROOK,
+            ChessGame.PROMOTE_TO_BISHOP, ChessGame.PROMOTE_TO_KNIGHT};
+
+    /**
+     * Encodes a move.
+     *
+     * @param currentSquare          The current square of the piece.
+     * @param targetSquare           The target square of the piece.
+     * @param typeOfPieceToPromoteTo The type of piece to promote to, unknown types are encoded as a queen.
+     * @return The packed move.
+     */
+    public static short encode(byte currentSquare, byte targetSquare, char typeOfPieceToPromoteTo) {
+        return (short) ((currentSquare & SQUARE_MASK)
+                | (targetSquare & SQUARE_MASK) << TARGET_SQUARE_SHIFT
+                | getPromotionIndex(typeOfPieceToPromoteTo) << PROMOTION_SHIFT);
+    }
+
+    /**
+     * Encodes a chess move.
+     *
+     * @param move The move to encode.
+     * @return The packed move.
+     */
+    public static short encode(ChessMove move) {
+        return encode(move.getCurrentPieceSquare(), move.getTargetSquare(), move.getTypeOfPieceToPromoteTo());
+    }
+
+    /**
+     * Decodes the current square of the piece.
+     *
+     * @param packedMove The packed move.
+     * @return The current square of the piece.
+     */
+    public static byte getCurrentSquare(short packedMove) {
+        return (byte) (packedMove & SQUARE_MASK);
+    }
+
+    /**
+     * Decodes the target square of the piece.
+     *
+     * @param packedMove The packed move.
+     * @return The target square of the piece.
+     */
+    public static byte getTargetSquare(short packedMove) {
+        return (byte) ((packedMove >>> TARGET_SQUARE_SHIFT) & SQUARE_MASK);
+    }
+
+    /**
+     * Decodes the type of piece to promote to.
+     *
+     * @param packedMove The packed move.
+     * @return The type of piece to promote to.
+     */
+    public static char getTypeOfPieceToPromoteTo(short packedMove) {
+        return PROMOTION_TYPES[(packedMove >>> PROMOTION_SHIFT) & PROMOTION_MASK];
+    }
+
+    /**
+     * Returns the index of the type of piece to promote to in the encoding.
+     *
+     * @param typeOfPieceToPromoteTo The type of piece to promote to.
+     * @return The index of the type, 0 (queen) for unknown types, like the game logic does.
+     */
+    private static int getPromotionIndex(char typeOfPieceToPromoteTo) {
+        for (int i = 0; i < PROMOTION_TYPES.length; i++)
+            if (PROMOTION_TYPES[i] == typeOfPieceToPromoteTo)
+                return i;
+
+        return 0;
+    }
+}
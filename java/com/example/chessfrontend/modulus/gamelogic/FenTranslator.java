@@ -17,8 +17,8 @@ import static com.example.chessfrontend.modulus.gamelogic.specialmoves.PawnSpeci
  * 2. Player turn - saved as a boolean (true for white's turn).
  * 3. Castling rights - saved as booleans for each castling type.
  * 4. En passant target square.
- * 5. Half move clock (not extracted because not implemented).
- * 6. Full move clock (not extracted because not implemented).
+ * 5. Half move clock, optional (defaults to 0).
+ * 6. Full move clock, optional (defaults to 1).
  */
 public class FenTranslator {
 
@@ -26,19 +26,22 @@ public class FenTranslator {
     private static final String CLASSIC_FEN_START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq -";
 
     // Constants representing the characters used in FEN notation
-    private static final int KING = 'k';
-    private static final int QUEEN = 'q';
-    private static final int ROOK = 'r';
-    private static final int KNIGHT = 'n';
-    private static final int BISHOP = 'b';
-    private static final int PAWN = 'p';
+    private static final char KING = 'k';
+    private static final char QUEEN = 'q';
+    private static final char ROOK = 'r';
+    private static final char KNIGHT = 'n';
+    private static final char BISHOP = 'b';
+    private static final char PAWN = 'p';
 
     private static final char EMPTY = '-';
     private static final char WHITE_TURN = 'w';
+    private static final char BLACK_TURN = 'b';
+    private static final int DEFAULT_HALF_MOVE_CLOCK = 0;
+    private static final int DEFAULT_FULL_MOVE_NUMBER = 1;
     private static final String SHORT_CASTLE_WHITE = "K";
     private static final String LONG_CASTLE_WHITE = "Q";
-    private static final String SHORT_CASTLE_BLACK = "q";
-    private static final String LONG_CASTLE_BLACK = "k";
+    private static final String SHORT_CASTLE_BLACK = "k";
+    private static final String LONG_CASTLE_BLACK = "q";
 
     /**
      * Translates the FEN string and extracts all the relevant information from it.
@@ -52,7 +55,8 @@ public class FenTranslator {
         indexPosition = extractPiecePlacement(game, fenStringValue, indexPosition);
         game.setColorOfPlayersTurn(fenStringValue.charAt(indexPosition) == WHITE_TURN);
         indexPosition = indexPosition + 2; // Skip space and move to castling rights section
-        extractSpecialMoves(game, fenStringValue, indexPosition);
+        indexPosition = extractSpecialMoves(game, fenStringValue, indexPosition);
+        extractMoveClocks(game, fenStringValue, indexPosition);
     }
 
     /**
@@ -130,8 +134,9 @@ public class FenTranslator {
      * @param game           The ChessGame object to set the extracted special moves information.
      * @param fenStringValue The FEN string representing the current state of the chess game.
      * @param indexPosition  The index position in the FEN string from where to start extracting special moves.
+     * @return The index position after the special moves section.
      */
-    private void extractSpecialMoves(ChessGame game, String fenStringValue, int indexPosition) {
+    private int extractSpecialMoves(ChessGame game, String fenStringValue, int indexPosition) {
         boolean whiteShortCastle = false, whiteLongCastle = false, blackShortCastle = false, blackLongCastle = false;
         byte enPassantTargetSquare;
         StringBuilder subFenString = new StringBuilder();
@@ -146,13 +151,16 @@ public class FenTranslator {
             whiteLongCastle = subFenString.toString().contains(LONG_CASTLE_WHITE);
             blackShortCastle = subFenString.toString().contains(SHORT_CASTLE_BLACK);
             blackLongCastle = subFenString.toString().contains(LONG_CASTLE_BLACK);
+        } else {
+            // Skip the '-' that marks no castling rights
+            indexPosition++;
         }
         indexPosition++;
         // Extract the en-passant square
         if (fenStringValue.charAt(indexPosition) != EMPTY) {
-            // Convert chess square (e.g., c3, a4, etc.) to numeric square
-            int column = fenStringValue.charAt(indexPosition++) - 'h';
-            int row = Character.getNumericValue(fenStringValue.charAt(indexPosition));
+            // Convert chess square (e.g., c3, a4, etc.) to numeric square, the h-file is column 0
+            int column = 'h' - fenStringValue.charAt(indexPosition++);
+            int row = Character.getNumericValue(fenStringValue.charAt(indexPosition)) - 1;
             // Calculate the numerical representation of the en passant target square
             enPassantTargetSquare = (byte) (column + (row * GameLogicUtilities.BOARD_EDGE_SIZE));
         } else {
@@ -163,8 +171,122 @@ public class FenTranslator {
                 blackShortCastle,
                 blackLongCastle,
                 enPassantTargetSquare));
+        return ++indexPosition;
     }
 
+    /**
+     * Extracts the half move clock and the full move number from the FEN string and sets them in the chess game.
+     * Both fields are optional, if missing the default values are used.
+     *
+     * @param game           The ChessGame object to set the extracted clocks.
+     * @param fenStringValue The FEN string representing the current state of the chess game.
+     * @param indexPosition  The index position in the FEN string from where to start extracting the clocks.
+     */
+    private void extractMoveClocks(ChessGame game, String fenStringValue, int indexPosition) {
+        int halfMoveClock = DEFAULT_HALF_MOVE_CLOCK, fullMoveNumber = DEFAULT_FULL_MOVE_NUMBER;
+        String[] clocks = indexPosition < fenStringValue.length()
+                ? fenStringValue.substring(indexPosition).trim().split("\\s+") : new String[0];
 
-}
+        if (clocks.length > 0 && !clocks[0].isEmpty())
+            halfMoveClock = Integer.parseInt(clocks[0]);
+        if (clocks.length > 1)
+            fullMoveNumber = Integer.parseInt(clocks[1]);
+
+        game.setHalfMoveClock(halfMoveClock);
+        game.setFullMoveNumber(fullMoveNumber);
+    }
+
+
+    /**
+     * Translates the current state of the chess game into a FEN string.
+     * Writes the piece placement starting from the top-left square (square 63) down to square 0,
+     * followed by the player turn, the castling rights, the en passant target square and the move clocks.
+     * The result can be passed back to translateFen to create an independent copy of the position.
+     *
+     * @param game The ChessGame object to translate.
+     * @return The FEN string representing the current state of the game.
+     */
+    public String translateGameToFen(ChessGame game) {
+        StringBuilder fen = new StringBuilder();
+        int emptySquares = 0;
+        // Run on the board from square 63 to 0, counting empty squares and adding '/' at the end of each row
+        for (int square = GameLogicUtilities.BOARD_SIZE - 1; square > -1; square--) {
+            Piece piece = game.getPiece((byte) square);
+            if (piece == null)
+                emptySquares++;
+            else {
+                if (emptySquares > 0)
+                    fen.append(emptySquares);
+                emptySquares = 0;
+                fen.append(getFenCharOfPiece(piece));
+            }
+
+            if (square % GameLogicUtilities.BOARD_EDGE_SIZE == 0) {
+                if (emptySquares > 0)
+                    fen.append(emptySquares);
+                emptySquares = 0;
+                if (square != 0)
+                    fen.append('/');
+            }
+        }
 
+        fen.append(' ').append(game.getPlayerToPlay() ? WHITE_TURN : BLACK_TURN).append(' ');
+        appendSpecialMoves(game.getSpecialMovesHandler(), fen);
+        fen.append(' ').append(game.getHalfMoveClock()).append(' ').append(game.getFullMoveNumber());
+        return fen.toString();
+    }
+
+    /**
+     * Returns the FEN character representing the given piece, uppercase for white and lowercase for black.
+     *
+     * @param piece The piece to translate.
+     * @return The FEN character of the piece.
+     */
+    private char getFenCharOfPiece(Piece piece) {
+        char fenChar;
+        if (piece instanceof King)
+            fenChar = KING;
+        else if (piece instanceof Queen)
+            fenChar = QUEEN;
+        else if (piece instanceof Rook)
+            fenChar = ROOK;
+        else if (piece instanceof Bishop)
+            fenChar = BISHOP;
+        else if (piece instanceof Knight)
+            fenChar = KNIGHT;
+        else
+            fenChar = PAWN;
+
+        return piece.getColor() ? Character.toUpperCase(fenChar) : fenChar;
+    }
+
+    /**
+     * Appends the castling rights and the en passant target square of the special moves handler to the FEN string.
+     *
+     * @param specialMovesHandler The special moves handler holding the castling rights and en passant square.
+     * @param fen                 The FEN string being built.
+     */
+    private void appendSpecialMoves(SpecialMovesHandler specialMovesHandler, StringBuilder fen) {
+        int lengthBeforeCastling = fen.length();
+        if (specialMovesHandler.getWhiteShortCastle())
+            fen.append(SHORT_CASTLE_WHITE);
+        if (specialMovesHandler.getWhiteLongCastle())
+            fen.append(LONG_CASTLE_WHITE);
+        if (specialMovesHandler.getBlackShortCastle())
+            fen.append(SHORT_CASTLE_BLACK);
+        if (specialMovesHandler.getBlackLongCastle())
+            fen.append(LONG_CASTLE_BLACK);
+        if (fen.length() == lengthBeforeCastling)
+            fen.append(EMPTY);
+
+        fen.append(' ');
+        byte enPassantTargetSquare = specialMovesHandler.getEnPassantSquare();
+        if (enPassantTargetSquare == NO_EN_PASSANT_TARGET_SQUARE)
+            fen.append(EMPTY);
+        else {
+            // Convert numeric square to chess square, the h-file is column 0
+            fen.append((char) ('h' - enPassantTargetSquare % GameLogicUtilities.BOARD_EDGE_SIZE));
+            fen.append(GameLogicUtilities.getRowOfSquare(enPassantTargetSquare) + 1);
+        }
+    }
+}
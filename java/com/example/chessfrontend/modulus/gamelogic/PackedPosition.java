@@ -0,0 +1,282 @@
+package com.example.chessfrontend.modulus.gamelogic;
+
+import com.example.chessfrontend.modulus.ChessGame;
+import com.example.chessfrontend.modulus.gamelogic.pieces.*;
+import com.example.chessfrontend.modulus.gamelogic.specialmoves.SpecialMovesHandler;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+
+import static com.example.chessfrontend.modulus.gamelogic.specialmoves.PawnSpecialMoves.NO_EN_PASSANT_TARGET_SQUARE;
+
+/**
+ * A compact, fixed size representation of a chess position.
+ * The position is stored as 13 longs: a bitboard for each type of piece of each color, and a flags word
+ * holding the player turn, the castling rights, the en passant target square and the move clocks.
+ * Since it holds no objects, a position is copied with a single System.arraycopy, either into another
+ * PackedPosition or into a preallocated slot of a long array holding many positions.
+ * This makes it cheap for search and for parallel workers to copy-make positions,
+ * a ChessGame is only created from it when the game logic is needed.
+ */
+public class PackedPosition {
+
+    // Number of longs a packed position takes
+    public static final int SIZE = 13;
+
+    // Index of each bitboard, black bitboards come after the white ones
+    public static final int KING = 0;
+    public static final int QUEEN = 1;
+    public static final int ROOK = 2;
+    public static final int BISHOP = 3;
+    public static final int KNIGHT = 4;
+    public static final int PAWN = 5;
+    public static final int BLACK_OFFSET = 6;
+    public static final int FLAGS = 12;
+
+    // Layout of the flags word
+    private static final long WHITE_TURN_FLAG = 1L;
+    private static final long WHITE_SHORT_CASTLE_FLAG = 1L << 1;
+    private static final long WHITE_LONG_CASTLE_FLAG = 1L << 2;
+    private static final long BLACK_SHORT_CASTLE_FLAG = 1L << 3;
+    private static final long BLACK_LONG_CASTLE_FLAG = 1L << 4;
+    private static final int EN_PASSANT_SHIFT = 5;
+    private static final long EN_PASSANT_MASK = 0x7F;
+    private static final long NO_EN_PASSANT = 0x7F;
+    private static final int HALF_MOVE_CLOCK_SHIFT = 12;
+    private static final int FULL_MOVE_NUMBER_SHIFT = 28;
+    private static final long CLOCK_MASK = 0xFFFF;
+
+    private final long[] words = new long[SIZE];
+
+    /**
+     * Constructs an empty packed position.
+     */
+    public PackedPosition() {
+    }
+
+    /**
+     * Constructs a packed position holding the current state of the game.
+     *
+     * @param game The game to pack.
+     */
+    public PackedPosition(ChessGame game) {
+        pack(game);
+    }
+
+    /**
+     * Copies the state of the game into this position.
+     *
+     * @param game The game to pack.
+     */
+    public void pack(ChessGame game) {
+        Arrays.fill(words, 0);
+        for (Piece piece : game.getPieceList())
+            words[getBitBoardIndex(piece)] |= piece.getSquareAsBitBoard();
+
+        SpecialMovesHandler specialMovesHandler = game.getSpecialMovesHandler();
+        long flags = 0;
+        if (game.getPlayerToPlay())
+            flags |= WHITE_TURN_FLAG;
+        if (specialMovesHandler.getWhiteShortCastle())
+            flags |= WHITE_SHORT_CASTLE_FLAG;
+        if (specialMovesHandler.getWhiteLongCastle())
+            flags |= WHITE_LONG_CASTLE_FLAG;
+        if (specialMovesHandler.getBlackShortCastle())
+            flags |= BLACK_SHORT_CASTLE_FLAG;
+        if (specialMovesHandler.getBlackLongCastle())
+            flags |= BLACK_LONG_CASTLE_FLAG;
+
+        byte enPassantSquare = specialMovesHandler.getEnPassantSquare();
+        flags |= (enPassantSquare == NO_EN_PASSANT_TARGET_SQUARE ? NO_EN_PASSANT : enPassantSquare) << EN_PASSANT_SHIFT;
+        flags |= (game.getHalfMoveClock() & CLOCK_MASK) << HALF_MOVE_CLOCK_SHIFT;
+        flags |= (game.getFullMoveNumber() & CLOCK_MASK) << FULL_MOVE_NUMBER_SHIFT;
+        words[FLAGS] = flags;
+    }
+
+    /**
+     * Sets the pieces, player turn, special moves and move clocks of the game to the state of this position,
+     * the same way FenTranslator does for a FEN string.
+     * The game is responsible to build its board from the new piece list.
+     *
+     * @param game The game to set the state of.
+     */
+    public void unpack(ChessGame game) {
+        LinkedList<Piece> pieceList = new LinkedList<>();
+        for (int index = 0; index < FLAGS; index++) {
+            long bitBoard = words[index];
+            boolean color = index < BLACK_OFFSET;
+            // Create a piece for each set bit of the bitboard
+            while (bitBoard != 0) {
+                byte square = (byte) Long.numberOfTrailingZeros(bitBoard);
+                bitBoard &= bitBoard - 1;
+                pieceList.add(createPiece(index % BLACK_OFFSET, square, color));
+            }
+        }
+        game.setPieceList(pieceList);
+        game.setColorOfPlayersTurn(getPlayerToPlay());
+        game.setSpecialMovesHandler(new SpecialMovesHandler(
+                (words[FLAGS] & WHITE_SHORT_CASTLE_FLAG) != 0,
+                (words[FLAGS] & WHITE_LONG_CASTLE_FLAG) != 0,
+                (words[FLAGS] & BLACK_SHORT_CASTLE_FLAG) != 0,
+                (words[FLAGS] & BLACK_LONG_CASTLE_FLAG) != 0,
+                getEnPassantSquare()));
+        game.setHalfMoveClock(getHalfMoveClock());
+        game.setFullMoveNumber(getFullMoveNumber());
+    }
+
+    /**
+     * Copies another packed position into this one.
+     *
+     * @param other The position to copy.
+     */
+    public void copyFrom(PackedPosition other) {
+        System.arraycopy(other.words, 0, words, 0, SIZE);
+    }
+
+    /**
+     * Copies this position into a preallocated slot of a long array.
+     *
+     * @param buffer The array holding the slot.
+     * @param offset The index of the first long of the slot.
+     */
+    public void copyTo(long[] buffer, int offset) {
+        System.arraycopy(words, 0, buffer, offset, SIZE);
+    }
+
+    /**
+     * Copies a position from a slot of a long array into this position.
+     *
+     * @param buffer The array holding the slot.
+     * @param offset The index of the first long of the slot.
+     */
+    public void copyFrom(long[] buffer, int offset) {
+        System.arraycopy(buffer, offset, words, 0, SIZE);
+    }
+
+    /**
+     * Gets the bitboard of a type of piece of a color.
+     *
+     * @param pieceType The type of the piece, KING to PAWN.
+     * @param color     The color of the piece (true for white, false for black).
+     * @return The bitboard of the pieces.
+     */
+    public long getBitBoard(int pieceType, boolean color) {
+        return words[color ? pieceType : pieceType + BLACK_OFFSET];
+    }
+
+    /**
+     * Gets the bitboard of all the pieces of a color.
+     *
+     * @param color The color of the pieces (true for white, false for black).
+     * @return The bitboard of the pieces.
+     */
+    public long getColorBitBoard(boolean color) {
+        int offset = color ? 0 : BLACK_OFFSET;
+        long bitBoard = 0;
+        for (int pieceType = KING; pieceType <= PAWN; pieceType++)
+            bitBoard |= words[pieceType + offset];
+
+        return bitBoard;
+    }
+
+    /**
+     * Determines whether it is white's turn to play.
+     *
+     * @return True if it is white's turn to play, false if it is black's turn.
+     */
+    public boolean getPlayerToPlay() {
+        return (words[FLAGS] & WHITE_TURN_FLAG) != 0;
+    }
+
+    /**
+     * Gets the en passant target square.
+     *
+     * @return The en passant target square, or NO_EN_PASSANT_TARGET_SQUARE if there is none.
+     */
+    public byte getEnPassantSquare() {
+        long enPassant = (words[FLAGS] >>> EN_PASSANT_SHIFT) & EN_PASSANT_MASK;
+        return enPassant == NO_EN_PASSANT ? NO_EN_PASSANT_TARGET_SQUARE : (byte) enPassant;
+    }
+
+    /**
+     * Gets the number of half moves since the last capture or pawn move.
+     *
+     * @return The half move clock.
+     */
+    public int getHalfMoveClock() {
+        return (int) ((words[FLAGS] >>> HALF_MOVE_CLOCK_SHIFT) & CLOCK_MASK);
+    }
+
+    /**
+     * Gets the number of the full move.
+     *
+     * @return The full move number.
+     */
+    public int getFullMoveNumber() {
+        return (int) ((words[FLAGS] >>> FULL_MOVE_NUMBER_SHIFT) & CLOCK_MASK);
+    }
+
+    /**
+     * Compares the position with another object.
+     *
+     * @param obj The object to compare with.
+     * @return True if the object is a packed position with the same content, false otherwise.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof PackedPosition && Arrays.equals(words, ((PackedPosition) obj).words);
+    }
+
+    /**
+     * Returns the hash code of the position.
+     *
+     * @return The hash code of the position.
+     */
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(words);
+    }
+
+    /**
+     * Returns the index of the bitboard the piece is stored in.
+     *
+     * @param piece The piece.
+     * @return The index of the bitboard of the piece.
+     */
+    private int getBitBoardIndex(Piece piece) {
+        int pieceType;
+        if (piece instanceof King)
+            pieceType = KING;
+        else if (piece instanceof Queen)
+            pieceType = QUEEN;
+        else if (piece instanceof Rook)
+            pieceType = ROOK;
+        else if (piece instanceof Bishop)
+            pieceType = BISHOP;
+        else if (piece instanceof Knight)
+            pieceType = KNIGHT;
+        else
+            pieceType = PAWN;
+
+        return piece.getColor() ? pieceType : pieceType + BLACK_OFFSET;
+    }
+
+    /**
+     * Creates a piece of the given type.
+     *
+     * @param pieceType The type of the piece, KING to PAWN.
+     * @param square    The square of the piece.
+     * @param color     The color of the piece (true for white, false for black).
+     * @return The created piece.
+     */
+    private Piece createPiece(int pieceType, byte square, boolean color) {
+        return switch (pieceType) {
+            case KING -> new King(square, color);
+            case QUEEN -> new Queen(square, color);
+            case ROOK -> new Rook(square, color);
+            case BISHOP -> new Bishop(square, color);
+            case KNIGHT -> new Knight(square, color);
+            default -> new Pawn(square, color);
+        };
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.chessfrontend.modulus.gamelogic.perft;
+
+import com.example.chessfrontend.modulus.ChessGame;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Validates the move generation of the game logic against a suite of EPD positions.
+ * Each EPD line holds a position and the expected perft counts for several depths, for example:
+ * "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - ;D1 20 ;D2 400 ;D3 8902".
+ * Every (position, depth) pair is validated as an independent task on a ForkJoinPool,
+ * so large suites are checked concurrently on all cores.
+ */
+public class EpdPerftValidator {
+
+    private static final String OPERATION_SEPARATOR = ";";
+    private static final char DEPTH_PREFIX = 'D';
+    private static final String COMMENT_PREFIX = "#";
+
+    private final ForkJoinPool pool;
+    private final PerftCalculator perftCalculator = new PerftCalculator();
+
+    /**
+     * Constructs a validator that uses the common ForkJoinPool.
+     */
+    public EpdPerftValidator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a validator that runs its tasks on the given pool.
+     *
+     * @param pool The pool to run the validation tasks on.
+     */
+    public EpdPerftValidator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Validates all the positions of an EPD file.
+     *
+     * @param epdFile  The path of the EPD file.
+     * @param maxDepth The deepest depth to validate, deeper expected counts are skipped.
+     * @return The result of each validated (position, depth) pair, in the order of the file.
+     * @throws IOException If the file could not be read.
+     */
+    public LinkedList<EpdResult> validate(Path epdFile, int maxDepth) throws IOException {
+        return validate(Files.readAllLines(epdFile, StandardCharsets.UTF_8), maxDepth);
+    }
+
+    /**
+     * Validates all the positions of the given EPD lines.
+     * Empty lines and lines starting with '#' are ignored.
+     *
+     * @param epdLines The EPD lines.
+     * @param maxDepth The deepest depth to validate, deeper expected counts are skipped.
+     * @return The result of each validated (position, depth) pair, in the order of the lines.
+     */
+    public LinkedList<EpdResult> validate(List<String> epdLines, int maxDepth) {
+        LinkedList<ValidationTask> taskList = new LinkedList<>();
+        for (String line : epdLines) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith(COMMENT_PREFIX))
+                continue;
+
+            String[] operations = line.split(OPERATION_SEPARATOR);
+            String fen = operations[0].trim();
+            // Each operation is of the form "D<depth> <expected nodes>"
+            for (int i = 1; i < operations.length; i++) {
+                String operation = operations[i].trim();
+                if (operation.isEmpty() || operation.charAt(0) != DEPTH_PREFIX)
+                    continue;
+
+                String[] depthAndNodes = operation.substring(1).split("\\s+");
+                int depth = Integer.parseInt(depthAndNodes[0]);
+                if (depth <= maxDepth)
+                    taskList.add(new ValidationTask(fen, depth, Long.parseLong(depthAndNodes[1])));
+            }
+        }
+
+        pool.invoke(new RecursiveTask<Void>() {
+            @Override
+            protected Void compute() {
+                invokeAll(taskList);
+                return null;
+            }
+        });
+
+        LinkedList<EpdResult> results = new LinkedList<>();
+        for (ValidationTask task : taskList)
+            results.add(task.join());
+
+        return results;
+    }
+
+    /**
+     * A task that calculates perft of one position at one depth and compares it with the expected count.
+     * The tasks only live in the pool of the validator, so they are never serialized.
+     */
+    @SuppressWarnings("serial")
+    private class ValidationTask extends RecursiveTask<EpdResult> {
+        private final String fen;
+        private final int depth;
+        private final long expectedNodes;
+
+        /**
+         * Constructs a validation task.
+         *
+         * @param fen           The FEN of the position.
+         * @param depth         The depth to calculate perft to.
+         * @param expectedNodes The expected number of leaf positions.
+         */
+        private ValidationTask(String fen, int depth, long expectedNodes) {
+            this.fen = fen;
+            this.depth = depth;
+            this.expectedNodes = expectedNodes;
+        }
+
+        /**
+         * Calculates perft of the position and creates the result.
+         *
+         * @return The result of the validation.
+         */
+        @Override
+        protected EpdResult compute() {
+            long actualNodes;
+            try {
+                actualNodes = perftCalculator.perft(new ChessGame(fen), depth);
+            } catch (RuntimeException e) {
+                // A position the game logic can't handle is a failed validation, not a failed suite
+                actualNodes = -1;
+            }
+            return new EpdResult(fen, depth, expectedNodes, actualNodes);
+        }
+    }
+
+    /**
+     * The result of validating one position at one depth.
+     */
+    public static class EpdResult {
+        private final String fen;
+        private final int depth;
+        private final long expectedNodes;
+        private final long actualNodes;
+
+        /**
+         * Constructs a result of a validation.
+         *
+         * @param fen           The FEN of the position.
+         * @param depth         The depth perft was calculated to.
+         * @param expectedNodes The expected number of leaf positions.
+         * @param actualNodes   The calculated number of leaf positions, -1 if the calculation failed.
+         */
+        public EpdResult(String fen, int depth, long expectedNodes, long actualNodes) {
+            this.fen = fen;
+            this.depth = depth;
+            this.expectedNodes = expectedNodes;
+            this.actualNodes = actualNodes;
+        }
+
+        /**
+         * Returns if the calculated number of leaf positions matches the expected number.
+         *
+         * @return True if the validation passed, false otherwise.
+         */
+        public boolean isPassed() {
+            return expectedNodes == actualNodes;
+        }
+
+        /**
+         * Gets the FEN of the position.
+         *
+         * @return The FEN of the position.
+         */
+        public String getFen() {
+            return fen;
+        }
+
+        /**
+         * Gets the depth perft was calculated to.
+         *
+         * @return The depth.
+         */
+        public int getDepth() {
+            return depth;
+        }
+
+        /**
+         * Gets the expected number of leaf positions.
+         *
+         * @return The expected number of leaf positions.
+         */
+        public long getExpectedNodes() {
+            return expectedNodes;
+        }
+
+        /**
+         * Gets the calculated number of leaf positions.
+         *
+         * @return The calculated number of leaf positions, -1 if the calculation failed.
+         */
+        public long getActualNodes() {
+            return actualNodes;
+        }
+
+        /**
+         * Generates the string representation of the result.
+         *
+         * @return String representation of the result.
+         */
+        @Override
+        public String toString() {
+            return (isPassed() ? "PASS" : "FAIL") + " D" + depth + " expected=" + expectedNodes
+                    + " actual=" + actualNodes + " " + fen;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.chessfrontend.modulus.gamelogic.perft;
+
+import com.example.chessfrontend.modulus.ChessGame;
+import com.example.chessfrontend.modulus.ChessMove;
+import com.example.chessfrontend.modulus.gamelogic.PackedPosition;
+
+import java.util.LinkedList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Calculates perft in parallel using a ForkJoinPool.
+ * The game tree is split at the root, or at the root and at depth 2, into independent sub-trees.
+ * Each sub-tree gets its own copy of the position (copy-make of a position snapshot),
+ * so workers never share mutable game state and the result is the same as the sequential perft.
+ */
+public class ParallelPerftCalculator {
+
+    // Split levels supported by the calculator
+    public static final int SPLIT_AT_ROOT = 1;
+    public static final int SPLIT_AT_DEPTH_2 = 2;
+
+    private final ForkJoinPool pool;
+    private final int splitDepth;
+    private final PerftCalculator perftCalculator = new PerftCalculator();
+
+    /**
+     * Constructs a parallel perft calculator that uses the common ForkJoinPool and splits at depth 2.
+     */
+    public ParallelPerftCalculator() {
+        this(ForkJoinPool.commonPool(), SPLIT_AT_DEPTH_2);
+    }
+
+    /**
+     * Constructs a parallel perft calculator.
+     *
+     * @param pool       The pool to run the perft tasks on.
+     * @param splitDepth The number of levels of the game tree that are split into parallel tasks,
+     *                   SPLIT_AT_ROOT or SPLIT_AT_DEPTH_2.
+     */
+    public ParallelPerftCalculator(ForkJoinPool pool, int splitDepth) {
+        if (splitDepth != SPLIT_AT_ROOT && splitDepth != SPLIT_AT_DEPTH_2)
+            throw new IllegalArgumentException("Invalid split depth: " + splitDepth);
+
+        this.pool = pool;
+        this.splitDepth = splitDepth;
+    }
+
+    /**
+     * Counts the number of leaf positions of the game tree of the given game up to the given depth.
+     * The given game is not changed.
+     *
+     * @param game  The game to calculate perft for.
+     * @param depth The depth of the game tree.
+     * @return The number of leaf positions.
+     * @throws IllegalStateException If a generated move captures a king, see PerftCalculator.makeMove.
+     */
+    public long perft(ChessGame game, int depth) {
+        return pool.invoke(new PerftTask(new PackedPosition(game), depth, splitDepth));
+    }
+
+    /**
+     * Calculates perft for every move of the root position, the result of each move is counted in parallel.
+     * Useful to find which sub-tree has a wrong count when a position fails validation.
+     *
+     * @param game  The game to calculate perft for.
+     * @param depth The depth of the game tree.
+     * @return A list of the moves of the root position and the number of leaf positions of each move,
+     * formatted as "move: nodes", the move in long algebraic notation.
+     * @throws IllegalStateException If a generated move captures a king, see PerftCalculator.makeMove.
+     */
+    public LinkedList<String> divide(ChessGame game, int depth) {
+        LinkedList<String> result = new LinkedList<>();
+        if (depth < 1)
+            return result;
+
+        PackedPosition snapshot = new PackedPosition(game);
+        LinkedList<ChessMove> moveList = perftCalculator.generateLegalMoves(game);
+        LinkedList<PerftTask> taskList = new LinkedList<>();
+        for (ChessMove move : moveList)
+            taskList.add(new PerftTask(new PackedPosition(perftCalculator.makeMove(snapshot, move)), depth - 1,
+                    splitDepth - 1));
+
+        pool.invoke(new RecursiveTask<Void>() {
+            @Override
+            protected Void compute() {
+                invokeAll(taskList);
+                return null;
+            }
+        });
+
+        for (ChessMove move : moveList)
+            result.add(perftCalculator.toNotation(snapshot, move) + ": " + taskList.removeFirst().join());
+
+        return result;
+    }
+
+    /**
+     * A task that counts the leaf positions of the sub-tree of a position snapshot.
+     * While there are split levels left, the task forks a sub task for each legal move,
+     * otherwise it calculates the sub-tree sequentially.
+     * Tasks are only run by the pool, never serialized.
+     */
+    @SuppressWarnings("serial")
+    private class PerftTask extends RecursiveTask<Long> {
+        private final PackedPosition snapshot;
+        private final int depth;
+        private final int splitLevelsLeft;
+
+        /**
+         * Constructs a perft task.
+         *
+         * @param snapshot        The packed snapshot of the position of the task.
+         * @param depth           The depth of the sub-tree.
+         * @param splitLevelsLeft The number of levels left to split into parallel tasks.
+         */
+        private PerftTask(PackedPosition snapshot, int depth, int splitLevelsLeft) {
+            this.snapshot = snapshot;
+            this.depth = depth;
+            this.splitLevelsLeft = splitLevelsLeft;
+        }
+
+        /**
+         * Counts the leaf positions of the sub-tree.
+         *
+         * @return The number of leaf positions.
+         */
+        @Override
+        protected Long compute() {
+            ChessGame game = new ChessGame(snapshot);
+
+            // Splitting is worthless when the sub-tree is shallow, just count the moves
+            if (splitLevelsLeft <= 0 || depth <= 1)
+                return perftCalculator.perft(game, depth);
+
+            // Fork a task for each move, each task gets its own copy of the position
+            LinkedList<PerftTask> subTasks = new LinkedList<>();
+            for (ChessMove move : perftCalculator.generateLegalMoves(game))
+                subTasks.add(new PerftTask(new PackedPosition(perftCalculator.makeMove(snapshot, move)), depth - 1,
+                        splitLevelsLeft - 1));
+
+            long nodes = 0;
+            for (PerftTask task : invokeAll(subTasks))
+                nodes += task.join();
+
+            return nodes;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.chessfrontend.modulus.gamelogic.perft;
+
+import com.example.chessfrontend.modulus.ChessGame;
+import com.example.chessfrontend.modulus.ChessMove;
+import com.example.chessfrontend.modulus.gamelogic.GameLogicUtilities;
+import com.example.chessfrontend.modulus.gamelogic.PackedPosition;
+import com.example.chessfrontend.modulus.gamelogic.pieces.Pawn;
+import com.example.chessfrontend.modulus.gamelogic.pieces.Piece;
+
+import java.util.LinkedList;
+
+/**
+ * Perft (performance test) walks the tree of legal moves of a position up to a given depth,
+ * and counts the number of leaf positions.
+ * The counts are compared with known values to validate the move generation of the game logic.
+ * Moves are made using copy-make: each move is executed on an independent copy of the position
+ * created from a packed snapshot of its parent, so the parent position is never changed.
+ */
+public class PerftCalculator {
+
+    // Pieces a pawn can promote to, each promotion is a different move
+    private static final char[] PROMOTION_TYPES = {ChessGame.PROMOTE_TO_QUEEN, ChessGame.PROMOTE_TO_ROOK,
+            ChessGame.PROMOTE_TO_BISHOP, ChessGame.PROMOTE_TO_KNIGHT};
+
+    private static final int LAST_ROW = GameLogicUtilities.BOARD_EDGE_SIZE - 1;
+    private static final int FIRST_ROW = 0;
+    // Bitboard of the first and last rows, where pawns promote
+    private static final long PROMOTION_ROWS_BITBOARD = 0xFF000000000000FFL;
+
+    /**
+     * Counts the number of leaf positions of the game tree of the given game up to the given depth.
+     * The given game is not changed.
+     *
+     * @param game  The game to calculate perft for.
+     * @param depth The depth of the game tree.
+     * @return The number of leaf positions.
+     * @throws IllegalStateException If a generated move captures a king, see makeMove.
+     */
+    public long perft(ChessGame game, int depth) {
+        if (depth == 0)
+            return 1;
+
+        // When one move is left, count the moves instead of playing them
+        if (depth == 1)
+            return countLegalMoves(game);
+
+        long nodes = 0;
+        PackedPosition snapshot = new PackedPosition(game);
+        for (ChessMove move : generateLegalMoves(game))
+            nodes += perft(makeMove(snapshot, move), depth - 1);
+
+        return nodes;
+    }
+
+    /**
+     * Generates all the legal moves of the player whose turn it is.
+     * A pawn move to the last row is generated once for each type of piece the pawn can promote to.
+     *
+     * @param game The game to generate moves for.
+     * @return A list of all the legal moves.
+     */
+    public LinkedList<ChessMove> generateLegalMoves(ChessGame game) {
+        LinkedList<ChessMove> moveList = new LinkedList<>();
+        for (Piece piece : game.getPieceList()) {
+            long legalMoves = game.getLegalMovesAsBitBoard(piece);
+            // Run on all the set bits of the legal moves, each bit is a target square
+            while (legalMoves != 0) {
+                byte targetSquare = (byte) Long.numberOfTrailingZeros(legalMoves);
+                legalMoves &= legalMoves - 1;
+
+                if (isPromotion(piece, targetSquare))
+                    for (char promotionType : PROMOTION_TYPES)
+                        moveList.add(new ChessMove(piece.getSquare(), targetSquare, promotionType));
+                else
+                    moveList.add(new ChessMove(piece.getSquare(), targetSquare, ChessGame.PROMOTE_TO_QUEEN));
+            }
+        }
+        return moveList;
+    }
+
+    /**
+     * Counts the legal moves of the player whose turn it is, without generating them.
+     * A promotion is counted once for each type of piece the pawn can promote to.
+     *
+     * @param game The game to count moves for.
+     * @return The number of legal moves.
+     */
+    public long countLegalMoves(ChessGame game) {
+        long count = 0;
+        for (Piece piece : game.getPieceList()) {
+            long legalMoves = game.getLegalMovesAsBitBoard(piece);
+            if (piece instanceof Pawn) {
+                // Pawn moves to the first or last row are promotions
+                long promotionMoves = legalMoves & PROMOTION_ROWS_BITBOARD;
+                count += (long) Long.bitCount(promotionMoves) * PROMOTION_TYPES.length;
+                legalMoves &= ~promotionMoves;
+            }
+            count += Long.bitCount(legalMoves);
+        }
+        return count;
+    }
+
+    /**
+     * Creates an independent copy of the position described by the snapshot, and plays the move on it.
+     * A move that captures a king is refused: it is only generated when the move before it left its own king
+     * in check, which the move generation doesn't always see, and the game logic can't set up a position
+     * without a king, so the count of such a tree is wrong anyway.
+     *
+     * @param snapshot The packed snapshot of the position to play the move on.
+     * @param move     The move to play.
+     * @return A new game with the move played.
+     * @throws IllegalStateException If the move captures the king of the opponent.
+     */
+    public ChessGame makeMove(PackedPosition snapshot, ChessMove move) {
+        long enemyKing = snapshot.getBitBoard(PackedPosition.KING, !snapshot.getPlayerToPlay());
+        if ((enemyKing & (1L << move.getTargetSquare())) != 0)
+            throw new IllegalStateException("The move " + toNotation(snapshot, move)
+                    + " captures a king, the move before it left its own king in check");
+
+        ChessGame child = new ChessGame(snapshot);
+        child.executeMove(move.getCurrentPieceSquare(), move.getTargetSquare(), move.getTypeOfPieceToPromoteTo());
+        return child;
+    }
+
+    /**
+     * Formats a move of the game in long algebraic notation, such as "e2e4",
+     * with the type of piece to promote to only when the move is a promotion, such as "e7e8q".
+     *
+     * @param snapshot The packed snapshot of the position the move is played in.
+     * @param move     The move.
+     * @return The move in long algebraic notation.
+     */
+    public String toNotation(PackedPosition snapshot, ChessMove move) {
+        // the notation of ChessMove always ends with the type of piece to promote to
+        String notation = move.toString();
+        long pawns = snapshot.getBitBoard(PackedPosition.PAWN, snapshot.getPlayerToPlay());
+        boolean promotion = (pawns & (1L << move.getCurrentPieceSquare())) != 0
+                && (PROMOTION_ROWS_BITBOARD & (1L << move.getTargetSquare())) != 0;
+        return promotion ? notation : notation.substring(0, notation.length() - 1);
+    }
+
+    /**
+     * Checks if moving the piece to the target square is a promotion.
+     *
+     * @param piece        The piece to move.
+     * @param targetSquare The target square of the piece.
+     * @return True if the piece is a pawn that moves to the first or last row, false otherwise.
+     */
+    private boolean isPromotion(Piece piece, byte targetSquare) {
+        int targetRow = GameLogicUtilities.getRowOfSquare(targetSquare);
+        return piece instanceof Pawn && (targetRow == LAST_ROW || targetRow == FIRST_ROW);
+    }
+}
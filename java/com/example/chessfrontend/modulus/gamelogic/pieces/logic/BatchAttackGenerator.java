@@ -0,0 +1,58 @@
+package com.example.chessfrontend.modulus.gamelogic.pieces.logic;
+
+/**
+ * Computes attack and push sets for a batch of positions at once.
+ * Each position of the batch is given as bitboards in the same index of the input arrays,
+ * and the result of each position is written to the same index of the result array.
+ * Unlike PieceMovement, which looks up the movement of a single piece on a single square,
+ * the sets are computed for all the pieces of a type at once using shifts and masks,
+ * which allows implementations to process many positions in parallel lanes.
+ */
+public interface BatchAttackGenerator {
+
+    /**
+     * Computes the squares the pawns of the given color can be pushed to, one or two squares forward.
+     *
+     * @param pawns             Bitboards of the pawns of each position.
+     * @param allPiecesBitBoard Bitboards of all the pieces of each position.
+     * @param color             Color of the pawns (true for white, false for black).
+     * @param result            Array to store the push set of each position.
+     * @param count             Number of positions in the batch.
+     */
+    void pawnPushes(long[] pawns, long[] allPiecesBitBoard, boolean color, long[] result, int count);
+
+    /**
+     * Computes the squares attacked by the pawns of the given color.
+     *
+     * @param pawns  Bitboards of the pawns of each position.
+     * @param color  Color of the pawns (true for white, false for black).
+     * @param result Array to store the attack set of each position.
+     * @param count  Number of positions in the batch.
+     */
+    void pawnAttacks(long[] pawns, boolean color, long[] result, int count);
+
+    /**
+     * Computes the squares attacked by the knights.
+     *
+     * @param knights Bitboards of the knights of each position.
+     * @param result  Array to store the attack set of each position.
+     * @param count   Number of positions in the batch.
+     */
+    void knightAttacks(long[] knights, long[] result, int count);
+
+    /**
+     * Computes the squares attacked by the kings.
+     *
+     * @param kings  Bitboards of the kings of each position.
+     * @param result Array to store the attack set of each position.
+     * @param count  Number of positions in the batch.
+     */
+    void kingAttacks(long[] kings, long[] result, int count);
+
+    /**
+     * Returns the name of the implementation, used for logging which path was selected.
+     *
+     * @return The name of the implementation.
+     */
+    String getName();
+}
@@ -0,0 +1,87 @@
+package com.example.chessfrontend.modulus.gamelogic.pieces.logic;
+
+/**
+ * Selects the BatchAttackGenerator implementation at runtime.
+ * The Vector API lives in the incubator module jdk.incubator.vector, which is only present when the
+ * application is started with "--add-modules jdk.incubator.vector".
+ * The implementation can be forced with the system property "chess.batchAttacks" set to "vector" or "scalar",
+ * by default the vector implementation is used when the module is present and the scalar one otherwise.
+ * Why the vector implementation was not used is recorded once, see getFallbackReason.
+ */
+public class BatchAttackGenerators {
+
+    public static final String IMPLEMENTATION_PROPERTY = "chess.batchAttacks";
+    public static final String VECTOR = "vector";
+    public static final String SCALAR = "scalar";
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String MODULE_MISSING_REASON = "the module " + VECTOR_MODULE
+            + " is not in the boot layer, start with --add-modules " + VECTOR_MODULE;
+
+    private static BatchAttackGenerator generator;
+    // the reason of the first fall back to the scalar implementation, null if there was none
+    private static String fallbackReason;
+
+    /**
+     * Returns the generator selected for this runtime, the selection is done once.
+     *
+     * @return The selected batch attack generator.
+     */
+    public static synchronized BatchAttackGenerator getGenerator() {
+        if (generator == null)
+            generator = create(System.getProperty(IMPLEMENTATION_PROPERTY, VECTOR));
+
+        return generator;
+    }
+
+    /**
+     * Creates a generator of the requested implementation.
+     * Falls back to the scalar implementation if the vector one was requested but is not available.
+     *
+     * @param implementation The requested implementation, "vector" or "scalar".
+     * @return The created batch attack generator.
+     */
+    public static BatchAttackGenerator create(String implementation) {
+        if (VECTOR.equals(implementation)) {
+            if (!isVectorApiAvailable())
+                recordFallback(MODULE_MISSING_REASON);
+            else {
+                try {
+                    return new VectorBatchAttackGenerator();
+                } catch (LinkageError e) {
+                    recordFallback("the Vector API is not usable: " + e);
+                }
+            }
+        }
+        return new ScalarBatchAttackGenerator();
+    }
+
+    /**
+     * Records why the vector implementation was requested but the scalar one was created,
+     * unless a reason was already recorded.
+     *
+     * @param reason The reason of the fall back.
+     */
+    private static synchronized void recordFallback(String reason) {
+        if (fallbackReason == null)
+            fallbackReason = reason;
+    }
+
+    /**
+     * Gets why the vector implementation was requested but the scalar one was created, the first time it happened.
+     *
+     * @return The reason of the fall back, or null if the vector implementation never fell back.
+     */
+    public static synchronized String getFallbackReason() {
+        return fallbackReason;
+    }
+
+    /**
+     * Checks if the Vector API incubator module was added to the boot layer.
+     *
+     * @return True if the Vector API can be used, false otherwise.
+     */
+    public static boolean isVectorApiAvailable() {
+        return ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent();
+    }
+}
@@ -28,31 +28,42 @@ public class PieceMovement {
     private static final long[] BLACK_PAWN_ONLY_MOVES = new long[GameLogicUtilities.BOARD_SIZE];
     private static final long[] BLACK_PAWN_CAPTURE = new long[GameLogicUtilities.BOARD_SIZE];
 
-    private static boolean initialized = false;
+    private static volatile boolean initialized = false;
 
     /**
      * Constructor for PieceMovement class.
      */
     public PieceMovement() {
+        if (!initialized)
+            initialize();
+    }
+
+    /**
+     * Generates the pre-calculated movements once for all pieces.
+     * Synchronized so pieces that are created concurrently (e.g. by parallel perft workers)
+     * won't fill the shared movement tables twice.
+     */
+    private static synchronized void initialize() {
+        if (initialized)
+            return;
+
         PieceMovementPreemptiveCalculator preemptiveCalculator = new PieceMovementPreemptiveCalculator();
-        if (!initialized) {
-
-            // Initialize arrays to store movement data for rooks and bishops
-            for (int i = 0; i < GameLogicUtilities.BOARD_SIZE; i++) {
-                ROOK_MOVES.add(new HashMap<>());
-                BISHOP_MOVES.add(new HashMap<>());
-            }
-
-            // Generate pre-calculated movements for the king, knight, and pawns
-            preemptiveCalculator.generateKingMoves(KING_MOVES);
-            preemptiveCalculator.generateKnightMoves(KNIGHT_MOVES);
-            preemptiveCalculator.generatePawnMoves(WHITE_PAWN_ONLY_MOVES, WHITE_PAWN_CAPTURE, GameLogicUtilities.WHITE);
-            preemptiveCalculator.generatePawnMoves(BLACK_PAWN_ONLY_MOVES, BLACK_PAWN_CAPTURE, GameLogicUtilities.BLACK);
-
-            // Generate pre-calculated movements for rooks and bishops based on lines
-            preemptiveCalculator.generateLinePieceMoves(ROOK_MOVES, BISHOP_MOVES);
-            initialized = true;
+
+        // Initialize arrays to store movement data for rooks and bishops
+        for (int i = 0; i < GameLogicUtilities.BOARD_SIZE; i++) {
+            ROOK_MOVES.add(new HashMap<>());
+            BISHOP_MOVES.add(new HashMap<>());
         }
+
+        // Generate pre-calculated movements for the king, knight, and pawns
+        preemptiveCalculator.generateKingMoves(KING_MOVES);
+        preemptiveCalculator.generateKnightMoves(KNIGHT_MOVES);
+        preemptiveCalculator.generatePawnMoves(WHITE_PAWN_ONLY_MOVES, WHITE_PAWN_CAPTURE, GameLogicUtilities.WHITE);
+        preemptiveCalculator.generatePawnMoves(BLACK_PAWN_ONLY_MOVES, BLACK_PAWN_CAPTURE, GameLogicUtilities.BLACK);
+
+        // Generate pre-calculated movements for rooks and bishops based on lines
+        preemptiveCalculator.generateLinePieceMoves(ROOK_MOVES, BISHOP_MOVES);
+        initialized = true;
     }
 
     /**
@@ -0,0 +1,128 @@
+package com.example.chessfrontend.modulus.gamelogic.pieces.logic;
+
+/**
+ * Scalar implementation of BatchAttackGenerator, computes the positions of the batch one by one.
+ * It is always available, and is used as the fallback when the Vector API is not.
+ * Squares are numbered as in the rest of the game logic, square 0 is h1 and column 0 is the h-file,
+ * so a shift that moves a piece one column up (+1) wraps into column 0 when it leaves the board.
+ */
+public class ScalarBatchAttackGenerator implements BatchAttackGenerator {
+
+    // Masks of board columns, used to remove squares that wrapped around the edge of the board
+    static final long COLUMN_0 = 0x0101010101010101L;
+    static final long COLUMN_1 = COLUMN_0 << 1;
+    static final long COLUMN_6 = COLUMN_0 << 6;
+    static final long COLUMN_7 = COLUMN_0 << 7;
+    static final long NOT_COLUMN_0 = ~COLUMN_0;
+    static final long NOT_COLUMN_7 = ~COLUMN_7;
+    static final long NOT_COLUMN_0_1 = ~(COLUMN_0 | COLUMN_1);
+    static final long NOT_COLUMN_6_7 = ~(COLUMN_6 | COLUMN_7);
+
+    // Rows a pawn lands on after a single push from its initial row, from which it can push again
+    static final long WHITE_DOUBLE_PUSH_ROW = 0xFFL << 16;
+    static final long BLACK_DOUBLE_PUSH_ROW = 0xFFL << 40;
+
+    private static final String NAME = "scalar";
+
+    @Override
+    public void pawnPushes(long[] pawns, long[] allPiecesBitBoard, boolean color, long[] result, int count) {
+        pawnPushes(pawns, allPiecesBitBoard, color, result, 0, count);
+    }
+
+    @Override
+    public void pawnAttacks(long[] pawns, boolean color, long[] result, int count) {
+        pawnAttacks(pawns, color, result, 0, count);
+    }
+
+    @Override
+    public void knightAttacks(long[] knights, long[] result, int count) {
+        knightAttacks(knights, result, 0, count);
+    }
+
+    @Override
+    public void kingAttacks(long[] kings, long[] result, int count) {
+        kingAttacks(kings, result, 0, count);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * Computes the pawn pushes of the positions in the range [from, to) of the batch.
+     *
+     * @param pawns             Bitboards of the pawns of each position.
+     * @param allPiecesBitBoard Bitboards of all the pieces of each position.
+     * @param color             Color of the pawns (true for white, false for black).
+     * @param result            Array to store the push set of each position.
+     * @param from              First index of the range, inclusive.
+     * @param to                Last index of the range, exclusive.
+     */
+    static void pawnPushes(long[] pawns, long[] allPiecesBitBoard, boolean color, long[] result, int from, int to) {
+        for (int i = from; i < to; i++) {
+            long emptySquares = ~allPiecesBitBoard[i];
+            if (color) {
+                long singlePush = (pawns[i] << 8) & emptySquares;
+                result[i] = singlePush | ((singlePush & WHITE_DOUBLE_PUSH_ROW) << 8) & emptySquares;
+            } else {
+                long singlePush = (pawns[i] >>> 8) & emptySquares;
+                result[i] = singlePush | ((singlePush & BLACK_DOUBLE_PUSH_ROW) >>> 8) & emptySquares;
+            }
+        }
+    }
+
+    /**
+     * Computes the pawn attacks of the positions in the range [from, to) of the batch.
+     *
+     * @param pawns  Bitboards of the pawns of each position.
+     * @param color  Color of the pawns (true for white, false for black).
+     * @param result Array to store the attack set of each position.
+     * @param from   First index of the range, inclusive.
+     * @param to     Last index of the range, exclusive.
+     */
+    static void pawnAttacks(long[] pawns, boolean color, long[] result, int from, int to) {
+        for (int i = from; i < to; i++) {
+            long pawn = pawns[i];
+            if (color)
+                result[i] = ((pawn << 7) & NOT_COLUMN_7) | ((pawn << 9) & NOT_COLUMN_0);
+            else
+                result[i] = ((pawn >>> 7) & NOT_COLUMN_0) | ((pawn >>> 9) & NOT_COLUMN_7);
+        }
+    }
+
+    /**
+     * Computes the knight attacks of the positions in the range [from, to) of the batch.
+     *
+     * @param knights Bitboards of the knights of each position.
+     * @param result  Array to store the attack set of each position.
+     * @param from    First index of the range, inclusive.
+     * @param to      Last index of the range, exclusive.
+     */
+    static void knightAttacks(long[] knights, long[] result, int from, int to) {
+        for (int i = from; i < to; i++) {
+            long knight = knights[i];
+            result[i] = ((knight << 17) & NOT_COLUMN_0) | ((knight << 15) & NOT_COLUMN_7)
+                    | ((knight << 10) & NOT_COLUMN_0_1) | ((knight << 6) & NOT_COLUMN_6_7)
+                    | ((knight >>> 17) & NOT_COLUMN_7) | ((knight >>> 15) & NOT_COLUMN_0)
+                    | ((knight >>> 10) & NOT_COLUMN_6_7) | ((knight >>> 6) & NOT_COLUMN_0_1);
+        }
+    }
+
+    /**
+     * Computes the king attacks of the positions in the range [from, to) of the batch.
+     *
+     * @param kings  Bitboards of the kings of each position.
+     * @param result Array to store the attack set of each position.
+     * @param from   First index of the range, inclusive.
+     * @param to     Last index of the range, exclusive.
+     */
+    static void kingAttacks(long[] kings, long[] result, int from, int to) {
+        for (int i = from; i < to; i++) {
+            long king = kings[i];
+            // Spread the king on its row, then spread the row up and down
+            long row = king | ((king << 1) & NOT_COLUMN_0) | ((king >>> 1) & NOT_COLUMN_7);
+            result[i] = (row | (row << 8) | (row >>> 8)) & ~king;
+        }
+    }
+}
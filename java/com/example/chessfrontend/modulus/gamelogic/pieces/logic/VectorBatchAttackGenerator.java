@@ -0,0 +1,97 @@
+package com.example.chessfrontend.modulus.gamelogic.pieces.logic;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import static com.example.chessfrontend.modulus.gamelogic.pieces.logic.ScalarBatchAttackGenerator.*;
+
+/**
+ * Vector API implementation of BatchAttackGenerator.
+ * Each LongVector lane holds a bitboard of a different position of the batch, so a single shift
+ * or mask instruction is applied to as many positions as the preferred vector species has lanes.
+ * The tail of the batch that doesn't fill a whole vector is computed by the scalar implementation.
+ * This class may only be loaded when the jdk.incubator.vector module is present,
+ * BatchAttackGenerators takes care of that.
+ */
+public class VectorBatchAttackGenerator implements BatchAttackGenerator {
+
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+    private static final String NAME = "vector";
+
+    @Override
+    public void pawnPushes(long[] pawns, long[] allPiecesBitBoard, boolean color, long[] result, int count) {
+        int i = 0;
+        int upperBound = SPECIES.loopBound(count);
+        long doublePushRow = color ? WHITE_DOUBLE_PUSH_ROW : BLACK_DOUBLE_PUSH_ROW;
+        VectorOperators.Binary shift = color ? VectorOperators.LSHL : VectorOperators.LSHR;
+
+        for (; i < upperBound; i += SPECIES.length()) {
+            LongVector emptySquares = LongVector.fromArray(SPECIES, allPiecesBitBoard, i).not();
+            LongVector singlePush = LongVector.fromArray(SPECIES, pawns, i).lanewise(shift, 8).and(emptySquares);
+            LongVector doublePush = singlePush.and(doublePushRow).lanewise(shift, 8).and(emptySquares);
+            singlePush.or(doublePush).intoArray(result, i);
+        }
+        ScalarBatchAttackGenerator.pawnPushes(pawns, allPiecesBitBoard, color, result, i, count);
+    }
+
+    @Override
+    public void pawnAttacks(long[] pawns, boolean color, long[] result, int count) {
+        int i = 0;
+        int upperBound = SPECIES.loopBound(count);
+
+        for (; i < upperBound; i += SPECIES.length()) {
+            LongVector pawn = LongVector.fromArray(SPECIES, pawns, i);
+            LongVector attacks;
+            if (color)
+                attacks = pawn.lanewise(VectorOperators.LSHL, 7).and(NOT_COLUMN_7)
+                        .or(pawn.lanewise(VectorOperators.LSHL, 9).and(NOT_COLUMN_0));
+            else
+                attacks = pawn.lanewise(VectorOperators.LSHR, 7).and(NOT_COLUMN_0)
+                        .or(pawn.lanewise(VectorOperators.LSHR, 9).and(NOT_COLUMN_7));
+            attacks.intoArray(result, i);
+        }
+        ScalarBatchAttackGenerator.pawnAttacks(pawns, color, result, i, count);
+    }
+
+    @Override
+    public void knightAttacks(long[] knights, long[] result, int count) {
+        int i = 0;
+        int upperBound = SPECIES.loopBound(count);
+
+        for (; i < upperBound; i += SPECIES.length()) {
+            LongVector knight = LongVector.fromArray(SPECIES, knights, i);
+            LongVector up = knight.lanewise(VectorOperators.LSHL, 17).and(NOT_COLUMN_0)
+                    .or(knight.lanewise(VectorOperators.LSHL, 15).and(NOT_COLUMN_7))
+                    .or(knight.lanewise(VectorOperators.LSHL, 10).and(NOT_COLUMN_0_1))
+                    .or(knight.lanewise(VectorOperators.LSHL, 6).and(NOT_COLUMN_6_7));
+            LongVector down = knight.lanewise(VectorOperators.LSHR, 17).and(NOT_COLUMN_7)
+                    .or(knight.lanewise(VectorOperators.LSHR, 15).and(NOT_COLUMN_0))
+                    .or(knight.lanewise(VectorOperators.LSHR, 10).and(NOT_COLUMN_6_7))
+                    .or(knight.lanewise(VectorOperators.LSHR, 6).and(NOT_COLUMN_0_1));
+            up.or(down).intoArray(result, i);
+        }
+        ScalarBatchAttackGenerator.knightAttacks(knights, result, i, count);
+    }
+
+    @Override
+    public void kingAttacks(long[] kings, long[] result, int count) {
+        int i = 0;
+        int upperBound = SPECIES.loopBound(count);
+
+        for (; i < upperBound; i += SPECIES.length()) {
+            LongVector king = LongVector.fromArray(SPECIES, kings, i);
+            // Spread the king on its row, then spread the row up and down
+            LongVector row = king.or(king.lanewise(VectorOperators.LSHL, 1).and(NOT_COLUMN_0))
+                    .or(king.lanewise(VectorOperators.LSHR, 1).and(NOT_COLUMN_7));
+            row.or(row.lanewise(VectorOperators.LSHL, 8)).or(row.lanewise(VectorOperators.LSHR, 8))
+                    .and(king.not()).intoArray(result, i);
+        }
+        ScalarBatchAttackGenerator.kingAttacks(kings, result, i, count);
+    }
+
+    @Override
+    public String getName() {
+        return NAME + "-" + SPECIES.length() + "-lanes";
+    }
+}
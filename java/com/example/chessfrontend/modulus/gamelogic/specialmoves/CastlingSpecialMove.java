@@ -206,4 +206,39 @@ public class CastlingSpecialMove {
                 (targetSquare == BLACK_LONG_CASTLE_SQUARE && blackLongCastle);
     }
 
+    /**
+     * Returns if white short castle is still possible.
+     *
+     * @return True if white short castle is still possible, false otherwise.
+     */
+    public boolean getWhiteShortCastle() {
+        return whiteShortCastle;
+    }
+
+    /**
+     * Returns if white long castle is still possible.
+     *
+     * @return True if white long castle is still possible, false otherwise.
+     */
+    public boolean getWhiteLongCastle() {
+        return whiteLongCastle;
+    }
+
+    /**
+     * Returns if black short castle is still possible.
+     *
+     * @return True if black short castle is still possible, false otherwise.
+     */
+    public boolean getBlackShortCastle() {
+        return blackShortCastle;
+    }
+
+    /**
+     * Returns if black long castle is still possible.
+     *
+     * @return True if black long castle is still possible, false otherwise.
+     */
+    public boolean getBlackLongCastle() {
+        return blackLongCastle;
+    }
 }
@@ -112,4 +112,40 @@ public class SpecialMovesHandler {
     public byte getEnPassantSquare() {
         return pawnSpecialMoves.getEnPassantSquare();
     }
+
+    /**
+     * Returns if white short castle is still possible.
+     *
+     * @return True if white short castle is still possible, false otherwise.
+     */
+    public boolean getWhiteShortCastle() {
+        return castlingSpecialMove.getWhiteShortCastle();
+    }
+
+    /**
+     * Returns if white long castle is still possible.
+     *
+     * @return True if white long castle is still possible, false otherwise.
+     */
+    public boolean getWhiteLongCastle() {
+        return castlingSpecialMove.getWhiteLongCastle();
+    }
+
+    /**
+     * Returns if black short castle is still possible.
+     *
+     * @return True if black short castle is still possible, false otherwise.
+     */
+    public boolean getBlackShortCastle() {
+        return castlingSpecialMove.getBlackShortCastle();
+    }
+
+    /**
+     * Returns if black long castle is still possible.
+     *
+     * @return True if black long castle is still possible, false otherwise.
+     */
+    public boolean getBlackLongCastle() {
+        return castlingSpecialMove.getBlackLongCastle();
+    }
 }
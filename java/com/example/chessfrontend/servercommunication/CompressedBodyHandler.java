@@ -0,0 +1,95 @@
+package com.example.chessfrontend.servercommunication;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * A body handler that reads the raw bytes of a response and decompresses them by its Content-Encoding,
+ * gzip or deflate, before decoding them as UTF-8.
+ * The client asks for compressed responses with the Accept-Encoding header, which the HTTP client
+ * does not send nor handle by itself.
+ * A listener can be given the size of the body as it came on the wire, before it is decompressed.
+ */
+public class CompressedBodyHandler implements HttpResponse.BodyHandler<String> {
+    public static final String ACCEPT_ENCODING_HEADER = "Accept-Encoding";
+    public static final String CONTENT_ENCODING_HEADER = "Content-Encoding";
+    public static final String GZIP = "gzip";
+    public static final String DEFLATE = "deflate";
+    public static final String ACCEPTED_ENCODINGS = GZIP + ", " + DEFLATE;
+
+    private static final String IDENTITY = "identity";
+    private static final int COMPRESSION_RATIO_HINT = 4;
+
+    private final LongConsumer wireBytesListener;
+
+    /**
+     * Constructs a body handler.
+     */
+    public CompressedBodyHandler() {
+        this(bytes -> {
+        });
+    }
+
+    /**
+     * Constructs a body handler that reports the size of the bodies it reads.
+     *
+     * @param wireBytesListener Given the size of each body in bytes, as it came on the wire.
+     */
+    public CompressedBodyHandler(LongConsumer wireBytesListener) {
+        this.wireBytesListener = wireBytesListener;
+    }
+
+    /**
+     * Creates the subscriber of a response body, based on the encoding of the response.
+     *
+     * @param responseInfo The status code and headers of the response.
+     * @return The subscriber that decodes the body into a string.
+     */
+    @Override
+    public HttpResponse.BodySubscriber<String> apply(HttpResponse.ResponseInfo responseInfo) {
+        String encoding = responseInfo.headers().firstValue(CONTENT_ENCODING_HEADER).orElse(IDENTITY).trim();
+        return HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofByteArray(),
+                body -> {
+                    wireBytesListener.accept(body.length);
+                    return decode(body, encoding);
+                });
+    }
+
+    /**
+     * Decompresses and decodes the raw bytes of a body.
+     *
+     * @param body     The raw bytes of the body, as they came on the wire.
+     * @param encoding The Content-Encoding of the body.
+     * @return The body as a string.
+     * @throws UncheckedIOException If the body is not valid for its encoding.
+     */
+    public static String decode(byte[] body, String encoding) {
+        if (!GZIP.equalsIgnoreCase(encoding) && !DEFLATE.equalsIgnoreCase(encoding))
+            return new String(body, StandardCharsets.UTF_8);
+
+        try (InputStream inputStream = GZIP.equalsIgnoreCase(encoding)
+                ? new GZIPInputStream(new ByteArrayInputStream(body), body.length)
+                : new InflaterInputStream(new ByteArrayInputStream(body))) {
+            byte[] decompressed = new byte[Math.max(body.length * COMPRESSION_RATIO_HINT, 1)];
+            int size = 0, read;
+
+            // inflate straight into one growing buffer, the body is only turned into a string once
+            while ((read = inputStream.read(decompressed, size, decompressed.length - size)) != -1) {
+                size += read;
+                if (size == decompressed.length)
+                    decompressed = Arrays.copyOf(decompressed, decompressed.length * 2);
+            }
+            return new String(decompressed, 0, size, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
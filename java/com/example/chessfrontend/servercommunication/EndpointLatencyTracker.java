@@ -0,0 +1,94 @@
+package com.example.chessfrontend.servercommunication;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Tracks the latency of the recent requests to an endpoint of the server.
+ * The percentiles of the latency set the timeout of the requests to the endpoint,
+ * and the delay before a hedged request is sent.
+ */
+public class EndpointLatencyTracker {
+    public static final int SAMPLE_WINDOW = 128;
+    public static final int MIN_SAMPLES = 20;
+    public static final int HEDGE_PERCENTILE = 95;
+    public static final int TIMEOUT_PERCENTILE = 99;
+
+    // the timeout is a few times the slowest recent requests, but never shorter than the minimum
+    private static final int TIMEOUT_MULTIPLIER = 4;
+    private static final long MIN_ADAPTIVE_TIMEOUT_NANOS = Duration.ofSeconds(2).toNanos();
+    private static final int PERCENT = 100;
+
+    private final long[] samples = new long[SAMPLE_WINDOW];
+    private int sampleCount;
+    private int nextSample;
+    private long hedgedRequests;
+
+    /**
+     * Records the latency of a request that got a response from the server.
+     *
+     * @param nanos The latency in nanoseconds.
+     */
+    public synchronized void record(long nanos) {
+        samples[nextSample] = nanos;
+        nextSample = (nextSample + 1) % SAMPLE_WINDOW;
+        sampleCount = Math.min(sampleCount + 1, SAMPLE_WINDOW);
+    }
+
+    /**
+     * Records that a hedged request was sent.
+     */
+    public synchronized void recordHedgedRequest() {
+        hedgedRequests++;
+    }
+
+    /**
+     * Gets a percentile of the latency of the recent requests.
+     *
+     * @param percentile The percentile, between 0 and 100.
+     * @return The latency at the percentile in nanoseconds, or -1 if there are too few samples yet.
+     */
+    public synchronized long getPercentileNanos(int percentile) {
+        if (sampleCount < MIN_SAMPLES)
+            return -1;
+
+        long[] sorted = Arrays.copyOf(samples, sampleCount);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / (double) PERCENT * sampleCount) - 1;
+        return sorted[Math.max(0, Math.min(index, sampleCount - 1))];
+    }
+
+    /**
+     * Gets the timeout of the next request, derived from the latency of the recent requests.
+     * Until there are enough samples, and whenever the derived timeout is longer, the configured timeout is used.
+     *
+     * @param configuredTimeout The timeout configured for the endpoint, the longest timeout used.
+     * @return The timeout of the next request.
+     */
+    public Duration getAdaptiveTimeout(Duration configuredTimeout) {
+        long percentileNanos = getPercentileNanos(TIMEOUT_PERCENTILE);
+        if (percentileNanos < 0)
+            return configuredTimeout;
+
+        long timeoutNanos = Math.max(percentileNanos * TIMEOUT_MULTIPLIER, MIN_ADAPTIVE_TIMEOUT_NANOS);
+        return timeoutNanos < configuredTimeout.toNanos() ? Duration.ofNanos(timeoutNanos) : configuredTimeout;
+    }
+
+    /**
+     * Gets the delay after which a hedged request is sent, if the first request has not been answered yet.
+     *
+     * @return The delay in nanoseconds, or -1 if there are too few samples yet.
+     */
+    public long getHedgeDelayNanos() {
+        return getPercentileNanos(HEDGE_PERCENTILE);
+    }
+
+    /**
+     * Gets the number of hedged requests that were sent.
+     *
+     * @return The number of hedged requests.
+     */
+    public synchronized long getHedgedRequests() {
+        return hedgedRequests;
+    }
+}
@@ -1,8 +1,10 @@
 package com.example.chessfrontend.servercommunication;
 
+import com.example.chessfrontend.GameSession;
 import com.example.chessfrontend.Utilities;
 import com.example.chessfrontend.modulus.ChessBoard;
 import com.example.chessfrontend.modulus.ChessMove;
+import com.example.chessfrontend.modulus.GameActor;
 import javafx.application.Platform;
 import javafx.event.Event;
 import javafx.fxml.FXMLLoader;
@@ -12,27 +14,58 @@ import javafx.stage.Stage;
 
 import java.rmi.RemoteException;
 import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static com.example.chessfrontend.Utilities.GAME_LOBBY_PATH;
 
 /**
  * This class represents the implementation of the GamePlayService interface.
  * It handles the communication between the client and the server for chess game moves.
+ * It also listens to the push channel, which delivers the same events when the backend supports it.
+ * The moves are handed to the GameActor of the board, which plays them in the order of the game on the server,
+ * so the RMI and push channel threads never touch the game and never wait for it.
+ * The moves that arrive before the board of their game is set, such as the first move of white
+ * while the page of the game is loading, are held until it is.
  */
-public class GamePlayServant extends UnicastRemoteObject implements GamePlayService {
+public class GamePlayServant extends UnicastRemoteObject implements GamePlayService, PushEventListener {
 
-    private static final Utilities utilities = new Utilities();
     private static final String ENEMY_HAS_RESIGN_TEXT = "You have won, the enemy has resigned! ";
-    private ChessBoard board;
+    private static final String WATCHED_GAME_OVER_TEXT = "The game you watched is over";
+    // null when not configured, for RMI to use its default sockets
+    private static final RmiSocketFactory SOCKET_FACTORY = RmiSocketFactory.getConfigured();
+    // the utilities of the session of the servant
+    private final Utilities utilities;
+    private volatile ChessBoard board;
     private Event event;
+    // run on the JavaFX Application Thread if the push channel drops while a match is sought over it
+    private final AtomicReference<Runnable> seekFallback = new AtomicReference<>();
+    // the moves that arrived before the board of their game was set, by the ID of the game, guarded by itself
+    private final Map<Integer, List<MoveMessage>> heldMoves = new HashMap<>();
 
     /**
-     * Constructs a GamePlayServant with the specified ChessBoard.
+     * Constructs a GamePlayServant of the desktop session, exported with the socket factory set by the system
+     * properties, if any.
      *
      * @throws RemoteException if there is a communication-related exception.
      */
     public GamePlayServant() throws RemoteException {
+        this(GameSession.getDesktopSession());
+    }
 
+    /**
+     * Constructs a GamePlayServant of a session, exported with the socket factory set by the system properties,
+     * if any.
+     *
+     * @param session The session, whose current game the servant sets when a game starts.
+     * @throws RemoteException if there is a communication-related exception.
+     */
+    public GamePlayServant(GameSession session) throws RemoteException {
+        super(0, SOCKET_FACTORY, SOCKET_FACTORY);
+        this.utilities = new Utilities(session);
     }
 
     /**
@@ -44,20 +77,49 @@ public class GamePlayServant extends UnicastRemoteObject implements GamePlayServ
      */
     @Override
     public void sendMove(ChessMove move) throws RemoteException {
-        // Parse the move string into a ChessMove object
-        //ChessMove chessMove = parseMove(move);
+        receiveMove(new MoveMessage(utilities.getCurrentGameID(), move));
+    }
 
-        // Execute the move on the game board
-        board.getGame().executeMove(move.getCurrentPieceSquare(),
-                move.getTargetSquare(),
-                move.getTypeOfPieceToPromoteTo());
+    /**
+     * Sends a chess move with its sequence number in the game to the other player to notify him.
+     *
+     * @param gameID   The ID of the game.
+     * @param sequence The sequence number of the move in the game.
+     * @param move     The chess move to be executed.
+     * @throws RemoteException if there is a communication-related exception.
+     */
+    @Override
+    public void sendSequencedMove(int gameID, int sequence, ChessMove move) throws RemoteException {
+        receiveMove(new MoveMessage(gameID, sequence, move.toPackedMove(), MoveMessage.NO_CLOCK));
+    }
 
-        // Update the graphical representation of the board
-        Platform.runLater(() -> {
-            board.updateBoard();
-            board.setSquareYellow(move.getTargetSquare());
-            board.setSquareYellow(move.getCurrentPieceSquare());
-        });
+    /**
+     * Hands a move of the other player to the actor of the game on the board,
+     * or holds it until the board of its game is set.
+     *
+     * @param moveMessage The move of the other player.
+     */
+    private void receiveMove(MoveMessage moveMessage) {
+        synchronized (heldMoves) {
+            GameActor gameActor = getGameActor(moveMessage.getGameID());
+            if (gameActor != null)
+                gameActor.receiveMove(moveMessage);
+            else
+                heldMoves.computeIfAbsent(moveMessage.getGameID(), gameID -> new ArrayList<>()).add(moveMessage);
+        }
+    }
+
+    /**
+     * Gets the actor of a game, if its board is set.
+     *
+     * @param gameID The ID of the game.
+     * @return The actor of the game, or null if the board of the game is not set yet.
+     */
+    private GameActor getGameActor(int gameID) {
+        ChessBoard currentBoard = board;
+        if (currentBoard == null || currentBoard.getGameActor().getGameID() != gameID)
+            return null;
+        return currentBoard.getGameActor();
     }
 
     /**
@@ -69,11 +131,21 @@ public class GamePlayServant extends UnicastRemoteObject implements GamePlayServ
      */
     @Override
     public void enemyResigned() throws RemoteException {
+        showAlertAndGoToLobby(ENEMY_HAS_RESIGN_TEXT);
+    }
+
+    /**
+     * Notifies the player of the end of the game, such as that the enemy has resigned,
+     * and navigates to the game lobby.
+     *
+     * @param alertText The text of the notification.
+     */
+    private void showAlertAndGoToLobby(String alertText) {
         try {
             // Run on the JavaFX Application Thread to update the UI
             Platform.runLater(() -> {
-                // notify player that he has won
-                utilities.waitPopupAlert(ENEMY_HAS_RESIGN_TEXT);
+                // notify player of the end of the game
+                utilities.waitPopupAlert(alertText);
                 // go back to the game lobby
                 Stage stage = (Stage) board.getScene().getWindow();
                 try {
@@ -99,8 +171,128 @@ public class GamePlayServant extends UnicastRemoteObject implements GamePlayServ
      */
     @Override
     public void challengeAccept(int gameID) throws RemoteException {
+        startGame(gameID);
+    }
+
+    /**
+     * Called when the server pushes a match found against a random opponent.
+     *
+     * @param gameID The ID of the game.
+     */
+    @Override
+    public void onMatchFound(int gameID) {
+        startGame(gameID);
+    }
+
+    /**
+     * Called when the server pushes a move of the opponent.
+     *
+     * @param moveMessage The move of the opponent.
+     */
+    @Override
+    public void onOpponentMove(MoveMessage moveMessage) {
+        receiveMove(moveMessage);
+    }
+
+    /**
+     * Called when the server pushes the resignation of the opponent.
+     *
+     * @param gameID The ID of the game.
+     */
+    @Override
+    public void onEnemyResigned(int gameID) {
+        showAlertAndGoToLobby(ENEMY_HAS_RESIGN_TEXT);
+    }
+
+    /**
+     * Called when the server pushes where a watched game stands, when the user starts watching it.
+     *
+     * @param positionMessage The position of the game and the moves after it.
+     */
+    @Override
+    public void onGamePosition(PositionMessage positionMessage) {
+        // the position of a game whose board is not set is dropped, its actor fetches the moves when it starts
+        GameActor gameActor = getGameActor(positionMessage.getGameID());
+        if (gameActor != null)
+            gameActor.receivePosition(positionMessage);
+    }
+
+    /**
+     * Called when the server pushes a move of a watched game.
+     * The actor plays it the same as a move of an opponent, in the order of the game.
+     *
+     * @param moveMessage The move.
+     */
+    @Override
+    public void onGameMove(MoveMessage moveMessage) {
+        receiveMove(moveMessage);
+    }
+
+    /**
+     * Called when the server pushes the end of a watched game, or that the game to watch is not played.
+     *
+     * @param gameID The ID of the game.
+     */
+    @Override
+    public void onGameOver(int gameID) {
+        // the user may have left the game before the server knew
+        if (utilities.isSpectating() && gameID == utilities.getCurrentGameID())
+            showAlertAndGoToLobby(WATCHED_GAME_OVER_TEXT);
+    }
+
+    /**
+     * Called when the server pushes the acceptance of an invitation.
+     *
+     * @param gameID The ID of the game.
+     */
+    @Override
+    public void onChallengeAccepted(int gameID) {
+        startGame(gameID);
+    }
+
+    /**
+     * Called when the push channel was closed by the server or by a network failure.
+     * A match sought over the channel will never be pushed, so the seek falls back to its handler.
+     */
+    @Override
+    public void onDisconnected() {
+        Runnable fallback = seekFallback.getAndSet(null);
+        if (fallback != null)
+            Platform.runLater(fallback);
+    }
+
+    /**
+     * Sets the handler of a match sought over the push channel, run on the JavaFX Application Thread
+     * if the channel drops before the match is found.
+     *
+     * @param fallback The handler, or null when no match is sought.
+     */
+    public void setSeekFallback(Runnable fallback) {
+        seekFallback.set(fallback);
+    }
+
+    /**
+     * Clears the handler of a match sought over the push channel.
+     *
+     * @return True if the handler was set, false if it already ran or was cleared.
+     */
+    public boolean clearSeekFallback() {
+        return seekFallback.getAndSet(null) != null;
+    }
+
+    /**
+     * Sets the current game and navigates to the chess game page.
+     *
+     * @param gameID The ID of the game.
+     */
+    private void startGame(int gameID) {
+        seekFallback.set(null);
         // Set the current game ID
         utilities.setCurrentGameID(gameID);
+        // the moves held for other games will never have a board
+        synchronized (heldMoves) {
+            heldMoves.keySet().removeIf(heldGameID -> heldGameID != gameID);
+        }
 
         // Run on the JavaFX Application Thread to update the UI
         Platform.runLater(() -> utilities.goToPage(Utilities.CHESS_GAME_PATH, event));
@@ -117,12 +309,19 @@ public class GamePlayServant extends UnicastRemoteObject implements GamePlayServ
     }
 
     /**
-     * Sets the chessboard for the game.
+     * Sets the chessboard for the game, and hands the moves held for its game to its actor.
      *
      * @param board The chessboard to set.
      */
     public void setBoard(ChessBoard board) {
-        this.board = board;
+        synchronized (heldMoves) {
+            this.board = board;
+            List<MoveMessage> moves = heldMoves.remove(board.getGameActor().getGameID());
+            heldMoves.clear();
+            if (moves != null)
+                for (MoveMessage moveMessage : moves)
+                    board.getGameActor().receiveMove(moveMessage);
+        }
     }
 
     /**
@@ -22,6 +22,17 @@ public interface GamePlayService extends Remote {
      */
     void sendMove(ChessMove move) throws RemoteException;
 
+    /**
+     * Sends a chess move with its sequence number in the game to the GamePlayService,
+     * so the client can drop duplicated moves and fetch the moves it missed.
+     *
+     * @param gameID   The ID of the game.
+     * @param sequence The sequence number of the move in the game, starting at 1.
+     * @param move     The chess move to be sent.
+     * @throws RemoteException if there is a communication-related exception during the method invocation.
+     */
+    void sendSequencedMove(int gameID, int sequence, ChessMove move) throws RemoteException;
+
     /**
      * Notifies the client that the enemy has resigned from the game.
      * This method is called remotely by the server to inform the client that the opponent has resigned from the game.
@@ -0,0 +1,328 @@
+package com.example.chessfrontend.servercommunication;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A writer of the JSON payloads of the requests to the server.
+ * Encodes the JSON straight into a UTF-8 byte buffer, escaping strings as JSON requires,
+ * without building the payload as a String first.
+ * Each thread reuses one writer and its buffer, so writing a payload only allocates the bytes that are sent.
+ */
+public class JsonWriter {
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int MAX_POOLED_CAPACITY = 64 * 1024;
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL_LITERAL = "null".getBytes(StandardCharsets.US_ASCII);
+    private static final ThreadLocal<JsonWriter> POOL = ThreadLocal.withInitial(JsonWriter::new);
+
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+    private int size;
+    // true when the next name or value in the current object has to be preceded by a comma
+    private boolean needsComma;
+
+    /**
+     * Constructs a writer. Use {@link #acquire()} to reuse the writer of the current thread.
+     */
+    private JsonWriter() {
+    }
+
+    /**
+     * Gets the writer of the current thread, cleared of its previous payload.
+     *
+     * @return The writer of the current thread.
+     */
+    public static JsonWriter acquire() {
+        JsonWriter writer = POOL.get();
+        writer.reset();
+        return writer;
+    }
+
+    /**
+     * Clears the writer, keeping its buffer unless the buffer grew too big to keep around.
+     */
+    private void reset() {
+        if (buffer.length > MAX_POOLED_CAPACITY)
+            buffer = new byte[INITIAL_CAPACITY];
+        size = 0;
+        needsComma = false;
+    }
+
+    /**
+     * Writes the start of an object.
+     *
+     * @return This writer.
+     */
+    public JsonWriter beginObject() {
+        writeCommaIfNeeded();
+        writeByte('{');
+        needsComma = false;
+        return this;
+    }
+
+    /**
+     * Writes the end of an object.
+     *
+     * @return This writer.
+     */
+    public JsonWriter endObject() {
+        writeByte('}');
+        needsComma = true;
+        return this;
+    }
+
+    /**
+     * Writes the name of a field, the value of the field has to be written next.
+     *
+     * @param name The name of the field.
+     * @return This writer.
+     */
+    public JsonWriter name(String name) {
+        writeCommaIfNeeded();
+        writeString(name);
+        writeByte(':');
+        needsComma = false;
+        return this;
+    }
+
+    /**
+     * Writes a string field.
+     *
+     * @param name  The name of the field.
+     * @param value The value of the field, may be null.
+     * @return This writer.
+     */
+    public JsonWriter field(String name, String value) {
+        name(name);
+        if (value == null)
+            writeBytes(NULL_LITERAL);
+        else
+            writeString(value);
+        needsComma = true;
+        return this;
+    }
+
+    /**
+     * Writes a character field, as a string of one character.
+     *
+     * @param name  The name of the field.
+     * @param value The value of the field.
+     * @return This writer.
+     */
+    public JsonWriter field(String name, char value) {
+        name(name);
+        writeByte('"');
+        writeChar(value);
+        writeByte('"');
+        needsComma = true;
+        return this;
+    }
+
+    /**
+     * Writes a number field.
+     *
+     * @param name  The name of the field.
+     * @param value The value of the field.
+     * @return This writer.
+     */
+    public JsonWriter field(String name, long value) {
+        name(name);
+        writeLong(value);
+        needsComma = true;
+        return this;
+    }
+
+    /**
+     * Copies the payload written so far.
+     *
+     * @return The UTF-8 bytes of the payload.
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    /**
+     * Gets the number of bytes written so far.
+     *
+     * @return The size of the payload in bytes.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the payload written so far as a string.
+     *
+     * @return The payload.
+     */
+    @Override
+    public String toString() {
+        return new String(buffer, 0, size, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a comma if a name or value was written before in the current object.
+     */
+    private void writeCommaIfNeeded() {
+        if (needsComma)
+            writeByte(',');
+    }
+
+    /**
+     * Writes a quoted and escaped string.
+     *
+     * @param value The string.
+     */
+    private void writeString(String value) {
+        writeByte('"');
+        // most strings are printable ASCII, that is copied as it is until the first character that isn't
+        int length = value.length();
+        ensureCapacity(length + 1);
+        int i = 0;
+        for (; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < ' ' || c >= 0x80 || c == '"' || c == '\\')
+                break;
+            buffer[size + i] = (byte) c;
+        }
+        size += i;
+
+        for (; i < length; i++) {
+            char c = value.charAt(i);
+            if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                writeCodePoint(Character.toCodePoint(c, value.charAt(++i)));
+            } else {
+                writeChar(c);
+            }
+        }
+        writeByte('"');
+    }
+
+    /**
+     * Writes a single character of a string, escaped as JSON requires and encoded as UTF-8.
+     *
+     * @param c The character.
+     */
+    private void writeChar(char c) {
+        switch (c) {
+            case '"', '\\' -> {
+                writeByte('\\');
+                writeByte(c);
+            }
+            case '\n' -> writeEscape('n');
+            case '\r' -> writeEscape('r');
+            case '\t' -> writeEscape('t');
+            case '\b' -> writeEscape('b');
+            case '\f' -> writeEscape('f');
+            default -> {
+                if (c < ' ') {
+                    ensureCapacity(6);
+                    buffer[size++] = '\\';
+                    buffer[size++] = 'u';
+                    buffer[size++] = '0';
+                    buffer[size++] = '0';
+                    buffer[size++] = HEX_DIGITS[c >> 4];
+                    buffer[size++] = HEX_DIGITS[c & 0xF];
+                } else if (Character.isSurrogate(c)) {
+                    // an unpaired surrogate can't be encoded, same as String.getBytes does
+                    writeByte('?');
+                } else {
+                    writeCodePoint(c);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes a two character escape sequence.
+     *
+     * @param escaped The character after the backslash.
+     */
+    private void writeEscape(char escaped) {
+        writeByte('\\');
+        writeByte(escaped);
+    }
+
+    /**
+     * Writes a code point encoded as UTF-8.
+     *
+     * @param codePoint The code point.
+     */
+    private void writeCodePoint(int codePoint) {
+        ensureCapacity(4);
+        if (codePoint < 0x80) {
+            buffer[size++] = (byte) codePoint;
+        } else if (codePoint < 0x800) {
+            buffer[size++] = (byte) (0xC0 | (codePoint >> 6));
+            buffer[size++] = (byte) (0x80 | (codePoint & 0x3F));
+        } else if (codePoint < 0x10000) {
+            buffer[size++] = (byte) (0xE0 | (codePoint >> 12));
+            buffer[size++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            buffer[size++] = (byte) (0x80 | (codePoint & 0x3F));
+        } else {
+            buffer[size++] = (byte) (0xF0 | (codePoint >> 18));
+            buffer[size++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+            buffer[size++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            buffer[size++] = (byte) (0x80 | (codePoint & 0x3F));
+        }
+    }
+
+    /**
+     * Writes a number, digit by digit, without converting it into a string.
+     *
+     * @param value The number.
+     */
+    private void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            writeBytes(Long.toString(value).getBytes(StandardCharsets.US_ASCII));
+            return;
+        }
+        if (value < 0) {
+            writeByte('-');
+            value = -value;
+        }
+
+        int digits = 1;
+        for (long remaining = value / 10; remaining > 0; remaining /= 10)
+            digits++;
+
+        ensureCapacity(digits);
+        for (int i = size + digits - 1; i >= size; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        size += digits;
+    }
+
+    /**
+     * Writes a single byte.
+     *
+     * @param b The byte.
+     */
+    private void writeByte(int b) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) b;
+    }
+
+    /**
+     * Writes bytes.
+     *
+     * @param bytes The bytes.
+     */
+    private void writeBytes(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+    }
+
+    /**
+     * Grows the buffer, if needed, so more bytes can be written to it.
+     *
+     * @param extra The number of bytes that will be written.
+     */
+    private void ensureCapacity(int extra) {
+        if (size + extra > buffer.length)
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.chessfrontend.servercommunication;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of latencies with a bounded relative error, in the manner of an HDR histogram.
+ * Latencies are counted in microseconds, in buckets that are exact up to 128 microseconds,
+ * and above that split every power of two into 64 buckets, so any latency is off by less than 1.6%.
+ * Recording a latency is lock free and allocates nothing, so it can be done on every request.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    // latencies above an hour are counted as an hour
+    private static final long MAX_TRACKABLE_MICROS = 60L * 60 * 1000 * 1000;
+    private static final int BUCKET_COUNT = bucketIndex(MAX_TRACKABLE_MICROS) + 1;
+    private static final long NANOS_PER_MICRO = 1000;
+    private static final double MICROS_PER_MILLI = 1000.0;
+    private static final int PERCENT = 100;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos The latency in nanoseconds.
+     */
+    public void record(long nanos) {
+        long micros = Math.max(0, Math.min(nanos / NANOS_PER_MICRO, MAX_TRACKABLE_MICROS));
+        counts.incrementAndGet(bucketIndex(micros));
+        totalCount.increment();
+        totalMicros.add(micros);
+        maxMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    /**
+     * Gets the number of recorded latencies.
+     *
+     * @return The number of recorded latencies.
+     */
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    /**
+     * Gets the sum of the recorded latencies, the time spent waiting on the requests.
+     *
+     * @return The sum of the recorded latencies in milliseconds.
+     */
+    public double getTotalMillis() {
+        return totalMicros.sum() / MICROS_PER_MILLI;
+    }
+
+    /**
+     * Gets the mean of the recorded latencies.
+     *
+     * @return The mean latency in milliseconds, 0 if no latency was recorded.
+     */
+    public double getMeanMillis() {
+        long count = getCount();
+        return count == 0 ? 0 : getTotalMillis() / count;
+    }
+
+    /**
+     * Gets the highest recorded latency.
+     *
+     * @return The highest latency in milliseconds.
+     */
+    public double getMaxMillis() {
+        return maxMicros.get() / MICROS_PER_MILLI;
+    }
+
+    /**
+     * Gets a percentile of the recorded latencies.
+     *
+     * @param percentile The percentile, between 0 and 100.
+     * @return The latency at the percentile in milliseconds, the highest latency in its bucket,
+     * or 0 if no latency was recorded.
+     */
+    public double getPercentileMillis(double percentile) {
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++)
+            count += counts.get(i);
+        if (count == 0)
+            return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / PERCENT * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= rank)
+                return Math.min(highestValueInBucket(i), maxMicros.get()) / MICROS_PER_MILLI;
+        }
+        return getMaxMillis();
+    }
+
+    /**
+     * Clears the histogram.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++)
+            counts.set(i, 0);
+        totalCount.reset();
+        totalMicros.reset();
+        maxMicros.set(0);
+    }
+
+    /**
+     * Finds the bucket of a latency. A latency below 2 * SUB_BUCKET_COUNT is its own bucket,
+     * a higher latency is shifted right until it is below that, and the shift picks the group of buckets.
+     *
+     * @param micros The latency in microseconds.
+     * @return The index of the bucket.
+     */
+    private static int bucketIndex(long micros) {
+        int shift = Math.max(0, Long.SIZE - Long.numberOfLeadingZeros(micros) - SUB_BUCKET_BITS - 1);
+        return (shift << SUB_BUCKET_BITS) + (int) (micros >>> shift);
+    }
+
+    /**
+     * Gets the highest latency counted in a bucket.
+     *
+     * @param index The index of the bucket.
+     * @return The highest latency of the bucket in microseconds.
+     */
+    private static long highestValueInBucket(int index) {
+        if (index < SUB_BUCKET_COUNT)
+            return index;
+
+        int shift = (index >> SUB_BUCKET_BITS) - 1;
+        long subBucket = (index & (SUB_BUCKET_COUNT - 1)) + SUB_BUCKET_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.chessfrontend.servercommunication;
+
+import com.example.chessfrontend.modulus.ChessMove;
+import com.example.chessfrontend.modulus.PackedMove;
+
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A move of an online game in the compact binary format of the move traffic,
+ * used both for the moves the client submits and for the moves the server pushes.
+ * On the wire a message is 15 bytes: the version of the format (1 byte), the ID of the game (4 bytes),
+ * the sequence number of the move in the game (4 bytes), the packed move (2 bytes, see PackedMove),
+ * and the remaining time on the clock of the player who moved, in milliseconds (4 bytes).
+ * All numbers are big-endian.
+ * <p>
+ * A submitted move is sent as the message followed by the UTF-8 bytes of the token of the user,
+ * instead of the JSON of the move and the user, about a quarter of its size.
+ */
+public class MoveMessage {
+    public static final byte VERSION = 1;
+    public static final int ENCODED_BYTES = 1 + Integer.BYTES + Integer.BYTES + Short.BYTES + Integer.BYTES;
+    public static final String CONTENT_TYPE = "application/x-chess-move";
+
+    // Sequence number and clock of moves that don't carry them
+    public static final int NO_SEQUENCE = 0;
+    public static final int NO_CLOCK = -1;
+
+    private final int gameID;
+    private final int sequence;
+    private final short packedMove;
+    private final int clockMillisecond;
+
+    /**
+     * Constructs a move message.
+     *
+     * @param gameID           The ID of the game.
+     * @param sequence         The sequence number of the move in the game, starting at 1, or NO_SEQUENCE.
+     * @param packedMove       The packed move.
+     * @param clockMillisecond The remaining time of the player who moved in milliseconds, or NO_CLOCK.
+     */
+    public MoveMessage(int gameID, int sequence, short packedMove, int clockMillisecond) {
+        this.gameID = gameID;
+        this.sequence = sequence;
+        this.packedMove = packedMove;
+        this.clockMillisecond = clockMillisecond;
+    }
+
+    /**
+     * Constructs a move message of a move without a sequence number nor a clock.
+     *
+     * @param gameID The ID of the game.
+     * @param move   The move.
+     */
+    public MoveMessage(int gameID, ChessMove move) {
+        this(gameID, NO_SEQUENCE, move.toPackedMove(), NO_CLOCK);
+    }
+
+    /**
+     * Writes the message into a buffer.
+     *
+     * @param buffer The buffer, with at least ENCODED_BYTES remaining.
+     */
+    public void writeTo(ByteBuffer buffer) {
+        buffer.put(VERSION)
+                .putInt(gameID)
+                .putInt(sequence)
+                .putShort(packedMove)
+                .putInt(clockMillisecond);
+    }
+
+    /**
+     * Reads a message from a buffer.
+     *
+     * @param buffer The buffer, positioned at the message. The position moves past the message.
+     * @return The message.
+     * @throws ProtocolException If the buffer is too short, or the message is of an unknown version.
+     */
+    public static MoveMessage readFrom(ByteBuffer buffer) throws ProtocolException {
+        if (buffer.remaining() < ENCODED_BYTES)
+            throw new ProtocolException("Move message is too short: " + buffer.remaining());
+        byte version = buffer.get();
+        if (version != VERSION)
+            throw new ProtocolException("Unknown move message version: " + version);
+        return new MoveMessage(buffer.getInt(), buffer.getInt(), buffer.getShort(), buffer.getInt());
+    }
+
+    /**
+     * Encodes the message as the payload of a submitted move: the message followed by the token of the user.
+     *
+     * @param token The token of the user.
+     * @return The payload.
+     */
+    public byte[] toSubmitPayload(String token) {
+        byte[] tokenBytes = token == null ? new byte[0] : token.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(ENCODED_BYTES + tokenBytes.length);
+        writeTo(buffer);
+        return buffer.put(tokenBytes).array();
+    }
+
+    /**
+     * Reads the token of the user from the payload of a submitted move.
+     *
+     * @param payload The payload.
+     * @return The token, empty if the payload has none.
+     */
+    public static String readSubmitToken(byte[] payload) {
+        return payload.length <= ENCODED_BYTES ? ""
+                : new String(payload, ENCODED_BYTES, payload.length - ENCODED_BYTES, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets the ID of the game.
+     *
+     * @return The ID of the game.
+     */
+    public int getGameID() {
+        return gameID;
+    }
+
+    /**
+     * Gets the sequence number of the move in the game.
+     *
+     * @return The sequence number, NO_SEQUENCE if the move has none.
+     */
+    public int getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Gets the packed move.
+     *
+     * @return The packed move.
+     */
+    public short getPackedMove() {
+        return packedMove;
+    }
+
+    /**
+     * Gets the move.
+     *
+     * @return The move.
+     */
+    public ChessMove getMove() {
+        return new ChessMove(packedMove);
+    }
+
+    /**
+     * Gets the remaining time on the clock of the player who moved.
+     *
+     * @return The remaining time in milliseconds, NO_CLOCK if the game has no clock.
+     */
+    public int getClockMillisecond() {
+        return clockMillisecond;
+    }
+
+    /**
+     * Returns the message in a readable format, for logs.
+     *
+     * @return The message as a string.
+     */
+    @Override
+    public String toString() {
+        return "MoveMessage{gameID=" + gameID + ", sequence=" + sequence + ", move="
+                + PackedMove.getCurrentSquare(packedMove) + "->" + PackedMove.getTargetSquare(packedMove)
+                + ", clock=" + clockMillisecond + "}";
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.chessfrontend.servercommunication;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Orders the moves of the opponent by their sequence number in the game, so a lost, duplicated or reordered
+ * delivery can't make the local game diverge from the game on the server.
+ * The sequencer doesn't count the moves itself, the caller passes the sequence number of the next move
+ * of its game, the number of half moves played plus one, so optimistic moves and their rollbacks
+ * are always accounted for.
+ * <p>
+ * A move that arrives ahead of a missing move is held until the missing move arrives,
+ * and the missing moves are fetched from the server once, as a single batch.
+ */
+public class MoveSequencer {
+    // The result of offering a move to the sequencer
+    public static final int READY = 0;
+    public static final int DUPLICATE = 1;
+    public static final int GAP = 2;
+
+    private final Map<Integer, MoveMessage> movesAheadOfGap = new TreeMap<>();
+    private int gameID;
+    private boolean catchingUp;
+
+    /**
+     * Starts sequencing the moves of a new game, forgetting the moves held for the previous game.
+     *
+     * @param gameID The ID of the game.
+     */
+    public void reset(int gameID) {
+        this.gameID = gameID;
+        movesAheadOfGap.clear();
+        catchingUp = false;
+    }
+
+    /**
+     * Offers a move received from the server.
+     *
+     * @param moveMessage  The move, with its sequence number.
+     * @param nextSequence The sequence number of the next move of the local game.
+     * @return READY if the move is the next move and should be played now,
+     * DUPLICATE if the move was already played or is of another game,
+     * or GAP if moves are missing before it, in which case the move is held until they are played.
+     */
+    public int offer(MoveMessage moveMessage, int nextSequence) {
+        if (moveMessage.getGameID() != gameID || moveMessage.getSequence() < nextSequence)
+            return DUPLICATE;
+        if (moveMessage.getSequence() == nextSequence)
+            return READY;
+
+        movesAheadOfGap.put(moveMessage.getSequence(), moveMessage);
+        return GAP;
+    }
+
+    /**
+     * Takes the held move that is the next move of the local game, if it arrived already.
+     * Held moves that were played meanwhile, such as by a catch-up, are dropped.
+     *
+     * @param nextSequence The sequence number of the next move of the local game.
+     * @return The next move, or null if it has not arrived yet.
+     */
+    public MoveMessage pollNext(int nextSequence) {
+        Iterator<Map.Entry<Integer, MoveMessage>> iterator = movesAheadOfGap.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, MoveMessage> entry = iterator.next();
+            if (entry.getKey() > nextSequence)
+                return null;
+            iterator.remove();
+            if (entry.getKey() == nextSequence)
+                return entry.getValue();
+        }
+        return null;
+    }
+
+    /**
+     * Starts a catch-up of the missing moves, unless one is already in progress.
+     *
+     * @return True if the caller should fetch the missing moves, false if a catch-up is already in progress.
+     */
+    public boolean startCatchUp() {
+        if (catchingUp)
+            return false;
+        catchingUp = true;
+        return true;
+    }
+
+    /**
+     * Marks the catch-up of the missing moves as done.
+     */
+    public void finishCatchUp() {
+        catchingUp = false;
+    }
+
+    /**
+     * Checks if moves are held until the moves before them are played.
+     *
+     * @return True if there is a gap in the received moves.
+     */
+    public boolean hasGap() {
+        return !movesAheadOfGap.isEmpty();
+    }
+
+    /**
+     * Gets the ID of the game whose moves are sequenced.
+     *
+     * @return The ID of the game.
+     */
+    public int getGameID() {
+        return gameID;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.chessfrontend.servercommunication;
+
+import com.example.chessfrontend.modulus.gamelogic.PackedPosition;
+
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+
+/**
+ * A position of an online game followed by the moves played after it, in the compact binary format of the
+ * move traffic, that a spectator who joins a game in progress starts from instead of replaying its whole history.
+ * On the wire a message is the version of the format (1 byte), the ID of the game (4 bytes),
+ * the packed position (13 longs, see PackedPosition), the number of moves after it (2 bytes),
+ * and the packed moves (2 bytes each, see PackedMove). All numbers are big-endian.
+ * <p>
+ * The sequence number of the position is the number of plies played in it, so the moves after it, and the moves
+ * pushed after the message, follow it in the order of the game.
+ */
+public class PositionMessage {
+    public static final byte VERSION = 1;
+    public static final int MIN_ENCODED_BYTES = 1 + Integer.BYTES + PackedPosition.SIZE * Long.BYTES + Short.BYTES;
+
+    private final int gameID;
+    private final PackedPosition position;
+    private final short[] movesAfter;
+
+    /**
+     * Constructs a position message.
+     *
+     * @param gameID     The ID of the game.
+     * @param position   The position, not copied.
+     * @param movesAfter The packed moves played after the position, in order, not copied.
+     */
+    public PositionMessage(int gameID, PackedPosition position, short[] movesAfter) {
+        this.gameID = gameID;
+        this.position = position;
+        this.movesAfter = movesAfter;
+    }
+
+    /**
+     * Gets the size of the encoded message.
+     *
+     * @return The size in bytes.
+     */
+    public int getEncodedBytes() {
+        return MIN_ENCODED_BYTES + movesAfter.length * Short.BYTES;
+    }
+
+    /**
+     * Writes the message into a buffer.
+     *
+     * @param buffer The buffer, with at least getEncodedBytes remaining.
+     */
+    public void writeTo(ByteBuffer buffer) {
+        long[] longs = new long[PackedPosition.SIZE];
+        position.copyTo(longs, 0);
+
+        buffer.put(VERSION).putInt(gameID);
+        for (long value : longs)
+            buffer.putLong(value);
+        buffer.putShort((short) movesAfter.length);
+        for (short move : movesAfter)
+            buffer.putShort(move);
+    }
+
+    /**
+     * Reads a message from a buffer.
+     *
+     * @param buffer The buffer, positioned at the message. The position moves past the message.
+     * @return The message.
+     * @throws ProtocolException If the buffer is too short, or the message is of an unknown version.
+     */
+    public static PositionMessage readFrom(ByteBuffer buffer) throws ProtocolException {
+        if (buffer.remaining() < MIN_ENCODED_BYTES)
+            throw new ProtocolException("Position message is too short: " + buffer.remaining());
+        byte version = buffer.get();
+        if (version != VERSION)
+            throw new ProtocolException("Unknown position message version: " + version);
+
+        int gameID = buffer.getInt();
+        long[] longs = new long[PackedPosition.SIZE];
+        for (int i = 0; i < longs.length; i++)
+            longs[i] = buffer.getLong();
+        PackedPosition position = new PackedPosition();
+        position.copyFrom(longs, 0);
+
+        int moveCount = Short.toUnsignedInt(buffer.getShort());
+        if (buffer.remaining() < moveCount * Short.BYTES)
+            throw new ProtocolException("Position message is missing moves: " + moveCount);
+        short[] movesAfter = new short[moveCount];
+        for (int i = 0; i < moveCount; i++)
+            movesAfter[i] = buffer.getShort();
+        return new PositionMessage(gameID, position, movesAfter);
+    }
+
+    /**
+     * Gets the ID of the game.
+     *
+     * @return The ID of the game.
+     */
+    public int getGameID() {
+        return gameID;
+    }
+
+    /**
+     * Gets the position.
+     *
+     * @return The position.
+     */
+    public PackedPosition getPosition() {
+        return position;
+    }
+
+    /**
+     * Gets the moves played after the position.
+     *
+     * @return The packed moves, in order.
+     */
+    public short[] getMovesAfter() {
+        return movesAfter;
+    }
+
+    /**
+     * Returns the message in a readable format, for logs.
+     *
+     * @return The message as a string.
+     */
+    @Override
+    public String toString() {
+        return "PositionMessage{gameID=" + gameID + ", fullMoveNumber=" + position.getFullMoveNumber()
+                + ", movesAfter=" + movesAfter.length + "}";
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.chessfrontend.servercommunication;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * A persistent connection to the server, that the server pushes game events through as they happen,
+ * instead of the client waiting on a long-poll request for a match and the server calling back over RMI.
+ * The connection is a TCP stream of PushFrames. The client says hello with its token once,
+ * and from then on the server pushes the events of the user, and the client sends its match seeks.
+ * The channel also carries the moves of the games the user watches, which the server fans out to all
+ * the spectators of a game on their channels, instead of calling back each of them.
+ * <p>
+ * A daemon thread reads the frames and hands them to the listener of the channel.
+ * The channel is used when -Dchess.push.address is set to the host:port of the push server of the backend,
+ * otherwise the client keeps using the RMI callbacks.
+ */
+public class PushChannel implements AutoCloseable {
+    public static final String PUSH_ADDRESS_PROPERTY = "chess.push.address";
+
+    private static final String READER_THREAD_NAME = "push-channel";
+    private static final int READ_BUFFER_BYTES = 4 * PushFrame.MAX_FRAME_BYTES;
+    private static final int CONNECT_TIMEOUT_MILLISECOND = 5 * 1000;
+
+    private final SocketChannel channel;
+    private final PushEventListener listener;
+    private final Thread readerThread;
+    private volatile boolean closed;
+
+    /**
+     * Constructs a push channel over a connected socket.
+     *
+     * @param channel  The connected socket.
+     * @param listener The listener of the pushed events.
+     */
+    private PushChannel(SocketChannel channel, PushEventListener listener) {
+        this.channel = channel;
+        this.listener = listener;
+        this.readerThread = new Thread(this::readFrames, READER_THREAD_NAME);
+        this.readerThread.setDaemon(true);
+    }
+
+    /**
+     * Connects to the push server of the backend and says hello with the token of the user.
+     *
+     * @param address  The address of the push server.
+     * @param token    The token of the user.
+     * @param listener The listener of the pushed events.
+     * @return The connected channel.
+     * @throws IOException If the connection failed.
+     */
+    public static PushChannel connect(InetSocketAddress address, String token, PushEventListener listener)
+            throws IOException {
+        SocketChannel socketChannel = SocketChannel.open();
+        try {
+            // the frames are a few bytes each, send them right away instead of waiting to fill a segment
+            socketChannel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            socketChannel.setOption(StandardSocketOptions.SO_KEEPALIVE, true);
+            socketChannel.socket().connect(address, CONNECT_TIMEOUT_MILLISECOND);
+        } catch (IOException e) {
+            socketChannel.close();
+            throw e;
+        }
+
+        PushChannel pushChannel = new PushChannel(socketChannel, listener);
+        pushChannel.send(PushFrame.hello(token));
+        pushChannel.readerThread.start();
+        return pushChannel;
+    }
+
+    /**
+     * Gets the address of the push server set by -Dchess.push.address.
+     *
+     * @return The address, or null if the property is not set or is not a valid host:port.
+     */
+    public static InetSocketAddress getConfiguredAddress() {
+        String address = System.getProperty(PUSH_ADDRESS_PROPERTY);
+        if (address == null)
+            return null;
+
+        int separator = address.lastIndexOf(':');
+        try {
+            return new InetSocketAddress(address.substring(0, separator),
+                    Integer.parseInt(address.substring(separator + 1)));
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            System.out.println("Invalid push address: " + address);
+            return null;
+        }
+    }
+
+    /**
+     * Asks the server to find a match against a random opponent. The match is pushed when it is found.
+     *
+     * @throws IOException If the frame could not be sent.
+     */
+    public void seekMatch() throws IOException {
+        send(PushFrame.seekMatch());
+    }
+
+    /**
+     * Stops looking for a match.
+     *
+     * @throws IOException If the frame could not be sent.
+     */
+    public void cancelSeek() throws IOException {
+        send(PushFrame.cancelSeek());
+    }
+
+    /**
+     * Starts watching a game. The server pushes where the game stands, then its moves as they are played,
+     * until the game is over.
+     *
+     * @param gameID The ID of the game.
+     * @throws IOException If the frame could not be sent.
+     */
+    public void spectate(int gameID) throws IOException {
+        send(PushFrame.spectate(gameID));
+    }
+
+    /**
+     * Stops watching a game.
+     *
+     * @param gameID The ID of the game.
+     * @throws IOException If the frame could not be sent.
+     */
+    public void stopSpectating(int gameID) throws IOException {
+        send(PushFrame.stopSpectating(gameID));
+    }
+
+    /**
+     * Checks if the channel is connected.
+     *
+     * @return True if the channel is connected.
+     */
+    public boolean isOpen() {
+        return !closed && channel.isOpen();
+    }
+
+    /**
+     * Closes the channel.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // the channel is closed anyway
+        }
+    }
+
+    /**
+     * Sends a frame to the server.
+     *
+     * @param frame The frame.
+     * @throws IOException If the frame could not be sent.
+     */
+    private void send(PushFrame frame) throws IOException {
+        ByteBuffer buffer = frame.encode();
+        synchronized (channel) {
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+        }
+    }
+
+    /**
+     * Reads the frames pushed by the server, and hands them to the listener, until the channel is closed.
+     */
+    private void readFrames() {
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_BYTES);
+        try {
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                PushFrame frame;
+                while ((frame = PushFrame.read(buffer)) != null) {
+                    try {
+                        dispatch(frame);
+                    } catch (RuntimeException e) {
+                        // a failing listener must not close the channel, the frames after it are still read
+                        System.out.println("Push listener failed on frame type " + frame.getType() + ": " + e);
+                        e.printStackTrace();
+                    }
+                }
+                buffer.compact();
+            }
+        } catch (IOException e) {
+            if (!closed)
+                System.out.println("Push channel failed: " + e);
+        } finally {
+            boolean closedByClient = closed;
+            close();
+            if (!closedByClient)
+                listener.onDisconnected();
+        }
+    }
+
+    /**
+     * Hands a frame to the listener.
+     *
+     * @param frame The frame.
+     */
+    private void dispatch(PushFrame frame) {
+        switch (frame.getType()) {
+            case PushFrame.MATCH_FOUND -> listener.onMatchFound(frame.getGameID());
+            case PushFrame.OPPONENT_MOVE -> listener.onOpponentMove(frame.getMoveMessage());
+            case PushFrame.ENEMY_RESIGNED -> listener.onEnemyResigned(frame.getGameID());
+            case PushFrame.CHALLENGE_ACCEPTED -> listener.onChallengeAccepted(frame.getGameID());
+            case PushFrame.GAME_POSITION -> listener.onGamePosition(frame.getPositionMessage());
+            case PushFrame.GAME_MOVE -> listener.onGameMove(frame.getMoveMessage());
+            case PushFrame.GAME_OVER -> listener.onGameOver(frame.getGameID());
+            default -> System.out.println("Unexpected push frame type: " + frame.getType());
+        }
+    }
+}
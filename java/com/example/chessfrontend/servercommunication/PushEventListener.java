@@ -0,0 +1,67 @@
+package com.example.chessfrontend.servercommunication;
+
+/**
+ * A listener of the events the server pushes through the push channel.
+ * The methods are called on the reader thread of the channel, in the order the server sent the events.
+ */
+public interface PushEventListener {
+
+    /**
+     * Called when the server found a match against a random opponent.
+     *
+     * @param gameID The ID of the game.
+     */
+    void onMatchFound(int gameID);
+
+    /**
+     * Called when the opponent played a move.
+     *
+     * @param moveMessage The move of the opponent, with its game, sequence number and clock.
+     */
+    void onOpponentMove(MoveMessage moveMessage);
+
+    /**
+     * Called when the opponent resigned.
+     *
+     * @param gameID The ID of the game.
+     */
+    void onEnemyResigned(int gameID);
+
+    /**
+     * Called when an invitation of the user was accepted.
+     *
+     * @param gameID The ID of the game.
+     */
+    void onChallengeAccepted(int gameID);
+
+    /**
+     * Called when the server sent the position of a game the user started to watch,
+     * with the moves played after it.
+     *
+     * @param positionMessage The position of the game and the moves after it.
+     */
+    default void onGamePosition(PositionMessage positionMessage) {
+    }
+
+    /**
+     * Called when a move was played in a game the user watches.
+     *
+     * @param moveMessage The move, with its game, sequence number and clock.
+     */
+    default void onGameMove(MoveMessage moveMessage) {
+    }
+
+    /**
+     * Called when a game the user watches is over.
+     *
+     * @param gameID The ID of the game.
+     */
+    default void onGameOver(int gameID) {
+    }
+
+    /**
+     * Called when the push channel was closed by the server or by a network failure.
+     */
+    default void onDisconnected() {
+    }
+}
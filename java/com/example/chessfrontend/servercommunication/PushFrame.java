@@ -0,0 +1,319 @@
+package com.example.chessfrontend.servercommunication;
+
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A frame of the push channel between the client and the server.
+ * On the wire a frame is the length of the rest of the frame (4 bytes), the type of the frame (1 byte),
+ * and the payload of the type: a token for HELLO, a game ID for the game events,
+ * a MoveMessage for OPPONENT_MOVE and GAME_MOVE, and a PositionMessage for GAME_POSITION.
+ * <p>
+ * The frames of a spectated game are the same for all its spectators, so the server encodes each once
+ * and writes the same bytes to every spectator.
+ */
+public class PushFrame {
+    // Frames sent by the client
+    public static final byte HELLO = 1;
+    public static final byte SEEK_MATCH = 2;
+    public static final byte CANCEL_SEEK = 3;
+    public static final byte SPECTATE = 8;
+    public static final byte STOP_SPECTATING = 9;
+
+    // Frames sent by the server
+    public static final byte MATCH_FOUND = 4;
+    public static final byte OPPONENT_MOVE = 5;
+    public static final byte ENEMY_RESIGNED = 6;
+    public static final byte CHALLENGE_ACCEPTED = 7;
+    public static final byte GAME_POSITION = 10;
+    public static final byte GAME_MOVE = 11;
+    public static final byte GAME_OVER = 12;
+
+    public static final int MAX_FRAME_BYTES = 1024;
+
+    private static final int LENGTH_BYTES = Integer.BYTES;
+    private static final int TYPE_BYTES = 1;
+    private static final int NO_GAME_ID = -1;
+
+    private final byte type;
+    private final int gameID;
+    private final MoveMessage moveMessage;
+    private final String token;
+    private final PositionMessage positionMessage;
+
+    /**
+     * Constructs a frame.
+     *
+     * @param type        The type of the frame.
+     * @param gameID      The ID of the game of the event, NO_GAME_ID if the frame has none.
+     * @param moveMessage The move, for OPPONENT_MOVE and GAME_MOVE frames.
+     * @param token       The token of the user, for HELLO frames.
+     */
+    private PushFrame(byte type, int gameID, MoveMessage moveMessage, String token) {
+        this(type, gameID, moveMessage, token, null);
+    }
+
+    /**
+     * Constructs a frame.
+     *
+     * @param type            The type of the frame.
+     * @param gameID          The ID of the game of the event, NO_GAME_ID if the frame has none.
+     * @param moveMessage     The move, for OPPONENT_MOVE and GAME_MOVE frames.
+     * @param token           The token of the user, for HELLO frames.
+     * @param positionMessage The position of the game, for GAME_POSITION frames.
+     */
+    private PushFrame(byte type, int gameID, MoveMessage moveMessage, String token,
+                      PositionMessage positionMessage) {
+        this.type = type;
+        this.gameID = gameID;
+        this.moveMessage = moveMessage;
+        this.token = token;
+        this.positionMessage = positionMessage;
+    }
+
+    /**
+     * Creates the first frame of a connection, that tells the server which user the connection belongs to.
+     *
+     * @param token The token of the user.
+     * @return The frame.
+     */
+    public static PushFrame hello(String token) {
+        return new PushFrame(HELLO, NO_GAME_ID, null, token);
+    }
+
+    /**
+     * Creates a frame that asks the server to find a match against a random opponent.
+     *
+     * @return The frame.
+     */
+    public static PushFrame seekMatch() {
+        return new PushFrame(SEEK_MATCH, NO_GAME_ID, null, null);
+    }
+
+    /**
+     * Creates a frame that stops looking for a match.
+     *
+     * @return The frame.
+     */
+    public static PushFrame cancelSeek() {
+        return new PushFrame(CANCEL_SEEK, NO_GAME_ID, null, null);
+    }
+
+    /**
+     * Creates a frame that tells the client a match was found.
+     *
+     * @param gameID The ID of the game.
+     * @return The frame.
+     */
+    public static PushFrame matchFound(int gameID) {
+        return new PushFrame(MATCH_FOUND, gameID, null, null);
+    }
+
+    /**
+     * Creates a frame that carries a move of the opponent.
+     *
+     * @param moveMessage The move of the opponent.
+     * @return The frame.
+     */
+    public static PushFrame opponentMove(MoveMessage moveMessage) {
+        return new PushFrame(OPPONENT_MOVE, moveMessage.getGameID(), moveMessage, null);
+    }
+
+    /**
+     * Creates a frame that tells the client its opponent resigned.
+     *
+     * @param gameID The ID of the game.
+     * @return The frame.
+     */
+    public static PushFrame enemyResigned(int gameID) {
+        return new PushFrame(ENEMY_RESIGNED, gameID, null, null);
+    }
+
+    /**
+     * Creates a frame that tells the client its invitation was accepted.
+     *
+     * @param gameID The ID of the game.
+     * @return The frame.
+     */
+    public static PushFrame challengeAccepted(int gameID) {
+        return new PushFrame(CHALLENGE_ACCEPTED, gameID, null, null);
+    }
+
+    /**
+     * Creates a frame that asks the server to push the moves of a game the user watches.
+     *
+     * @param gameID The ID of the game.
+     * @return The frame.
+     */
+    public static PushFrame spectate(int gameID) {
+        return new PushFrame(SPECTATE, gameID, null, null);
+    }
+
+    /**
+     * Creates a frame that stops watching a game.
+     *
+     * @param gameID The ID of the game.
+     * @return The frame.
+     */
+    public static PushFrame stopSpectating(int gameID) {
+        return new PushFrame(STOP_SPECTATING, gameID, null, null);
+    }
+
+    /**
+     * Creates a frame that tells a spectator who joined a game where the game stands.
+     *
+     * @param positionMessage The position of the game and the moves after it.
+     * @return The frame.
+     */
+    public static PushFrame gamePosition(PositionMessage positionMessage) {
+        return new PushFrame(GAME_POSITION, positionMessage.getGameID(), null, null, positionMessage);
+    }
+
+    /**
+     * Creates a frame that carries a move of a watched game.
+     *
+     * @param moveMessage The move.
+     * @return The frame.
+     */
+    public static PushFrame gameMove(MoveMessage moveMessage) {
+        return new PushFrame(GAME_MOVE, moveMessage.getGameID(), moveMessage, null);
+    }
+
+    /**
+     * Creates a frame that tells a spectator the watched game is over.
+     *
+     * @param gameID The ID of the game.
+     * @return The frame.
+     */
+    public static PushFrame gameOver(int gameID) {
+        return new PushFrame(GAME_OVER, gameID, null, null);
+    }
+
+    /**
+     * Encodes the frame.
+     *
+     * @return A buffer holding the frame, ready to be written to a channel.
+     */
+    public ByteBuffer encode() {
+        byte[] tokenBytes = token == null ? null : token.getBytes(StandardCharsets.UTF_8);
+        int payloadBytes = type == HELLO && tokenBytes != null ? tokenBytes.length
+                : type == GAME_POSITION ? positionMessage.getEncodedBytes() : minPayloadBytes(type);
+
+        ByteBuffer buffer = ByteBuffer.allocate(LENGTH_BYTES + TYPE_BYTES + payloadBytes);
+        buffer.putInt(TYPE_BYTES + payloadBytes).put(type);
+        if (type == HELLO && tokenBytes != null)
+            buffer.put(tokenBytes);
+        else if (type == OPPONENT_MOVE || type == GAME_MOVE)
+            moveMessage.writeTo(buffer);
+        else if (type == GAME_POSITION)
+            positionMessage.writeTo(buffer);
+        else if (payloadBytes >= Integer.BYTES)
+            buffer.putInt(gameID);
+        return buffer.flip();
+    }
+
+    /**
+     * Reads the next frame from a buffer of received bytes, if the whole frame was received.
+     *
+     * @param buffer The received bytes, ready to be read. The position moves past the frame, if one was read.
+     * @return The frame, or null if the buffer does not hold a whole frame yet.
+     * @throws ProtocolException If the bytes are not a valid frame.
+     */
+    public static PushFrame read(ByteBuffer buffer) throws ProtocolException {
+        if (buffer.remaining() < LENGTH_BYTES)
+            return null;
+
+        int length = buffer.getInt(buffer.position());
+        if (length < TYPE_BYTES || length > MAX_FRAME_BYTES)
+            throw new ProtocolException("Invalid push frame length: " + length);
+        if (buffer.remaining() < LENGTH_BYTES + length)
+            return null;
+
+        buffer.position(buffer.position() + LENGTH_BYTES);
+        int end = buffer.position() + length;
+        byte type = buffer.get();
+        if (length - TYPE_BYTES < minPayloadBytes(type))
+            throw new ProtocolException("Push frame of type " + type + " is too short: " + length);
+        PushFrame frame = switch (type) {
+            case HELLO -> {
+                byte[] tokenBytes = new byte[length - TYPE_BYTES];
+                buffer.get(tokenBytes);
+                yield hello(new String(tokenBytes, StandardCharsets.UTF_8));
+            }
+            case SEEK_MATCH -> seekMatch();
+            case CANCEL_SEEK -> cancelSeek();
+            case OPPONENT_MOVE -> opponentMove(MoveMessage.readFrom(buffer));
+            case GAME_MOVE -> gameMove(MoveMessage.readFrom(buffer));
+            case GAME_POSITION -> gamePosition(PositionMessage.readFrom(buffer.slice(buffer.position(),
+                    end - buffer.position())));
+            case MATCH_FOUND, ENEMY_RESIGNED, CHALLENGE_ACCEPTED, SPECTATE, STOP_SPECTATING, GAME_OVER ->
+                    new PushFrame(type, buffer.getInt(), null, null);
+            default -> throw new ProtocolException("Unknown push frame type: " + type);
+        };
+        // skip anything a newer version of the protocol added to the frame
+        buffer.position(end);
+        return frame;
+    }
+
+    /**
+     * Gets the size of the fixed payload of a type of frame.
+     *
+     * @param type The type of the frame.
+     * @return The size of the payload in bytes, 0 for frames without a fixed payload.
+     */
+    private static int minPayloadBytes(byte type) {
+        return switch (type) {
+            case OPPONENT_MOVE, GAME_MOVE -> MoveMessage.ENCODED_BYTES;
+            case GAME_POSITION -> PositionMessage.MIN_ENCODED_BYTES;
+            case MATCH_FOUND, ENEMY_RESIGNED, CHALLENGE_ACCEPTED, SPECTATE, STOP_SPECTATING, GAME_OVER ->
+                    Integer.BYTES;
+            default -> 0;
+        };
+    }
+
+    /**
+     * Gets the type of the frame.
+     *
+     * @return The type of the frame.
+     */
+    public byte getType() {
+        return type;
+    }
+
+    /**
+     * Gets the ID of the game of the event.
+     *
+     * @return The ID of the game, -1 if the frame has none.
+     */
+    public int getGameID() {
+        return gameID;
+    }
+
+    /**
+     * Gets the move, of an OPPONENT_MOVE or GAME_MOVE frame.
+     *
+     * @return The move.
+     */
+    public MoveMessage getMoveMessage() {
+        return moveMessage;
+    }
+
+    /**
+     * Gets the position of the game, of a GAME_POSITION frame.
+     *
+     * @return The position of the game and the moves after it.
+     */
+    public PositionMessage getPositionMessage() {
+        return positionMessage;
+    }
+
+    /**
+     * Gets the token of the user, of a HELLO frame.
+     *
+     * @return The token of the user.
+     */
+    public String getToken() {
+        return token;
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.chessfrontend.servercommunication;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of the requests the client sends to the server, per endpoint.
+ * Counts the requests, the responses served from the cache, the failed requests, the status codes
+ * and the bytes sent and received on the wire, and keeps a histogram of the latency of the requests.
+ * The latency is of each request sent on the wire, a hedged request counts as two requests.
+ */
+public class RequestMetrics {
+    public static final String METRICS_FILE_PROPERTY = "chess.metrics.file";
+
+    private static final String REPORT_HEADER = String.format("%-24s %8s %6s %6s %9s %9s %9s %9s %11s %10s %10s  %s",
+            "endpoint", "requests", "cached", "failed", "p50 ms", "p99 ms", "max ms", "mean ms", "total ms",
+            "sent B", "received B", "status codes");
+
+    private final Map<ServerEndpoint, EndpointMetrics> metricsByEndpoint = new EnumMap<>(ServerEndpoint.class);
+
+    /**
+     * Constructs the metrics of all the endpoints.
+     */
+    public RequestMetrics() {
+        for (ServerEndpoint endpoint : ServerEndpoint.values())
+            metricsByEndpoint.put(endpoint, new EndpointMetrics());
+    }
+
+    /**
+     * Records a request the server responded to.
+     *
+     * @param endpoint      The endpoint of the request.
+     * @param nanos         The latency of the request in nanoseconds.
+     * @param bytesSent     The size of the payload of the request.
+     * @param bytesReceived The size of the body of the response, as it was received on the wire.
+     * @param statusCode    The status code of the response.
+     */
+    public void recordResponse(ServerEndpoint endpoint, long nanos, long bytesSent, long bytesReceived,
+                               int statusCode) {
+        EndpointMetrics metrics = metricsByEndpoint.get(endpoint);
+        metrics.latency.record(nanos);
+        metrics.bytesSent.add(bytesSent);
+        metrics.bytesReceived.add(bytesReceived);
+        metrics.statusCodes.computeIfAbsent(statusCode, code -> new LongAdder()).increment();
+    }
+
+    /**
+     * Records a request that failed without a response, such as one that timed out.
+     *
+     * @param endpoint  The endpoint of the request.
+     * @param nanos     The time until the request failed in nanoseconds.
+     * @param bytesSent The size of the payload of the request.
+     */
+    public void recordFailure(ServerEndpoint endpoint, long nanos, long bytesSent) {
+        EndpointMetrics metrics = metricsByEndpoint.get(endpoint);
+        metrics.latency.record(nanos);
+        metrics.bytesSent.add(bytesSent);
+        metrics.failures.increment();
+    }
+
+    /**
+     * Records a request that was served from the cache, without contacting the server.
+     *
+     * @param endpoint The endpoint of the request.
+     */
+    public void recordCacheHit(ServerEndpoint endpoint) {
+        metricsByEndpoint.get(endpoint).cacheHits.increment();
+    }
+
+    /**
+     * Gets the latency histogram of an endpoint.
+     *
+     * @param endpoint The endpoint.
+     * @return The latency histogram of the endpoint.
+     */
+    public LatencyHistogram getLatency(ServerEndpoint endpoint) {
+        return metricsByEndpoint.get(endpoint).latency;
+    }
+
+    /**
+     * Gets the number of failed requests to an endpoint.
+     *
+     * @param endpoint The endpoint.
+     * @return The number of failed requests.
+     */
+    public long getFailures(ServerEndpoint endpoint) {
+        return metricsByEndpoint.get(endpoint).failures.sum();
+    }
+
+    /**
+     * Gets the number of requests to an endpoint that were served from the cache.
+     *
+     * @param endpoint The endpoint.
+     * @return The number of cache hits.
+     */
+    public long getCacheHits(ServerEndpoint endpoint) {
+        return metricsByEndpoint.get(endpoint).cacheHits.sum();
+    }
+
+    /**
+     * Gets the bytes sent to an endpoint.
+     *
+     * @param endpoint The endpoint.
+     * @return The size of the payloads sent in bytes.
+     */
+    public long getBytesSent(ServerEndpoint endpoint) {
+        return metricsByEndpoint.get(endpoint).bytesSent.sum();
+    }
+
+    /**
+     * Gets the bytes received from an endpoint.
+     *
+     * @param endpoint The endpoint.
+     * @return The size of the bodies received on the wire in bytes.
+     */
+    public long getBytesReceived(ServerEndpoint endpoint) {
+        return metricsByEndpoint.get(endpoint).bytesReceived.sum();
+    }
+
+    /**
+     * Gets the number of responses of an endpoint per status code.
+     *
+     * @param endpoint The endpoint.
+     * @return The number of responses per status code, ordered by status code.
+     */
+    public Map<Integer, Long> getStatusCodes(ServerEndpoint endpoint) {
+        Map<Integer, Long> statusCodes = new TreeMap<>();
+        metricsByEndpoint.get(endpoint).statusCodes.forEach((code, count) -> statusCodes.put(code, count.sum()));
+        return statusCodes;
+    }
+
+    /**
+     * Clears the metrics of all the endpoints.
+     */
+    public void reset() {
+        for (EndpointMetrics metrics : metricsByEndpoint.values())
+            metrics.reset();
+    }
+
+    /**
+     * Writes the report of the metrics to a file, replacing the file if it exists.
+     *
+     * @param file The file to write to.
+     * @throws IOException If the file could not be written.
+     */
+    public void dumpTo(Path file) throws IOException {
+        Files.writeString(file, "Request metrics at " + Instant.now() + System.lineSeparator() + this,
+                StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns a report of the metrics, one line per endpoint that was requested,
+     * ordered by the total time spent waiting on the endpoint, so the endpoints that dominate come first.
+     *
+     * @return The report of the metrics.
+     */
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder(REPORT_HEADER).append(System.lineSeparator());
+        metricsByEndpoint.entrySet().stream()
+                .filter(entry -> entry.getValue().latency.getCount() > 0 || entry.getValue().cacheHits.sum() > 0)
+                .sorted((first, second) -> Double.compare(second.getValue().latency.getTotalMillis(),
+                        first.getValue().latency.getTotalMillis()))
+                .forEach(entry -> {
+                    ServerEndpoint endpoint = entry.getKey();
+                    LatencyHistogram latency = entry.getValue().latency;
+                    report.append(String.format("%-24s %8d %6d %6d %9.1f %9.1f %9.1f %9.1f %11.1f %10d %10d  %s",
+                            endpoint, latency.getCount(), getCacheHits(endpoint), getFailures(endpoint),
+                            latency.getPercentileMillis(50), latency.getPercentileMillis(99),
+                            latency.getMaxMillis(), latency.getMeanMillis(), latency.getTotalMillis(),
+                            getBytesSent(endpoint), getBytesReceived(endpoint), getStatusCodes(endpoint)))
+                            .append(System.lineSeparator());
+                });
+        return report.toString();
+    }
+
+    /**
+     * The metrics of a single endpoint.
+     */
+    private static class EndpointMetrics {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder cacheHits = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder bytesSent = new LongAdder();
+        private final LongAdder bytesReceived = new LongAdder();
+        private final Map<Integer, LongAdder> statusCodes = new ConcurrentHashMap<>();
+
+        /**
+         * Clears the metrics of the endpoint.
+         */
+        private void reset() {
+            latency.reset();
+            cacheHits.reset();
+            failures.reset();
+            bytesSent.reset();
+            bytesReceived.reset();
+            statusCodes.clear();
+        }
+    }
+}
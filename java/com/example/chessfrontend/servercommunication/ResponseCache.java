@@ -0,0 +1,263 @@
+package com.example.chessfrontend.servercommunication;
+
+import com.example.chessfrontend.ServerResponse;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.example.chessfrontend.servercommunication.ServerRequestHandler.HTTP_OK;
+
+/**
+ * A client side cache of the responses of the server.
+ * Responses of cached endpoints are served from the cache until their TTL expires,
+ * after that the request is sent again with the validators of the cached response (ETag and Last-Modified),
+ * so the server can answer with 304 Not Modified instead of sending the whole response again.
+ * The cache is bounded by the size of the responses it holds, and evicts the least recently used ones.
+ */
+public class ResponseCache {
+    public static final long DEFAULT_MAX_BYTES = 1024 * 1024;
+
+    private static final int HTTP_NOT_MODIFIED = 304;
+    private static final String ETAG_HEADER = "ETag";
+    private static final String LAST_MODIFIED_HEADER = "Last-Modified";
+    private static final String IF_NONE_MATCH_HEADER = "If-None-Match";
+    private static final String IF_MODIFIED_SINCE_HEADER = "If-Modified-Since";
+    private static final String KEY_SEPARATOR = "|";
+    private static final int ENTRY_OVERHEAD_BYTES = 64;
+
+    // Entries ordered by access, so the first entry is the least recently used
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final long maxBytes;
+    private long currentBytes;
+
+    private long hits;
+    private long misses;
+    private long revalidations;
+    private long evictions;
+
+    /**
+     * Constructs a response cache.
+     *
+     * @param maxBytes The maximum size of the responses the cache holds, in bytes.
+     */
+    public ResponseCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Creates the key of a request in the cache.
+     *
+     * @param endpoint   The endpoint of the request.
+     * @param payload    The payload of the request.
+     * @param pathSuffix The suffix of the path of the request.
+     * @return The key of the request.
+     */
+    public static String keyOf(ServerEndpoint endpoint, byte[] payload, String pathSuffix) {
+        return endpoint.name() + KEY_SEPARATOR + pathSuffix + KEY_SEPARATOR
+                + new String(payload, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Gets a cached response, if its TTL has not expired yet.
+     *
+     * @param key The key of the request.
+     * @return The cached response, or null if there is no fresh response for the request.
+     */
+    public synchronized ServerResponse getFresh(String key) {
+        CachedResponse cachedResponse = entries.get(key);
+        if (cachedResponse == null || System.nanoTime() - cachedResponse.expiresAtNanos > 0)
+            return null;
+
+        hits++;
+        return cachedResponse.response;
+    }
+
+    /**
+     * Adds the validators of a cached response to a request, so the server can answer with 304 Not Modified
+     * if the response has not changed.
+     *
+     * @param builder The builder of the request.
+     * @param key     The key of the request.
+     */
+    public synchronized void addConditionalHeaders(HttpRequest.Builder builder, String key) {
+        CachedResponse cachedResponse = entries.get(key);
+        if (cachedResponse == null)
+            return;
+
+        if (cachedResponse.eTag != null)
+            builder.header(IF_NONE_MATCH_HEADER, cachedResponse.eTag);
+        if (cachedResponse.lastModified != null)
+            builder.header(IF_MODIFIED_SINCE_HEADER, cachedResponse.lastModified);
+    }
+
+    /**
+     * Updates the cache with a response of the server, and converts it into a ServerResponse.
+     * A 304 Not Modified response renews the cached response, an OK response replaces it.
+     *
+     * @param endpoint     The endpoint of the request.
+     * @param key          The key of the request.
+     * @param httpResponse The response of the server.
+     * @return The response to the request, taken from the cache if the server answered 304 Not Modified.
+     */
+    public synchronized ServerResponse update(ServerEndpoint endpoint, String key, HttpResponse<String> httpResponse) {
+        CachedResponse cachedResponse = entries.get(key);
+        if (httpResponse.statusCode() == HTTP_NOT_MODIFIED && cachedResponse != null) {
+            revalidations++;
+            cachedResponse.expiresAtNanos = System.nanoTime() + endpoint.getCacheTtl().toNanos();
+            return cachedResponse.response;
+        }
+
+        misses++;
+        ServerResponse response = new ServerResponse(httpResponse.body(), httpResponse.statusCode());
+        remove(key);
+        if (response.getHttpStatus() == HTTP_OK)
+            put(key, new CachedResponse(response,
+                    httpResponse.headers().firstValue(ETAG_HEADER).orElse(null),
+                    httpResponse.headers().firstValue(LAST_MODIFIED_HEADER).orElse(null),
+                    System.nanoTime() + endpoint.getCacheTtl().toNanos(),
+                    sizeOf(key, response)));
+        return response;
+    }
+
+    /**
+     * Removes all the cached responses.
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+        currentBytes = 0;
+    }
+
+    /**
+     * Puts a response in the cache, evicting the least recently used responses until it fits.
+     * Responses larger than the whole cache are not cached.
+     *
+     * @param key            The key of the request.
+     * @param cachedResponse The response to cache.
+     */
+    private void put(String key, CachedResponse cachedResponse) {
+        if (cachedResponse.sizeBytes > maxBytes)
+            return;
+
+        Iterator<Map.Entry<String, CachedResponse>> iterator = entries.entrySet().iterator();
+        while (currentBytes + cachedResponse.sizeBytes > maxBytes && iterator.hasNext()) {
+            currentBytes -= iterator.next().getValue().sizeBytes;
+            iterator.remove();
+            evictions++;
+        }
+
+        entries.put(key, cachedResponse);
+        currentBytes += cachedResponse.sizeBytes;
+    }
+
+    /**
+     * Removes a response from the cache.
+     *
+     * @param key The key of the request.
+     */
+    private void remove(String key) {
+        CachedResponse cachedResponse = entries.remove(key);
+        if (cachedResponse != null)
+            currentBytes -= cachedResponse.sizeBytes;
+    }
+
+    /**
+     * Estimates the size of a cached response in memory.
+     *
+     * @param key      The key of the request.
+     * @param response The response.
+     * @return The estimated size in bytes.
+     */
+    private static long sizeOf(String key, ServerResponse response) {
+        return 2L * (key.length() + response.getResponse().length()) + ENTRY_OVERHEAD_BYTES;
+    }
+
+    /**
+     * Gets the number of requests served from the cache without contacting the server.
+     *
+     * @return The number of hits.
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of requests the server sent a whole response to.
+     *
+     * @return The number of misses.
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets the number of requests the server answered with 304 Not Modified.
+     *
+     * @return The number of revalidations.
+     */
+    public synchronized long getRevalidations() {
+        return revalidations;
+    }
+
+    /**
+     * Gets the number of responses evicted to make room for new ones.
+     *
+     * @return The number of evictions.
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Gets the size of the responses the cache holds.
+     *
+     * @return The size in bytes.
+     */
+    public synchronized long getCurrentBytes() {
+        return currentBytes;
+    }
+
+    /**
+     * Returns a string representation of the metrics of the cache.
+     *
+     * @return The string representation of the metrics of the cache.
+     */
+    @Override
+    public synchronized String toString() {
+        return "ResponseCache{hits=" + hits + ", misses=" + misses + ", revalidations=" + revalidations
+                + ", evictions=" + evictions + ", entries=" + entries.size() + ", bytes=" + currentBytes
+                + "/" + maxBytes + "}";
+    }
+
+    /**
+     * A response held in the cache, with its validators and the time it expires.
+     */
+    private static class CachedResponse {
+        private final ServerResponse response;
+        private final String eTag;
+        private final String lastModified;
+        private final long sizeBytes;
+        private long expiresAtNanos;
+
+        /**
+         * Constructs a cached response.
+         *
+         * @param response       The response.
+         * @param eTag           The ETag header of the response, null if it has none.
+         * @param lastModified   The Last-Modified header of the response, null if it has none.
+         * @param expiresAtNanos The time the response expires, in nanoseconds.
+         * @param sizeBytes      The estimated size of the response in bytes.
+         */
+        private CachedResponse(ServerResponse response, String eTag, String lastModified, long expiresAtNanos,
+                               long sizeBytes) {
+            this.response = response;
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+            this.expiresAtNanos = expiresAtNanos;
+            this.sizeBytes = sizeBytes;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.chessfrontend.servercommunication;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serial;
+import java.io.Serializable;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.rmi.server.RMIClientSocketFactory;
+import java.rmi.server.RMIServerSocketFactory;
+import java.util.Objects;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * The sockets of the RMI calls the server makes to the GamePlayServant, tuned for the small calls of a game.
+ * The sockets send right away, without Nagle's algorithm waiting to fill a segment, have explicit buffer sizes,
+ * and can compress the stream with Deflate, flushed at the end of every call.
+ * <p>
+ * The factory travels to the server inside the stub of the servant, so it is serializable, and two factories
+ * with the same settings are equal: RMI pools the connections to an endpoint by its address and factory,
+ * so every copy of the stub the server deserializes reuses the same open connections instead of opening new ones.
+ * The server must have this class, the same as it has GamePlayService.
+ * <p>
+ * The factory is used when -Dchess.rmi.tuned=true is set, otherwise RMI uses its default sockets.
+ * -Dchess.rmi.buffer.bytes sets the buffer sizes, and -Dchess.rmi.compress=true compresses the stream.
+ */
+public class RmiSocketFactory implements RMIClientSocketFactory, RMIServerSocketFactory, Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public static final String TUNED_PROPERTY = "chess.rmi.tuned";
+    public static final String BUFFER_BYTES_PROPERTY = "chess.rmi.buffer.bytes";
+    public static final String COMPRESS_PROPERTY = "chess.rmi.compress";
+    public static final int DEFAULT_BUFFER_BYTES = 32 * 1024;
+
+    private static final int COMPRESSION_BUFFER_BYTES = 8 * 1024;
+
+    private final boolean tcpNoDelay;
+    private final int bufferBytes;
+    private final boolean compressed;
+
+    /**
+     * Constructs a socket factory.
+     *
+     * @param tcpNoDelay  True to send the data right away, disabling Nagle's algorithm.
+     * @param bufferBytes The size of the send and receive buffers of the sockets, or 0 to keep the system default.
+     * @param compressed  True to compress the stream.
+     */
+    public RmiSocketFactory(boolean tcpNoDelay, int bufferBytes, boolean compressed) {
+        this.tcpNoDelay = tcpNoDelay;
+        this.bufferBytes = bufferBytes;
+        this.compressed = compressed;
+    }
+
+    /**
+     * Gets the socket factory set by the system properties.
+     *
+     * @return The socket factory, or null if -Dchess.rmi.tuned is not set, for RMI to use its default sockets.
+     */
+    public static RmiSocketFactory getConfigured() {
+        if (!Boolean.getBoolean(TUNED_PROPERTY))
+            return null;
+        return new RmiSocketFactory(true, Integer.getInteger(BUFFER_BYTES_PROPERTY, DEFAULT_BUFFER_BYTES),
+                Boolean.getBoolean(COMPRESS_PROPERTY));
+    }
+
+    /**
+     * Creates a socket connected to an RMI endpoint.
+     *
+     * @param host The host of the endpoint.
+     * @param port The port of the endpoint.
+     * @return The connected socket.
+     * @throws IOException If the connection failed.
+     */
+    @Override
+    public Socket createSocket(String host, int port) throws IOException {
+        Socket socket = compressed ? new CompressedSocket() : new Socket();
+        try {
+            // the receive buffer is set before connecting, so the window it allows is agreed on the handshake
+            configure(socket);
+            socket.connect(new InetSocketAddress(host, port));
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+        return socket;
+    }
+
+    /**
+     * Creates the server socket of an RMI endpoint, whose accepted sockets are configured the same as the
+     * sockets this factory connects.
+     *
+     * @param port The port, or 0 for any free port.
+     * @return The bound server socket.
+     * @throws IOException If the server socket could not be bound.
+     */
+    @Override
+    public ServerSocket createServerSocket(int port) throws IOException {
+        ServerSocket serverSocket = new ConfiguredServerSocket();
+        try {
+            if (bufferBytes > 0)
+                serverSocket.setReceiveBufferSize(bufferBytes);
+            serverSocket.bind(new InetSocketAddress(port));
+        } catch (IOException e) {
+            serverSocket.close();
+            throw e;
+        }
+        return serverSocket;
+    }
+
+    /**
+     * Sets the options of a socket.
+     *
+     * @param socket The socket.
+     * @throws IOException If an option could not be set.
+     */
+    private void configure(Socket socket) throws IOException {
+        socket.setTcpNoDelay(tcpNoDelay);
+        socket.setKeepAlive(true);
+        if (bufferBytes > 0) {
+            socket.setSendBufferSize(bufferBytes);
+            socket.setReceiveBufferSize(bufferBytes);
+        }
+    }
+
+    /**
+     * Compares the factory to another object. Factories with the same settings are equal,
+     * so RMI reuses the connections of one for the other.
+     *
+     * @param obj The object to compare.
+     * @return True if the object is a factory with the same settings.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof RmiSocketFactory other))
+            return false;
+        return tcpNoDelay == other.tcpNoDelay && bufferBytes == other.bufferBytes && compressed == other.compressed;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(tcpNoDelay, bufferBytes, compressed);
+    }
+
+    @Override
+    public String toString() {
+        return "RmiSocketFactory{tcpNoDelay=" + tcpNoDelay + ", bufferBytes=" + bufferBytes
+                + ", compressed=" + compressed + "}";
+    }
+
+    /**
+     * A server socket whose accepted sockets are configured by the factory, and compressed if it compresses.
+     */
+    private class ConfiguredServerSocket extends ServerSocket {
+
+        /**
+         * Constructs an unbound server socket.
+         *
+         * @throws IOException If the socket could not be created.
+         */
+        private ConfiguredServerSocket() throws IOException {
+        }
+
+        @Override
+        public Socket accept() throws IOException {
+            Socket socket = compressed ? new CompressedSocket() : new Socket();
+            implAccept(socket);
+            configure(socket);
+            return socket;
+        }
+    }
+
+    /**
+     * A socket whose stream is compressed with Deflate. Every flush of the output, which RMI does at the end of
+     * every call, is a sync flush, so the peer can inflate the whole call without waiting for more data.
+     */
+    private static class CompressedSocket extends Socket {
+        private InputStream inputStream;
+        private OutputStream outputStream;
+
+        @Override
+        public synchronized InputStream getInputStream() throws IOException {
+            if (inputStream == null)
+                inputStream = new InflaterInputStream(super.getInputStream(), new Inflater(),
+                        COMPRESSION_BUFFER_BYTES);
+            return inputStream;
+        }
+
+        @Override
+        public synchronized OutputStream getOutputStream() throws IOException {
+            if (outputStream == null)
+                outputStream = new DeflaterOutputStream(super.getOutputStream(), new Deflater(Deflater.BEST_SPEED),
+                        COMPRESSION_BUFFER_BYTES, true);
+            return outputStream;
+        }
+    }
+}
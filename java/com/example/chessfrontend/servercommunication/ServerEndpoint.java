@@ -0,0 +1,220 @@
+package com.example.chessfrontend.servercommunication;
+
+import java.time.Duration;
+
+/**
+ * The endpoints of the server the client sends requests to.
+ * Each endpoint holds its path, its HTTP method and the timeout of its requests.
+ * The timeout of an endpoint can be overridden with the system property "chess.timeout.<endpoint name>",
+ * in milliseconds, for example -Dchess.timeout.FIND_MATCH=60000.
+ * Responses of endpoints with a cache TTL are kept in the {@link ResponseCache} for that long,
+ * and some endpoints change the state of the server, so a response to them invalidates the cache.
+ * Each endpoint tracks the latency of its requests. For the GET requests, which are safe to send again,
+ * it shortens their timeout to a few times the slowest recent requests, and sets the delay after which
+ * a duplicate of an unanswered request is sent. Requests that change the state of the server, such as moves,
+ * keep the configured timeout, so a slow request the server took is not reported as failed.
+ */
+public enum ServerEndpoint {
+    LOGIN("/user/login", ServerEndpoint.POST),
+    CREATE_ACCOUNT("/user/create", ServerEndpoint.POST),
+    GET_TOP_100("/user/get-top100", ServerEndpoint.GET, ServerEndpoint.TOP_100_CACHE_TTL_MILLISECOND, false),
+    FIND_PLAYER("/user/get-user", ServerEndpoint.POST),
+    FIND_MATCH("/matchmaking/find-match", ServerEndpoint.POST),
+    JOIN_INVITATION_GAME("/matchmaking/join-invention/", ServerEndpoint.POST),
+    CREATE_INVITATION_GAME("/matchmaking/create-invention", ServerEndpoint.POST),
+    CANCEL_INVITATION_GAME("/matchmaking/cancel-invention", ServerEndpoint.POST),
+    SUBMIT_MOVE("/game/online/submit-move/", ServerEndpoint.POST, ServerEndpoint.NOT_CACHED, true),
+    SUBMIT_MOVE_BINARY("/game/online/submit-move-binary/", ServerEndpoint.POST, ServerEndpoint.NOT_CACHED, true),
+    GET_MATCH_PLAYERS("/game/online/get-players/", ServerEndpoint.GET),
+    GET_MOVES_SINCE("/game/online/get-moves/", ServerEndpoint.GET),
+    RESIGN_THE_GAME("/game/online/resign/", ServerEndpoint.POST, ServerEndpoint.NOT_CACHED, true),
+    GET_MATCH_HISTORY("/game/online/match-history100", ServerEndpoint.POST,
+            ServerEndpoint.MATCH_HISTORY_CACHE_TTL_MILLISECOND, false);
+
+    private static final String POST = "POST";
+    private static final String GET = "GET";
+    private static final String TIMEOUT_PROPERTY_PREFIX = "chess.timeout.";
+    private static final long DEFAULT_TIME_OUT_MILLISECOND = 20 * 1000;
+
+    // Cache TTLs
+    private static final long NOT_CACHED = 0;
+    private static final long TOP_100_CACHE_TTL_MILLISECOND = 60 * 1000;
+    private static final long MATCH_HISTORY_CACHE_TTL_MILLISECOND = 30 * 1000;
+
+    private final String path;
+    private final String method;
+    private final boolean invalidatesCache;
+    private final EndpointLatencyTracker latencyTracker = new EndpointLatencyTracker();
+    private volatile Duration timeout;
+    private volatile Duration cacheTtl;
+    private volatile boolean hedged;
+
+    /**
+     * Constructs an endpoint whose responses are not cached.
+     *
+     * @param path   The path of the endpoint, relative to the server URL.
+     * @param method The HTTP method of the endpoint.
+     */
+    ServerEndpoint(String path, String method) {
+        this(path, method, NOT_CACHED, false);
+    }
+
+    /**
+     * Constructs an endpoint.
+     *
+     * @param path                The path of the endpoint, relative to the server URL.
+     * @param method              The HTTP method of the endpoint.
+     * @param cacheTtlMillisecond The time its responses are cached for, 0 if they are not cached.
+     * @param invalidatesCache    True if a response to the endpoint invalidates the cache.
+     */
+    ServerEndpoint(String path, String method, long cacheTtlMillisecond, boolean invalidatesCache) {
+        this.path = path;
+        this.method = method;
+        this.invalidatesCache = invalidatesCache;
+        this.timeout = Duration.ofMillis(Long.getLong(TIMEOUT_PROPERTY_PREFIX + name(), DEFAULT_TIME_OUT_MILLISECOND));
+        this.cacheTtl = Duration.ofMillis(cacheTtlMillisecond);
+        // GET requests don't change the state of the server, so sending one twice is safe
+        this.hedged = GET.equals(method);
+    }
+
+    /**
+     * Gets the path of the endpoint, relative to the server URL.
+     *
+     * @return The path of the endpoint.
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Gets the HTTP method of the endpoint.
+     *
+     * @return The HTTP method, "GET" or "POST".
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * Returns if the requests of the endpoint are sent with the POST method.
+     *
+     * @return True if the endpoint uses POST, false if it uses GET.
+     */
+    public boolean isPost() {
+        return POST.equals(method);
+    }
+
+    /**
+     * Gets the timeout of the requests of the endpoint.
+     *
+     * @return The timeout of the requests.
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Sets the timeout of the requests of the endpoint.
+     *
+     * @param timeout The timeout of the requests.
+     */
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Gets the timeout of the next request to the endpoint, derived from the latency of its recent requests
+     * for hedged endpoints. The configured timeout is the longest timeout used, and the only one used
+     * by the endpoints that change the state of the server, since a request that timed out may still have
+     * been taken, and by long polling requests, whose latency is how long it takes the server to find a match
+     * rather than how fast it is.
+     *
+     * @return The timeout of the next request.
+     */
+    public Duration getRequestTimeout() {
+        return hedged && !isLongPolling() ? latencyTracker.getAdaptiveTimeout(timeout) : timeout;
+    }
+
+    /**
+     * Returns if the server holds the requests of the endpoint until something happens, such as finding a match.
+     *
+     * @return True if the endpoint is a long polling endpoint.
+     */
+    public boolean isLongPolling() {
+        return this == FIND_MATCH;
+    }
+
+    /**
+     * Returns if the payloads of the endpoint are binary MoveMessages rather than JSON.
+     *
+     * @return True if the endpoint takes binary payloads.
+     */
+    public boolean isBinary() {
+        return this == SUBMIT_MOVE_BINARY;
+    }
+
+    /**
+     * Gets the tracker of the latency of the requests of the endpoint.
+     *
+     * @return The latency tracker of the endpoint.
+     */
+    public EndpointLatencyTracker getLatencyTracker() {
+        return latencyTracker;
+    }
+
+    /**
+     * Returns if a duplicate of a request of the endpoint is sent when the request is slower than usual.
+     *
+     * @return True if the requests of the endpoint are hedged.
+     */
+    public boolean isHedged() {
+        return hedged;
+    }
+
+    /**
+     * Sets if a duplicate of a request of the endpoint is sent when the request is slower than usual.
+     * Only endpoints that don't change the state of the server should be hedged.
+     *
+     * @param hedged True to hedge the requests of the endpoint.
+     */
+    public void setHedged(boolean hedged) {
+        this.hedged = hedged;
+    }
+
+    /**
+     * Returns if the responses of the endpoint are cached.
+     *
+     * @return True if the endpoint has a cache TTL.
+     */
+    public boolean isCached() {
+        return !cacheTtl.isZero();
+    }
+
+    /**
+     * Returns if a response to the endpoint invalidates the cache,
+     * because the endpoint changes the state of the server.
+     *
+     * @return True if a response to the endpoint invalidates the cache.
+     */
+    public boolean invalidatesCache() {
+        return invalidatesCache;
+    }
+
+    /**
+     * Gets the time the responses of the endpoint are cached for.
+     *
+     * @return The cache TTL, zero if the responses are not cached.
+     */
+    public Duration getCacheTtl() {
+        return cacheTtl;
+    }
+
+    /**
+     * Sets the time the responses of the endpoint are cached for.
+     *
+     * @param cacheTtl The cache TTL, zero to stop caching the responses.
+     */
+    public void setCacheTtl(Duration cacheTtl) {
+        this.cacheTtl = cacheTtl;
+    }
+}
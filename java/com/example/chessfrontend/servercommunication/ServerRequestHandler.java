@@ -2,12 +2,21 @@ package com.example.chessfrontend.servercommunication;
 
 import com.example.chessfrontend.ServerResponse;
 import com.example.chessfrontend.modulus.GameUser;
-
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import com.example.chessfrontend.modulus.PackedMove;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 import static com.example.chessfrontend.modulus.ChessBoard.DEFAULT_PROMOTION;
 
@@ -15,36 +24,48 @@ import static com.example.chessfrontend.modulus.ChessBoard.DEFAULT_PROMOTION;
  * Handles communication with the server, including sending requests and receiving responses.
  */
 public class ServerRequestHandler {
-    // URL constants for server endpoints
-    private static final String SERVER_URL = "http://localhost:8080";
+    // URL of the server, endpoint paths are relative to it, can be set with -Dchess.server.url
+    public static final String DEFAULT_SERVER_URL = "http://localhost:8080";
+    public static final String SERVER_URL_PROPERTY = "chess.server.url";
+    private static volatile String serverUrl = System.getProperty(SERVER_URL_PROPERTY, DEFAULT_SERVER_URL);
 
-    private static final String USER_URL = SERVER_URL + "/user";
-    private static final String LOGIN_URL = USER_URL + "/login";
-    private static final String CREATE_ACCOUNT_URL = USER_URL + "/create";
-    private static final String GET_TOP_100_URL = USER_URL + "/get-top100";
-    private static final String FIND_PLAYER_URL = USER_URL + "/get-user";
+    private static final byte[] EMPTY_PAYLOAD = new byte[0];
+    private static final String NO_PATH_SUFFIX = "";
+    private static final String CONTENT_TYPE_HEADER = "Content-Type";
+    private static final String JSON_CONTENT_TYPE = "application/json; charset=UTF-8";
 
-    private static final String MATCHMAKING_URL = SERVER_URL + "/matchmaking";
-    private static final String FIND_MATCH_URL = MATCHMAKING_URL + "/find-match";
-    private static final String JOIN_INVITATION_GAME_URL = MATCHMAKING_URL + "/join-invention/";
-    private static final String CREATE_INVITATION_GAME_URL = MATCHMAKING_URL + "/create-invention";
-    private static final String CANCEL_INVITATION_GAME_URL = MATCHMAKING_URL + "/cancel-invention";
+    // HTTP status codes
+    public static final int HTTP_OK = 200;
+    private static final int CONNECT_TIME_OUT_MILLISECOND = 20 * 1000;
 
+    // Set to true to let the client negotiate HTTP/2 with the server
+    private static final String HTTP2_PROPERTY = "chess.http2";
 
-    private static final String ONLINE_GAME_URL = SERVER_URL + "/game/online";
-    private static final String SUBMIT_MOVE_URL = ONLINE_GAME_URL + "/submit-move/";
-    private static final String GET_MATCH_PLAYER_URL = ONLINE_GAME_URL + "/get-players/";
-    private static final String RESIGN_THE_GAME_URL = ONLINE_GAME_URL + "/resign/";
-    private static final String GET_MATCH_HISTORY_URL = ONLINE_GAME_URL + "/match-history100";
+    // Set to true to submit moves as binary MoveMessages instead of JSON, when the server supports it
+    public static final String BINARY_MOVES_PROPERTY = "chess.binary.moves";
+    private static final boolean BINARY_MOVES = Boolean.getBoolean(BINARY_MOVES_PROPERTY);
 
-    // HTTP request methods
-    private static final String POST = "POST";
-    private static final String GET = "GET";
-    private static final String EMPTY_PAYLOAD = "";
+    // Daemon threads that send the requests and complete the futures of the async methods
+    private static final String REQUEST_THREAD_NAME = "server-request-";
+    private static final AtomicInteger REQUEST_THREAD_COUNT = new AtomicInteger();
+    private static final ExecutorService REQUEST_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, REQUEST_THREAD_NAME + REQUEST_THREAD_COUNT.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
 
-    // HTTP status codes
-    public static final int HTTP_OK = 200;
-    private static final int TIME_OUT_MILLISECOND = 20 * 1000;
+    // A single client is shared by all handlers, so connections are pooled and kept alive between requests
+    private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder()
+            .executor(REQUEST_EXECUTOR)
+            .version(Boolean.getBoolean(HTTP2_PROPERTY) ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofMillis(CONNECT_TIME_OUT_MILLISECOND))
+            .build();
+
+    // Responses of cached endpoints, shared by all handlers
+    private static final ResponseCache RESPONSE_CACHE = new ResponseCache(ResponseCache.DEFAULT_MAX_BYTES);
+
+    // Latency, bytes and status codes of the requests per endpoint, shared by all handlers
+    private static final RequestMetrics REQUEST_METRICS = new RequestMetrics();
 
     /**
      * Retrieves the match history for the specified game user from the server.
@@ -53,7 +74,18 @@ public class ServerRequestHandler {
      * @return A ServerResponse object containing the response from the server
      */
     public ServerResponse getMatchHistory(GameUser gameUser) {
-        return sendNewRequestToServer(POST, gameUser.convertIntoJson(), GET_MATCH_HISTORY_URL);
+        return sendNewRequestToServer(ServerEndpoint.GET_MATCH_HISTORY, userPayload(gameUser));
+    }
+
+    /**
+     * Retrieves the match history for the specified game user from the server.
+     * The request is sent asynchronously, without blocking the calling thread.
+     *
+     * @param gameUser The game user for whom to retrieve match history
+     * @return a future completed with the ServerResponse object containing the response from the server
+     */
+    public CompletableFuture<ServerResponse> getMatchHistoryAsync(GameUser gameUser) {
+        return sendNewRequestToServerAsync(ServerEndpoint.GET_MATCH_HISTORY, userPayload(gameUser));
     }
 
     /**
@@ -64,7 +96,20 @@ public class ServerRequestHandler {
      * @return A ServerResponse indicating the status of the join request.
      */
     public ServerResponse joinGameInvention(String gameCodedID, GameUser gameUser) {
-        return sendNewRequestToServer(POST, gameUser.convertIntoJson(), JOIN_INVITATION_GAME_URL + gameCodedID);
+        return sendNewRequestToServer(ServerEndpoint.JOIN_INVITATION_GAME, userPayload(gameUser), gameCodedID);
+    }
+
+    /**
+     * Sends a request to join a game invitation with the specified game code ID and user information.
+     * The request is sent asynchronously, without blocking the calling thread.
+     *
+     * @param gameCodedID The ID of the game invitation to join.
+     * @param gameUser    The user information.
+     * @return a future completed with the ServerResponse indicating the status of the join request.
+     */
+    public CompletableFuture<ServerResponse> joinGameInventionAsync(String gameCodedID, GameUser gameUser) {
+        return sendNewRequestToServerAsync(ServerEndpoint.JOIN_INVITATION_GAME, userPayload(gameUser),
+                gameCodedID);
     }
 
     /**
@@ -74,7 +119,18 @@ public class ServerRequestHandler {
      * @return A ServerResponse indicating the status of the create invitation request.
      */
     public ServerResponse createGameInvention(GameUser gameUser) {
-        return sendNewRequestToServer(POST, gameUser.convertIntoJson(), CREATE_INVITATION_GAME_URL);
+        return sendNewRequestToServer(ServerEndpoint.CREATE_INVITATION_GAME, userPayload(gameUser));
+    }
+
+    /**
+     * Sends a request to create a game invitation with the specified user information.
+     * The request is sent asynchronously, without blocking the calling thread.
+     *
+     * @param gameUser The user information.
+     * @return a future completed with the ServerResponse indicating the status of the create invitation request.
+     */
+    public CompletableFuture<ServerResponse> createGameInventionAsync(GameUser gameUser) {
+        return sendNewRequestToServerAsync(ServerEndpoint.CREATE_INVITATION_GAME, userPayload(gameUser));
     }
 
     /**
@@ -84,7 +140,18 @@ public class ServerRequestHandler {
      * @return A ServerResponse indicating the status of the cancel invitation request.
      */
     public ServerResponse cancelGameInvention(GameUser gameUser) {
-        return sendNewRequestToServer(POST, gameUser.convertIntoJson(), CANCEL_INVITATION_GAME_URL);
+        return sendNewRequestToServer(ServerEndpoint.CANCEL_INVITATION_GAME, userPayload(gameUser));
+    }
+
+    /**
+     * Sends a request to cancel a game invitation with the specified user information.
+     * The request is sent asynchronously, without blocking the calling thread.
+     *
+     * @param gameUser The user information.
+     * @return a future completed with the ServerResponse indicating the status of the cancel invitation request.
+     */
+    public CompletableFuture<ServerResponse> cancelGameInventionAsync(GameUser gameUser) {
+        return sendNewRequestToServerAsync(ServerEndpoint.CANCEL_INVITATION_GAME, userPayload(gameUser));
     }
 
 
@@ -95,9 +162,22 @@ public class ServerRequestHandler {
      * @return A ServerResponse indicating the status of the resignation request.
      */
     public ServerResponse reignTheGame(GameUser user, int gameID) {
-        String payload = user.convertIntoJson();
+        byte[] payload = userPayload(user);
         // Send a POST request to the server to resign the game
-        return sendNewRequestToServer(POST, payload, RESIGN_THE_GAME_URL + gameID);
+        return sendNewRequestToServer(ServerEndpoint.RESIGN_THE_GAME, payload, String.valueOf(gameID));
+    }
+
+    /**
+     * Sends a request to the server to resign the game with the specified game ID.
+     * The request is sent asynchronously, without blocking the calling thread.
+     *
+     * @param gameID The ID of the game to resign.
+     * @return a future completed with the ServerResponse indicating the status of the resignation request.
+     */
+    public CompletableFuture<ServerResponse> reignTheGameAsync(GameUser user, int gameID) {
+        byte[] payload = userPayload(user);
+        // Send a POST request to the server to resign the game
+        return sendNewRequestToServerAsync(ServerEndpoint.RESIGN_THE_GAME, payload, String.valueOf(gameID));
     }
 
     /**
@@ -108,9 +188,35 @@ public class ServerRequestHandler {
      */
     public ServerResponse getPlayerOfMatch(int currentGameID) {
         // Send a GET request to the server to retrieve player information for the match
-        return sendNewRequestToServer(GET, EMPTY_PAYLOAD, GET_MATCH_PLAYER_URL + currentGameID);
+        return sendNewRequestToServer(ServerEndpoint.GET_MATCH_PLAYERS, EMPTY_PAYLOAD, String.valueOf(currentGameID));
+    }
+
+    /**
+     * Retrieves the players involved in the match with the specified ID from the server.
+     * The request is sent asynchronously, without blocking the calling thread.
+     *
+     * @param currentGameID The ID of the match to retrieve player information.
+     * @return a future completed with the ServerResponse containing the player information for the match.
+     */
+    public CompletableFuture<ServerResponse> getPlayerOfMatchAsync(int currentGameID) {
+        // Send a GET request to the server to retrieve player information for the match
+        return sendNewRequestToServerAsync(ServerEndpoint.GET_MATCH_PLAYERS, EMPTY_PAYLOAD,
+                String.valueOf(currentGameID));
     }
 
+    /**
+     * Retrieves the moves of a game played after a move, so a client that missed moves catches up
+     * without reloading the whole game.
+     * The request is sent asynchronously, without blocking the calling thread.
+     *
+     * @param gameID        the ID of the game
+     * @param afterSequence the sequence number of the last move the client played, 0 for all the moves
+     * @return a future completed with the ServerResponse containing the packed moves after that move, in order
+     */
+    public CompletableFuture<ServerResponse> getMovesSinceAsync(int gameID, int afterSequence) {
+        return sendNewRequestToServerAsync(ServerEndpoint.GET_MOVES_SINCE, EMPTY_PAYLOAD,
+                gameID + "/" + afterSequence);
+    }
 
     /**
      * Submits a move to the server for the specified game.
@@ -123,8 +229,91 @@ public class ServerRequestHandler {
      */
     public ServerResponse submitMove(GameUser gameUser, int initialSquareNumber,
                                      int targetSquareNumber, int currentGameID) {
-        String jsonPayLoad = parseIntoJson(gameUser, initialSquareNumber, targetSquareNumber);
-        return sendNewRequestToServer(POST, jsonPayLoad, SUBMIT_MOVE_URL + currentGameID);
+        if (BINARY_MOVES)
+            return submitMove(gameUser, toMoveMessage(initialSquareNumber, targetSquareNumber, currentGameID,
+                    MoveMessage.NO_CLOCK));
+
+        byte[] jsonPayLoad = movePayload(gameUser, initialSquareNumber, targetSquareNumber);
+        return sendNewRequestToServer(ServerEndpoint.SUBMIT_MOVE, jsonPayLoad, String.valueOf(currentGameID));
+    }
+
+    /**
+     * Submits a move to the server for the specified game.
+     * The request is sent asynchronously, without blocking the calling thread.
+     *
+     * @param gameUser            the user making the move
+     * @param initialSquareNumber the square from which the piece is being moved
+     * @param targetSquareNumber  the target square to which the piece is being moved
+     * @param currentGameID       the ID of the current game
+     * @return a future completed with the server response to the move submission
+     */
+    public CompletableFuture<ServerResponse> submitMoveAsync(GameUser gameUser, int initialSquareNumber,
+                                                             int targetSquareNumber, int currentGameID) {
+        return submitMoveAsync(gameUser, initialSquareNumber, targetSquareNumber, currentGameID,
+                MoveMessage.NO_CLOCK);
+    }
+
+    /**
+     * Submits a move of a timed game to the server for the specified game, with the remaining time of the user.
+     * The time is only sent with binary moves, the JSON payload has no clock.
+     * The request is sent asynchronously, without blocking the calling thread.
+     *
+     * @param gameUser            the user making the move
+     * @param initialSquareNumber the square from which the piece is being moved
+     * @param targetSquareNumber  the target square to which the piece is being moved
+     * @param currentGameID       the ID of the current game
+     * @param clockMillisecond    the remaining time of the user when the move was played, or MoveMessage.NO_CLOCK
+     * @return a future completed with the server response to the move submission
+     */
+    public CompletableFuture<ServerResponse> submitMoveAsync(GameUser gameUser, int initialSquareNumber,
+                                                             int targetSquareNumber, int currentGameID,
+                                                             int clockMillisecond) {
+        if (BINARY_MOVES)
+            return submitMoveAsync(gameUser, toMoveMessage(initialSquareNumber, targetSquareNumber, currentGameID,
+                    clockMillisecond));
+
+        byte[] jsonPayLoad = movePayload(gameUser, initialSquareNumber, targetSquareNumber);
+        return sendNewRequestToServerAsync(ServerEndpoint.SUBMIT_MOVE, jsonPayLoad, String.valueOf(currentGameID));
+    }
+
+    /**
+     * Submits a move to the server as a binary MoveMessage, with its sequence number and clock.
+     *
+     * @param gameUser    the user making the move
+     * @param moveMessage the move
+     * @return the server response to the move submission
+     */
+    public ServerResponse submitMove(GameUser gameUser, MoveMessage moveMessage) {
+        return sendNewRequestToServer(ServerEndpoint.SUBMIT_MOVE_BINARY, moveMessage.toSubmitPayload(
+                gameUser.getToken()), String.valueOf(moveMessage.getGameID()));
+    }
+
+    /**
+     * Submits a move to the server as a binary MoveMessage, with its sequence number and clock.
+     * The request is sent asynchronously, without blocking the calling thread.
+     *
+     * @param gameUser    the user making the move
+     * @param moveMessage the move
+     * @return a future completed with the server response to the move submission
+     */
+    public CompletableFuture<ServerResponse> submitMoveAsync(GameUser gameUser, MoveMessage moveMessage) {
+        return sendNewRequestToServerAsync(ServerEndpoint.SUBMIT_MOVE_BINARY, moveMessage.toSubmitPayload(
+                gameUser.getToken()), String.valueOf(moveMessage.getGameID()));
+    }
+
+    /**
+     * Converts a move the user made into a MoveMessage without a sequence number.
+     *
+     * @param initialSquareNumber the square from which the piece is being moved
+     * @param targetSquareNumber  the target square to which the piece is being moved
+     * @param currentGameID       the ID of the current game
+     * @param clockMillisecond    the remaining time of the user, or MoveMessage.NO_CLOCK
+     * @return the move message
+     */
+    private static MoveMessage toMoveMessage(int initialSquareNumber, int targetSquareNumber, int currentGameID,
+                                             int clockMillisecond) {
+        return new MoveMessage(currentGameID, MoveMessage.NO_SEQUENCE, PackedMove.encode((byte) initialSquareNumber,
+                (byte) targetSquareNumber, DEFAULT_PROMOTION), clockMillisecond);
     }
 
     /**
@@ -134,7 +323,19 @@ public class ServerRequestHandler {
      * @return the server response containing information about the player
      */
     public ServerResponse findPlayer(String playerFindUsername) {
-        return sendNewRequestToServer(POST, playerFindUsername, FIND_PLAYER_URL);
+        return sendNewRequestToServer(ServerEndpoint.FIND_PLAYER, playerFindUsername.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Finds a player with the specified username.
+     * The request is sent asynchronously, without blocking the calling thread.
+     *
+     * @param playerFindUsername the username of the player to find
+     * @return a future completed with the server response containing information about the player
+     */
+    public CompletableFuture<ServerResponse> findPlayerAsync(String playerFindUsername) {
+        return sendNewRequestToServerAsync(ServerEndpoint.FIND_PLAYER,
+                playerFindUsername.getBytes(StandardCharsets.UTF_8));
     }
 
     /**
@@ -144,7 +345,18 @@ public class ServerRequestHandler {
      * @return the server response containing the login status and user information
      */
     public ServerResponse logIntoAccount(GameUser gameUser) {
-        return sendNewRequestToServer(POST, gameUser.convertIntoJson(), LOGIN_URL);
+        return sendNewRequestToServer(ServerEndpoint.LOGIN, userPayload(gameUser));
+    }
+
+    /**
+     * Logs into the user account using the provided GameUser object.
+     * The request is sent asynchronously, without blocking the calling thread.
+     *
+     * @param gameUser the GameUser object representing the user's credentials
+     * @return a future completed with the server response containing the login status and user information
+     */
+    public CompletableFuture<ServerResponse> logIntoAccountAsync(GameUser gameUser) {
+        return sendNewRequestToServerAsync(ServerEndpoint.LOGIN, userPayload(gameUser));
     }
 
     /**
@@ -154,7 +366,18 @@ public class ServerRequestHandler {
      * @return the server response containing the account creation status
      */
     public ServerResponse createNewAccount(GameUser gameUser) {
-        return sendNewRequestToServer(POST, gameUser.convertIntoJson(), CREATE_ACCOUNT_URL);
+        return sendNewRequestToServer(ServerEndpoint.CREATE_ACCOUNT, userPayload(gameUser));
+    }
+
+    /**
+     * Creates a new user account using the provided GameUser object.
+     * The request is sent asynchronously, without blocking the calling thread.
+     *
+     * @param gameUser the GameUser object representing the new user's information
+     * @return a future completed with the server response containing the account creation status
+     */
+    public CompletableFuture<ServerResponse> createNewAccountAsync(GameUser gameUser) {
+        return sendNewRequestToServerAsync(ServerEndpoint.CREATE_ACCOUNT, userPayload(gameUser));
     }
 
     /**
@@ -163,7 +386,17 @@ public class ServerRequestHandler {
      * @return the server response containing information about the top 100 players
      */
     public ServerResponse getTop100Players() {
-        return sendNewRequestToServer(GET, EMPTY_PAYLOAD, GET_TOP_100_URL);
+        return sendNewRequestToServer(ServerEndpoint.GET_TOP_100, EMPTY_PAYLOAD);
+    }
+
+    /**
+     * Retrieves the top 100 players from the server.
+     * The request is sent asynchronously, without blocking the calling thread.
+     *
+     * @return a future completed with the server response containing information about the top 100 players
+     */
+    public CompletableFuture<ServerResponse> getTop100PlayersAsync() {
+        return sendNewRequestToServerAsync(ServerEndpoint.GET_TOP_100, EMPTY_PAYLOAD);
     }
 
     /**
@@ -173,66 +406,266 @@ public class ServerRequestHandler {
      * @return the server response containing information about the match
      */
     public ServerResponse findMatchVsRandom(GameUser gameUser) {
-        return sendNewRequestToServer(POST, gameUser.convertIntoJson(), FIND_MATCH_URL);
+        return sendNewRequestToServer(ServerEndpoint.FIND_MATCH, userPayload(gameUser));
+    }
+
+    /**
+     * Initiates a matchmaking request to find a match against a random player.
+     * The request is sent asynchronously, without blocking the calling thread.
+     *
+     * @param gameUser the GameUser object representing the current user
+     * @return a future completed with the server response containing information about the match
+     */
+    public CompletableFuture<ServerResponse> findMatchVsRandomAsync(GameUser gameUser) {
+        return sendNewRequestToServerAsync(ServerEndpoint.FIND_MATCH, userPayload(gameUser));
     }
 
 
     /**
-     * Sends a new HTTP request to the server with the specified method, payload, and URL address.
-     * Handles both successful and error responses from the server.
+     * Sends a new HTTP request to an endpoint of the server with the specified payload.
      *
-     * @param method     the HTTP method (e.g., "POST", "GET") for the request
-     * @param payload    the payload or data to be sent with the request
-     * @param urlAddress the URL address of the server endpoint to send the request to
+     * @param endpoint the endpoint of the server to send the request to
+     * @param payload  the payload or data to be sent with the request
      * @return a ServerResponse object containing the server's response to the request
      */
-    private ServerResponse sendNewRequestToServer(String method, String payload, String urlAddress) {
-        HttpURLConnection connection = null;
-        try {
-            // Contract a new http request to the server
-            URL url = new URL(urlAddress);
-            connection = (HttpURLConnection) url.openConnection();
-            connection.setRequestMethod(method);
-            connection.setRequestProperty("Content-Type", "application/json");
-            connection.setConnectTimeout(TIME_OUT_MILLISECOND);
-            connection.setReadTimeout(TIME_OUT_MILLISECOND);
-            connection.setDoOutput(true);
-
-            // Only write to output stream if the request method is POST
-            if ("POST".equals(method)) {
-                OutputStream outputStream = connection.getOutputStream();
-                outputStream.write(payload.getBytes());
-                outputStream.flush();
-            }
+    private ServerResponse sendNewRequestToServer(ServerEndpoint endpoint, byte[] payload) {
+        return sendNewRequestToServer(endpoint, payload, NO_PATH_SUFFIX);
+    }
 
-            int responseCode = connection.getResponseCode();
+    /**
+     * Sends a new HTTP request to an endpoint of the server with the specified payload.
+     * The request goes through the shared HTTP client, which reuses kept-alive connections to the server.
+     * Handles both successful and error responses from the server.
+     *
+     * @param endpoint   the endpoint of the server to send the request to
+     * @param payload    the payload or data to be sent with the request, only sent with POST requests
+     * @param pathSuffix a suffix to add to the path of the endpoint, such as a game ID
+     * @return a ServerResponse object containing the server's response to the request,
+     * or null if the request failed
+     */
+    private ServerResponse sendNewRequestToServer(ServerEndpoint endpoint, byte[] payload, String pathSuffix) {
+        // Hedged requests race two requests against each other, which the async method already does
+        if (endpoint.isHedged())
+            return sendNewRequestToServerAsync(endpoint, payload, pathSuffix).join();
+
+        String cacheKey = endpoint.isCached() ? ResponseCache.keyOf(endpoint, payload, pathSuffix) : null;
+        ServerResponse cachedResponse = getFreshCachedResponse(endpoint, cacheKey);
+        if (cachedResponse != null)
+            return cachedResponse;
+
+        long startTime = System.nanoTime();
+        AtomicLong bytesReceived = new AtomicLong();
+        try {
+            HttpResponse<String> response = HTTP_CLIENT.send(buildRequest(endpoint, payload, pathSuffix, cacheKey),
+                    new CompressedBodyHandler(bytesReceived::set));
+            recordResponse(endpoint, payload, startTime, bytesReceived.get(), response.statusCode());
+
+            return toServerResponse(endpoint, cacheKey, response);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            recordFailure(endpoint, payload, startTime);
+            return null;
+        } catch (Exception e) {
+            recordFailure(endpoint, payload, startTime);
+            return null;
+        }
+    }
 
-            BufferedReader reader;
-            if (responseCode >= 400) {
-                // For error responses (status code 400 and above), read from error stream
-                reader = new BufferedReader(new InputStreamReader(connection.getErrorStream()));
-            } else {
-                // For successful responses (status code 200-399), read from input stream
-                reader = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-            }
+    /**
+     * Sends a new HTTP request to an endpoint of the server asynchronously.
+     *
+     * @param endpoint the endpoint of the server to send the request to
+     * @param payload  the payload or data to be sent with the request
+     * @return a future completed with the server's response to the request
+     */
+    private CompletableFuture<ServerResponse> sendNewRequestToServerAsync(ServerEndpoint endpoint, byte[] payload) {
+        return sendNewRequestToServerAsync(endpoint, payload, NO_PATH_SUFFIX);
+    }
 
-            // Read the response from the server
-            StringBuilder response = new StringBuilder();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                response.append(line);
-            }
-            reader.close();
+    /**
+     * Sends a new HTTP request to an endpoint of the server asynchronously.
+     * The returned future never completes exceptionally, a failed request completes it with null,
+     * the same as the blocking methods return null.
+     *
+     * @param endpoint   the endpoint of the server to send the request to
+     * @param payload    the payload or data to be sent with the request, only sent with POST requests
+     * @param pathSuffix a suffix to add to the path of the endpoint, such as a game ID
+     * @return a future completed with the server's response to the request, or with null if the request failed
+     */
+    private CompletableFuture<ServerResponse> sendNewRequestToServerAsync(ServerEndpoint endpoint, byte[] payload,
+                                                                          String pathSuffix) {
+        String cacheKey = endpoint.isCached() ? ResponseCache.keyOf(endpoint, payload, pathSuffix) : null;
+        ServerResponse cachedResponse = getFreshCachedResponse(endpoint, cacheKey);
+        if (cachedResponse != null)
+            return CompletableFuture.completedFuture(cachedResponse);
+
+        if (!endpoint.isHedged())
+            return sendSingleRequestAsync(endpoint, payload, pathSuffix, cacheKey);
+
+        HedgedRequest hedgedRequest = new HedgedRequest(endpoint,
+                () -> sendSingleRequestAsync(endpoint, payload, pathSuffix, cacheKey));
+        hedgedRequest.start();
+        return hedgedRequest.result;
+    }
 
-            return new ServerResponse(response.toString(), responseCode);
+    /**
+     * Sends a single HTTP request to an endpoint of the server asynchronously, and records its latency.
+     *
+     * @param endpoint   the endpoint of the server to send the request to
+     * @param payload    the payload or data to be sent with the request, only sent with POST requests
+     * @param pathSuffix a suffix to add to the path of the endpoint, such as a game ID
+     * @param cacheKey   the key of the request in the cache
+     * @return a future completed with the server's response to the request, or with null if the request failed
+     */
+    private CompletableFuture<ServerResponse> sendSingleRequestAsync(ServerEndpoint endpoint, byte[] payload,
+                                                                     String pathSuffix, String cacheKey) {
+        long startTime = System.nanoTime();
+        AtomicLong bytesReceived = new AtomicLong();
+        try {
+            return HTTP_CLIENT.sendAsync(buildRequest(endpoint, payload, pathSuffix, cacheKey),
+                            new CompressedBodyHandler(bytesReceived::set))
+                    .thenApply(response -> {
+                        recordResponse(endpoint, payload, startTime, bytesReceived.get(), response.statusCode());
+                        return toServerResponse(endpoint, cacheKey, response);
+                    })
+                    .exceptionally(e -> {
+                        recordFailure(endpoint, payload, startTime);
+                        return null;
+                    });
         } catch (Exception e) {
-            return null;
-        } finally {
-            if (connection != null)
-                connection.disconnect();
+            recordFailure(endpoint, payload, startTime);
+            return CompletableFuture.completedFuture(null);
         }
     }
 
+    /**
+     * Gets the cached response to a request, if the endpoint is cached and the response has not expired yet.
+     *
+     * @param endpoint the endpoint of the server the request is sent to
+     * @param cacheKey the key of the request in the cache
+     * @return the cached response, or null if the request has to be sent to the server
+     */
+    private ServerResponse getFreshCachedResponse(ServerEndpoint endpoint, String cacheKey) {
+        ServerResponse cachedResponse = endpoint.isCached() ? RESPONSE_CACHE.getFresh(cacheKey) : null;
+        if (cachedResponse != null)
+            REQUEST_METRICS.recordCacheHit(endpoint);
+        return cachedResponse;
+    }
+
+    /**
+     * Records the latency of a request the server responded to, in the latency tracker of the endpoint
+     * and in the request metrics.
+     *
+     * @param endpoint      the endpoint of the server the request was sent to
+     * @param payload       the payload of the request
+     * @param startTime     the time the request was sent, from System.nanoTime()
+     * @param bytesReceived the size of the body of the response, as it was received on the wire
+     * @param statusCode    the status code of the response
+     */
+    private void recordResponse(ServerEndpoint endpoint, byte[] payload, long startTime, long bytesReceived,
+                                int statusCode) {
+        long latency = System.nanoTime() - startTime;
+        endpoint.getLatencyTracker().record(latency);
+        REQUEST_METRICS.recordResponse(endpoint, latency, endpoint.isPost() ? payload.length : 0, bytesReceived,
+                statusCode);
+    }
+
+    /**
+     * Records a request that failed without a response in the request metrics.
+     *
+     * @param endpoint  the endpoint of the server the request was sent to
+     * @param payload   the payload of the request
+     * @param startTime the time the request was sent, from System.nanoTime()
+     */
+    private void recordFailure(ServerEndpoint endpoint, byte[] payload, long startTime) {
+        REQUEST_METRICS.recordFailure(endpoint, System.nanoTime() - startTime, endpoint.isPost() ? payload.length : 0);
+    }
+
+    /**
+     * Converts an HTTP response of the server into a ServerResponse, updating the cache on the way.
+     *
+     * @param endpoint the endpoint of the server the request was sent to
+     * @param cacheKey the key of the request in the cache
+     * @param response the HTTP response of the server
+     * @return a ServerResponse object containing the server's response to the request
+     */
+    private ServerResponse toServerResponse(ServerEndpoint endpoint, String cacheKey, HttpResponse<String> response) {
+        if (endpoint.isCached())
+            return RESPONSE_CACHE.update(endpoint, cacheKey, response);
+
+        // The endpoint changed the state of the server, so cached responses may be out of date
+        if (endpoint.invalidatesCache() && response.statusCode() == HTTP_OK)
+            RESPONSE_CACHE.invalidateAll();
+        return new ServerResponse(response.body(), response.statusCode());
+    }
+
+    /**
+     * Builds an HTTP request to an endpoint of the server.
+     * POST payloads are sent as the UTF-8 bytes they were written as, without converting them into strings,
+     * and binary payloads are sent with the content type of MoveMessage.
+     * Requests to cached endpoints carry the validators of the cached response, if there is one.
+     * All requests accept gzip and deflate responses, the server decides which responses are worth compressing.
+     * The timeout of the request adapts to the latency of the recent requests to the endpoint.
+     *
+     * @param endpoint   the endpoint of the server to send the request to
+     * @param payload    the payload or data to be sent with the request, only sent with POST requests
+     * @param pathSuffix a suffix to add to the path of the endpoint, such as a game ID
+     * @param cacheKey   the key of the request in the cache
+     * @return the HTTP request
+     */
+    private HttpRequest buildRequest(ServerEndpoint endpoint, byte[] payload, String pathSuffix, String cacheKey) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(serverUrl + endpoint.getPath() + pathSuffix))
+                .timeout(endpoint.getRequestTimeout())
+                .header(CONTENT_TYPE_HEADER, endpoint.isBinary() ? MoveMessage.CONTENT_TYPE : JSON_CONTENT_TYPE)
+                .header(CompressedBodyHandler.ACCEPT_ENCODING_HEADER, CompressedBodyHandler.ACCEPTED_ENCODINGS);
+
+        if (endpoint.isCached())
+            RESPONSE_CACHE.addConditionalHeaders(builder, cacheKey);
+
+        if (endpoint.isPost())
+            builder.POST(HttpRequest.BodyPublishers.ofByteArray(payload));
+        else
+            builder.GET();
+
+        return builder.build();
+    }
+
+    /**
+     * Gets the URL of the server the requests are sent to.
+     *
+     * @return the URL of the server
+     */
+    public static String getServerUrl() {
+        return serverUrl;
+    }
+
+    /**
+     * Sets the URL of the server the requests are sent to, such as the URL of an embedded test server.
+     *
+     * @param serverUrl the URL of the server, without a trailing slash
+     */
+    public static void setServerUrl(String serverUrl) {
+        ServerRequestHandler.serverUrl = serverUrl;
+    }
+
+    /**
+     * Gets the cache of the responses of the server, shared by all handlers.
+     *
+     * @return the response cache
+     */
+    public static ResponseCache getResponseCache() {
+        return RESPONSE_CACHE;
+    }
+
+    /**
+     * Gets the metrics of the requests to the server, shared by all handlers.
+     *
+     * @return the request metrics
+     */
+    public static RequestMetrics getRequestMetrics() {
+        return REQUEST_METRICS;
+    }
+
     /**
      * Converts the specified game move information into a JSON string representation.
      *
@@ -242,19 +675,124 @@ public class ServerRequestHandler {
      * @return a JSON string representing the game move information
      */
     public String parseIntoJson(GameUser gameUser, int initialSquareNumber, int targetSquareNumber) {
-        // Construct JSON string manually
-        return "{" +
-                "\"gameUser\": {" +
-                "\"userName\": \"" + gameUser.getUserName() + "\"," +
-                "\"token\": \"" + gameUser.getToken() + "\"" +
-                "}," +
-                "\"chessMove\": {" +
-                "\"currentPieceSquare\": " + initialSquareNumber + "," +
-                "\"targetSquare\": " + targetSquareNumber + "," +
-                "\"typeOfPieceToPromoteTo\": \"" + DEFAULT_PROMOTION + "\"" +
-                "}" +
-                "}";
+        return writeMove(gameUser, initialSquareNumber, targetSquareNumber).toString();
     }
 
+    /**
+     * Writes the specified game move information as the JSON payload of a request.
+     *
+     * @param gameUser            the GameUser object representing the user's information
+     * @param initialSquareNumber the square number from which the piece is being moved
+     * @param targetSquareNumber  the square number to which the piece is being moved
+     * @return the UTF-8 bytes of the JSON payload
+     */
+    private byte[] movePayload(GameUser gameUser, int initialSquareNumber, int targetSquareNumber) {
+        return writeMove(gameUser, initialSquareNumber, targetSquareNumber).toByteArray();
+    }
 
+    /**
+     * Writes the specified game move information into the JSON writer of the current thread.
+     *
+     * @param gameUser            the GameUser object representing the user's information
+     * @param initialSquareNumber the square number from which the piece is being moved
+     * @param targetSquareNumber  the square number to which the piece is being moved
+     * @return the writer holding the JSON of the game move
+     */
+    private JsonWriter writeMove(GameUser gameUser, int initialSquareNumber, int targetSquareNumber) {
+        return JsonWriter.acquire()
+                .beginObject()
+                .name("gameUser").beginObject()
+                .field("userName", gameUser.getUserName())
+                .field("token", gameUser.getToken())
+                .endObject()
+                .name("chessMove").beginObject()
+                .field("currentPieceSquare", initialSquareNumber)
+                .field("targetSquare", targetSquareNumber)
+                .field("typeOfPieceToPromoteTo", DEFAULT_PROMOTION)
+                .endObject()
+                .endObject();
+    }
+
+    /**
+     * Writes a game user as the JSON payload of a request.
+     *
+     * @param gameUser the game user
+     * @return the UTF-8 bytes of the JSON payload
+     */
+    private byte[] userPayload(GameUser gameUser) {
+        JsonWriter writer = JsonWriter.acquire();
+        gameUser.writeJson(writer);
+        return writer.toByteArray();
+    }
+
+    /**
+     * A request to an idempotent endpoint that is sent a second time if the server is slower than usual to answer it,
+     * after the 95th percentile of the latency of the endpoint, or right away if the first request fails.
+     * The first response to arrive completes the request, the other one is ignored.
+     * The request completes with null only if both requests failed.
+     */
+    private static class HedgedRequest {
+        private final ServerEndpoint endpoint;
+        private final Supplier<CompletableFuture<ServerResponse>> sender;
+        private final CompletableFuture<ServerResponse> result = new CompletableFuture<>();
+        private int pendingRequests;
+        private boolean hedgeSent;
+
+        /**
+         * Constructs a hedged request.
+         *
+         * @param endpoint the endpoint of the server the request is sent to
+         * @param sender   sends a single request to the endpoint
+         */
+        private HedgedRequest(ServerEndpoint endpoint, Supplier<CompletableFuture<ServerResponse>> sender) {
+            this.endpoint = endpoint;
+            this.sender = sender;
+        }
+
+        /**
+         * Sends the first request, and schedules the hedged request if the latency of the endpoint is known.
+         */
+        private void start() {
+            synchronized (this) {
+                pendingRequests++;
+            }
+            send();
+            long hedgeDelay = endpoint.getLatencyTracker().getHedgeDelayNanos();
+            if (hedgeDelay >= 0)
+                CompletableFuture.delayedExecutor(hedgeDelay, TimeUnit.NANOSECONDS, REQUEST_EXECUTOR)
+                        .execute(this::hedge);
+        }
+
+        /**
+         * Sends the hedged request, unless the request has already completed or was already hedged.
+         */
+        private void hedge() {
+            synchronized (this) {
+                if (hedgeSent || result.isDone())
+                    return;
+                hedgeSent = true;
+                pendingRequests++;
+            }
+            endpoint.getLatencyTracker().recordHedgedRequest();
+            send();
+        }
+
+        /**
+         * Sends a single request, already counted as pending, and completes the hedged request with its response.
+         * A failed request sends the hedged request right away, if it has not been sent yet.
+         */
+        private void send() {
+            sender.get().thenAccept(response -> {
+                if (response == null)
+                    hedge();
+
+                synchronized (this) {
+                    pendingRequests--;
+                    if (response == null && pendingRequests > 0)
+                        return;
+                }
+                result.complete(response);
+            });
+        }
+    }
 }
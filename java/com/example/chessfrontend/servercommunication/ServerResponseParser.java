@@ -0,0 +1,381 @@
+package com.example.chessfrontend.servercommunication;
+
+import com.example.chessfrontend.modulus.GameRecord;
+import com.example.chessfrontend.modulus.GameUser;
+
+import java.util.Arrays;
+
+/**
+ * A streaming parser of the responses of the server, that binds the objects in a response directly into
+ * GameUser and GameRecord arrays in a single pass.
+ * Accepts JSON objects, such as {"userName":"a","rating":1200}, and the toString format of the server entities,
+ * such as GameUser{userName='a', rating=1200}, so the client keeps working whichever of them the server sends.
+ * Keys are matched in place, without creating strings for them, and unknown keys are skipped.
+ * Malformed input is not an error, parsing stops and the objects parsed until then are returned.
+ */
+public class ServerResponseParser {
+
+    // Keys of the fields of the entities
+    private static final String USER_NAME_KEY = "userName";
+    private static final String RATING_KEY = "rating";
+    private static final String GAME_ID_KEY = "gameID";
+    private static final String WHITE_USER_NAME_KEY = "whiteUserName";
+    private static final String BLACK_USER_NAME_KEY = "blackUserName";
+    private static final String WINNER_NAME_KEY = "winnerName";
+    private static final String WHITE_PLAYER_RATING_KEY = "whitePlayerRating";
+    private static final String BLACK_PLAYER_RATING_KEY = "blackPlayerRating";
+
+    private static final String[] GAME_USER_STRING_KEYS = {USER_NAME_KEY};
+    private static final String[] GAME_USER_INT_KEYS = {RATING_KEY};
+    private static final String[] GAME_RECORD_STRING_KEYS = {WHITE_USER_NAME_KEY, BLACK_USER_NAME_KEY, WINNER_NAME_KEY};
+    private static final String[] GAME_RECORD_INT_KEYS = {GAME_ID_KEY, WHITE_PLAYER_RATING_KEY,
+            BLACK_PLAYER_RATING_KEY};
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int NOT_FOUND = -1;
+    private static final int UNICODE_ESCAPE_LENGTH = 4;
+    private static final int HEX_RADIX = 16;
+
+    private final String input;
+    private int position;
+
+    /**
+     * Constructs a parser of a response.
+     *
+     * @param input The response to parse.
+     */
+    private ServerResponseParser(String input) {
+        this.input = input;
+    }
+
+    /**
+     * Parses the game users in a response, such as the leaderboard or the players of a match.
+     *
+     * @param input The response to parse.
+     * @return The game users in the response, in their order.
+     */
+    public static GameUser[] parseGameUsers(String input) {
+        ServerResponseParser parser = new ServerResponseParser(input);
+        String[] stringValues = new String[GAME_USER_STRING_KEYS.length];
+        int[] intValues = new int[GAME_USER_INT_KEYS.length];
+        GameUser[] gameUsers = new GameUser[INITIAL_CAPACITY];
+        int count = 0;
+
+        while (parser.readObject(GAME_USER_STRING_KEYS, stringValues, GAME_USER_INT_KEYS, intValues)) {
+            if (count == gameUsers.length)
+                gameUsers = Arrays.copyOf(gameUsers, count * 2);
+            gameUsers[count++] = new GameUser(stringValues[0], intValues[0]);
+        }
+        return Arrays.copyOf(gameUsers, count);
+    }
+
+    /**
+     * Parses a single game user from a response, such as the player found by a search.
+     *
+     * @param input The response to parse.
+     * @return The first game user in the response.
+     * @throws IllegalArgumentException If there is no game user in the response.
+     */
+    public static GameUser parseGameUser(String input) {
+        ServerResponseParser parser = new ServerResponseParser(input);
+        String[] stringValues = new String[GAME_USER_STRING_KEYS.length];
+        int[] intValues = new int[GAME_USER_INT_KEYS.length];
+
+        if (!parser.readObject(GAME_USER_STRING_KEYS, stringValues, GAME_USER_INT_KEYS, intValues)
+                || stringValues[0] == null)
+            throw new IllegalArgumentException("Invalid input string: " + input);
+        return new GameUser(stringValues[0], intValues[0]);
+    }
+
+    /**
+     * Parses the game records in a response, such as the match history of a player.
+     *
+     * @param input The response to parse.
+     * @return The game records in the response, in their order.
+     */
+    public static GameRecord[] parseGameRecords(String input) {
+        ServerResponseParser parser = new ServerResponseParser(input);
+        String[] stringValues = new String[GAME_RECORD_STRING_KEYS.length];
+        int[] intValues = new int[GAME_RECORD_INT_KEYS.length];
+        GameRecord[] gameRecords = new GameRecord[INITIAL_CAPACITY];
+        int count = 0;
+
+        while (parser.readObject(GAME_RECORD_STRING_KEYS, stringValues, GAME_RECORD_INT_KEYS, intValues)) {
+            if (count == gameRecords.length)
+                gameRecords = Arrays.copyOf(gameRecords, count * 2);
+            gameRecords[count++] = new GameRecord(stringValues[0], stringValues[1], intValues[1], intValues[2],
+                    stringValues[2], intValues[0]);
+        }
+        return Arrays.copyOf(gameRecords, count);
+    }
+
+    /**
+     * Parses the packed moves in a response, such as the moves of a game the client missed,
+     * sent as a list of numbers like [1739, -31997].
+     *
+     * @param input The response to parse.
+     * @return The packed moves in the response, in their order.
+     */
+    public static short[] parsePackedMoves(String input) {
+        short[] packedMoves = new short[INITIAL_CAPACITY];
+        int count = 0;
+
+        int position = 0;
+        while (position < input.length()) {
+            char c = input.charAt(position);
+            if (c != '-' && (c < '0' || c > '9')) {
+                position++;
+                continue;
+            }
+
+            int end = position + 1;
+            while (end < input.length() && input.charAt(end) >= '0' && input.charAt(end) <= '9')
+                end++;
+            try {
+                if (count == packedMoves.length)
+                    packedMoves = Arrays.copyOf(packedMoves, count * 2);
+                packedMoves[count] = (short) Integer.parseInt(input, position, end, 10);
+                count++;
+            } catch (NumberFormatException e) {
+                // a lone minus sign, parsing stops like it does on other malformed input
+                break;
+            }
+            position = end;
+        }
+        return Arrays.copyOf(packedMoves, count);
+    }
+
+    /**
+     * Reads the next object in the input, binding the values of the wanted keys.
+     * Values of keys that are not wanted are skipped.
+     *
+     * @param stringKeys   The keys whose values are strings.
+     * @param stringValues The values of the string keys, null for keys missing from the object.
+     * @param intKeys      The keys whose values are integers.
+     * @param intValues    The values of the integer keys, 0 for keys missing from the object.
+     * @return True if an object was read, false if the input ended.
+     */
+    private boolean readObject(String[] stringKeys, String[] stringValues, String[] intKeys, int[] intValues) {
+        Arrays.fill(stringValues, null);
+        Arrays.fill(intValues, 0);
+
+        // skip anything before the object, such as the brackets of a list or the type name of an entity
+        position = input.indexOf('{', position);
+        if (position == NOT_FOUND) {
+            position = input.length();
+            return false;
+        }
+        position++;
+
+        while (true) {
+            skipWhitespaceAndCommas();
+            if (position >= input.length())
+                return false;
+            if (input.charAt(position) == '}') {
+                position++;
+                return true;
+            }
+
+            // read the key in place, and find out which of the wanted keys it is
+            int keyStart = position, keyEnd;
+            char quote = input.charAt(position);
+            if (quote == '"' || quote == '\'') {
+                keyStart++;
+                keyEnd = input.indexOf(quote, keyStart);
+                if (keyEnd == NOT_FOUND)
+                    return false;
+                position = keyEnd + 1;
+            } else {
+                while (position < input.length() && isBareChar(input.charAt(position)))
+                    position++;
+                keyEnd = position;
+            }
+
+            // skip the separator between the key and the value, ':' in JSON and '=' in the toString format
+            skipWhitespace();
+            if (position >= input.length() || (input.charAt(position) != ':' && input.charAt(position) != '='))
+                return false;
+            position++;
+            skipWhitespace();
+            if (position >= input.length())
+                return false;
+
+            int stringKeyIndex = indexOfKey(stringKeys, keyStart, keyEnd);
+            int intKeyIndex = indexOfKey(intKeys, keyStart, keyEnd);
+            if (stringKeyIndex != NOT_FOUND)
+                stringValues[stringKeyIndex] = readString();
+            else if (intKeyIndex != NOT_FOUND)
+                intValues[intKeyIndex] = readInt();
+            else
+                skipValue();
+        }
+    }
+
+    /**
+     * Finds which of the wanted keys is at a region of the input.
+     *
+     * @param keys     The wanted keys.
+     * @param keyStart The start of the key in the input.
+     * @param keyEnd   The end of the key in the input, exclusive.
+     * @return The index of the key, or NOT_FOUND if it is not one of the wanted keys.
+     */
+    private int indexOfKey(String[] keys, int keyStart, int keyEnd) {
+        for (int i = 0; i < keys.length; i++)
+            if (keys[i].length() == keyEnd - keyStart && input.regionMatches(keyStart, keys[i], 0, keys[i].length()))
+                return i;
+        return NOT_FOUND;
+    }
+
+    /**
+     * Reads a string value. Quoted values may use double quotes, with JSON escapes, or single quotes.
+     * Bare values, such as null, are read as they are, and null is read as null.
+     *
+     * @return The string value.
+     */
+    private String readString() {
+        char quote = input.charAt(position);
+        if (quote == '\'') {
+            int end = input.indexOf('\'', position + 1);
+            if (end == NOT_FOUND)
+                end = input.length();
+            String value = input.substring(position + 1, end);
+            position = Math.min(end + 1, input.length());
+            return value;
+        }
+
+        if (quote != '"') {
+            int start = position;
+            while (position < input.length() && isBareChar(input.charAt(position)))
+                position++;
+            String value = input.substring(start, position);
+            return "null".equals(value) ? null : value;
+        }
+
+        // double quoted string, only copied through a builder if it has escapes
+        int start = ++position;
+        while (position < input.length() && input.charAt(position) != '"' && input.charAt(position) != '\\')
+            position++;
+        if (position >= input.length() || input.charAt(position) == '"') {
+            String value = input.substring(start, position);
+            position = Math.min(position + 1, input.length());
+            return value;
+        }
+
+        StringBuilder builder = new StringBuilder(input.length() - start).append(input, start, position);
+        while (position < input.length() && input.charAt(position) != '"') {
+            char c = input.charAt(position++);
+            if (c != '\\' || position >= input.length()) {
+                builder.append(c);
+                continue;
+            }
+
+            char escaped = input.charAt(position++);
+            switch (escaped) {
+                case 'b' -> builder.append('\b');
+                case 'f' -> builder.append('\f');
+                case 'n' -> builder.append('\n');
+                case 'r' -> builder.append('\r');
+                case 't' -> builder.append('\t');
+                case 'u' -> {
+                    if (position + UNICODE_ESCAPE_LENGTH > input.length())
+                        return builder.toString();
+                    builder.append((char) Integer.parseInt(input, position, position + UNICODE_ESCAPE_LENGTH,
+                            HEX_RADIX));
+                    position += UNICODE_ESCAPE_LENGTH;
+                }
+                default -> builder.append(escaped);
+            }
+        }
+        position = Math.min(position + 1, input.length());
+        return builder.toString();
+    }
+
+    /**
+     * Reads an integer value in place, quoted or not. Anything after the digits of the value is skipped.
+     *
+     * @return The integer value, 0 if the value is not a number.
+     */
+    private int readInt() {
+        char quote = input.charAt(position);
+        boolean quoted = quote == '"' || quote == '\'';
+        if (quoted)
+            position++;
+
+        boolean negative = position < input.length() && input.charAt(position) == '-';
+        if (negative)
+            position++;
+
+        int value = 0;
+        while (position < input.length() && Character.isDigit(input.charAt(position)))
+            value = value * 10 + (input.charAt(position++) - '0');
+
+        if (quoted) {
+            int end = input.indexOf(quote, position);
+            position = end == NOT_FOUND ? input.length() : end + 1;
+        } else {
+            skipValue();
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Skips a value of a key that is not wanted, including nested objects and lists.
+     */
+    private void skipValue() {
+        int depth = 0;
+        while (position < input.length()) {
+            char c = input.charAt(position);
+            if (c == '"' || c == '\'') {
+                readString();
+                continue;
+            }
+            if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                if (depth == 0)
+                    return;
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                return;
+            }
+            position++;
+        }
+    }
+
+    /**
+     * Skips whitespace.
+     */
+    private void skipWhitespace() {
+        while (position < input.length() && isWhitespace(input.charAt(position)))
+            position++;
+    }
+
+    /**
+     * Skips whitespace and the commas between the fields of an object.
+     */
+    private void skipWhitespaceAndCommas() {
+        while (position < input.length()
+                && (isWhitespace(input.charAt(position)) || input.charAt(position) == ','))
+            position++;
+    }
+
+    /**
+     * Returns if a character is whitespace, as JSON defines it, treating any other control character the same.
+     *
+     * @param c The character.
+     * @return True if the character is whitespace.
+     */
+    private static boolean isWhitespace(char c) {
+        return c <= ' ';
+    }
+
+    /**
+     * Returns if a character can be a part of a bare key or value, one that is not quoted.
+     *
+     * @param c The character.
+     * @return True if the character is a part of a bare key or value.
+     */
+    private static boolean isBareChar(char c) {
+        return c != ':' && c != '=' && c != ',' && c != '}' && c != ']' && !isWhitespace(c);
+    }
+}
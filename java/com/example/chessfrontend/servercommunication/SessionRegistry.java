@@ -0,0 +1,107 @@
+package com.example.chessfrontend.servercommunication;
+
+import java.rmi.NotBoundException;
+import java.rmi.RemoteException;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The RMI registry of the process, shared by all its sessions, that the server looks up the GamePlayService
+ * of a user in by the user's token. A process can host many sessions, each binding its servant under its token.
+ * The servants exported with the same socket factory share a single listening port and the connections
+ * of the server, and RMI dispatches each call to the servant it was made on.
+ * <p>
+ * The registry is created on GamePlayService.PORT the first time it is needed. If another process on the machine
+ * already created it, the sessions bind their servants in that registry.
+ */
+public class SessionRegistry {
+    private static SessionRegistry shared;
+
+    private final Registry registry;
+    private final Map<String, GamePlayService> servantsByToken = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a session registry over an RMI registry.
+     *
+     * @param registry The RMI registry.
+     */
+    private SessionRegistry(Registry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Gets the registry of the process, creating it the first time.
+     *
+     * @return The shared registry.
+     * @throws RemoteException If the registry could not be created nor found.
+     */
+    public static synchronized SessionRegistry getShared() throws RemoteException {
+        if (shared == null)
+            shared = new SessionRegistry(createOrLocateRegistry());
+        return shared;
+    }
+
+    /**
+     * Creates the RMI registry on GamePlayService.PORT, or locates it if it already runs on this machine.
+     *
+     * @return The RMI registry.
+     * @throws RemoteException If the registry could not be created nor found.
+     */
+    private static Registry createOrLocateRegistry() throws RemoteException {
+        try {
+            return LocateRegistry.createRegistry(GamePlayService.PORT);
+        } catch (RemoteException e) {
+            // the registry already runs in another process on this machine
+            return LocateRegistry.getRegistry(GamePlayService.PORT);
+        }
+    }
+
+    /**
+     * Binds the servant of a session under the token of its user, replacing the servant bound to it before.
+     * The servant must be exported already.
+     *
+     * @param token   The token of the user.
+     * @param servant The servant.
+     * @throws RemoteException If the servant could not be bound.
+     */
+    public void bind(String token, GamePlayService servant) throws RemoteException {
+        registry.rebind(token, servant);
+        servantsByToken.put(token, servant);
+    }
+
+    /**
+     * Unbinds the servant of a session, such as when its user logs out or its player is done.
+     *
+     * @param token The token of the user.
+     */
+    public void unbind(String token) {
+        if (servantsByToken.remove(token) == null)
+            return;
+        try {
+            registry.unbind(token);
+        } catch (NotBoundException | RemoteException e) {
+            // the servant is not reachable anyway
+        }
+    }
+
+    /**
+     * Gets the servant of a session of this process.
+     *
+     * @param token The token of the user.
+     * @return The servant, or null if no session of this process bound a servant under the token.
+     */
+    public GamePlayService getServant(String token) {
+        return servantsByToken.get(token);
+    }
+
+    /**
+     * Gets the number of sessions whose servants are bound by this process.
+     *
+     * @return The number of sessions.
+     */
+    public int getSessionCount() {
+        return servantsByToken.size();
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.chessfrontend.testserver;
+
+import com.example.chessfrontend.modulus.GameUser;
+import com.example.chessfrontend.servercommunication.CompressedBodyHandler;
+import com.example.chessfrontend.servercommunication.ServerRequestHandler;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A local test server for the compressed transport.
+ * Serves canned leaderboard and match history responses, the bulk endpoints of the server,
+ * compressed by the Accept-Encoding of the request, and measures the bytes sent on the wire per endpoint.
+ * Running it sends requests to it through ServerRequestHandler and prints the bytes per endpoint.
+ */
+public class CompressionTestServer {
+    public static final int DEFAULT_PORT = 8080;
+
+    private static final String TOP_100_PATH = "/user/get-top100";
+    private static final String MATCH_HISTORY_PATH = "/game/online/match-history100";
+    private static final int RECORDS = 100;
+    private static final int MIN_COMPRESSED_BYTES = 1024;
+    private static final int HTTP_OK = 200;
+    private static final int REQUESTS_PER_ENDPOINT = 20;
+
+    private final HttpServer server;
+    private final WireStats wireStats = new WireStats();
+    private volatile boolean compressionEnabled = true;
+
+    /**
+     * Constructs a test server listening on a port.
+     *
+     * @param port The port to listen on.
+     * @throws IOException If the server could not bind the port.
+     */
+    public CompressionTestServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        byte[] top100 = createTop100().getBytes(StandardCharsets.UTF_8);
+        byte[] matchHistory = createMatchHistory().getBytes(StandardCharsets.UTF_8);
+        server.createContext(TOP_100_PATH, exchange -> respond(exchange, top100));
+        server.createContext(MATCH_HISTORY_PATH, exchange -> respond(exchange, matchHistory));
+    }
+
+    /**
+     * Starts the server.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops the server.
+     */
+    public void stop() {
+        server.stop(0);
+    }
+
+    /**
+     * Sets if the server compresses its responses, when the client accepts it.
+     *
+     * @param compressionEnabled True to compress the responses.
+     */
+    public void setCompressionEnabled(boolean compressionEnabled) {
+        this.compressionEnabled = compressionEnabled;
+    }
+
+    /**
+     * Gets the bytes sent per endpoint.
+     *
+     * @return The wire stats of the server.
+     */
+    public WireStats getWireStats() {
+        return wireStats;
+    }
+
+    /**
+     * Sends a response, compressed with the first encoding the client accepts, if it is big enough to be worth it.
+     *
+     * @param exchange The exchange of the request.
+     * @param body     The body of the response.
+     * @throws IOException If the response could not be sent.
+     */
+    private void respond(HttpExchange exchange, byte[] body) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        String acceptEncoding = exchange.getRequestHeaders().getFirst(CompressedBodyHandler.ACCEPT_ENCODING_HEADER);
+        String encoding = null;
+        if (compressionEnabled && acceptEncoding != null && body.length >= MIN_COMPRESSED_BYTES) {
+            if (acceptEncoding.contains(CompressedBodyHandler.GZIP))
+                encoding = CompressedBodyHandler.GZIP;
+            else if (acceptEncoding.contains(CompressedBodyHandler.DEFLATE))
+                encoding = CompressedBodyHandler.DEFLATE;
+        }
+
+        byte[] wireBody = encoding == null ? body : compress(body, encoding);
+        if (encoding != null)
+            exchange.getResponseHeaders().set(CompressedBodyHandler.CONTENT_ENCODING_HEADER, encoding);
+        exchange.sendResponseHeaders(HTTP_OK, wireBody.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(wireBody);
+        }
+        wireStats.record(exchange.getHttpContext().getPath(), body.length, wireBody.length);
+    }
+
+    /**
+     * Compresses a body.
+     *
+     * @param body     The body.
+     * @param encoding The encoding, gzip or deflate.
+     * @return The compressed body.
+     * @throws IOException If the body could not be compressed.
+     */
+    private static byte[] compress(byte[] body, String encoding) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+        try (OutputStream outputStream = CompressedBodyHandler.GZIP.equals(encoding)
+                ? new GZIPOutputStream(compressed) : new DeflaterOutputStream(compressed)) {
+            outputStream.write(body);
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Creates a leaderboard response, in the format the server sends it.
+     *
+     * @return The leaderboard response.
+     */
+    private static String createTop100() {
+        StringBuilder response = new StringBuilder("[");
+        for (int i = 0; i < RECORDS; i++)
+            response.append(i == 0 ? "" : ", ").append("GameUser{userName='player").append(i)
+                    .append("', rating=").append(3000 - i * 7).append('}');
+        return response.append(']').toString();
+    }
+
+    /**
+     * Creates a match history response, in the format the server sends it.
+     *
+     * @return The match history response.
+     */
+    private static String createMatchHistory() {
+        StringBuilder response = new StringBuilder("[");
+        for (int i = 0; i < RECORDS; i++)
+            response.append(i == 0 ? "" : ", ").append("OnlineChessGame{gameID=").append(1000 + i)
+                    .append(", whiteUserName='player").append(i % 7).append("', blackUserName='player")
+                    .append(i % 11).append("', winnerName='player").append(i % 7).append("', whitePlayerRating=")
+                    .append(1200 + i).append(", blackPlayerRating=").append(1300 - i).append('}');
+        return response.append(']').toString();
+    }
+
+    /**
+     * Runs the test server, requests the bulk endpoints with and without compression,
+     * and prints the bytes sent on the wire per endpoint.
+     *
+     * @param args The port to listen on, optional.
+     * @throws IOException If the server could not bind the port.
+     */
+    public static void main(String[] args) throws IOException {
+        CompressionTestServer testServer = new CompressionTestServer(args.length > 0
+                ? Integer.parseInt(args[0]) : DEFAULT_PORT);
+        testServer.start();
+        ServerRequestHandler.setServerUrl("http://localhost:" + testServer.server.getAddress().getPort());
+        ServerRequestHandler serverRequestHandler = new ServerRequestHandler();
+        GameUser gameUser = new GameUser("player1", 1200);
+
+        try {
+            for (boolean compression : new boolean[]{false, true}) {
+                testServer.setCompressionEnabled(compression);
+                testServer.getWireStats().reset();
+                ServerRequestHandler.getResponseCache().invalidateAll();
+                for (int i = 0; i < REQUESTS_PER_ENDPOINT; i++) {
+                    // bypass the response cache, so every request reaches the server
+                    ServerRequestHandler.getResponseCache().invalidateAll();
+                    serverRequestHandler.getTop100Players();
+                    serverRequestHandler.getMatchHistory(gameUser);
+                }
+                System.out.println("compression " + (compression ? "on" : "off"));
+                System.out.print(testServer.getWireStats());
+            }
+        } finally {
+            testServer.stop();
+        }
+    }
+}
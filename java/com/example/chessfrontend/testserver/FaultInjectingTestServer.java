@@ -0,0 +1,210 @@
+package com.example.chessfrontend.testserver;
+
+import com.example.chessfrontend.ServerResponse;
+import com.example.chessfrontend.servercommunication.ServerEndpoint;
+import com.example.chessfrontend.servercommunication.ServerRequestHandler;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A local test server that injects faults into the idempotent endpoints of the server,
+ * the leaderboard and the players of a match.
+ * Most responses are fast, some are slow, some stall for longer than any adaptive timeout,
+ * and some connections are dropped without a response.
+ * Running it sends requests to it through ServerRequestHandler, with and without hedged requests,
+ * and prints the latency the client observed and the faults it recovered from.
+ */
+public class FaultInjectingTestServer {
+    public static final int DEFAULT_PORT = 8080;
+
+    private static final String TOP_100_PATH = "/user/get-top100";
+    private static final String MATCH_PLAYERS_PATH = "/game/online/get-players/";
+    private static final String PLAYERS_RESPONSE = "[GameUser{userName='player1', rating=1500}, "
+            + "GameUser{userName='player2', rating=1400}]";
+    private static final int HTTP_OK = 200;
+
+    // Faults injected by default, the probabilities are of a single request
+    private static final long BASE_DELAY_MILLISECOND = 5;
+    private static final long SLOW_DELAY_MILLISECOND = 400;
+    private static final long STALL_DELAY_MILLISECOND = 30 * 1000;
+    private static final double SLOW_PROBABILITY = 0.05;
+    private static final double STALL_PROBABILITY = 0.01;
+    private static final double DROP_PROBABILITY = 0.02;
+
+    private static final int WARM_UP_REQUESTS = 50;
+    private static final int MEASURED_REQUESTS = 300;
+    private static final double NANOS_PER_MILLISECOND = 1_000_000.0;
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private volatile double slowProbability = SLOW_PROBABILITY;
+    private volatile double stallProbability = STALL_PROBABILITY;
+    private volatile double dropProbability = DROP_PROBABILITY;
+
+    /**
+     * Constructs a test server listening on a port.
+     *
+     * @param port The port to listen on.
+     * @throws IOException If the server could not bind the port.
+     */
+    public FaultInjectingTestServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        // every exchange on its own thread, so a slow response doesn't hold back the others
+        server.setExecutor(executor);
+        byte[] players = PLAYERS_RESPONSE.getBytes(StandardCharsets.UTF_8);
+        server.createContext(TOP_100_PATH, exchange -> respond(exchange, players));
+        server.createContext(MATCH_PLAYERS_PATH, exchange -> respond(exchange, players));
+    }
+
+    /**
+     * Starts the server.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops the server.
+     */
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Sets the probabilities of the faults injected into a request.
+     *
+     * @param slowProbability  The probability of a slow response.
+     * @param stallProbability The probability of a response that takes longer than any timeout.
+     * @param dropProbability  The probability of a connection dropped without a response.
+     */
+    public void setFaultProbabilities(double slowProbability, double stallProbability, double dropProbability) {
+        this.slowProbability = slowProbability;
+        this.stallProbability = stallProbability;
+        this.dropProbability = dropProbability;
+    }
+
+    /**
+     * Sends a response, after injecting a fault into it by chance.
+     *
+     * @param exchange The exchange of the request.
+     * @param body     The body of the response.
+     * @throws IOException If the response could not be sent.
+     */
+    private void respond(HttpExchange exchange, byte[] body) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        double fault = ThreadLocalRandom.current().nextDouble();
+
+        if (fault < dropProbability) {
+            exchange.close();
+            return;
+        }
+
+        long delay = BASE_DELAY_MILLISECOND;
+        if (fault < dropProbability + stallProbability)
+            delay = STALL_DELAY_MILLISECOND;
+        else if (fault < dropProbability + stallProbability + slowProbability)
+            delay = SLOW_DELAY_MILLISECOND;
+
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            exchange.close();
+            return;
+        }
+
+        exchange.sendResponseHeaders(HTTP_OK, body.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(body);
+        } catch (IOException e) {
+            // the client gave up on the request, or got the response of its hedged request first
+        }
+    }
+
+    /**
+     * Sends requests to the endpoints of the test server and prints the latency the client observed.
+     *
+     * @param name                 The name of the run.
+     * @param serverRequestHandler The handler that sends the requests.
+     */
+    private static void runRequests(String name, ServerRequestHandler serverRequestHandler) {
+        for (int i = 0; i < WARM_UP_REQUESTS; i++) {
+            serverRequestHandler.getTop100Players();
+            serverRequestHandler.getPlayerOfMatch(i);
+        }
+
+        long hedgedRequestsBefore = ServerEndpoint.GET_TOP_100.getLatencyTracker().getHedgedRequests()
+                + ServerEndpoint.GET_MATCH_PLAYERS.getLatencyTracker().getHedgedRequests();
+        long[] latencies = new long[2 * MEASURED_REQUESTS];
+        int failures = 0;
+        for (int i = 0; i < MEASURED_REQUESTS; i++) {
+            long startTime = System.nanoTime();
+            ServerResponse top100 = serverRequestHandler.getTop100Players();
+            latencies[2 * i] = System.nanoTime() - startTime;
+
+            startTime = System.nanoTime();
+            ServerResponse matchPlayers = serverRequestHandler.getPlayerOfMatch(i);
+            latencies[2 * i + 1] = System.nanoTime() - startTime;
+
+            failures += (top100 == null ? 1 : 0) + (matchPlayers == null ? 1 : 0);
+        }
+        long hedgedRequests = ServerEndpoint.GET_TOP_100.getLatencyTracker().getHedgedRequests()
+                + ServerEndpoint.GET_MATCH_PLAYERS.getLatencyTracker().getHedgedRequests() - hedgedRequestsBefore;
+
+        Arrays.sort(latencies);
+        System.out.printf("%s: requests=%d failed=%d hedged=%d p50=%.1fms p95=%.1fms p99=%.1fms max=%.1fms "
+                        + "timeout=%dms%n", name, latencies.length, failures, hedgedRequests,
+                percentileMillis(latencies, 50), percentileMillis(latencies, 95), percentileMillis(latencies, 99),
+                latencies[latencies.length - 1] / NANOS_PER_MILLISECOND,
+                ServerEndpoint.GET_TOP_100.getRequestTimeout().toMillis());
+    }
+
+    /**
+     * Gets a percentile of sorted latencies.
+     *
+     * @param sortedLatencies The latencies in nanoseconds, sorted.
+     * @param percentile      The percentile, between 0 and 100.
+     * @return The latency at the percentile in milliseconds.
+     */
+    private static double percentileMillis(long[] sortedLatencies, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(0, index)] / NANOS_PER_MILLISECOND;
+    }
+
+    /**
+     * Runs the test server, requests its endpoints with and without hedged requests,
+     * and prints the latency the client observed.
+     *
+     * @param args The port to listen on, optional.
+     * @throws IOException If the server could not bind the port.
+     */
+    public static void main(String[] args) throws IOException {
+        FaultInjectingTestServer testServer = new FaultInjectingTestServer(args.length > 0
+                ? Integer.parseInt(args[0]) : DEFAULT_PORT);
+        testServer.start();
+        ServerRequestHandler.setServerUrl("http://localhost:" + testServer.server.getAddress().getPort());
+        ServerRequestHandler serverRequestHandler = new ServerRequestHandler();
+        // every request has to reach the server
+        ServerEndpoint.GET_TOP_100.setCacheTtl(Duration.ZERO);
+
+        try {
+            for (boolean hedged : new boolean[]{false, true}) {
+                ServerEndpoint.GET_TOP_100.setHedged(hedged);
+                ServerEndpoint.GET_MATCH_PLAYERS.setHedged(hedged);
+                runRequests("hedging " + (hedged ? "on" : "off"), serverRequestHandler);
+            }
+        } finally {
+            testServer.stop();
+        }
+    }
+}
@@ -0,0 +1,1100 @@
+package com.example.chessfrontend.testserver;
+
+import com.example.chessfrontend.modulus.ChessGame;
+import com.example.chessfrontend.modulus.ChessMove;
+import com.example.chessfrontend.modulus.gamelogic.GameLogicUtilities;
+import com.example.chessfrontend.modulus.gamelogic.PackedPosition;
+import com.example.chessfrontend.servercommunication.GamePlayService;
+import com.example.chessfrontend.servercommunication.MoveMessage;
+import com.example.chessfrontend.servercommunication.PositionMessage;
+import com.example.chessfrontend.servercommunication.PushChannel;
+import com.example.chessfrontend.servercommunication.PushFrame;
+import com.example.chessfrontend.servercommunication.ServerRequestHandler;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.rmi.NotBoundException;
+import java.rmi.RemoteException;
+import java.rmi.registry.LocateRegistry;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An embeddable stand-in for the chess server, so the client can be run and measured without a backend.
+ * Implements the /user, /matchmaking and /game/online endpoints over com.sun.net.httpserver,
+ * keeping the accounts, the games and the match history in memory.
+ * Submitted moves are validated by playing them on a ChessGame of the match, and pushed to the opponent
+ * through the push channel of the opponent if it is connected to the embedded MockPushServer,
+ * or otherwise through the GamePlayService the opponent bound in its RMI registry, the same as the real server does.
+ * Every response can be delayed by an injected latency, to test the client under slow networks.
+ * <p>
+ * Users connected to the push server can watch games. A spectator who joins gets the last keyframe of the game,
+ * a packed position refreshed every few plies, with the moves played after it, and then every move as it is played,
+ * broadcast to all the spectators of the game as one shared frame.
+ * <p>
+ * To embed it, start it on a free port and point the client at it:
+ * <pre>
+ * MockGameServer server = new MockGameServer(0);
+ * server.start();
+ * ServerRequestHandler.setServerUrl(server.getUrl());
+ * </pre>
+ */
+public class MockGameServer {
+    public static final int DEFAULT_PORT = 8080;
+
+    // Paths of the endpoints, the same as ServerEndpoint
+    private static final String LOGIN_PATH = "/user/login";
+    private static final String CREATE_ACCOUNT_PATH = "/user/create";
+    private static final String TOP_100_PATH = "/user/get-top100";
+    private static final String FIND_PLAYER_PATH = "/user/get-user";
+    private static final String FIND_MATCH_PATH = "/matchmaking/find-match";
+    private static final String JOIN_INVITATION_PATH = "/matchmaking/join-invention/";
+    private static final String CREATE_INVITATION_PATH = "/matchmaking/create-invention";
+    private static final String CANCEL_INVITATION_PATH = "/matchmaking/cancel-invention";
+    private static final String SUBMIT_MOVE_PATH = "/game/online/submit-move/";
+    private static final String SUBMIT_MOVE_BINARY_PATH = "/game/online/submit-move-binary/";
+    private static final String GET_PLAYERS_PATH = "/game/online/get-players/";
+    private static final String GET_MOVES_PATH = "/game/online/get-moves/";
+    private static final String RESIGN_PATH = "/game/online/resign/";
+    private static final String MATCH_HISTORY_PATH = "/game/online/match-history100";
+
+    // Keys of the fields of the payloads
+    private static final String USER_NAME_KEY = "userName";
+    private static final String EMAIL_KEY = "email";
+    private static final String PASSWORD_KEY = "password";
+    private static final String RATING_KEY = "rating";
+    private static final String TOKEN_KEY = "token";
+    private static final String CURRENT_SQUARE_KEY = "currentPieceSquare";
+    private static final String TARGET_SQUARE_KEY = "targetSquare";
+    private static final String PROMOTION_KEY = "typeOfPieceToPromoteTo";
+
+    // HTTP status codes
+    private static final int HTTP_OK = 200;
+    private static final int HTTP_BAD_REQUEST = 400;
+    private static final int HTTP_UNAUTHORIZED = 401;
+    private static final int HTTP_NOT_FOUND = 404;
+    private static final int HTTP_REQUEST_TIMEOUT = 408;
+    private static final int HTTP_CONFLICT = 409;
+    private static final String CONTENT_TYPE_HEADER = "Content-Type";
+    private static final String TEXT_CONTENT_TYPE = "text/plain; charset=UTF-8";
+
+    // Messages
+    private static final String OK_TEXT = "OK";
+    private static final String WRONG_LOGIN_TEXT = "Wrong user name or password";
+    private static final String USER_EXISTS_TEXT = "User name already exists";
+    private static final String MISSING_FIELDS_TEXT = "Missing fields";
+    private static final String PLAYER_NOT_FOUND_TEXT = "Player not found";
+    private static final String UNAUTHORIZED_TEXT = "Invalid token";
+    private static final String NO_OPPONENT_TEXT = "No opponent was found";
+    private static final String INVITATION_NOT_FOUND_TEXT = "Invitation not found";
+    private static final String GAME_NOT_FOUND_TEXT = "Game not found";
+    private static final String GAME_OVER_TEXT = "The game is over";
+    private static final String NOT_YOUR_TURN_TEXT = "It is not your turn";
+    private static final String ILLEGAL_MOVE_TEXT = "Illegal move";
+
+    private static final int DEFAULT_RATING = 1200;
+    private static final int TOP_PLAYERS = 100;
+    private static final int MATCH_HISTORY_SIZE = 100;
+    private static final int FIRST_GAME_ID = 1000;
+    private static final int MIN_INVITATION_CODE = 100_000;
+    private static final int MAX_INVITATION_CODE = 1_000_000;
+    private static final long MATCHMAKING_TIMEOUT_MILLISECOND = 15 * 1000;
+    private static final String RMI_HOST = "localhost";
+    private static final String PUSH_THREAD_NAME = "mock-server-push";
+    // the keyframe a spectator joins from is refreshed every this many plies, so few moves follow it
+    private static final int KEYFRAME_PLIES = 16;
+
+    private final HttpServer server;
+    private final MockPushServer pushServer;
+    private final ExecutorService requestExecutor = Executors.newCachedThreadPool();
+    // a single thread, so the pushes to a client arrive in the order the moves were played
+    private final ExecutorService pushExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, PUSH_THREAD_NAME);
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Map<String, Account> accountsByName = new ConcurrentHashMap<>();
+    private final Map<String, Account> accountsByToken = new ConcurrentHashMap<>();
+    private final Map<Integer, OnlineGame> games = new ConcurrentHashMap<>();
+    private final Map<Integer, Account> invitations = new ConcurrentHashMap<>();
+    private final List<OnlineGame> finishedGames = new ArrayList<>();
+    private final Map<String, GamePlayService> clients = new ConcurrentHashMap<>();
+    private final AtomicInteger nextGameID = new AtomicInteger(FIRST_GAME_ID);
+    private final Object matchmakingLock = new Object();
+    private Account waitingPlayer;
+    private CompletableFuture<Integer> waitingPlayerMatch;
+
+    private volatile long latencyMillisecond;
+    private volatile long latencyJitterMillisecond;
+
+    /**
+     * Constructs a mock server listening on a port.
+     *
+     * @param port The port to listen on, 0 for any free port.
+     * @throws IOException If the server could not bind the port.
+     */
+    public MockGameServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        // every exchange on its own thread, matchmaking requests wait for an opponent
+        server.setExecutor(requestExecutor);
+
+        createContext(LOGIN_PATH, this::login);
+        createContext(CREATE_ACCOUNT_PATH, this::createAccount);
+        createContext(TOP_100_PATH, this::getTop100);
+        createContext(FIND_PLAYER_PATH, this::findPlayer);
+        createContext(FIND_MATCH_PATH, this::findMatch);
+        createContext(JOIN_INVITATION_PATH, this::joinInvitation);
+        createContext(CREATE_INVITATION_PATH, this::createInvitation);
+        createContext(CANCEL_INVITATION_PATH, this::cancelInvitation);
+        createContext(SUBMIT_MOVE_PATH, this::submitMove);
+        createBinaryContext(SUBMIT_MOVE_BINARY_PATH, this::submitMoveBinary);
+        createContext(GET_PLAYERS_PATH, this::getPlayers);
+        createContext(GET_MOVES_PATH, this::getMovesSince);
+        createContext(RESIGN_PATH, this::resign);
+        createContext(MATCH_HISTORY_PATH, this::getMatchHistory);
+
+        pushServer = new MockPushServer(0, new MockPushServer.FrameHandler() {
+            @Override
+            public void handle(String token, PushFrame frame) {
+                handlePushFrame(token, frame);
+            }
+
+            @Override
+            public void disconnected(String token) {
+                Account account = accountsByToken.get(token);
+                if (account != null)
+                    stopWaiting(account);
+                for (OnlineGame game : games.values())
+                    game.spectators.remove(token);
+            }
+        });
+    }
+
+    /**
+     * Starts the server.
+     * The move tables of the game logic are initialized first, so the first match is not slower than the others.
+     */
+    public void start() {
+        new ChessGame();
+        server.start();
+        pushServer.start();
+    }
+
+    /**
+     * Stops the server.
+     */
+    public void stop() {
+        server.stop(0);
+        pushServer.stop();
+        requestExecutor.shutdownNow();
+        pushExecutor.shutdownNow();
+    }
+
+    /**
+     * Gets the URL of the server, to set as the URL of the client.
+     *
+     * @return The URL of the server.
+     */
+    public String getUrl() {
+        return "http://" + RMI_HOST + ":" + server.getAddress().getPort();
+    }
+
+    /**
+     * Gets the address of the push server, to set as the push address of the client.
+     *
+     * @return The address of the push server, as host:port.
+     */
+    public String getPushAddress() {
+        return RMI_HOST + ":" + pushServer.getPort();
+    }
+
+    /**
+     * Sets the latency injected into every response.
+     * Each response is delayed by the latency plus a random jitter of up to the given jitter.
+     *
+     * @param latencyMillisecond       The latency in milliseconds.
+     * @param latencyJitterMillisecond The maximum jitter in milliseconds.
+     */
+    public void setLatency(long latencyMillisecond, long latencyJitterMillisecond) {
+        this.latencyMillisecond = latencyMillisecond;
+        this.latencyJitterMillisecond = latencyJitterMillisecond;
+    }
+
+    /**
+     * Creates an account directly, without a request, such as the accounts of a load test.
+     *
+     * @param userName The user name.
+     * @param password The password.
+     * @param rating   The rating.
+     * @return The token of the account.
+     */
+    public String addAccount(String userName, String password, int rating) {
+        Account account = new Account(userName, password, rating, UUID.randomUUID().toString());
+        if (accountsByName.putIfAbsent(userName, account) != null)
+            return accountsByName.get(userName).token;
+        accountsByToken.put(account.token, account);
+        return account.token;
+    }
+
+    /**
+     * Gets the number of moves played on the server, in all the games.
+     *
+     * @return The number of moves.
+     */
+    public int getMovesPlayed() {
+        int moves = 0;
+        for (OnlineGame game : games.values())
+            moves += game.movesPlayed;
+        synchronized (finishedGames) {
+            for (OnlineGame game : finishedGames)
+                moves += game.movesPlayed;
+        }
+        return moves;
+    }
+
+    /**
+     * Handles a login request. The payload is the user name and password, the response is the token.
+     *
+     * @param body The payload of the request.
+     * @param path The path of the request.
+     * @return The response.
+     */
+    private Response login(String body, String path) {
+        Account account = accountsByName.get(String.valueOf(readField(body, USER_NAME_KEY)));
+        if (account == null || !account.password.equals(readField(body, PASSWORD_KEY)))
+            return new Response(HTTP_UNAUTHORIZED, WRONG_LOGIN_TEXT);
+        return new Response(HTTP_OK, account.token);
+    }
+
+    /**
+     * Handles a request to create an account. The payload is the user, the response is the token.
+     *
+     * @param body The payload of the request.
+     * @param path The path of the request.
+     * @return The response.
+     */
+    private Response createAccount(String body, String path) {
+        String userName = readField(body, USER_NAME_KEY);
+        String password = readField(body, PASSWORD_KEY);
+        if (userName == null || password == null)
+            return new Response(HTTP_BAD_REQUEST, MISSING_FIELDS_TEXT);
+
+        String rating = readField(body, RATING_KEY);
+        Account account = new Account(userName, password, rating == null ? DEFAULT_RATING : Integer.parseInt(rating),
+                UUID.randomUUID().toString());
+        account.email = readField(body, EMAIL_KEY);
+        if (accountsByName.putIfAbsent(userName, account) != null)
+            return new Response(HTTP_CONFLICT, USER_EXISTS_TEXT);
+        accountsByToken.put(account.token, account);
+        return new Response(HTTP_OK, account.token);
+    }
+
+    /**
+     * Handles a request for the leaderboard, the players with the highest rating.
+     *
+     * @param body The payload of the request.
+     * @param path The path of the request.
+     * @return The response.
+     */
+    private Response getTop100(String body, String path) {
+        List<String> topPlayers = accountsByName.values().stream()
+                .sorted(Comparator.comparingInt((Account account) -> account.rating).reversed())
+                .limit(TOP_PLAYERS)
+                .map(Account::toString)
+                .toList();
+        return new Response(HTTP_OK, topPlayers.toString());
+    }
+
+    /**
+     * Handles a request to find a player by user name.
+     *
+     * @param body The payload of the request.
+     * @param path The path of the request.
+     * @return The response.
+     */
+    private Response findPlayer(String body, String path) {
+        Account account = accountsByName.get(String.valueOf(readField(body, USER_NAME_KEY)));
+        return account == null ? new Response(HTTP_NOT_FOUND, PLAYER_NOT_FOUND_TEXT)
+                : new Response(HTTP_OK, account.toString());
+    }
+
+    /**
+     * Handles a request to find a match against a random opponent.
+     * The request waits until another player looks for a match, and the response is the ID of the game.
+     * The player who waited plays white.
+     *
+     * @param body The payload of the request.
+     * @param path The path of the request.
+     * @return The response.
+     */
+    private Response findMatch(String body, String path) {
+        Account account = authenticate(body);
+        if (account == null)
+            return new Response(HTTP_UNAUTHORIZED, UNAUTHORIZED_TEXT);
+
+        CompletableFuture<Integer> match = joinMatchmaking(account);
+        try {
+            return new Response(HTTP_OK, String.valueOf(match.get(MATCHMAKING_TIMEOUT_MILLISECOND,
+                    TimeUnit.MILLISECONDS)));
+        } catch (TimeoutException | ExecutionException e) {
+            stopWaiting(match);
+            return new Response(HTTP_REQUEST_TIMEOUT, NO_OPPONENT_TEXT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stopWaiting(match);
+            return new Response(HTTP_REQUEST_TIMEOUT, NO_OPPONENT_TEXT);
+        }
+    }
+
+    /**
+     * Handles a frame a client sent on its push channel.
+     * A seek joins the matchmaking the same as a find match request, but waits for as long as the channel is open,
+     * and the match is pushed to the client when it is found.
+     *
+     * @param token The token of the user who sent the frame.
+     * @param frame The frame.
+     */
+    private void handlePushFrame(String token, PushFrame frame) {
+        Account account = accountsByToken.get(token);
+        if (account == null)
+            return;
+
+        if (frame.getType() == PushFrame.SEEK_MATCH)
+            joinMatchmaking(account).thenAccept(gameID -> pushServer.send(token, PushFrame.matchFound(gameID)));
+        else if (frame.getType() == PushFrame.CANCEL_SEEK)
+            stopWaiting(account);
+        else if (frame.getType() == PushFrame.SPECTATE)
+            spectate(token, frame.getGameID());
+        else if (frame.getType() == PushFrame.STOP_SPECTATING) {
+            OnlineGame game = games.get(frame.getGameID());
+            if (game != null)
+                game.spectators.remove(token);
+        }
+    }
+
+    /**
+     * Adds a spectator to a game, and pushes the keyframe of the game with the moves played after it.
+     * Both are done under the lock of the game, the same lock moves are played and broadcast under,
+     * so the spectator gets every move exactly once, either after the keyframe or as a broadcast move.
+     * A spectator of a game that is not played is told the game is over.
+     *
+     * @param token  The token of the spectator.
+     * @param gameID The ID of the game.
+     */
+    private void spectate(String token, int gameID) {
+        OnlineGame game = games.get(gameID);
+        if (game == null) {
+            pushServer.send(token, PushFrame.gameOver(gameID));
+            return;
+        }
+
+        synchronized (game) {
+            if (game.winner != null || game.drawn) {
+                pushServer.send(token, PushFrame.gameOver(gameID));
+                return;
+            }
+
+            short[] movesAfter = new short[game.moves.size() - game.keyframePlies];
+            for (int i = 0; i < movesAfter.length; i++)
+                movesAfter[i] = game.moves.get(game.keyframePlies + i);
+            game.spectators.add(token);
+            // the frame is encoded right away, before the keyframe is refreshed
+            pushServer.send(token, PushFrame.gamePosition(new PositionMessage(gameID, game.keyframe, movesAfter)));
+        }
+    }
+
+    /**
+     * Looks for an opponent for a player.
+     * If another player is waiting, a game is created at once, and the player who waited plays white.
+     * Otherwise the player waits for the next player who looks for a match.
+     *
+     * @param account The player.
+     * @return A future of the ID of the game, completed when an opponent is found.
+     */
+    private CompletableFuture<Integer> joinMatchmaking(Account account) {
+        synchronized (matchmakingLock) {
+            if (waitingPlayer != null && waitingPlayer != account) {
+                OnlineGame game = createGame(waitingPlayer, account);
+                waitingPlayerMatch.complete(game.gameID);
+                waitingPlayer = null;
+                waitingPlayerMatch = null;
+                return CompletableFuture.completedFuture(game.gameID);
+            }
+
+            if (waitingPlayer == null) {
+                waitingPlayer = account;
+                waitingPlayerMatch = new CompletableFuture<>();
+            }
+            return waitingPlayerMatch;
+        }
+    }
+
+    /**
+     * Stops a player from waiting for an opponent, if the player is waiting.
+     *
+     * @param account The player.
+     */
+    private void stopWaiting(Account account) {
+        synchronized (matchmakingLock) {
+            if (waitingPlayer == account) {
+                waitingPlayer = null;
+                waitingPlayerMatch = null;
+            }
+        }
+    }
+
+    /**
+     * Stops waiting for an opponent, unless an opponent was found meanwhile.
+     *
+     * @param match The match the player waited for.
+     */
+    private void stopWaiting(CompletableFuture<Integer> match) {
+        synchronized (matchmakingLock) {
+            if (waitingPlayerMatch == match) {
+                waitingPlayer = null;
+                waitingPlayerMatch = null;
+            }
+        }
+    }
+
+    /**
+     * Handles a request to create an invitation to a game. The response is the code of the invitation.
+     *
+     * @param body The payload of the request.
+     * @param path The path of the request.
+     * @return The response.
+     */
+    private Response createInvitation(String body, String path) {
+        Account account = authenticate(body);
+        if (account == null)
+            return new Response(HTTP_UNAUTHORIZED, UNAUTHORIZED_TEXT);
+
+        int code;
+        do {
+            code = ThreadLocalRandom.current().nextInt(MIN_INVITATION_CODE, MAX_INVITATION_CODE);
+        } while (invitations.putIfAbsent(code, account) != null);
+        return new Response(HTTP_OK, String.valueOf(code));
+    }
+
+    /**
+     * Handles a request to cancel the invitations of a player.
+     *
+     * @param body The payload of the request.
+     * @param path The path of the request.
+     * @return The response.
+     */
+    private Response cancelInvitation(String body, String path) {
+        Account account = authenticate(body);
+        if (account == null)
+            return new Response(HTTP_UNAUTHORIZED, UNAUTHORIZED_TEXT);
+
+        invitations.values().removeIf(inviter -> inviter == account);
+        return new Response(HTTP_OK, OK_TEXT);
+    }
+
+    /**
+     * Handles a request to join a game by the code of its invitation.
+     * The inviter plays white, and is told the ID of the game through its GamePlayService.
+     *
+     * @param body The payload of the request.
+     * @param path The path of the request, ending with the code of the invitation.
+     * @return The response.
+     */
+    private Response joinInvitation(String body, String path) {
+        Account account = authenticate(body);
+        if (account == null)
+            return new Response(HTTP_UNAUTHORIZED, UNAUTHORIZED_TEXT);
+
+        Integer code = parseIdSuffix(path, JOIN_INVITATION_PATH);
+        Account inviter = code == null ? null : invitations.remove(code);
+        if (inviter == null)
+            return new Response(HTTP_NOT_FOUND, INVITATION_NOT_FOUND_TEXT);
+
+        OnlineGame game = createGame(inviter, account);
+        push(inviter, PushFrame.challengeAccepted(game.gameID), client -> client.challengeAccept(game.gameID));
+        return new Response(HTTP_OK, String.valueOf(game.gameID));
+    }
+
+    /**
+     * Handles a move submitted by a player. The move is played on the game of the match if it is legal,
+     * and pushed to the opponent. The response is the status of the game after the move.
+     *
+     * @param body The payload of the request, the user and the move.
+     * @param path The path of the request, ending with the ID of the game.
+     * @return The response.
+     */
+    private Response submitMove(String body, String path) {
+        Account account = authenticate(body);
+        if (account == null)
+            return new Response(HTTP_UNAUTHORIZED, UNAUTHORIZED_TEXT);
+
+        String currentSquare = readField(body, CURRENT_SQUARE_KEY);
+        String targetSquare = readField(body, TARGET_SQUARE_KEY);
+        String promotion = readField(body, PROMOTION_KEY);
+        if (currentSquare == null || targetSquare == null)
+            return new Response(HTTP_BAD_REQUEST, MISSING_FIELDS_TEXT);
+        ChessMove move = new ChessMove(Byte.parseByte(currentSquare), Byte.parseByte(targetSquare),
+                promotion == null || promotion.isEmpty() ? ChessGame.PROMOTE_TO_QUEEN : promotion.charAt(0));
+        return playMove(account, parseIdSuffix(path, SUBMIT_MOVE_PATH), move, MoveMessage.NO_CLOCK);
+    }
+
+    /**
+     * Handles a move submitted by a player as a binary MoveMessage followed by the token of the player.
+     *
+     * @param body The payload of the request.
+     * @param path The path of the request, ending with the ID of the game.
+     * @return The response.
+     */
+    private Response submitMoveBinary(byte[] body, String path) {
+        Account account = accountsByToken.get(MoveMessage.readSubmitToken(body));
+        if (account == null)
+            return new Response(HTTP_UNAUTHORIZED, UNAUTHORIZED_TEXT);
+
+        MoveMessage moveMessage;
+        try {
+            moveMessage = MoveMessage.readFrom(ByteBuffer.wrap(body));
+        } catch (ProtocolException e) {
+            return new Response(HTTP_BAD_REQUEST, e.getMessage());
+        }
+        return playMove(account, parseIdSuffix(path, SUBMIT_MOVE_BINARY_PATH), moveMessage.getMove(),
+                moveMessage.getClockMillisecond());
+    }
+
+    /**
+     * Plays a move of a player on the game of the match if it is legal, and pushes it to the opponent
+     * with its sequence number in the game, and the remaining time the player reported, relayed as is.
+     *
+     * @param account          The player.
+     * @param gameID           The ID of the game, null if the request had none.
+     * @param move             The move.
+     * @param clockMillisecond The remaining time of the player, or MoveMessage.NO_CLOCK.
+     * @return The response, the status of the game after the move.
+     */
+    private Response playMove(Account account, Integer gameID, ChessMove move, int clockMillisecond) {
+        OnlineGame game = gameID == null ? null : games.get(gameID);
+        if (game == null)
+            return new Response(HTTP_NOT_FOUND, GAME_NOT_FOUND_TEXT);
+
+        int gameStatus;
+        int sequence;
+        synchronized (game) {
+            if (game.winner != null || game.drawn)
+                return new Response(HTTP_BAD_REQUEST, GAME_OVER_TEXT);
+            if (game.playerToPlay() != account)
+                return new Response(HTTP_BAD_REQUEST, NOT_YOUR_TURN_TEXT);
+
+            gameStatus = game.chessGame.executeMove(move.getCurrentPieceSquare(), move.getTargetSquare(),
+                    move.getTypeOfPieceToPromoteTo());
+            if (gameStatus == ChessGame.MOVE_NOT_EXECUTED)
+                return new Response(HTTP_BAD_REQUEST, ILLEGAL_MOVE_TEXT);
+            game.moves.add(move.toPackedMove());
+            sequence = ++game.movesPlayed;
+            if (sequence % KEYFRAME_PLIES == 0) {
+                game.chessGame.copyTo(game.keyframe);
+                game.keyframePlies = sequence;
+            }
+
+            // a single frame for all the spectators, under the lock so it can't pass the keyframe of a new one
+            pushServer.broadcast(game.spectators, PushFrame.gameMove(new MoveMessage(game.gameID, sequence,
+                    move.toPackedMove(), clockMillisecond)));
+        }
+
+        push(game.opponentOf(account), PushFrame.opponentMove(new MoveMessage(game.gameID, sequence,
+                move.toPackedMove(), clockMillisecond)), client -> client.sendSequencedMove(game.gameID,
+                sequence, move));
+        if (gameStatus == ChessGame.CHECKMATE)
+            finishGame(game, account, false);
+        else if (gameStatus == ChessGame.DRAW)
+            finishGame(game, null, true);
+        return new Response(HTTP_OK, String.valueOf(gameStatus));
+    }
+
+    /**
+     * Handles a request for the players of a game, white first.
+     *
+     * @param body The payload of the request.
+     * @param path The path of the request, ending with the ID of the game.
+     * @return The response.
+     */
+    private Response getPlayers(String body, String path) {
+        Integer gameID = parseIdSuffix(path, GET_PLAYERS_PATH);
+        OnlineGame game = gameID == null ? null : games.get(gameID);
+        if (game == null)
+            return new Response(HTTP_NOT_FOUND, GAME_NOT_FOUND_TEXT);
+        return new Response(HTTP_OK, List.of(game.white, game.black).toString());
+    }
+
+    /**
+     * Handles a request for the moves of a game played after a move, for a client that missed moves.
+     * The response is the packed moves, in order.
+     *
+     * @param body The payload of the request.
+     * @param path The path of the request, ending with the ID of the game and the sequence number of the move.
+     * @return The response.
+     */
+    private Response getMovesSince(String body, String path) {
+        String[] ids = path.substring(GET_MOVES_PATH.length()).split("/");
+        OnlineGame game;
+        int afterSequence;
+        try {
+            game = games.get(Integer.parseInt(ids[0]));
+            afterSequence = ids.length > 1 ? Integer.parseInt(ids[1]) : 0;
+        } catch (NumberFormatException e) {
+            return new Response(HTTP_BAD_REQUEST, e.getMessage());
+        }
+        if (game == null)
+            return new Response(HTTP_NOT_FOUND, GAME_NOT_FOUND_TEXT);
+
+        synchronized (game) {
+            return new Response(HTTP_OK, game.moves.subList(Math.min(Math.max(afterSequence, 0), game.moves.size()),
+                    game.moves.size()).toString());
+        }
+    }
+
+    /**
+     * Handles the resignation of a player. The opponent wins, and is told through its GamePlayService.
+     *
+     * @param body The payload of the request.
+     * @param path The path of the request, ending with the ID of the game.
+     * @return The response.
+     */
+    private Response resign(String body, String path) {
+        Account account = authenticate(body);
+        if (account == null)
+            return new Response(HTTP_UNAUTHORIZED, UNAUTHORIZED_TEXT);
+
+        Integer gameID = parseIdSuffix(path, RESIGN_PATH);
+        OnlineGame game = gameID == null ? null : games.get(gameID);
+        if (game == null || (game.white != account && game.black != account))
+            return new Response(HTTP_NOT_FOUND, GAME_NOT_FOUND_TEXT);
+
+        Account opponent = game.opponentOf(account);
+        finishGame(game, opponent, false);
+        push(opponent, PushFrame.enemyResigned(game.gameID), GamePlayService::enemyResigned);
+        return new Response(HTTP_OK, OK_TEXT);
+    }
+
+    /**
+     * Handles a request for the last games of a player.
+     *
+     * @param body The payload of the request.
+     * @param path The path of the request.
+     * @return The response.
+     */
+    private Response getMatchHistory(String body, String path) {
+        Account account = accountsByName.get(String.valueOf(readField(body, USER_NAME_KEY)));
+        if (account == null)
+            return new Response(HTTP_NOT_FOUND, PLAYER_NOT_FOUND_TEXT);
+
+        List<String> history = new ArrayList<>();
+        synchronized (finishedGames) {
+            for (int i = finishedGames.size() - 1; i >= 0 && history.size() < MATCH_HISTORY_SIZE; i--) {
+                OnlineGame game = finishedGames.get(i);
+                if (game.white == account || game.black == account)
+                    history.add(game.toString());
+            }
+        }
+        return new Response(HTTP_OK, history.toString());
+    }
+
+    /**
+     * Creates a game between two players.
+     *
+     * @param white The player who plays white.
+     * @param black The player who plays black.
+     * @return The game.
+     */
+    private OnlineGame createGame(Account white, Account black) {
+        OnlineGame game = new OnlineGame(nextGameID.getAndIncrement(), white, black);
+        games.put(game.gameID, game);
+        return game;
+    }
+
+    /**
+     * Finishes a game, and moves it to the match history.
+     *
+     * @param game   The game.
+     * @param winner The player who won, null for a draw.
+     * @param drawn  True if the game is a draw.
+     */
+    private void finishGame(OnlineGame game, Account winner, boolean drawn) {
+        synchronized (game) {
+            if (game.winner != null || game.drawn)
+                return;
+            game.winner = winner;
+            game.drawn = drawn;
+            pushServer.broadcast(game.spectators, PushFrame.gameOver(game.gameID));
+            game.spectators.clear();
+        }
+        games.remove(game.gameID);
+        synchronized (finishedGames) {
+            finishedGames.add(game);
+        }
+    }
+
+    /**
+     * Gets the account a payload belongs to, by the token in the payload.
+     *
+     * @param body The payload of the request.
+     * @return The account, or null if the token is missing or is not of the user in the payload.
+     */
+    private Account authenticate(String body) {
+        String token = readField(body, TOKEN_KEY);
+        Account account = token == null ? null : accountsByToken.get(token);
+        String userName = readField(body, USER_NAME_KEY);
+        return account != null && (userName == null || account.userName.equals(userName)) ? account : null;
+    }
+
+    /**
+     * Pushes an event to a player through its push channel, or if it has none, calls its GamePlayService
+     * in the background, so the response to the request is not delayed.
+     * Players that did not bind a GamePlayService, such as players of a load test, are skipped.
+     *
+     * @param account The player.
+     * @param frame   The event as a frame of the push channel.
+     * @param call    The event as a call to the GamePlayService.
+     */
+    private void push(Account account, PushFrame frame, RemoteCall call) {
+        if (pushServer.send(account.token, frame))
+            return;
+
+        pushExecutor.execute(() -> {
+            try {
+                GamePlayService client = clients.get(account.token);
+                if (client == null) {
+                    client = (GamePlayService) LocateRegistry.getRegistry(RMI_HOST, GamePlayService.PORT)
+                            .lookup(account.token);
+                    clients.put(account.token, client);
+                }
+                call.call(client);
+            } catch (NotBoundException | RemoteException e) {
+                // the player is not reachable, forget it so the next push looks it up again
+                clients.remove(account.token);
+            }
+        });
+    }
+
+    /**
+     * Creates a context of an endpoint, whose responses are delayed by the injected latency.
+     *
+     * @param path     The path of the endpoint.
+     * @param endpoint The handler of the endpoint.
+     */
+    private void createContext(String path, Endpoint endpoint) {
+        createBinaryContext(path, (body, requestPath) -> endpoint.handle(new String(body, StandardCharsets.UTF_8),
+                requestPath));
+    }
+
+    /**
+     * Creates a context of an endpoint with binary payloads, whose responses are delayed by the injected latency.
+     *
+     * @param path     The path of the endpoint.
+     * @param endpoint The handler of the endpoint.
+     */
+    private void createBinaryContext(String path, BinaryEndpoint endpoint) {
+        server.createContext(path, exchange -> {
+            try {
+                byte[] body = exchange.getRequestBody().readAllBytes();
+                Response response = endpoint.handle(body, exchange.getRequestURI().getPath());
+                injectLatency();
+                send(exchange, response);
+            } catch (RuntimeException e) {
+                send(exchange, new Response(HTTP_BAD_REQUEST, String.valueOf(e.getMessage())));
+            }
+        });
+    }
+
+    /**
+     * Delays the response by the injected latency.
+     */
+    private void injectLatency() {
+        long delay = latencyMillisecond + (latencyJitterMillisecond > 0
+                ? ThreadLocalRandom.current().nextLong(latencyJitterMillisecond + 1) : 0);
+        if (delay <= 0)
+            return;
+
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Sends a response.
+     *
+     * @param exchange The exchange of the request.
+     * @param response The response.
+     * @throws IOException If the response could not be sent.
+     */
+    private static void send(HttpExchange exchange, Response response) throws IOException {
+        byte[] body = response.body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set(CONTENT_TYPE_HEADER, TEXT_CONTENT_TYPE);
+        exchange.sendResponseHeaders(response.status, body.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(body);
+        }
+    }
+
+    /**
+     * Parses the ID at the end of the path of a request, such as the ID of a game.
+     *
+     * @param path   The path of the request.
+     * @param prefix The path of the endpoint, before the ID.
+     * @return The ID, or null if the path does not end with a number.
+     */
+    private static Integer parseIdSuffix(String path, String prefix) {
+        try {
+            return Integer.parseInt(path.substring(prefix.length()));
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reads the value of a field from a JSON payload, wherever the field is nested.
+     * The payloads of the client have no two fields with the same name, so the first one is the one.
+     *
+     * @param body The payload.
+     * @param key  The name of the field.
+     * @return The value of the field as a string, or null if the field is missing or null.
+     */
+    private static String readField(String body, String key) {
+        String quotedKey = '"' + key + '"';
+        int position = body.indexOf(quotedKey);
+        if (position == -1)
+            return null;
+
+        position = body.indexOf(':', position + quotedKey.length());
+        if (position == -1)
+            return null;
+        position++;
+        while (position < body.length() && Character.isWhitespace(body.charAt(position)))
+            position++;
+        if (position >= body.length())
+            return null;
+
+        if (body.charAt(position) != '"') {
+            int end = position;
+            while (end < body.length() && ",}] \t\r\n".indexOf(body.charAt(end)) == -1)
+                end++;
+            String value = body.substring(position, end);
+            return "null".equals(value) ? null : value;
+        }
+
+        StringBuilder value = new StringBuilder();
+        for (position++; position < body.length() && body.charAt(position) != '"'; position++) {
+            char c = body.charAt(position);
+            if (c == '\\' && position + 1 < body.length()) {
+                char escaped = body.charAt(++position);
+                switch (escaped) {
+                    case 'n' -> value.append('\n');
+                    case 'r' -> value.append('\r');
+                    case 't' -> value.append('\t');
+                    case 'b' -> value.append('\b');
+                    case 'f' -> value.append('\f');
+                    case 'u' -> {
+                        value.append((char) Integer.parseInt(body, position + 1, position + 5, 16));
+                        position += 4;
+                    }
+                    default -> value.append(escaped);
+                }
+            } else {
+                value.append(c);
+            }
+        }
+        return value.toString();
+    }
+
+    /**
+     * Runs the mock server until the process is stopped.
+     *
+     * @param args The port to listen on, optional, and the injected latency and jitter in milliseconds, optional.
+     * @throws IOException If the server could not bind the port.
+     */
+    public static void main(String[] args) throws IOException {
+        MockGameServer mockServer = new MockGameServer(args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT);
+        mockServer.setLatency(args.length > 1 ? Long.parseLong(args[1]) : 0, args.length > 2
+                ? Long.parseLong(args[2]) : 0);
+        mockServer.start();
+        System.out.println("Mock game server listening on " + mockServer.getUrl()
+                + ", run the client with -D" + ServerRequestHandler.SERVER_URL_PROPERTY + "=" + mockServer.getUrl()
+                + " and optionally -D" + PushChannel.PUSH_ADDRESS_PROPERTY + "=" + mockServer.getPushAddress());
+    }
+
+    /**
+     * A handler of an endpoint.
+     */
+    @FunctionalInterface
+    private interface Endpoint {
+        /**
+         * Handles a request.
+         *
+         * @param body The payload of the request.
+         * @param path The path of the request.
+         * @return The response.
+         */
+        Response handle(String body, String path);
+    }
+
+    /**
+     * A handler of an endpoint with binary payloads.
+     */
+    @FunctionalInterface
+    private interface BinaryEndpoint {
+        /**
+         * Handles a request.
+         *
+         * @param body The payload of the request.
+         * @param path The path of the request.
+         * @return The response.
+         */
+        Response handle(byte[] body, String path);
+    }
+
+    /**
+     * A call to the GamePlayService of a client.
+     */
+    @FunctionalInterface
+    private interface RemoteCall {
+        /**
+         * Calls the GamePlayService of a client.
+         *
+         * @param client The GamePlayService of the client.
+         * @throws RemoteException If the call failed.
+         */
+        void call(GamePlayService client) throws RemoteException;
+    }
+
+    /**
+     * A response to a request.
+     *
+     * @param status The status code.
+     * @param body   The body.
+     */
+    private record Response(int status, String body) {
+    }
+
+    /**
+     * An account of a player.
+     */
+    private static class Account {
+        private final String userName;
+        private final String password;
+        private final String token;
+        private volatile int rating;
+        private String email;
+
+        /**
+         * Constructs an account.
+         *
+         * @param userName The user name.
+         * @param password The password.
+         * @param rating   The rating.
+         * @param token    The token of the player.
+         */
+        private Account(String userName, String password, int rating, String token) {
+            this.userName = userName;
+            this.password = password;
+            this.rating = rating;
+            this.token = token;
+        }
+
+        /**
+         * Returns the account in the format of GameUser, without its private fields.
+         *
+         * @return The account as the server sends it.
+         */
+        @Override
+        public String toString() {
+            return "GameUser{userName='" + userName + "', rating=" + rating + "}";
+        }
+    }
+
+    /**
+     * A game between two players, played on a ChessGame that validates the moves.
+     */
+    private static class OnlineGame {
+        private final int gameID;
+        private final Account white;
+        private final Account black;
+        private final int whiteRating;
+        private final int blackRating;
+        private final ChessGame chessGame = new ChessGame();
+        private final List<Short> moves = new ArrayList<>();
+        // the position spectators join from, and the number of plies played in it
+        private final PackedPosition keyframe = new PackedPosition(chessGame);
+        private int keyframePlies;
+        private final Set<String> spectators = ConcurrentHashMap.newKeySet();
+        private int movesPlayed;
+        private Account winner;
+        private boolean drawn;
+
+        /**
+         * Constructs a game.
+         *
+         * @param gameID The ID of the game.
+         * @param white  The player who plays white.
+         * @param black  The player who plays black.
+         */
+        private OnlineGame(int gameID, Account white, Account black) {
+            this.gameID = gameID;
+            this.white = white;
+            this.black = black;
+            this.whiteRating = white.rating;
+            this.blackRating = black.rating;
+        }
+
+        /**
+         * Gets the player whose turn it is.
+         *
+         * @return The player to play.
+         */
+        private Account playerToPlay() {
+            return chessGame.getPlayerToPlay() == GameLogicUtilities.WHITE ? white : black;
+        }
+
+        /**
+         * Gets the opponent of a player in the game.
+         *
+         * @param account The player.
+         * @return The opponent.
+         */
+        private Account opponentOf(Account account) {
+            return account == white ? black : white;
+        }
+
+        /**
+         * Returns the game in the format of the match history the server sends.
+         *
+         * @return The game as the server sends it.
+         */
+        @Override
+        public String toString() {
+            return "OnlineChessGame{gameID=" + gameID + ", whiteUserName='" + white.userName
+                    + "', blackUserName='" + black.userName + "', winnerName='"
+                    + (winner == null ? "" : winner.userName) + "', whitePlayerRating=" + whiteRating
+                    + ", blackPlayerRating=" + blackRating + "}";
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.example.chessfrontend.testserver;
+
+import com.example.chessfrontend.servercommunication.PushFrame;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A reference push server, that holds the push channels of the clients on a single NIO selector thread.
+ * A connection belongs to the user whose token it said hello with, and the frames pushed to the user
+ * are queued on its connection and written when the socket can take them, so a slow client never blocks the others.
+ * The frames the clients send after the hello, such as match seeks, are handed to the handler of the server.
+ * <p>
+ * A frame broadcast to many users, such as a move of a game to its spectators, is encoded once,
+ * and the connections share its bytes, each with its own position, so the fan-out costs no copy per spectator.
+ */
+public class MockPushServer {
+    private static final String SELECTOR_THREAD_NAME = "mock-push-server";
+    private static final int READ_BUFFER_BYTES = 4 * PushFrame.MAX_FRAME_BYTES;
+
+    private final ServerSocketChannel serverChannel;
+    private final Selector selector;
+    private final FrameHandler frameHandler;
+    private final Map<String, Connection> connectionsByToken = new ConcurrentHashMap<>();
+    // connections with frames queued by other threads, to be registered for writing by the selector thread
+    private final Queue<Connection> pendingWrites = new ConcurrentLinkedQueue<>();
+    private final Thread selectorThread;
+
+    /**
+     * Constructs a push server listening on a port.
+     *
+     * @param port         The port to listen on, 0 for any free port.
+     * @param frameHandler The handler of the frames the clients send.
+     * @throws IOException If the server could not bind the port.
+     */
+    public MockPushServer(int port, FrameHandler frameHandler) throws IOException {
+        this.frameHandler = frameHandler;
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        selectorThread = new Thread(this::runSelector, SELECTOR_THREAD_NAME);
+        selectorThread.setDaemon(true);
+    }
+
+    /**
+     * Starts the server.
+     */
+    public void start() {
+        selectorThread.start();
+    }
+
+    /**
+     * Stops the server, and closes the connections of the clients.
+     */
+    public void stop() {
+        try {
+            selector.close();
+            serverChannel.close();
+        } catch (IOException e) {
+            // the server is stopped anyway
+        }
+    }
+
+    /**
+     * Gets the port the server listens on.
+     *
+     * @return The port.
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Checks if a user is connected.
+     *
+     * @param token The token of the user.
+     * @return True if the user said hello on a connection that is still open.
+     */
+    public boolean isConnected(String token) {
+        return connectionsByToken.containsKey(token);
+    }
+
+    /**
+     * Pushes a frame to a user.
+     *
+     * @param token The token of the user.
+     * @param frame The frame.
+     * @return True if the user is connected and the frame was queued, false if it should be delivered another way.
+     */
+    public boolean send(String token, PushFrame frame) {
+        Connection connection = connectionsByToken.get(token);
+        if (connection == null)
+            return false;
+
+        connection.outbox.add(frame.encode());
+        pendingWrites.add(connection);
+        selector.wakeup();
+        return true;
+    }
+
+    /**
+     * Pushes the same frame to many users, encoding it once.
+     *
+     * @param tokens The tokens of the users.
+     * @param frame  The frame.
+     * @return The number of users the frame was queued for, those who are connected.
+     */
+    public int broadcast(Iterable<String> tokens, PushFrame frame) {
+        ByteBuffer encoded = null;
+        int queued = 0;
+        for (String token : tokens) {
+            Connection connection = connectionsByToken.get(token);
+            if (connection == null)
+                continue;
+            if (encoded == null)
+                encoded = frame.encode();
+
+            // a view of the shared bytes, written at the pace of the connection
+            connection.outbox.add(encoded.duplicate());
+            pendingWrites.add(connection);
+            queued++;
+        }
+        if (queued > 0)
+            selector.wakeup();
+        return queued;
+    }
+
+    /**
+     * Runs the selector loop until the server is stopped.
+     */
+    private void runSelector() {
+        try {
+            while (selector.isOpen()) {
+                selector.select();
+                Connection connection;
+                while ((connection = pendingWrites.poll()) != null)
+                    if (connection.key.isValid())
+                        connection.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+
+                for (SelectionKey key : selector.selectedKeys()) {
+                    try {
+                        if (key.isAcceptable())
+                            accept();
+                        else {
+                            if (key.isReadable())
+                                read((Connection) key.attachment());
+                            if (key.isValid() && key.isWritable())
+                                write((Connection) key.attachment());
+                        }
+                    } catch (IOException e) {
+                        if (key.attachment() != null)
+                            disconnect((Connection) key.attachment());
+                    }
+                }
+                selector.selectedKeys().clear();
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            // the server was stopped
+        }
+    }
+
+    /**
+     * Accepts a new connection.
+     *
+     * @throws IOException If the connection could not be set up.
+     */
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null)
+            return;
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        Connection connection = new Connection(channel);
+        connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+    }
+
+    /**
+     * Reads the frames a client sent. The first frame must be the hello of the client.
+     *
+     * @param connection The connection of the client.
+     * @throws IOException If the connection failed or the client sent an invalid frame.
+     */
+    private void read(Connection connection) throws IOException {
+        if (connection.channel.read(connection.inbox) == -1) {
+            disconnect(connection);
+            return;
+        }
+
+        connection.inbox.flip();
+        PushFrame frame;
+        while ((frame = PushFrame.read(connection.inbox)) != null) {
+            if (connection.token == null) {
+                if (frame.getType() != PushFrame.HELLO)
+                    throw new IOException("Expected a hello, got a push frame of type " + frame.getType());
+                connection.token = frame.getToken();
+                Connection previous = connectionsByToken.put(connection.token, connection);
+                if (previous != null)
+                    previous.close();
+            } else {
+                frameHandler.handle(connection.token, frame);
+            }
+        }
+        connection.inbox.compact();
+    }
+
+    /**
+     * Writes the frames queued for a client, as much as the socket takes.
+     *
+     * @param connection The connection of the client.
+     * @throws IOException If the connection failed.
+     */
+    private void write(Connection connection) throws IOException {
+        ByteBuffer buffer;
+        while ((buffer = connection.outbox.peek()) != null) {
+            connection.channel.write(buffer);
+            if (buffer.hasRemaining())
+                return;
+            connection.outbox.poll();
+        }
+        connection.key.interestOps(SelectionKey.OP_READ);
+    }
+
+    /**
+     * Closes a connection, and tells the handler its user disconnected.
+     *
+     * @param connection The connection.
+     */
+    private void disconnect(Connection connection) {
+        connection.close();
+        if (connection.token != null && connectionsByToken.remove(connection.token, connection))
+            frameHandler.disconnected(connection.token);
+    }
+
+    /**
+     * A handler of the frames the clients send.
+     */
+    public interface FrameHandler {
+        /**
+         * Handles a frame sent by a client. Called on the selector thread, so it must not block.
+         *
+         * @param token The token of the user who sent the frame.
+         * @param frame The frame.
+         */
+        void handle(String token, PushFrame frame);
+
+        /**
+         * Called when the connection of a user was closed.
+         *
+         * @param token The token of the user.
+         */
+        void disconnected(String token);
+    }
+
+    /**
+     * A connection of a client.
+     */
+    private static class Connection {
+        private final SocketChannel channel;
+        private final ByteBuffer inbox = ByteBuffer.allocate(READ_BUFFER_BYTES);
+        private final Queue<ByteBuffer> outbox = new ConcurrentLinkedQueue<>();
+        private SelectionKey key;
+        private String token;
+
+        /**
+         * Constructs a connection.
+         *
+         * @param channel The socket of the connection.
+         */
+        private Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Closes the connection.
+         */
+        private void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // the connection is closed anyway
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.chessfrontend.testserver;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the bytes a test server sends per endpoint, before and after compression.
+ */
+public class WireStats {
+    private final Map<String, EndpointStats> statsByEndpoint = new ConcurrentHashMap<>();
+
+    /**
+     * Records a response sent by the server.
+     *
+     * @param endpoint  The path of the endpoint.
+     * @param bodyBytes The size of the body before compression.
+     * @param wireBytes The size of the body as it was sent on the wire.
+     */
+    public void record(String endpoint, long bodyBytes, long wireBytes) {
+        EndpointStats stats = statsByEndpoint.computeIfAbsent(endpoint, key -> new EndpointStats());
+        stats.responses.increment();
+        stats.bodyBytes.add(bodyBytes);
+        stats.wireBytes.add(wireBytes);
+    }
+
+    /**
+     * Clears all the counters.
+     */
+    public void reset() {
+        statsByEndpoint.clear();
+    }
+
+    /**
+     * Returns a report of the bytes sent per endpoint, one endpoint per line.
+     *
+     * @return The report.
+     */
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        for (Map.Entry<String, EndpointStats> entry : new TreeMap<>(statsByEndpoint).entrySet()) {
+            EndpointStats stats = entry.getValue();
+            long responses = stats.responses.sum(), bodyBytes = stats.bodyBytes.sum(), wireBytes = stats.wireBytes.sum();
+            report.append(String.format("%-35s responses=%d body=%d B wire=%d B per response=%d B ratio=%.2f%n",
+                    entry.getKey(), responses, bodyBytes, wireBytes, wireBytes / Math.max(responses, 1),
+                    bodyBytes == 0 ? 1.0 : (double) wireBytes / bodyBytes));
+        }
+        return report.toString();
+    }
+
+    /**
+     * The counters of a single endpoint.
+     */
+    private static class EndpointStats {
+        private final LongAdder responses = new LongAdder();
+        private final LongAdder bodyBytes = new LongAdder();
+        private final LongAdder wireBytes = new LongAdder();
+    }
+}
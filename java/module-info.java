@@ -2,6 +2,10 @@ module com.example.chessfrontend {
     requires javafx.controls;
     requires javafx.fxml;
     requires java.rmi;
+    requires java.net.http;
+    requires jdk.httpserver;
+    requires jdk.management;
+    requires static jdk.incubator.vector;
 
     opens com.example.chessfrontend.controllers to javafx.fxml;
 